@@ -21,6 +21,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Base64;
@@ -44,7 +45,7 @@ public class ServiceEmailImpl implements ServiceEmail {
 
     @Override
     public ApiResponse<DtoEmailResponse> sendEmail(final DtoEmailRequest emailRequest) {
-        final I18n i18n = new I18n(httpServletRequest);
+        final I18n i18n = RequestContextHolder.getRequestAttributes() != null ? new I18n(httpServletRequest) : new I18n();
         
         try {
             MimeMessage message = mailSender.createMimeMessage();
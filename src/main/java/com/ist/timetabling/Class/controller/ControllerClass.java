@@ -5,9 +5,12 @@ import com.ist.timetabling.Class.entity.EntityClass;
 import com.ist.timetabling.Class.dto.req.DtoReqClass;
 import com.ist.timetabling.Class.dto.req.DtoReqClassUpdate;
 import com.ist.timetabling.Class.dto.res.DtoResClassCsvUpload;
+import com.ist.timetabling.Class.util.ClassCsvMapper;
 import com.ist.timetabling.Class.util.UtilClassCsv;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Class.service.ServiceClass;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +36,7 @@ public class ControllerClass {
 
     private final ServiceClass serviceClass;
     private final UtilClassCsv utilClassCsv;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<EntityClass>>> getAllClasses(
@@ -108,6 +112,22 @@ public class ControllerClass {
         return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
     }
 
+    @PostMapping(value = "/import/csv/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitClassImportJob(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) Integer organizationId,
+            @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow) {
+
+        DtoReqCsvUpload uploadRequest = DtoReqCsvUpload.builder()
+                .file(file)
+                .organizationId(organizationId)
+                .skipHeaderRow(skipHeaderRow)
+                .build();
+
+        ApiResponse<DtoResCsvImportJob> apiResponse = serviceCsvImportJob.submit(ClassCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
+    }
+
 
     @GetMapping("/import/csv/template")
     public ResponseEntity<String> getClassCsvTemplate() {
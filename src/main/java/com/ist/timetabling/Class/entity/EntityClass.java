@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,6 +19,7 @@ import lombok.NoArgsConstructor;
 
 @Table(name = EntityClass.TABLE)
 @Entity
+@EntityListeners(ListenerTimetableContent.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,9 @@ public interface RepositoryClass extends JpaRepository<EntityClass, Integer> {
     boolean existsByNameAndOrganizationIdAndIsDeletedFalse(@Param("name") final String name,
                                                            @Param("organizationId") final Integer organizationId);
 
+    @Query("SELECT c.name FROM EntityClass c WHERE c.organizationId = :organizationId AND c.isDeleted = false AND c.name IN :names")
+    List<String> findExistingNames(@Param("organizationId") final Integer organizationId, @Param("names") final Collection<String> names);
+
     Page<EntityClass> findByStatusIdAndIsDeletedFalse(final Integer statusId, final Pageable pageable);
 
     Page<EntityClass> findByStatusIdAndOrganizationIdAndIsDeletedFalse(final Integer statusId,
@@ -4,9 +4,15 @@ import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Class.dto.res.DtoResClassCsvUpload;
 import com.ist.timetabling.Class.util.ClassCsvMapper;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
 import com.ist.timetabling.Core.exception.CSVImportException;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Class.entity.EntityClass;
 import com.ist.timetabling.Class.dto.req.DtoReqClass;
 import com.ist.timetabling.Class.dto.req.DtoReqClassUpdate;
@@ -48,17 +54,21 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static com.ist.timetabling.Auth.constant.ConstantI18nAuth.I18N_AUTH_UNAUTHORIZED;
 import static com.ist.timetabling.Class.constant.ConstantClassI18n.*;
 
 @Slf4j
 @Service
-public class ServiceClassImpl implements ServiceClass {
+public class ServiceClassImpl implements ServiceClass, CSVImportJobType {
 
     private final RepositoryClass repositoryClass;
     private final RepositoryOrganization repositoryOrganization;
@@ -70,6 +80,7 @@ public class ServiceClassImpl implements ServiceClass {
     private final RepositoryPlanSetting repositoryPlanSetting;
     private final CSVReaderUtil csvReaderUtil;
     private final ClassCsvMapper classCsvMapper;
+    private final CSVImportPipeline csvImportPipeline;
     private static final int DEFAULT_PAGE_SIZE = 10;
     private static final int DEFAULT_PAGE_NUMBER = 0;
     private static final String ROLE_ADMIN = "ADMIN";
@@ -84,7 +95,8 @@ public class ServiceClassImpl implements ServiceClass {
                             ServiceSchedulePreference serviceSchedulePreference,
                             RepositoryPlanSetting repositoryPlanSetting,
                             CSVReaderUtil csvReaderUtil,
-                            ClassCsvMapper classCsvMapper) {
+                            ClassCsvMapper classCsvMapper,
+                            CSVImportPipeline csvImportPipeline) {
         this.repositoryClass = repositoryClass;
         this.repositoryOrganization = repositoryOrganization;
         this.httpServletRequest = httpServletRequest;
@@ -95,10 +107,10 @@ public class ServiceClassImpl implements ServiceClass {
         this.repositoryPlanSetting = repositoryPlanSetting;
         this.csvReaderUtil = csvReaderUtil;
         this.classCsvMapper = classCsvMapper;
+        this.csvImportPipeline = csvImportPipeline;
     }
 
     @Override
-    @Transactional
     public ApiResponse<DtoResClassCsvUpload> importClassesFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
 
@@ -120,54 +132,20 @@ public class ServiceClassImpl implements ServiceClass {
             return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getClass(I18N_ORGANIZATION_NOT_FOUND));
         }
 
-        DtoResClassCsvUpload result = new DtoResClassCsvUpload();
-        List<EntityClass> createdClasses = new ArrayList<>();
-        List<DtoResClassCsvUpload.ClassImportError> errors = new ArrayList<>();
+        final ClassCsvImport classCsvImport = new ClassCsvImport(organizationId, utilAuthContext.getAuthenticatedUserId(), i18n);
 
-        try {
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    ClassCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
-
-            result.setTotalProcessed(records.size());
-            int rowNum = uploadRequest.getSkipHeaderRow() ? 2 : 1;
-
-            for(CSVRecord record : records) {
-                try {
-                    
-                    DtoReqClass classRequest = classCsvMapper.mapToClassRequest(record, organizationId, rowNum);
-
-                  
-                    if(repositoryClass.existsByNameAndOrganizationIdAndIsDeletedFalse(
-                            classRequest.getName(), organizationId)) {
-                        throw new Exception(i18n.getClass(I18N_CLASS_EXISTS));
-                    }
-
-                 
-                    ApiResponse<EntityClass> response = createClass(classRequest);
-
-                    if(response.isSuccess()) {
-                        createdClasses.add(response.getData());
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-                    DtoResClassCsvUpload.ClassImportError error = new DtoResClassCsvUpload.ClassImportError(
-                            rowNum,
-                            record.toString(),
-                            e.getMessage()
-                    );
-                    errors.add(error);
-                }
-                rowNum++;
-            }
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), ClassCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+            final CSVImportResult<EntityClass> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, classCsvImport);
 
-            result.setCreatedClasses(createdClasses);
-            result.setErrors(errors);
-            result.setSuccessCount(createdClasses.size());
-            result.setErrorCount(errors.size());
+            DtoResClassCsvUpload result = DtoResClassCsvUpload.builder()
+                    .createdClasses(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> new DtoResClassCsvUpload.ClassImportError(error.getRowNumber(), error.getOriginalData(), error.getErrorMessage()))
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
+                    .build();
 
             String message = String.format("Processed %d classes: %d created, %d errors",
                     result.getTotalProcessed(), result.getSuccessCount(), result.getErrorCount());
@@ -179,6 +157,77 @@ public class ServiceClassImpl implements ServiceClass {
         }
     }
 
+    @Override
+    public String getImportType() {
+        return ClassCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return ClassCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        if(!repositoryOrganization.existsById(job.getOrganizationId())) {
+            throw new ExceptionCoreNotFound(i18n.getClass(I18N_ORGANIZATION_NOT_FOUND));
+        }
+        return new ClassCsvImport(job.getOrganizationId(), job.getCreatedBy(), i18n);
+    }
+
+    /**
+     * The class stages of the CSV import pipeline. The lesson limit is resolved once per file, class
+     * names already taken are looked up once per chunk, and names repeated inside the file are caught
+     * as the rows stream by.
+     */
+    private class ClassCsvImport implements CSVImportHandler<DtoReqClass, EntityClass> {
+
+        private final Integer organizationId;
+        private final Integer actorId;
+        private final I18n i18n;
+        private final int adjustedMaxPeriods;
+        private final Set<String> seenNames = new HashSet<>();
+
+        private ClassCsvImport(final Integer organizationId, final Integer actorId, final I18n i18n) {
+            this.organizationId = organizationId;
+            this.actorId = actorId;
+            this.i18n = i18n;
+            this.adjustedMaxPeriods = getAdjustedMaxPeriods(organizationId, null);
+        }
+
+        @Override
+        public DtoReqClass validate(final CSVRecord record, final int rowNumber) {
+            final DtoReqClass dtoReqClass = classCsvMapper.mapToClassRequest(record, organizationId, rowNumber);
+            if(dtoReqClass.getMaxLessonsPerDay() != null && dtoReqClass.getMaxLessonsPerDay() > adjustedMaxPeriods) {
+                throw new CSVImportException("Max lessons per day (" + dtoReqClass.getMaxLessonsPerDay() +
+                        ") cannot exceed " + adjustedMaxPeriods +
+                        " (breaks and lunch periods are excluded from this limit)", rowNumber, record.toString());
+            }
+            return dtoReqClass;
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqClass, EntityClass>> rows) {
+            final Set<String> existingNames = repositoryClass.findExistingNames(organizationId,
+                            rows.stream().map(row -> row.getValue().getName()).collect(Collectors.toSet()))
+                    .stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqClass, EntityClass> row : rows) {
+                final String name = row.getValue().getName().toLowerCase(Locale.ROOT);
+                if(existingNames.contains(name) || !seenNames.add(name)) {
+                    row.reject(i18n.getClass(I18N_CLASS_EXISTS));
+                }
+            }
+        }
+
+        @Override
+        public List<EntityClass> persist(final List<DtoReqClass> rows) {
+            return repositoryClass.saveAll(rows.stream()
+                    .map(row -> newClass(row, actorId))
+                    .collect(Collectors.toList()));
+        }
+
+    }
+
     @Override
     @Transactional
     public ApiResponse<EntityClass> createClass(final DtoReqClass dtoReqClass) {
@@ -212,6 +261,11 @@ public class ServiceClassImpl implements ServiceClass {
             );
         }
 
+        final EntityClass savedClass = repositoryClass.save(newClass(dtoReqClass, utilAuthContext.getAuthenticatedUserId()));
+        return ApiResponse.success(HttpStatus.CREATED, i18n.getClass(I18N_CLASS_CREATED), savedClass);
+    }
+
+    private static EntityClass newClass(final DtoReqClass dtoReqClass, final Integer actorId) {
         final EntityClass entityClass = new EntityClass();
         entityClass.setName(dtoReqClass.getName());
         entityClass.setInitial(dtoReqClass.getInitial());
@@ -230,7 +284,7 @@ public class ServiceClassImpl implements ServiceClass {
         entityClass.setPresentEveryDay(dtoReqClass.getPresentEveryDay());
         entityClass.setControlNumber(dtoReqClass.getControlNumber());
         entityClass.setPlanSettingsId(dtoReqClass.getPlanSettingsId());
-        String userId = utilAuthContext.getAuthenticatedUserId().toString();
+        String userId = actorId.toString();
         entityClass.setModifiedBy(userId);
         entityClass.setCreatedBy(userId);
         entityClass.setUuid(UUID.randomUUID().toString());
@@ -238,9 +292,7 @@ public class ServiceClassImpl implements ServiceClass {
         entityClass.setCreatedDate(LocalDateTime.now());
         entityClass.setModifiedDate(LocalDateTime.now());
         entityClass.setIsDeleted(false);
-
-        final EntityClass savedClass = repositoryClass.save(entityClass);
-        return ApiResponse.success(HttpStatus.CREATED, i18n.getClass(I18N_CLASS_CREATED), savedClass);
+        return entityClass;
     }
 
     /**
@@ -16,6 +16,8 @@ import java.util.List;
 @Component
 public class ClassCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "CLASS";
+
     public static final String[] CSV_HEADERS = {
             "name", "initial", "section", "capacity", "locationId", "comment",
             "color", "minLessonsPerDay", "maxLessonsPerDay", "latestStartPosition",
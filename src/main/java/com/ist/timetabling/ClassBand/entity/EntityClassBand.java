@@ -12,6 +12,7 @@ import com.ist.timetabling.Class.entity.EntityClass;
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -25,10 +26,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 
 
 @Table(name = EntityClassBand.TABLE)
 @Entity
+@EntityListeners(ListenerTimetableContent.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
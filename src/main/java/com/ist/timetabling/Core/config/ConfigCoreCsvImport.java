@@ -0,0 +1,62 @@
+package com.ist.timetabling.Core.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Getter
+public class ConfigCoreCsvImport {
+
+    @Value("${core.csv-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${core.csv-import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${core.csv-import.staging-dir:${java.io.tmpdir}/timetable-csv-imports}")
+    private String stagingDir;
+
+    @Value("${core.csv-import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${core.csv-import.max-queued-jobs:20}")
+    private int maxQueuedJobs;
+
+    @Value("${core.csv-import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    @Value("${core.csv-import.event-timeout-millis:1800000}")
+    private long eventTimeoutMillis;
+
+    @Value("${core.csv-import.job-retention-hours:48}")
+    private int jobRetentionHours;
+
+    public int getEffectiveBatchSize() {
+        return Math.max(1, batchSize);
+    }
+
+    public int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool csvImportPool() {
+        return new ForkJoinPool(getEffectiveParallelism());
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService csvImportJobExecutor() {
+        final int threads = Math.max(1, maxConcurrentJobs);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(Math.max(1, maxQueuedJobs)), new CustomizableThreadFactory("csv-import-"));
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.ist.timetabling.Core.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@Getter
+public class ConfigCorePasswordHashing {
+
+    @Value("${core.password-hashing.parallelism:0}")
+    private int parallelism;
+
+    public int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool passwordHashingPool() {
+        return new ForkJoinPool(getEffectiveParallelism());
+    }
+
+}
@@ -58,6 +58,7 @@ public class ConfigCoreSecurity {
                     configuration.setAllowedOriginPatterns(List.of("*"));
                     configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
                     configuration.setAllowedHeaders(List.of("*"));
+                    configuration.setExposedHeaders(List.of("ETag"));
                     configuration.setAllowCredentials(true);
                     return configuration;
                 }))
@@ -0,0 +1,47 @@
+package com.ist.timetabling.Core.config;
+
+import com.ist.timetabling.Student.entity.EntityStudentProfile;
+import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
+import com.ist.timetabling.User.entity.EntityUser;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lifts the hi/lo counters of users and of teacher and student profiles above every id already in their tables,
+ * which matters for rows written while the columns were still IDENTITY. Runs before the web server accepts requests.
+ */
+@Component
+public class ConfigCoreTableIds implements SmartInitializingSingleton {
+
+    public static final String ID_TABLE = "entity_ids";
+    public static final String ID_TABLE_KEY = "sequence_name";
+    public static final String ID_TABLE_VALUE = "next_val";
+    public static final int ID_ALLOCATION_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConfigCoreTableIds(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        liftCounter(jdbcTemplate, ID_TABLE, EntityUser.TABLE, EntityUser.ID, ID_ALLOCATION_SIZE);
+        liftCounter(jdbcTemplate, ID_TABLE, EntityTeacherProfile.TABLE, EntityTeacherProfile.ID, ID_ALLOCATION_SIZE);
+        liftCounter(jdbcTemplate, ID_TABLE, EntityStudentProfile.TABLE, EntityStudentProfile.ID, ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * Creates the counter row of {@code table} in {@code idTable} when missing and raises it a full allocation block
+     * above the table's largest id. The pooled optimizer hands out (next_val - allocationSize, next_val], so anything
+     * less could reuse an id.
+     */
+    public static void liftCounter(final JdbcTemplate jdbcTemplate, final String idTable, final String table, final String idColumn, final int allocationSize) {
+        jdbcTemplate.update("INSERT INTO " + idTable + " (" + ID_TABLE_KEY + ", " + ID_TABLE_VALUE + ") SELECT ?, 0 FROM DUAL"
+                + " WHERE NOT EXISTS (SELECT 1 FROM " + idTable + " WHERE " + ID_TABLE_KEY + " = ?)", table, table);
+        jdbcTemplate.update("UPDATE " + idTable + " SET " + ID_TABLE_VALUE + " = GREATEST(" + ID_TABLE_VALUE
+                + ", (SELECT COALESCE(MAX(" + idColumn + "), 0) + ? FROM " + table + ")) WHERE " + ID_TABLE_KEY + " = ?", allocationSize, table);
+    }
+
+}
@@ -3,6 +3,16 @@ package com.ist.timetabling.Core.constant;
 public class ConstantCoreI18n {
     public static final String DASHBOARD_STATISTICS_RETRIEVE_SUCCESS = "core.dashboard.statistics.retrieve.success";
     public static final String ORGANIZATION_STATISTICS_RETRIEVE_SUCCESS = "core.organization.statistics.retrieve.success";
+    public static final String I18N_CSV_IMPORT_JOB_SUBMITTED = "core.csv.import.job.submitted";
+    public static final String I18N_CSV_IMPORT_JOB_RETRIEVE_SUCCESS = "core.csv.import.job.retrieve.success";
+    public static final String I18N_CSV_IMPORT_JOB_RESUMED = "core.csv.import.job.resumed";
+    public static final String I18N_CSV_IMPORT_JOB_NOT_FOUND = "core.csv.import.job.notfound";
+    public static final String I18N_CSV_IMPORT_JOB_NOT_RESUMABLE = "core.csv.import.job.not.resumable";
+    public static final String I18N_CSV_IMPORT_JOB_QUEUE_FULL = "core.csv.import.job.queue.full";
+    public static final String I18N_CSV_IMPORT_JOB_INTERRUPTED = "core.csv.import.job.interrupted";
+    public static final String I18N_CSV_IMPORT_JOB_UNKNOWN_TYPE = "core.csv.import.job.unknown.type";
+    public static final String I18N_CSV_IMPORT_FILE_EMPTY = "core.csv.import.file.empty";
+    public static final String I18N_CONCURRENT_UPDATE = "core.error.concurrent.update";
     private static final String I18N_AUTH_UNAUTHORIZED_ORGANIZATION = "core.error.unauthorized.organization";
     private static final String I18N_AUTH_UNAUTHORIZED_CREATE = "core.error.unauthorized.create";
     private static final String I18N_AUTH_UNAUTHORIZED_DELETE = "core.error.unauthorized.delete";
@@ -0,0 +1,46 @@
+package com.ist.timetabling.Core.controller;
+
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/core/csv-import-jobs")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+public class ControllerCoreCsvImportJob {
+
+    private final ServiceCsvImportJob serviceCsvImportJob;
+
+    public ControllerCoreCsvImportJob(final ServiceCsvImportJob serviceCsvImportJob) {
+        this.serviceCsvImportJob = serviceCsvImportJob;
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> getJob(@PathVariable final String jobId) {
+        final ApiResponse<DtoResCsvImportJob> response = serviceCsvImportJob.getJob(jobId);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(@PathVariable final String jobId) {
+        return serviceCsvImportJob.streamEvents(jobId);
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> resumeJob(@PathVariable final String jobId) {
+        final ApiResponse<DtoResCsvImportJob> response = serviceCsvImportJob.resume(jobId);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+}
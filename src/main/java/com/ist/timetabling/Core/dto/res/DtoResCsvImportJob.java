@@ -0,0 +1,30 @@
+package com.ist.timetabling.Core.dto.res;
+
+import com.ist.timetabling.Core.model.CSVImportResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResCsvImportJob {
+    private String jobId;
+    private String importType;
+    private String status;
+    private Integer organizationId;
+    private String fileName;
+    private Integer processedRows;
+    private Integer successCount;
+    private Integer errorCount;
+    private List<CSVImportResult.CSVImportError> errors;
+    private String message;
+    private LocalDateTime createdDate;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,117 @@
+package com.ist.timetabling.Core.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * A CSV import running in the background. The uploaded file is staged on disk and
+ * {@code processedRows} counts the records already committed, so a failed job resumes after them.
+ */
+@Entity
+@Table(name = EntityCsvImportJob.TABLE, indexes = @Index(columnList = EntityCsvImportJob.STATUS))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCsvImportJob {
+
+    public static final String TABLE = "csv_import_jobs";
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = ID)
+    private Long id;
+    public static final String ID = "csv_import_job_id";
+
+    @UuidGenerator
+    @Column(name = UUID, nullable = false, unique = true, updatable = false)
+    private String uuid;
+    public static final String UUID = "csv_import_job_uuid";
+
+    @Column(name = IMPORT_TYPE, nullable = false, length = 32)
+    private String importType;
+    public static final String IMPORT_TYPE = "csv_import_job_import_type";
+
+    @Column(name = ORGANIZATION_ID, nullable = false)
+    private Integer organizationId;
+    public static final String ORGANIZATION_ID = "csv_import_job_organization_id";
+
+    @Column(name = FILE_NAME)
+    private String fileName;
+    public static final String FILE_NAME = "csv_import_job_file_name";
+
+    @Column(name = STAGED_PATH, nullable = false, length = 1024)
+    private String stagedPath;
+    public static final String STAGED_PATH = "csv_import_job_staged_path";
+
+    @Column(name = SKIP_HEADER_ROW, nullable = false)
+    private Boolean skipHeaderRow;
+    public static final String SKIP_HEADER_ROW = "csv_import_job_skip_header_row";
+
+    @Column(name = LOCALE, length = 35)
+    private String locale;
+    public static final String LOCALE = "csv_import_job_locale";
+
+    @Column(name = STATUS, nullable = false, length = 16)
+    private String status;
+    public static final String STATUS = "csv_import_job_status";
+
+    @Builder.Default
+    @Column(name = PROCESSED_ROWS, nullable = false)
+    private Integer processedRows = 0;
+    public static final String PROCESSED_ROWS = "csv_import_job_processed_rows";
+
+    @Builder.Default
+    @Column(name = SUCCESS_COUNT, nullable = false)
+    private Integer successCount = 0;
+    public static final String SUCCESS_COUNT = "csv_import_job_success_count";
+
+    @Builder.Default
+    @Column(name = ERROR_COUNT, nullable = false)
+    private Integer errorCount = 0;
+    public static final String ERROR_COUNT = "csv_import_job_error_count";
+
+    @Column(name = MESSAGE, length = 1024)
+    private String message;
+    public static final String MESSAGE = "csv_import_job_message";
+
+    @Column(name = STARTED_AT)
+    private LocalDateTime startedAt;
+    public static final String STARTED_AT = "csv_import_job_started_at";
+
+    @Column(name = FINISHED_AT)
+    private LocalDateTime finishedAt;
+    public static final String FINISHED_AT = "csv_import_job_finished_at";
+
+    @Column(name = CREATED_BY, nullable = false)
+    private Integer createdBy;
+    public static final String CREATED_BY = "csv_import_job_created_by";
+
+    @CreationTimestamp
+    @Column(name = CREATED_DATE, nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+    public static final String CREATED_DATE = "csv_import_job_created_date";
+
+    @UpdateTimestamp
+    @Column(name = MODIFIED_DATE, nullable = false)
+    private LocalDateTime modifiedDate;
+    public static final String MODIFIED_DATE = "csv_import_job_modified_date";
+
+    public boolean isFinished() {
+        return STATUS_COMPLETED.equals(status) || STATUS_FAILED.equals(status);
+    }
+
+}
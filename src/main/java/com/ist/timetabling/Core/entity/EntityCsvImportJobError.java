@@ -0,0 +1,41 @@
+package com.ist.timetabling.Core.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = EntityCsvImportJobError.TABLE, indexes = @Index(columnList = EntityCsvImportJobError.JOB_ID + "," + EntityCsvImportJobError.ROW_NUMBER))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCsvImportJobError {
+
+    public static final String TABLE = "csv_import_job_errors";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = ID)
+    private Long id;
+    public static final String ID = "csv_import_job_error_id";
+
+    @Column(name = JOB_ID, nullable = false)
+    private Long jobId;
+    public static final String JOB_ID = "csv_import_job_error_job_id";
+
+    @Column(name = ROW_NUMBER, nullable = false)
+    private Integer rowNumber;
+    public static final String ROW_NUMBER = "csv_import_job_error_row_number";
+
+    @Column(name = ORIGINAL_DATA, columnDefinition = "TEXT")
+    private String originalData;
+    public static final String ORIGINAL_DATA = "csv_import_job_error_original_data";
+
+    @Column(name = ERROR_MESSAGE, length = 1024)
+    private String errorMessage;
+    public static final String ERROR_MESSAGE = "csv_import_job_error_message";
+
+}
@@ -4,6 +4,7 @@ import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Core.model.I18n;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -13,6 +14,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.*;
 
+import static com.ist.timetabling.Core.constant.ConstantCoreI18n.I18N_CONCURRENT_UPDATE;
+
 
 @RestControllerAdvice
 @Slf4j
@@ -70,6 +73,16 @@ public class ExceptionCoreHandler {
         return apiResponse.toResponseEntity();
     }
 
+    @ExceptionHandler(ExceptionCoreValidation.class)
+    public ResponseEntity<ApiResponse<Void>> handleValidationException(final ExceptionCoreValidation exceptionCoreValidation) {
+        final String message = i18n.get(exceptionCoreValidation.getMessage());
+        final ApiResponse<Void> apiResponse = ApiResponse.error(
+                HttpStatus.BAD_REQUEST,
+                message
+        );
+        return apiResponse.toResponseEntity();
+    }
+
     @ExceptionHandler(ExceptionCoreAlreadyExists.class)
     public ResponseEntity<ApiResponse<Void>> handleAlreadyExistsException(final ExceptionCoreAlreadyExists exceptionCoreAlreadyExists) {
         final String message = i18n.get(exceptionCoreAlreadyExists.getMessage());
@@ -80,6 +93,16 @@ public class ExceptionCoreHandler {
         return apiResponse.toResponseEntity();
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailure(final OptimisticLockingFailureException optimisticLockingFailureException) {
+        log.warn("Concurrent update rejected: {}", optimisticLockingFailureException.getMessage());
+        final ApiResponse<Void> apiResponse = ApiResponse.error(
+                HttpStatus.CONFLICT,
+                i18n.getCore(I18N_CONCURRENT_UPDATE)
+        );
+        return apiResponse.toResponseEntity();
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiResponse<Void>> handleAccessDeniedException(final AccessDeniedException accessDeniedException) {
         log.error("Access denied: {}", accessDeniedException.getMessage());
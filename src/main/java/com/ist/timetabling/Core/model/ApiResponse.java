@@ -3,6 +3,7 @@ package com.ist.timetabling.Core.model;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.JsonElement;
+import com.ist.timetabling.Core.util.PaginationUtil;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +11,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -53,6 +55,8 @@ public class ApiResponse<T> {
 
     private Integer currentPage;
 
+    private String nextCursor;
+
 
     public static <T> ApiResponse<T> success(final HttpStatus httpStatus, final String message, final T data) {
         return ApiResponse.<T>builder()
@@ -102,6 +106,20 @@ public class ApiResponse<T> {
                 .build();
     }
 
+    public static <T> ApiResponse<List<T>> success(final Window<T> window, final String message) {
+        return ApiResponse.<List<T>>builder()
+                .status(HttpStatus.OK.value())
+                .success(true)
+                .time(System.currentTimeMillis())
+                .language(LocaleContextHolder.getLocale().getLanguage())
+                .message(message)
+                .data(window.getContent())
+                .totalItems(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(PaginationUtil.encodeCursor(window))
+                .build();
+    }
+
     public static <T> ApiResponse<T> error(final HttpStatus httpStatus, final String... errors) {
         return ApiResponse.<T>builder()
                 .status(httpStatus.value())
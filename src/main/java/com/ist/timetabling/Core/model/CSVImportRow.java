@@ -0,0 +1,34 @@
+package com.ist.timetabling.Core.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * One CSV row as it moves through the import pipeline: the mapped request once it validates, the
+ * created item once it is persisted, or the reason it was rejected.
+ */
+@Getter
+@Setter
+public class CSVImportRow<R, T> {
+
+    private final int rowNumber;
+    private final CSVRecord record;
+    private R value;
+    private T created;
+    private String error;
+
+    public CSVImportRow(final int rowNumber, final CSVRecord record) {
+        this.rowNumber = rowNumber;
+        this.record = record;
+    }
+
+    public boolean isPending() {
+        return error == null && created == null;
+    }
+
+    public void reject(final String message) {
+        this.error = message;
+    }
+
+}
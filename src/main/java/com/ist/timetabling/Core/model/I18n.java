@@ -61,6 +61,10 @@ public class I18n {
 
     }
 
+    public Locale getLocale() {
+        return locale;
+    }
+
     public String get(final String module, final String key) {
         try {
             final ResourceBundle resourceBundle = ResourceBundle.getBundle("i18n_"+ module.toLowerCase(), locale);
@@ -0,0 +1,17 @@
+package com.ist.timetabling.Core.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A generated password and its encoded hash. The plain password is only kept to be mailed to the
+ * new user once their account is committed.
+ */
+@Getter
+@AllArgsConstructor
+public class ModelGeneratedPassword {
+
+    private final String password;
+    private final String passwordHash;
+
+}
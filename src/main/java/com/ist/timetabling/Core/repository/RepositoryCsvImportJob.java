@@ -0,0 +1,35 @@
+package com.ist.timetabling.Core.repository;
+
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+
+@Repository
+public interface RepositoryCsvImportJob extends JpaRepository<EntityCsvImportJob, Long> {
+
+    Optional<EntityCsvImportJob> findByUuid(final String uuid);
+
+    List<EntityCsvImportJob> findByStatusIn(final Collection<String> statuses);
+
+    List<EntityCsvImportJob> findByFinishedAtBefore(final LocalDateTime before);
+
+    @Modifying
+    @Query("UPDATE EntityCsvImportJob j SET j.processedRows = :processedRows, j.successCount = j.successCount + :successCount, " +
+            "j.errorCount = j.errorCount + :errorCount, j.modifiedDate = CURRENT_TIMESTAMP WHERE j.id = :id")
+    int recordChunk(@Param("id") Long id, @Param("processedRows") Integer processedRows, @Param("successCount") Integer successCount, @Param("errorCount") Integer errorCount);
+
+    @Modifying
+    @Query("UPDATE EntityCsvImportJob j SET j.status = :status, j.message = NULL, j.finishedAt = NULL, j.modifiedDate = CURRENT_TIMESTAMP " +
+            "WHERE j.id = :id AND j.status = :expected")
+    int transition(@Param("id") Long id, @Param("expected") String expected, @Param("status") String status);
+
+}
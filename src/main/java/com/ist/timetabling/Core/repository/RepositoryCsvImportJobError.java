@@ -0,0 +1,24 @@
+package com.ist.timetabling.Core.repository;
+
+import com.ist.timetabling.Core.entity.EntityCsvImportJobError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+
+@Repository
+public interface RepositoryCsvImportJobError extends JpaRepository<EntityCsvImportJobError, Long> {
+
+    List<EntityCsvImportJobError> findByJobIdOrderByRowNumberAsc(final Long jobId, final Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EntityCsvImportJobError e WHERE e.jobId IN :jobIds")
+    int deleteByJobIdIn(@Param("jobIds") Collection<Long> jobIds);
+
+}
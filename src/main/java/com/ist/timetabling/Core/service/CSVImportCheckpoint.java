@@ -0,0 +1,16 @@
+package com.ist.timetabling.Core.service;
+
+import com.ist.timetabling.Core.model.CSVImportResult;
+
+import java.util.List;
+
+/**
+ * Records the outcome of one chunk of a resumable import. It runs inside the transaction that
+ * persisted the chunk, so the progress it stores never runs ahead of or behind the stored rows.
+ */
+@FunctionalInterface
+public interface CSVImportCheckpoint {
+
+    void record(int processedRows, int successCount, List<CSVImportResult.CSVImportError> errors);
+
+}
@@ -0,0 +1,37 @@
+package com.ist.timetabling.Core.service;
+
+import com.ist.timetabling.Core.model.CSVImportRow;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.List;
+
+/**
+ * The import-specific stages that {@link CSVImportPipeline} runs for each chunk of rows.
+ */
+public interface CSVImportHandler<R, T> {
+
+    /**
+     * Maps and checks one row on its own. Runs in parallel, so it must not touch the database or
+     * the request context; a thrown exception rejects the row with its message.
+     */
+    R validate(CSVRecord record, int rowNumber) throws Exception;
+
+    /**
+     * Rejects rows that clash with stored data or with earlier rows of the file, using set queries
+     * over the whole chunk rather than one lookup per row.
+     */
+    void checkExisting(List<CSVImportRow<R, T>> rows);
+
+    /**
+     * Does the CPU-heavy work for the accepted rows, such as password hashing, before any transaction
+     * opens, so no connection is held while it runs. A row-by-row retry reuses what was prepared.
+     */
+    default void prepare(List<R> rows) {
+    }
+
+    /**
+     * Persists the rows inside one transaction and returns one created item per row, in order.
+     */
+    List<T> persist(List<R> rows);
+
+}
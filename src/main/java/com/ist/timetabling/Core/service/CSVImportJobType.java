@@ -0,0 +1,18 @@
+package com.ist.timetabling.Core.service;
+
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
+import com.ist.timetabling.Core.model.I18n;
+
+/**
+ * An import that can run as a background job. Handlers are rebuilt from the stored job alone, with
+ * no request or security context, so a job can also be resumed after a restart.
+ */
+public interface CSVImportJobType {
+
+    String getImportType();
+
+    String[] getCsvHeaders();
+
+    CSVImportHandler<?, ?> newCsvImportHandler(EntityCsvImportJob job, I18n i18n);
+
+}
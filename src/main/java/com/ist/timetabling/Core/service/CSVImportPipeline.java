@@ -0,0 +1,188 @@
+package com.ist.timetabling.Core.service;
+
+import com.ist.timetabling.Core.config.ConfigCoreCsvImport;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV records through an import in chunks of {@code core.csv-import.batch-size} rows, so
+ * memory and transaction length stay bounded whatever the file size. Each chunk is validated in
+ * parallel, checked against stored data with set queries, prepared outside any transaction, and
+ * persisted in its own transaction. When a chunk fails to persist it is retried row by row, so one
+ * bad row costs only itself.
+ */
+@Slf4j
+@Service
+public class CSVImportPipeline {
+
+    private final ConfigCoreCsvImport configCoreCsvImport;
+    private final ForkJoinPool csvImportPool;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public CSVImportPipeline(final ConfigCoreCsvImport configCoreCsvImport,
+                             @Qualifier("csvImportPool") final ForkJoinPool csvImportPool,
+                             final PlatformTransactionManager transactionManager) {
+        this.configCoreCsvImport = configCoreCsvImport;
+        this.csvImportPool = csvImportPool;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <R, T> CSVImportResult<T> run(final Iterable<CSVRecord> records, final int firstRowNumber, final CSVImportHandler<R, T> handler) {
+        return run(records, firstRowNumber, 0, handler, null);
+    }
+
+    /**
+     * Resumable variant: skips the first {@code skipRows} records, which an earlier run already
+     * committed, and hands each chunk's outcome to the checkpoint instead of collecting it, so the
+     * result only carries the counts of this run.
+     */
+    public <R, T> CSVImportResult<T> run(final Iterable<CSVRecord> records, final int firstRowNumber, final int skipRows,
+                                         final CSVImportHandler<R, T> handler, final CSVImportCheckpoint checkpoint) {
+        final CSVImportResult<T> result = CSVImportResult.<T>builder().build();
+        final int batchSize = configCoreCsvImport.getEffectiveBatchSize();
+        final Iterator<CSVRecord> iterator = records.iterator();
+        int rowNumber = firstRowNumber;
+        while(rowNumber - firstRowNumber < skipRows && iterator.hasNext()) {
+            iterator.next();
+            rowNumber++;
+        }
+        final int resumedAt = rowNumber;
+        int successCount = 0;
+        int errorCount = 0;
+        while(iterator.hasNext()) {
+            final List<CSVImportRow<R, T>> chunk = new ArrayList<>(batchSize);
+            while(iterator.hasNext() && chunk.size() < batchSize) {
+                chunk.add(new CSVImportRow<>(rowNumber++, iterator.next()));
+            }
+            process(chunk, handler, checkpoint, rowNumber - firstRowNumber);
+            for(final CSVImportRow<R, T> row : chunk) {
+                if(row.getError() != null) {
+                    errorCount++;
+                    if(checkpoint == null) {
+                        result.getErrors().add(errorOf(row));
+                    }
+                }else if(row.getCreated() != null) {
+                    successCount++;
+                    if(checkpoint == null) {
+                        result.getCreatedItems().add(row.getCreated());
+                    }
+                }
+            }
+        }
+        result.setTotalProcessed(rowNumber - resumedAt);
+        result.setSuccessCount(successCount);
+        result.setErrorCount(errorCount);
+        return result;
+    }
+
+    private <R, T> void process(final List<CSVImportRow<R, T>> chunk, final CSVImportHandler<R, T> handler,
+                                final CSVImportCheckpoint checkpoint, final int processedRows) {
+        csvImportPool.submit(() -> chunk.parallelStream().forEach(row -> validate(row, handler))).join();
+        final List<CSVImportRow<R, T>> valid = pending(chunk);
+        if(!valid.isEmpty()) {
+            handler.checkExisting(valid);
+        }
+        final List<CSVImportRow<R, T>> accepted = pending(chunk);
+        final Runnable record = checkpoint != null ? () -> record(chunk, processedRows, checkpoint) : null;
+        boolean recorded = false;
+        if(!accepted.isEmpty()) {
+            handler.prepare(accepted.stream().map(CSVImportRow::getValue).collect(Collectors.toList()));
+            recorded = persist(accepted, handler, record);
+        }
+        if(record != null && !recorded) {
+            transactionTemplate.executeWithoutResult(status -> record.run());
+        }
+    }
+
+    private <R, T> void validate(final CSVImportRow<R, T> row, final CSVImportHandler<R, T> handler) {
+        try {
+            row.setValue(handler.validate(row.getRecord(), row.getRowNumber()));
+        }catch(final Exception e) {
+            row.reject(e.getMessage());
+        }
+    }
+
+    /**
+     * Answers whether the rows went in as one batch, in which case {@code inTransaction} ran inside
+     * the same transaction. The session's JDBC batch is sized to the chunk, which the global
+     * {@code hibernate.jdbc.batch_size} is kept well below.
+     */
+    private <R, T> boolean persist(final List<CSVImportRow<R, T>> rows, final CSVImportHandler<R, T> handler, final Runnable inTransaction) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(rows.size());
+                final List<T> created = handler.persist(rows.stream().map(CSVImportRow::getValue).collect(Collectors.toList()));
+                for(int i = 0; i < rows.size(); i++) {
+                    rows.get(i).setCreated(created.get(i));
+                }
+                if(inTransaction != null) {
+                    inTransaction.run();
+                }
+            });
+            return true;
+        }catch(final RuntimeException e) {
+            rows.forEach(row -> row.setCreated(null));
+            if(rows.size() == 1) {
+                rows.get(0).reject(messageOf(e));
+                return false;
+            }
+            log.debug("CSV import batch of {} rows failed, retrying row by row: {}", rows.size(), e.getMessage());
+            for(final CSVImportRow<R, T> row : rows) {
+                persist(List.of(row), handler, null);
+            }
+            return false;
+        }
+    }
+
+    private static <R, T> void record(final List<CSVImportRow<R, T>> chunk, final int processedRows, final CSVImportCheckpoint checkpoint) {
+        final int successCount = (int) chunk.stream().filter(row -> row.getCreated() != null).count();
+        final List<CSVImportResult.CSVImportError> errors = chunk.stream()
+                .filter(row -> row.getError() != null)
+                .map(CSVImportPipeline::errorOf)
+                .collect(Collectors.toList());
+        checkpoint.record(processedRows, successCount, errors);
+    }
+
+    private static <R, T> CSVImportResult.CSVImportError errorOf(final CSVImportRow<R, T> row) {
+        return CSVImportResult.CSVImportError.builder()
+                .rowNumber(row.getRowNumber())
+                .originalData(row.getRecord().toString())
+                .errorMessage(row.getError())
+                .build();
+    }
+
+    private static <R, T> List<CSVImportRow<R, T>> pending(final List<CSVImportRow<R, T>> rows) {
+        return rows.stream().filter(CSVImportRow::isPending).collect(Collectors.toList());
+    }
+
+    private static String messageOf(final Throwable e) {
+        Throwable cause = e;
+        while(cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : e.getMessage();
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.ist.timetabling.Core.service;
+
+import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
+import com.ist.timetabling.Core.model.ApiResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+public interface ServiceCsvImportJob {
+
+    ApiResponse<DtoResCsvImportJob> submit(final String importType, final DtoReqCsvUpload uploadRequest);
+
+    ApiResponse<DtoResCsvImportJob> getJob(final String jobId);
+
+    ApiResponse<DtoResCsvImportJob> resume(final String jobId);
+
+    SseEmitter streamEvents(final String jobId);
+
+}
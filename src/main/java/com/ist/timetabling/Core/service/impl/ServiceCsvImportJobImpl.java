@@ -0,0 +1,369 @@
+package com.ist.timetabling.Core.service.impl;
+
+import com.ist.timetabling.Auth.util.UtilAuthContext;
+import com.ist.timetabling.Core.config.ConfigCoreCsvImport;
+import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
+import com.ist.timetabling.Core.entity.EntityCsvImportJobError;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.repository.RepositoryCsvImportJob;
+import com.ist.timetabling.Core.repository.RepositoryCsvImportJobError;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
+import com.ist.timetabling.Core.util.CSVReaderUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ist.timetabling.Core.constant.ConstantCoreI18n.*;
+
+/**
+ * Runs CSV imports in the background. The upload is staged on disk and each chunk commits together
+ * with the job's progress, so a job that fails or is cut off by a restart resumes after the last
+ * committed chunk. Clients poll the job or subscribe to its server-sent events.
+ */
+@Slf4j
+@Service
+public class ServiceCsvImportJobImpl implements ServiceCsvImportJob {
+
+    public static final String EVENT_PROGRESS = "progress";
+    private static final int MESSAGE_LENGTH = 1024;
+
+    private final RepositoryCsvImportJob repositoryCsvImportJob;
+    private final RepositoryCsvImportJobError repositoryCsvImportJobError;
+    private final CSVImportPipeline csvImportPipeline;
+    private final CSVReaderUtil csvReaderUtil;
+    private final ConfigCoreCsvImport configCoreCsvImport;
+    private final ExecutorService csvImportJobExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final UtilAuthContext utilAuthContext;
+    private final HttpServletRequest httpServletRequest;
+    private final Map<String, CSVImportJobType> jobTypes;
+
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceCsvImportJobImpl(
+            RepositoryCsvImportJob repositoryCsvImportJob,
+            RepositoryCsvImportJobError repositoryCsvImportJobError,
+            CSVImportPipeline csvImportPipeline,
+            CSVReaderUtil csvReaderUtil,
+            ConfigCoreCsvImport configCoreCsvImport,
+            @Qualifier("csvImportJobExecutor") ExecutorService csvImportJobExecutor,
+            PlatformTransactionManager transactionManager,
+            UtilAuthContext utilAuthContext,
+            HttpServletRequest httpServletRequest,
+            List<CSVImportJobType> jobTypes) {
+        this.repositoryCsvImportJob = repositoryCsvImportJob;
+        this.repositoryCsvImportJobError = repositoryCsvImportJobError;
+        this.csvImportPipeline = csvImportPipeline;
+        this.csvReaderUtil = csvReaderUtil;
+        this.configCoreCsvImport = configCoreCsvImport;
+        this.csvImportJobExecutor = csvImportJobExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.utilAuthContext = utilAuthContext;
+        this.httpServletRequest = httpServletRequest;
+        this.jobTypes = jobTypes.stream().collect(Collectors.toMap(CSVImportJobType::getImportType, Function.identity()));
+    }
+
+    @Override
+    public ApiResponse<DtoResCsvImportJob> submit(final String importType, final DtoReqCsvUpload uploadRequest) {
+        final I18n i18n = new I18n(httpServletRequest);
+        if(!jobTypes.containsKey(importType)) {
+            return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getCore(I18N_CSV_IMPORT_JOB_UNKNOWN_TYPE));
+        }
+        if(uploadRequest.getFile() == null || uploadRequest.getFile().isEmpty()) {
+            return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getCore(I18N_CSV_IMPORT_FILE_EMPTY));
+        }
+
+        final Integer organizationId;
+        if(utilAuthContext.isAdmin() && uploadRequest.getOrganizationId() != null) {
+            organizationId = uploadRequest.getOrganizationId();
+        }else {
+            organizationId = UtilAuthContext.getAuthenticatedUserOrganizationId();
+        }
+        utilAuthContext.validateOrganizationAccess(organizationId);
+
+        final Path stagedPath;
+        try {
+            final Path stagingDir = Paths.get(configCoreCsvImport.getStagingDir());
+            Files.createDirectories(stagingDir);
+            stagedPath = stagingDir.resolve(UUID.randomUUID() + ".csv");
+            uploadRequest.getFile().transferTo(stagedPath);
+        }catch(IOException e) {
+            return ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to stage CSV file: " + e.getMessage());
+        }
+
+        final EntityCsvImportJob job = repositoryCsvImportJob.save(EntityCsvImportJob.builder()
+                .importType(importType)
+                .organizationId(organizationId)
+                .fileName(uploadRequest.getFile().getOriginalFilename())
+                .stagedPath(stagedPath.toString())
+                .skipHeaderRow(!Boolean.FALSE.equals(uploadRequest.getSkipHeaderRow()))
+                .locale(i18n.getLocale().toLanguageTag())
+                .status(EntityCsvImportJob.STATUS_QUEUED)
+                .createdBy(UtilAuthContext.getAuthenticatedUserId())
+                .build());
+        dispatch(job);
+        return ApiResponse.success(HttpStatus.ACCEPTED, i18n.getCore(I18N_CSV_IMPORT_JOB_SUBMITTED), toDto(job));
+    }
+
+    @Override
+    public ApiResponse<DtoResCsvImportJob> getJob(final String jobId) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityCsvImportJob job = findJob(jobId, i18n);
+        return ApiResponse.success(HttpStatus.OK, i18n.getCore(I18N_CSV_IMPORT_JOB_RETRIEVE_SUCCESS), toDto(job));
+    }
+
+    @Override
+    public ApiResponse<DtoResCsvImportJob> resume(final String jobId) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityCsvImportJob job = findJob(jobId, i18n);
+        if(!EntityCsvImportJob.STATUS_FAILED.equals(job.getStatus()) || !Files.exists(Paths.get(job.getStagedPath()))) {
+            return ApiResponse.error(HttpStatus.CONFLICT, i18n.getCore(I18N_CSV_IMPORT_JOB_NOT_RESUMABLE));
+        }
+        final Integer updated = transactionTemplate.execute(status ->
+                repositoryCsvImportJob.transition(job.getId(), EntityCsvImportJob.STATUS_FAILED, EntityCsvImportJob.STATUS_QUEUED));
+        if(updated == null || updated == 0) {
+            return ApiResponse.error(HttpStatus.CONFLICT, i18n.getCore(I18N_CSV_IMPORT_JOB_NOT_RESUMABLE));
+        }
+        final EntityCsvImportJob queued = repositoryCsvImportJob.findById(job.getId()).orElse(job);
+        dispatch(queued);
+        return ApiResponse.success(HttpStatus.ACCEPTED, i18n.getCore(I18N_CSV_IMPORT_JOB_RESUMED), toDto(queued));
+    }
+
+    @Override
+    public SseEmitter streamEvents(final String jobId) {
+        final EntityCsvImportJob job = findJob(jobId, new I18n(httpServletRequest));
+        final SseEmitter emitter = new SseEmitter(configCoreCsvImport.getEventTimeoutMillis());
+        final List<SseEmitter> listeners = emitters.computeIfAbsent(job.getUuid(), key -> new CopyOnWriteArrayList<>());
+        listeners.add(emitter);
+        emitter.onCompletion(() -> listeners.remove(emitter));
+        emitter.onTimeout(() -> listeners.remove(emitter));
+        emitter.onError(error -> listeners.remove(emitter));
+
+        if(job.isFinished()) {
+            listeners.remove(emitter);
+            if(send(job, emitter, eventName(job))) {
+                emitter.complete();
+            }
+        }else {
+            send(job, emitter, EVENT_PROGRESS);
+        }
+        return emitter;
+    }
+
+    /**
+     * Jobs left queued or running belong to a previous process; they are marked failed so that
+     * they can be resumed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        for(final EntityCsvImportJob job : repositoryCsvImportJob.findByStatusIn(List.of(EntityCsvImportJob.STATUS_QUEUED, EntityCsvImportJob.STATUS_RUNNING))) {
+            job.setStatus(EntityCsvImportJob.STATUS_FAILED);
+            job.setMessage(i18nOf(job).getCore(I18N_CSV_IMPORT_JOB_INTERRUPTED));
+            job.setFinishedAt(LocalDateTime.now());
+            repositoryCsvImportJob.save(job);
+        }
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void purgeFinishedJobs() {
+        final List<EntityCsvImportJob> expired = repositoryCsvImportJob.findByFinishedAtBefore(LocalDateTime.now().minusHours(configCoreCsvImport.getJobRetentionHours()));
+        if(expired.isEmpty()) {
+            return;
+        }
+        expired.forEach(this::deleteStagedFile);
+        transactionTemplate.executeWithoutResult(status -> {
+            repositoryCsvImportJobError.deleteByJobIdIn(expired.stream().map(EntityCsvImportJob::getId).collect(Collectors.toList()));
+            repositoryCsvImportJob.deleteAll(expired);
+        });
+    }
+
+    private EntityCsvImportJob findJob(final String jobId, final I18n i18n) {
+        final EntityCsvImportJob job = repositoryCsvImportJob.findByUuid(jobId)
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getCore(I18N_CSV_IMPORT_JOB_NOT_FOUND)));
+        utilAuthContext.validateOrganizationAccess(job.getOrganizationId());
+        return job;
+    }
+
+    private void dispatch(final EntityCsvImportJob job) {
+        try {
+            csvImportJobExecutor.execute(() -> run(job.getId()));
+        }catch(final RejectedExecutionException rejectedExecutionException) {
+            finish(job, EntityCsvImportJob.STATUS_FAILED, i18nOf(job).getCore(I18N_CSV_IMPORT_JOB_QUEUE_FULL));
+        }
+    }
+
+    private void run(final Long id) {
+        final EntityCsvImportJob job = repositoryCsvImportJob.findById(id).orElse(null);
+        if(job == null || !EntityCsvImportJob.STATUS_QUEUED.equals(job.getStatus())) {
+            return;
+        }
+        job.setStatus(EntityCsvImportJob.STATUS_RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        repositoryCsvImportJob.save(job);
+        publish(job, EVENT_PROGRESS);
+
+        final I18n i18n = i18nOf(job);
+        final CSVImportJobType jobType = jobTypes.get(job.getImportType());
+        try(InputStream inputStream = Files.newInputStream(Paths.get(job.getStagedPath()));
+            CSVParser records = csvReaderUtil.openCSV(inputStream, jobType.getCsvHeaders(), job.getSkipHeaderRow())) {
+            csvImportPipeline.run(records, job.getSkipHeaderRow() ? 2 : 1, job.getProcessedRows(), jobType.newCsvImportHandler(job, i18n),
+                    (processedRows, successCount, errors) -> checkpoint(job, processedRows, successCount, errors));
+            deleteStagedFile(job);
+            finish(job, EntityCsvImportJob.STATUS_COMPLETED, null);
+        }catch(final IOException | RuntimeException exception) {
+            log.error("CSV import job {} failed after {} rows", job.getUuid(), job.getProcessedRows(), exception);
+            finish(job, EntityCsvImportJob.STATUS_FAILED, exception.getMessage());
+        }
+    }
+
+    private void checkpoint(final EntityCsvImportJob job, final int processedRows, final int successCount, final List<CSVImportResult.CSVImportError> errors) {
+        repositoryCsvImportJob.recordChunk(job.getId(), processedRows, successCount, errors.size());
+        if(!errors.isEmpty()) {
+            repositoryCsvImportJobError.saveAll(errors.stream()
+                    .map(error -> EntityCsvImportJobError.builder()
+                            .jobId(job.getId())
+                            .rowNumber(error.getRowNumber())
+                            .originalData(error.getOriginalData())
+                            .errorMessage(truncate(error.getErrorMessage()))
+                            .build())
+                    .collect(Collectors.toList()));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                job.setProcessedRows(processedRows);
+                job.setSuccessCount(job.getSuccessCount() + successCount);
+                job.setErrorCount(job.getErrorCount() + errors.size());
+                publish(job, EVENT_PROGRESS);
+            }
+        });
+    }
+
+    private void finish(final EntityCsvImportJob job, final String status, final String message) {
+        job.setStatus(status);
+        job.setMessage(truncate(message));
+        job.setFinishedAt(LocalDateTime.now());
+        repositoryCsvImportJob.save(job);
+        log.info("CSV import job {} of {} for organization {} finished as {}: {} rows, {} created, {} errors",
+                job.getUuid(), job.getImportType(), job.getOrganizationId(), status, job.getProcessedRows(), job.getSuccessCount(), job.getErrorCount());
+
+        final String eventName = eventName(job);
+        final List<SseEmitter> listeners = emitters.remove(job.getUuid());
+        if(listeners != null) {
+            for(final SseEmitter emitter : listeners) {
+                if(send(job, emitter, eventName)) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void publish(final EntityCsvImportJob job, final String eventName) {
+        final List<SseEmitter> listeners = emitters.get(job.getUuid());
+        if(listeners != null) {
+            for(final SseEmitter emitter : listeners) {
+                send(job, emitter, eventName);
+            }
+        }
+    }
+
+    private boolean send(final EntityCsvImportJob job, final SseEmitter emitter, final String eventName) {
+        try {
+            emitter.send(SseEmitter.event().id(job.getUuid()).name(eventName).data(toDto(job)));
+            return true;
+        }catch(final Exception exception) {
+            final List<SseEmitter> listeners = emitters.get(job.getUuid());
+            if(listeners != null) {
+                listeners.remove(emitter);
+            }
+            emitter.completeWithError(exception);
+            return false;
+        }
+    }
+
+    private void deleteStagedFile(final EntityCsvImportJob job) {
+        try {
+            Files.deleteIfExists(Paths.get(job.getStagedPath()));
+        }catch(IOException e) {
+            log.warn("Could not delete staged CSV file {}: {}", job.getStagedPath(), e.getMessage());
+        }
+    }
+
+    private static String eventName(final EntityCsvImportJob job) {
+        return job.isFinished() ? job.getStatus().toLowerCase() : EVENT_PROGRESS;
+    }
+
+    private static I18n i18nOf(final EntityCsvImportJob job) {
+        return job.getLocale() != null ? new I18n(Locale.forLanguageTag(job.getLocale())) : new I18n();
+    }
+
+    private static String truncate(final String message) {
+        return message != null && message.length() > MESSAGE_LENGTH ? message.substring(0, MESSAGE_LENGTH) : message;
+    }
+
+    private DtoResCsvImportJob toDto(final EntityCsvImportJob job) {
+        final List<CSVImportResult.CSVImportError> errors = job.getId() == null || job.getErrorCount() == 0 ? List.of()
+                : repositoryCsvImportJobError.findByJobIdOrderByRowNumberAsc(job.getId(), PageRequest.of(0, Math.max(1, configCoreCsvImport.getMaxReportedErrors())))
+                .stream()
+                .map(error -> CSVImportResult.CSVImportError.builder()
+                        .rowNumber(error.getRowNumber())
+                        .originalData(error.getOriginalData())
+                        .errorMessage(error.getErrorMessage())
+                        .build())
+                .collect(Collectors.toList());
+        return DtoResCsvImportJob.builder()
+                .jobId(job.getUuid())
+                .importType(job.getImportType())
+                .status(job.getStatus())
+                .organizationId(job.getOrganizationId())
+                .fileName(job.getFileName())
+                .processedRows(job.getProcessedRows())
+                .successCount(job.getSuccessCount())
+                .errorCount(job.getErrorCount())
+                .errors(errors)
+                .message(job.getMessage())
+                .createdDate(job.getCreatedDate())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+}
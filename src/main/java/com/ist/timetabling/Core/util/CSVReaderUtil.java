@@ -57,6 +57,27 @@ public class CSVReaderUtil {
     }
 
     
+    /**
+     * Opens the file for lazy, record-by-record reading; the caller closes the parser.
+     */
+    public CSVParser openCSV(MultipartFile file, String[] headers, boolean skipHeaderRow) throws IOException {
+        if(file.isEmpty()) {
+            throw new IOException("CSV file is empty");
+        }
+        return openCSV(file.getInputStream(), headers, skipHeaderRow);
+    }
+
+    public CSVParser openCSV(InputStream inputStream, String[] headers, boolean skipHeaderRow) throws IOException {
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
+                .setHeader(headers)
+                .setSkipHeaderRecord(skipHeaderRow)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build();
+        return new CSVParser(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), csvFormat);
+    }
+
+    
     public String getRequiredField(CSVRecord record, String fieldName, String errorMessage) throws Exception {
         if(!record.isMapped(fieldName) || !hasText(record.get(fieldName))) {
             throw new Exception(errorMessage);
@@ -1,14 +1,29 @@
 package com.ist.timetabling.Core.util;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Window;
+
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class PaginationUtil {
 
+    public static final int MAX_CURSOR_PAGE_SIZE = 500;
+
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
     private PaginationUtil() {
     }
 
@@ -30,6 +45,64 @@ public class PaginationUtil {
         return PageRequest.of(pageNumber, pageSize, sort);
     }
 
+    /**
+     * Sort for keyset paging: the requested field followed by {@code id}, so every row has a unique
+     * position. Fields outside {@code allowedFields} fall back to {@code id} alone. Only non-null columns
+     * belong in {@code allowedFields}: no row compares greater than a null key, so paging would stop there.
+     */
+    public static Sort createKeysetSort(final String sortBy, final String sortDirection, final List<String> allowedFields) {
+        final Sort.Direction direction = sortDirection != null && sortDirection.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if(sortBy == null || sortBy.equals("id") || !allowedFields.contains(sortBy)) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    public static Limit createLimit(final Integer size, final int defaultPageSize) {
+        final int pageSize = (size == null || size < 1) ? defaultPageSize : size;
+        return Limit.of(Math.min(pageSize, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    /**
+     * Reads an {@code after} token written by {@link #encodeCursor(Window)}. A missing token starts
+     * from the first row.
+     */
+    public static KeysetScrollPosition decodeCursor(final String after) {
+        if(after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            final byte[] json = Base64.getUrlDecoder().decode(after);
+            final Map<String, Object> keys = CURSOR_MAPPER.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {});
+            return ScrollPosition.forward(keys);
+        }catch(final Exception e) {
+            throw new ExceptionCoreValidation("Invalid cursor", "The 'after' cursor is malformed or expired");
+        }
+    }
+
+    /**
+     * Opaque token for the row after the last one of the window, or null when there is nothing
+     * left to read.
+     */
+    public static String encodeCursor(final Window<?> window) {
+        if(window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        final ScrollPosition position = window.positionAt(window.size() - 1);
+        if(!(position instanceof KeysetScrollPosition keysetScrollPosition)) {
+            return null;
+        }
+        if(keysetScrollPosition.getKeys().containsValue(null)) {
+            throw new IllegalStateException("Keyset cursor on a nullable sort field: " + keysetScrollPosition.getKeys().keySet());
+        }
+        try {
+            final byte[] json = CURSOR_MAPPER.writeValueAsBytes(keysetScrollPosition.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        }catch(final Exception e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
     /**
      * Converts a List<T> to a Page<T> using the provided Pageable.
      */
@@ -44,4 +117,4 @@ public class PaginationUtil {
         return new PageImpl<>(content, pageable, total);
     }
 
-}
\ No newline at end of file
+}
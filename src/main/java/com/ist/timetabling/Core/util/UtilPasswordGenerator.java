@@ -1,8 +1,16 @@
 package com.ist.timetabling.Core.util;
 
+import com.ist.timetabling.Core.model.ModelGeneratedPassword;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Component
 public class UtilPasswordGenerator {
@@ -13,6 +21,15 @@ public class UtilPasswordGenerator {
     private static final String SPECIAL = "!@#$%^&*()-_=+[]{}|;:,.<>?";
     private static final SecureRandom random = new SecureRandom();
 
+    private final PasswordEncoder passwordEncoder;
+    private final ForkJoinPool passwordHashingPool;
+
+    @Autowired
+    public UtilPasswordGenerator(final PasswordEncoder passwordEncoder, @Qualifier("passwordHashingPool") final ForkJoinPool passwordHashingPool) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingPool = passwordHashingPool;
+    }
+
     public String generateSecurePassword(int length) {
         if(length < 8) {
             length = 8;
@@ -40,6 +57,26 @@ public class UtilPasswordGenerator {
         return new String(passwordArray);
     }
 
+    public ModelGeneratedPassword generateEncodedPassword(final int length) {
+        final String password = generateSecurePassword(length);
+        return new ModelGeneratedPassword(password, passwordEncoder.encode(password));
+    }
+
+    /**
+     * Bulk mode of {@link #generateEncodedPassword(int)}: the hashes are computed in parallel on the
+     * password hashing pool, which is sized to the cores so an import cannot starve the request threads.
+     * The encoder and its cost are the same as for a single account.
+     */
+    public List<ModelGeneratedPassword> generateEncodedPasswords(final int count, final int length) {
+        if(count <= 1) {
+            return count == 1 ? List.of(generateEncodedPassword(length)) : List.of();
+        }
+        return passwordHashingPool.submit(() -> IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> generateEncodedPassword(length))
+                .collect(Collectors.toList())).join();
+    }
+
     public boolean isPasswordValid(String password) {
         if(password == null || password.length() < 8) {
             return false;
@@ -1,11 +1,14 @@
 package com.ist.timetabling.Organization.controller;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Organization.dto.res.DtoResOrganization;
 import com.ist.timetabling.Organization.dto.req.DtoReqOrganization;
 import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Organization.dto.res.DtoResOrganizationCsvUpload;
 import com.ist.timetabling.Organization.service.ServiceOrganization;
+import com.ist.timetabling.Organization.util.OrganizationCsvMapper;
 import com.ist.timetabling.Organization.util.UtilOrganizationCsv;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +34,7 @@ public class ControllerOrganization {
 
     private final ServiceOrganization serviceOrganization;
     private final UtilOrganizationCsv utilOrganizationCsv;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
     @GetMapping("/{uuid}")
     public ResponseEntity<ApiResponse<DtoResOrganization>> getOrganizationByUuid(@PathVariable final String uuid) {
@@ -110,6 +114,20 @@ public class ControllerOrganization {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    @PostMapping("/import/csv/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitOrganizationImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow) {
+
+        DtoReqCsvUpload uploadRequest = new DtoReqCsvUpload();
+        uploadRequest.setFile(file);
+        uploadRequest.setSkipHeaderRow(skipHeaderRow);
+
+        final ApiResponse<DtoResCsvImportJob> response = serviceCsvImportJob.submit(OrganizationCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
 
     @GetMapping("/template")
     @PreAuthorize("hasRole('ADMIN')")
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,12 @@ public interface RepositoryOrganization extends JpaRepository<EntityOrganization
     boolean existsByIdAndIsDeletedFalse(Integer id);
     
     boolean existsByContactEmailAndIsDeletedFalse(String email);
+
+    @Query("SELECT o.name FROM EntityOrganization o WHERE o.isDeleted = false AND o.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("SELECT o.contactEmail FROM EntityOrganization o WHERE o.isDeleted = false AND o.contactEmail IN :emails")
+    List<String> findExistingContactEmails(@Param("emails") Collection<String> emails);
     
     boolean existsByContactEmailAndUuidNotAndIsDeletedFalse(String email, String excludeUuid);
 
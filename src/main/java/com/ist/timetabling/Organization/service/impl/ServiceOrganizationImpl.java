@@ -2,8 +2,14 @@ package com.ist.timetabling.Organization.service.impl;
 
 import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Core.util.CSVReaderUtil;
 import com.ist.timetabling.Organization.dto.res.DtoResOrganization;
 import com.ist.timetabling.Organization.dto.res.DtoResOrganizationCsvUpload;
@@ -17,6 +23,7 @@ import com.ist.timetabling.Organization.service.ServiceOrganization;
 import com.ist.timetabling.Organization.util.OrganizationCsvMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,7 +43,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-public class ServiceOrganizationImpl implements ServiceOrganization {
+public class ServiceOrganizationImpl implements ServiceOrganization, CSVImportJobType {
 
     private final RepositoryOrganization repositoryOrganization;
 
@@ -44,6 +51,7 @@ public class ServiceOrganizationImpl implements ServiceOrganization {
     private final UtilAuthContext utilAuthContext;
     private final CSVReaderUtil csvReaderUtil;
     private final OrganizationCsvMapper organizationCsvMapper;
+    private final CSVImportPipeline csvImportPipeline;
 
     private static final int DEFAULT_PAGE_SIZE = 10;
 
@@ -51,17 +59,17 @@ public class ServiceOrganizationImpl implements ServiceOrganization {
 
     @Autowired
     public ServiceOrganizationImpl(RepositoryOrganization repositoryOrganization, HttpServletRequest httpServletRequest, UtilAuthContext utilAuthContext, CSVReaderUtil csvReaderUtil,
-                                   OrganizationCsvMapper organizationCsvMapper) {
+                                   OrganizationCsvMapper organizationCsvMapper, CSVImportPipeline csvImportPipeline) {
         this.repositoryOrganization = repositoryOrganization;
         this.httpServletRequest = httpServletRequest;
         this.utilAuthContext = utilAuthContext;
         this.csvReaderUtil = csvReaderUtil;
         this.organizationCsvMapper = organizationCsvMapper;
+        this.csvImportPipeline = csvImportPipeline;
 
     }
 
     @Override
-    @Transactional
     public ApiResponse<DtoResOrganizationCsvUpload> importOrganizationsFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
 
@@ -77,59 +85,20 @@ public class ServiceOrganizationImpl implements ServiceOrganization {
             );
         }
 
-        DtoResOrganizationCsvUpload result = new DtoResOrganizationCsvUpload();
-        List<DtoResOrganization> createdOrganizations = new ArrayList<>();
-        List<DtoResOrganizationCsvUpload.ImportError> errors = new ArrayList<>();
-
-        try {
-          
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    OrganizationCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
+        final OrganizationCsvImport organizationCsvImport = new OrganizationCsvImport(utilAuthContext.getAuthenticatedUserId(), i18n);
 
-            result.setTotalProcessed(records.size());
-            int rowNum = uploadRequest.getSkipHeaderRow() ? 2 : 1; 
-
-            for(CSVRecord record : records) {
-                try {
-                  
-                    DtoReqOrganization organizationRequest = organizationCsvMapper.mapToOrganizationRequest(record, rowNum);
-
-                  
-                    if(repositoryOrganization.existsByNameAndIsDeletedFalse(organizationRequest.getName())) {
-                        throw new Exception(i18n.getOrganization(I18N_ORGANIZATION_EXISTS));
-                    }
-
-                
-                    if(repositoryOrganization.existsByContactEmailAndIsDeletedFalse(organizationRequest.getContactEmail())) {
-                        throw new Exception(i18n.getOrganization(I18N_ORGANIZATION_EMAIL_EXISTS));
-                    }
-
-                    ApiResponse<DtoResOrganization> response = createOrganization(organizationRequest);
-
-                    if(response.isSuccess()) {
-                        createdOrganizations.add(response.getData());
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-                    DtoResOrganizationCsvUpload.ImportError error = new DtoResOrganizationCsvUpload.ImportError(
-                            rowNum,
-                            record.toString(),
-                            e.getMessage()
-                    );
-                    errors.add(error);
-                  
-                }
-                rowNum++;
-            }
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), OrganizationCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+            final CSVImportResult<DtoResOrganization> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, organizationCsvImport);
 
-            result.setCreatedOrganizations(createdOrganizations);
-            result.setErrors(errors);
-            result.setSuccessCount(createdOrganizations.size());
-            result.setErrorCount(errors.size());
+            DtoResOrganizationCsvUpload result = DtoResOrganizationCsvUpload.builder()
+                    .createdOrganizations(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> new DtoResOrganizationCsvUpload.ImportError(error.getRowNumber(), error.getOriginalData(), error.getErrorMessage()))
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
+                    .build();
 
             String message = result.buildSuccessMessage();
             return ApiResponse.success(HttpStatus.OK, message, result);
@@ -140,6 +109,71 @@ public class ServiceOrganizationImpl implements ServiceOrganization {
         }
     }
 
+    @Override
+    public String getImportType() {
+        return OrganizationCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return OrganizationCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        return new OrganizationCsvImport(job.getCreatedBy(), i18n);
+    }
+
+    /**
+     * The organization stages of the CSV import pipeline. Names and contact emails already taken are
+     * looked up once per chunk, and repeats inside the file are caught as the rows stream by.
+     */
+    private class OrganizationCsvImport implements CSVImportHandler<DtoReqOrganization, DtoResOrganization> {
+
+        private final Integer actorId;
+        private final I18n i18n;
+        private final Set<String> seenNames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+
+        private OrganizationCsvImport(final Integer actorId, final I18n i18n) {
+            this.actorId = actorId;
+            this.i18n = i18n;
+        }
+
+        @Override
+        public DtoReqOrganization validate(final CSVRecord record, final int rowNumber) {
+            return organizationCsvMapper.mapToOrganizationRequest(record, rowNumber);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqOrganization, DtoResOrganization>> rows) {
+            final Set<String> existingNames = repositoryOrganization.findExistingNames(rows.stream()
+                            .map(row -> row.getValue().getName()).collect(Collectors.toSet()))
+                    .stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            final Set<String> existingEmails = repositoryOrganization.findExistingContactEmails(rows.stream()
+                            .map(row -> row.getValue().getContactEmail()).collect(Collectors.toSet()))
+                    .stream().map(email -> email.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqOrganization, DtoResOrganization> row : rows) {
+                final String name = row.getValue().getName().toLowerCase(Locale.ROOT);
+                final String email = row.getValue().getContactEmail().toLowerCase(Locale.ROOT);
+                if(existingNames.contains(name) || !seenNames.add(name)) {
+                    row.reject(i18n.getOrganization(I18N_ORGANIZATION_EXISTS));
+                }else if(existingEmails.contains(email) || !seenEmails.add(email)) {
+                    row.reject(i18n.getOrganization(I18N_ORGANIZATION_EMAIL_EXISTS));
+                }
+            }
+        }
+
+        @Override
+        public List<DtoResOrganization> persist(final List<DtoReqOrganization> rows) {
+            return repositoryOrganization.saveAll(rows.stream()
+                            .map(row -> newOrganization(row, actorId))
+                            .collect(Collectors.toList()))
+                    .stream().map(ServiceOrganizationImpl.this::toDto).collect(Collectors.toList());
+        }
+
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ApiResponse<DtoResOrganization> getOrganizationByUuid(final String uuid) {
@@ -311,24 +345,27 @@ public class ServiceOrganizationImpl implements ServiceOrganization {
             );
         }
 
+        EntityOrganization savedOrganization = repositoryOrganization.save(newOrganization(dtoReqOrganization, utilAuthContext.getAuthenticatedUserId()));
+
+        DtoResOrganization dtoResOrganization = toDto(savedOrganization);
+
+        return ApiResponse.success(HttpStatus.CREATED, i18n.getOrganization(I18N_ORGANIZATION_CREATED), dtoResOrganization);
+    }
+
+    private static EntityOrganization newOrganization(final DtoReqOrganization dtoReqOrganization, final Integer actorId) {
         EntityOrganization entityOrganization = new EntityOrganization();
         entityOrganization.setName(dtoReqOrganization.getName());
         entityOrganization.setAddress(dtoReqOrganization.getAddress());
         entityOrganization.setContactEmail(dtoReqOrganization.getContactEmail());
         entityOrganization.setContactPhone(dtoReqOrganization.getContactPhone());
-        entityOrganization.setCreatedBy(utilAuthContext.getAuthenticatedUserId().toString());
-        entityOrganization.setModifiedBy(utilAuthContext.getAuthenticatedUserId().toString());
+        entityOrganization.setCreatedBy(actorId.toString());
+        entityOrganization.setModifiedBy(actorId.toString());
         entityOrganization.setUuid(UUID.randomUUID().toString());
         entityOrganization.setStatusId(dtoReqOrganization.getStatusId());
         entityOrganization.setCreatedDate(LocalDateTime.now());
         entityOrganization.setModifiedDate(LocalDateTime.now());
         entityOrganization.setIsDeleted(false);
-
-        EntityOrganization savedOrganization = repositoryOrganization.save(entityOrganization);
-
-        DtoResOrganization dtoResOrganization = toDto(savedOrganization);
-
-        return ApiResponse.success(HttpStatus.CREATED, i18n.getOrganization(I18N_ORGANIZATION_CREATED), dtoResOrganization);
+        return entityOrganization;
     }
 
     @Override
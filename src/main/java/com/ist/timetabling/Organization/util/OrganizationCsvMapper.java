@@ -17,6 +17,8 @@ import java.util.List;
 @Component
 public class OrganizationCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "ORGANIZATION";
+
     public static final String[] CSV_HEADERS = {
             "name", "address", "contactEmail", "contactPhone", "statusId"
     };
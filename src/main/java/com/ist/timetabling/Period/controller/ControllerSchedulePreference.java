@@ -1,8 +1,11 @@
 package com.ist.timetabling.Period.controller;
 
 import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreferenceGrid;
 import com.ist.timetabling.Period.dto.res.DtoResSchedulePreference;
+import com.ist.timetabling.Period.dto.res.DtoResSchedulePreferenceGrid;
 import com.ist.timetabling.Period.service.ServiceSchedulePreference;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -53,6 +56,12 @@ public class ControllerSchedulePreference {
         return ResponseEntity.ok(serviceSchedulePreference.updateSchedulePreference(uuid, requestDTO));
     }
 
+    @PutMapping("/grid")
+    public ResponseEntity<DtoResSchedulePreferenceGrid> applySchedulePreferenceGrid(
+            @Valid @RequestBody final DtoReqSchedulePreferenceGrid requestDTO) {
+        return ResponseEntity.ok(serviceSchedulePreference.applySchedulePreferenceGrid(requestDTO));
+    }
+
     @DeleteMapping("/uuid/{uuid}")
     public ResponseEntity<Void> deletePreference(
             @PathVariable final String uuid,
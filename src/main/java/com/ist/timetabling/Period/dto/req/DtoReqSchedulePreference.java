@@ -28,4 +28,5 @@ public class DtoReqSchedulePreference {
     private Boolean mustNotScheduleClass;
     private Boolean prefersNotToScheduleClass;
     private Boolean prefersToScheduleClass;
+    private Boolean isAvailable;
 }
\ No newline at end of file
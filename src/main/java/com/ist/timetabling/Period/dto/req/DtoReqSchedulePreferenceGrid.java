@@ -0,0 +1,35 @@
+package com.ist.timetabling.Period.dto.req;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full day x period grid of one plan setting for one or many owners of the same type. Cells left
+ * out of the grid, or sent with no flag set, clear whatever preference the owner had there.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DtoReqSchedulePreferenceGrid {
+
+    @NotBlank(message = "Owner type is required")
+    private String ownerType;
+
+    @NotEmpty(message = "At least one owner is required")
+    private List<Integer> ownerIds;
+
+    private Integer planSettingsId;
+
+    @Valid
+    @Builder.Default
+    private List<DtoReqSchedulePreference> cells = new ArrayList<>();
+}
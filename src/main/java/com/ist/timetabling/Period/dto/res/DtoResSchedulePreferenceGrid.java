@@ -0,0 +1,22 @@
+package com.ist.timetabling.Period.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DtoResSchedulePreferenceGrid {
+    private String ownerType;
+    private List<Integer> ownerIds;
+    private Integer planSettingsId;
+    private int created;
+    private int updated;
+    private int deleted;
+    private int unchanged;
+}
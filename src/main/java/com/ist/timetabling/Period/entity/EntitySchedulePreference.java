@@ -1,5 +1,6 @@
 package com.ist.timetabling.Period.entity;
 
+import com.ist.timetabling.Period.listener.ListenerSchedulePreference;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,6 +10,7 @@ import org.hibernate.annotations.UuidGenerator;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ListenerSchedulePreference.class)
 @Table(name = "schedule_preferences")
 @Data
 @NoArgsConstructor
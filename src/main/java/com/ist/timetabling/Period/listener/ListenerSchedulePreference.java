@@ -0,0 +1,63 @@
+package com.ist.timetabling.Period.listener;
+
+import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceChanged;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the ids of schedule preferences written in a transaction into one
+ * {@link ModelSchedulePreferenceChanged}, published after commit.
+ */
+public class ListenerSchedulePreference {
+
+    private static final Object PENDING_KEY = ListenerSchedulePreference.class.getName() + ".pending";
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(final EntitySchedulePreference preference) {
+        if(applicationEventPublisher == null || preference.getId() == null) {
+            return;
+        }
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            final ModelSchedulePreferenceChanged changed = new ModelSchedulePreferenceChanged();
+            changed.getPreferenceIds().add(preference.getId());
+            applicationEventPublisher.publishEvent(changed);
+            return;
+        }
+        pending().getPreferenceIds().add(preference.getId());
+    }
+
+    private ModelSchedulePreferenceChanged pending() {
+        final ModelSchedulePreferenceChanged bound = (ModelSchedulePreferenceChanged) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if(bound != null) {
+            return bound;
+        }
+        final ModelSchedulePreferenceChanged changed = new ModelSchedulePreferenceChanged();
+        TransactionSynchronizationManager.bindResource(PENDING_KEY, changed);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if(!changed.isEmpty()) {
+                    applicationEventPublisher.publishEvent(changed);
+                }
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+            }
+        });
+        return changed;
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.ist.timetabling.Period.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every schedule preference of one plan setting, packed per owning entity into {@code [slot]} bit
+ * masks of forbidden and required slots plus a byte of soft weight per slot. Slots are numbered
+ * {@code (dayOfWeek - 1) * periodsPerDay + (periodNumber - 1)}, the same as the solver and occupancy.
+ * Rows are immutable and swapped whole, so readers need no lock; writers serialize on the matrix.
+ */
+public class ModelAvailabilityMatrix {
+
+    public enum Owner { TEACHER, CLASS, CLASS_BAND, ROOM, RULE }
+
+    private final Integer planSettingsId;
+    private final int days;
+    private final int periodsPerDay;
+    private final Map<Integer, Integer> periodNumberById;
+    private final long builtAt;
+    private final Map<Owner, Map<Integer, Row>> rows = new EnumMap<>(Owner.class);
+    private final Map<Integer, Set<Key>> ownersByPreference = new ConcurrentHashMap<>();
+
+    public ModelAvailabilityMatrix(final Integer planSettingsId, final int days, final int periodsPerDay, final Map<Integer, Integer> periodNumberById) {
+        this.planSettingsId = planSettingsId;
+        this.days = days;
+        this.periodsPerDay = periodsPerDay;
+        this.periodNumberById = periodNumberById;
+        this.builtAt = System.currentTimeMillis();
+        for(final Owner owner : Owner.values()) {
+            rows.put(owner, new ConcurrentHashMap<>());
+        }
+    }
+
+    public Integer getPlanSettingsId() {
+        return planSettingsId;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getPeriodsPerDay() {
+        return periodsPerDay;
+    }
+
+    public int getSlotCount() {
+        return days * periodsPerDay;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public int slotOf(final Integer dayOfWeek, final Integer periodId) {
+        final Integer periodNumber = periodNumberById.get(periodId);
+        if(dayOfWeek == null || periodNumber == null || dayOfWeek < 1 || dayOfWeek > days || periodNumber < 1 || periodNumber > periodsPerDay) {
+            return -1;
+        }
+        return (dayOfWeek - 1) * periodsPerDay + (periodNumber - 1);
+    }
+
+    public Row rowOf(final Owner owner, final Integer id) {
+        return id != null ? rows.get(owner).get(id) : null;
+    }
+
+    public Map<Integer, Row> rowsOf(final Owner owner) {
+        return Collections.unmodifiableMap(rows.get(owner));
+    }
+
+    public boolean isForbidden(final Owner owner, final Integer id, final int slot) {
+        final Row row = rowOf(owner, id);
+        return row != null && row.isForbidden(slot);
+    }
+
+    public boolean isRequired(final Owner owner, final Integer id, final int slot) {
+        final Row row = rowOf(owner, id);
+        return row != null && row.isRequired(slot);
+    }
+
+    public int weightAt(final Owner owner, final Integer id, final int slot) {
+        final Row row = rowOf(owner, id);
+        return row != null ? row.weightAt(slot) : 0;
+    }
+
+    public Set<Key> ownersOf(final Integer preferenceId) {
+        return ownersByPreference.getOrDefault(preferenceId, Collections.emptySet());
+    }
+
+    /**
+     * Replaces the row of one entity; an empty row removes it.
+     */
+    public synchronized void put(final Owner owner, final Integer id, final Row row) {
+        final Key key = new Key(owner, id);
+        final Row previous = rows.get(owner).remove(id);
+        if(previous != null) {
+            for(final int preferenceId : previous.preferenceIds) {
+                final Set<Key> owners = ownersByPreference.get(preferenceId);
+                if(owners != null && owners.remove(key) && owners.isEmpty()) {
+                    ownersByPreference.remove(preferenceId);
+                }
+            }
+        }
+        if(row == null || row.preferenceIds.length == 0) {
+            return;
+        }
+        rows.get(owner).put(id, row);
+        for(final int preferenceId : row.preferenceIds) {
+            ownersByPreference.computeIfAbsent(preferenceId, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    public static final class Row {
+
+        private final long[] forbidden;
+        private final long[] required;
+        private final byte[] weight;
+        private final int[] preferenceIds;
+
+        public Row(final long[] forbidden, final long[] required, final byte[] weight, final int[] preferenceIds) {
+            this.forbidden = forbidden;
+            this.required = required;
+            this.weight = weight;
+            this.preferenceIds = preferenceIds;
+        }
+
+        public long[] getForbidden() {
+            return forbidden;
+        }
+
+        public long[] getRequired() {
+            return required;
+        }
+
+        public int[] getPreferenceIds() {
+            return preferenceIds;
+        }
+
+        public boolean isForbidden(final int slot) {
+            return isSet(forbidden, slot);
+        }
+
+        public boolean isRequired(final int slot) {
+            return isSet(required, slot);
+        }
+
+        public int weightAt(final int slot) {
+            return slot >= 0 && slot < weight.length ? weight[slot] : 0;
+        }
+
+        private static boolean isSet(final long[] mask, final int slot) {
+            return slot >= 0 && (slot >>> 6) < mask.length && (mask[slot >>> 6] & (1L << slot)) != 0;
+        }
+
+    }
+
+    public static final class Key {
+
+        private final Owner owner;
+        private final Integer id;
+
+        public Key(final Owner owner, final Integer id) {
+            this.owner = owner;
+            this.id = id;
+        }
+
+        public Owner getOwner() {
+            return owner;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Key key && owner == key.owner && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return owner.hashCode() * 31 + id.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.ist.timetabling.Period.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Published after availability rows of these plan settings were rebuilt or their matrices were dropped,
+ * so anything that copied bits out of them, such as conflict indexes, can drop its copy too.
+ */
+@Getter
+@AllArgsConstructor
+public class ModelAvailabilityMatrixChanged {
+
+    private final Set<Integer> planSettingsIds;
+
+}
@@ -0,0 +1,21 @@
+package com.ist.timetabling.Period.model;
+
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published once per committed transaction that wrote schedule preferences, so availability
+ * matrices can rebuild just the rows that hold them.
+ */
+@Getter
+public class ModelSchedulePreferenceChanged {
+
+    private final Set<Integer> preferenceIds = new HashSet<>();
+
+    public boolean isEmpty() {
+        return preferenceIds.isEmpty();
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.ist.timetabling.Period.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ModelSchedulePreferenceLink {
+
+    private final String ownerType;
+    private final Integer ownerId;
+    private final Integer preferenceId;
+
+}
@@ -1,18 +1,32 @@
 package com.ist.timetabling.Period.repository;
 
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RepositorySchedulePreference extends JpaRepository<EntitySchedulePreference, Long> {
 
+    String SELECT_LINK = "SELECT new com.ist.timetabling.Period.model.ModelSchedulePreferenceLink(";
+    String LINKS_TEACHER = SELECT_LINK + "'TEACHER', o.id, p.id) FROM EntityTeacherProfile o JOIN o.schedulePreferences p WHERE p.isDeleted = false AND ";
+    String LINKS_CLASS = SELECT_LINK + "'CLASS', o.id, p.id) FROM EntityClass o JOIN o.schedulePreferences p WHERE p.isDeleted = false AND ";
+    String LINKS_CLASS_BAND = SELECT_LINK + "'CLASS_BAND', o.id, p.id) FROM EntityClassBand o JOIN o.schedulePreferences p WHERE p.isDeleted = false AND ";
+    String LINKS_ROOM = SELECT_LINK + "'ROOM', o.id, p.id) FROM EntityRoom o JOIN o.schedulePreferences p WHERE p.isDeleted = false AND ";
+    String LINKS_RULE = SELECT_LINK + "'RULE', CAST(o.id AS Integer), p.id) FROM EntityRule o JOIN o.schedulePreferences p WHERE p.isDeleted = false AND ";
+    String BY_PLAN = "(p.planSettingsId = :planSettingsId OR p.planSettingsId IS NULL)";
+    String BY_IDS = "p.id IN :preferenceIds";
+    String BY_OWNER = "o.id IN :ownerIds AND (p.planSettingsId = :planSettingsId OR (:planSettingsId IS NULL AND p.planSettingsId IS NULL))";
+    String LINK_SELECT = " SELECT :ownerId, sp.schedule_preference_id FROM schedule_preferences sp WHERE sp.schedule_preference_id IN :preferenceIds";
+
     Optional<EntitySchedulePreference> findByUuid(String uuid);
 
     @Query("SELECT sp FROM EntitySchedulePreference sp " +
@@ -57,4 +71,50 @@ public interface RepositorySchedulePreference extends JpaRepository<EntitySchedu
 
     List<EntitySchedulePreference> findAllByPeriodIdAndDayOfWeek(Integer periodId, Integer dayOfWeek);
 
-}
\ No newline at end of file
+    @Query(LINKS_TEACHER + BY_PLAN + " UNION ALL " + LINKS_CLASS + BY_PLAN + " UNION ALL " + LINKS_CLASS_BAND + BY_PLAN
+            + " UNION ALL " + LINKS_ROOM + BY_PLAN + " UNION ALL " + LINKS_RULE + BY_PLAN)
+    List<ModelSchedulePreferenceLink> findLinksByPlanSettingsId(@Param("planSettingsId") Integer planSettingsId);
+
+    @Query(LINKS_TEACHER + BY_IDS + " UNION ALL " + LINKS_CLASS + BY_IDS + " UNION ALL " + LINKS_CLASS_BAND + BY_IDS
+            + " UNION ALL " + LINKS_ROOM + BY_IDS + " UNION ALL " + LINKS_RULE + BY_IDS)
+    List<ModelSchedulePreferenceLink> findLinksByPreferenceIdIn(@Param("preferenceIds") Collection<Integer> preferenceIds);
+
+    @Query("SELECT sp FROM EntitySchedulePreference sp WHERE sp.id IN :ids AND sp.isDeleted = false")
+    List<EntitySchedulePreference> findActiveByIdIn(@Param("ids") Collection<Integer> schedulePreferenceIds);
+
+    @Query(LINKS_TEACHER + "'TEACHER' = :ownerType AND " + BY_OWNER + " UNION ALL " + LINKS_CLASS + "'CLASS' = :ownerType AND " + BY_OWNER
+            + " UNION ALL " + LINKS_CLASS_BAND + "'CLASS_BAND' = :ownerType AND " + BY_OWNER + " UNION ALL " + LINKS_ROOM + "'ROOM' = :ownerType AND " + BY_OWNER)
+    List<ModelSchedulePreferenceLink> findLinksByOwner(@Param("ownerType") String ownerType, @Param("ownerIds") Collection<Integer> ownerIds, @Param("planSettingsId") Integer planSettingsId);
+
+    /**
+     * Links of rooms that have no plan setting. Their cells used to be stored under the plan setting of each
+     * cell's period, so those rows are matched along with the unscoped ones.
+     */
+    @Query(LINKS_ROOM + "o.id IN :ownerIds AND (p.planSettingsId IS NULL OR p.planSettingsId = (SELECT per.planSettingsId FROM EntityPeriod per WHERE per.id = p.periodId))")
+    List<ModelSchedulePreferenceLink> findRoomLinksWithoutPlanSetting(@Param("ownerIds") Collection<Integer> roomIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EntitySchedulePreference sp SET sp.planSettingsId = NULL WHERE sp.id IN :ids AND sp.planSettingsId IS NOT NULL")
+    int clearPlanSettingsIdByIdIn(@Param("ids") Collection<Integer> schedulePreferenceIds);
+
+    @Modifying
+    @Query("UPDATE EntitySchedulePreference sp SET sp.isDeleted = true, sp.modifiedBy = :userId, sp.modifiedDate = CURRENT_TIMESTAMP WHERE sp.id IN :ids AND sp.isDeleted = false")
+    int softDeleteByIdIn(@Param("ids") Collection<Integer> schedulePreferenceIds, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO teacher_schedule_preferences (teacher_profile_id, schedule_preference_id)" + LINK_SELECT, nativeQuery = true)
+    int linkToTeacher(@Param("ownerId") Integer teacherProfileId, @Param("preferenceIds") Collection<Integer> preferenceIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO class_schedule_preferences (class_id, schedule_preference_id)" + LINK_SELECT, nativeQuery = true)
+    int linkToClass(@Param("ownerId") Integer classId, @Param("preferenceIds") Collection<Integer> preferenceIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO class_band_schedule_preferences (class_band_id, schedule_preference_id)" + LINK_SELECT, nativeQuery = true)
+    int linkToClassBand(@Param("ownerId") Integer classBandId, @Param("preferenceIds") Collection<Integer> preferenceIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO room_schedule_preferences (room_id, schedule_preference_id)" + LINK_SELECT, nativeQuery = true)
+    int linkToRoom(@Param("ownerId") Integer roomId, @Param("preferenceIds") Collection<Integer> preferenceIds);
+
+}
@@ -0,0 +1,14 @@
+package com.ist.timetabling.Period.service;
+
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceChanged;
+
+public interface ServiceAvailabilityMatrix {
+
+    ModelAvailabilityMatrix getMatrix(final Integer planSettingsId);
+
+    void onPreferencesChanged(final ModelSchedulePreferenceChanged changed);
+
+    void evict(final Integer planSettingsId);
+
+}
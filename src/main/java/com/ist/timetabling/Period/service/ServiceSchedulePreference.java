@@ -1,7 +1,9 @@
 package com.ist.timetabling.Period.service;
 
 import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreferenceGrid;
 import com.ist.timetabling.Period.dto.res.DtoResSchedulePreference;
+import com.ist.timetabling.Period.dto.res.DtoResSchedulePreferenceGrid;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +24,6 @@ public interface ServiceSchedulePreference {
     DtoResSchedulePreference updateSchedulePreference(final String uuid, final DtoReqSchedulePreference requestDTO);
 
     void deletePreference(final String uuid, final Integer userId);
+
+    DtoResSchedulePreferenceGrid applySchedulePreferenceGrid(final DtoReqSchedulePreferenceGrid requestDTO);
 }
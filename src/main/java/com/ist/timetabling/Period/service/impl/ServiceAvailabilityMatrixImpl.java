@@ -0,0 +1,194 @@
+package com.ist.timetabling.Period.service.impl;
+
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrixChanged;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Key;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceChanged;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceLink;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.repository.RepositorySchedulePreference;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
+import com.ist.timetabling.Period.util.UtilAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ServiceAvailabilityMatrixImpl implements ServiceAvailabilityMatrix {
+
+    public static final long MATRIX_TTL_MILLIS = 10 * 60 * 1000L;
+
+    private static final int DEFAULT_DAYS_PER_WEEK = 5;
+
+    private final RepositorySchedulePreference repositorySchedulePreference;
+    private final RepositoryPeriod repositoryPeriod;
+    private final RepositoryPlanSetting repositoryPlanSetting;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Map<Integer, ModelAvailabilityMatrix> matrices = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceAvailabilityMatrixImpl(final RepositorySchedulePreference repositorySchedulePreference,
+                                         final RepositoryPeriod repositoryPeriod,
+                                         final RepositoryPlanSetting repositoryPlanSetting,
+                                         final ApplicationEventPublisher applicationEventPublisher) {
+        this.repositorySchedulePreference = repositorySchedulePreference;
+        this.repositoryPeriod = repositoryPeriod;
+        this.repositoryPlanSetting = repositoryPlanSetting;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public ModelAvailabilityMatrix getMatrix(final Integer planSettingsId) {
+        final ModelAvailabilityMatrix cached = matrices.get(planSettingsId);
+        if(cached != null && System.currentTimeMillis() - cached.getBuiltAt() < MATRIX_TTL_MILLIS) {
+            return cached;
+        }
+        final ModelAvailabilityMatrix built = build(planSettingsId);
+        matrices.put(planSettingsId, built);
+        return built;
+    }
+
+    /**
+     * Rebuilds only the rows that held, or now hold, one of the changed preferences: one query for
+     * the current owners of those preferences and one for the preferences of the affected rows. Plan
+     * settings that had rows rebuilt are announced with {@link ModelAvailabilityMatrixChanged}.
+     */
+    @Override
+    @EventListener
+    public void onPreferencesChanged(final ModelSchedulePreferenceChanged changed) {
+        if(matrices.isEmpty() || changed.isEmpty()) {
+            return;
+        }
+        final Set<Integer> changedIds = changed.getPreferenceIds();
+        final List<ModelSchedulePreferenceLink> links = repositorySchedulePreference.findLinksByPreferenceIdIn(changedIds);
+        final Set<Integer> rebuilt = new HashSet<>();
+        for(final ModelAvailabilityMatrix matrix : matrices.values()) {
+            synchronized(matrix) {
+                final Map<Key, Set<Integer>> rowIds = new HashMap<>();
+                for(final Integer preferenceId : changedIds) {
+                    for(final Key key : matrix.ownersOf(preferenceId)) {
+                        rowIds.computeIfAbsent(key, ignored -> idsOf(matrix, key, changedIds));
+                    }
+                }
+                for(final ModelSchedulePreferenceLink link : links) {
+                    final Key key = new Key(Owner.valueOf(link.getOwnerType()), link.getOwnerId());
+                    rowIds.computeIfAbsent(key, ignored -> idsOf(matrix, key, changedIds)).add(link.getPreferenceId());
+                }
+                if(rowIds.isEmpty()) {
+                    continue;
+                }
+                final Map<Integer, EntitySchedulePreference> preferences = load(rowIds.values().stream().flatMap(Set::stream).collect(Collectors.toSet()));
+                rowIds.forEach((key, ids) -> matrix.put(key.getOwner(), key.getId(), UtilAvailabilityMatrix.compile(matrix, resolve(ids, preferences))));
+                rebuilt.add(matrix.getPlanSettingsId());
+                log.debug("Rebuilt {} availability rows of plan setting {} after {} preference changes", rowIds.size(), matrix.getPlanSettingsId(), changedIds.size());
+            }
+        }
+        if(!rebuilt.isEmpty()) {
+            applicationEventPublisher.publishEvent(new ModelAvailabilityMatrixChanged(rebuilt));
+        }
+    }
+
+    /**
+     * Drops the matrix now and again once the caller's transaction ends, in case it was rebuilt from
+     * periods or settings that were not committed yet; outside a transaction it is dropped once.
+     */
+    @Override
+    public void evict(final Integer planSettingsId) {
+        if(planSettingsId == null) {
+            return;
+        }
+        matrices.remove(planSettingsId);
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applicationEventPublisher.publishEvent(new ModelAvailabilityMatrixChanged(Set.of(planSettingsId)));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                matrices.remove(planSettingsId);
+                applicationEventPublisher.publishEvent(new ModelAvailabilityMatrixChanged(Set.of(planSettingsId)));
+            }
+        });
+    }
+
+    private ModelAvailabilityMatrix build(final Integer planSettingsId) {
+        final List<EntityPeriod> periods = repositoryPeriod.findByPlanSettingsIdAndIsDeletedFalse(planSettingsId);
+        final EntityPlanSetting planSetting = repositoryPlanSetting.findById(planSettingsId).orElse(null);
+        int days = DEFAULT_DAYS_PER_WEEK;
+        int periodsPerDay = 0;
+        if(planSetting != null) {
+            days = planSetting.getDaysPerWeek() != null && planSetting.getDaysPerWeek() > 0 ? planSetting.getDaysPerWeek() : days;
+            periodsPerDay = planSetting.getPeriodsPerDay() != null ? planSetting.getPeriodsPerDay() : 0;
+        }
+        final Map<Integer, Integer> periodNumberById = new HashMap<>();
+        for(final EntityPeriod period : periods) {
+            if(period.getPeriodNumber() != null) {
+                periodNumberById.put(period.getId(), period.getPeriodNumber());
+                periodsPerDay = Math.max(periodsPerDay, period.getPeriodNumber());
+            }
+        }
+
+        final ModelAvailabilityMatrix matrix = new ModelAvailabilityMatrix(planSettingsId, days, periodsPerDay, periodNumberById);
+        final List<ModelSchedulePreferenceLink> links = repositorySchedulePreference.findLinksByPlanSettingsId(planSettingsId);
+        final Map<Key, Set<Integer>> rowIds = new HashMap<>();
+        for(final ModelSchedulePreferenceLink link : links) {
+            rowIds.computeIfAbsent(new Key(Owner.valueOf(link.getOwnerType()), link.getOwnerId()), ignored -> new HashSet<>()).add(link.getPreferenceId());
+        }
+        final Map<Integer, EntitySchedulePreference> preferences = load(links.stream().map(ModelSchedulePreferenceLink::getPreferenceId).collect(Collectors.toSet()));
+        rowIds.forEach((key, ids) -> matrix.put(key.getOwner(), key.getId(), UtilAvailabilityMatrix.compile(matrix, resolve(ids, preferences))));
+        log.debug("Built availability matrix of plan setting {} from {} preferences over {} entities", planSettingsId, preferences.size(), rowIds.size());
+        return matrix;
+    }
+
+    private Set<Integer> idsOf(final ModelAvailabilityMatrix matrix, final Key key, final Set<Integer> changedIds) {
+        final Set<Integer> ids = new HashSet<>();
+        final ModelAvailabilityMatrix.Row row = matrix.rowOf(key.getOwner(), key.getId());
+        if(row != null) {
+            for(final int preferenceId : row.getPreferenceIds()) {
+                if(!changedIds.contains(preferenceId)) {
+                    ids.add(preferenceId);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Map<Integer, EntitySchedulePreference> load(final Collection<Integer> ids) {
+        if(ids.isEmpty()) {
+            return Map.of();
+        }
+        return repositorySchedulePreference.findActiveByIdIn(ids).stream().collect(Collectors.toMap(EntitySchedulePreference::getId, preference -> preference));
+    }
+
+    private static List<EntitySchedulePreference> resolve(final Set<Integer> ids, final Map<Integer, EntitySchedulePreference> preferences) {
+        final List<EntitySchedulePreference> resolved = new ArrayList<>(ids.size());
+        for(final Integer id : ids) {
+            final EntitySchedulePreference preference = preferences.get(id);
+            if(preference != null) {
+                resolved.add(preference);
+            }
+        }
+        return resolved;
+    }
+
+}
@@ -14,6 +14,7 @@ import com.ist.timetabling.Period.exception.ExceptionScheduleConflict;
 import com.ist.timetabling.Period.exception.ExceptionScheduleCreation;
 import com.ist.timetabling.Period.repository.RepositoryPeriod;
 import com.ist.timetabling.Period.repository.RepositorySchedule;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
 import com.ist.timetabling.Period.service.ServicePeriod;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
@@ -31,6 +32,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import static com.ist.timetabling.Period.constant.ConstantPeriodI18n.*;
 import com.ist.timetabling.PlanSetting.dto.res.DtoResPlanningSettings;
@@ -49,15 +51,17 @@ public class ServicePeriodImpl implements ServicePeriod {
     private final UtilAuthContext utilAuthContext;
     private final ServicePlanSetting servicePlanSetting;
     private final RepositorySchedule repositorySchedule;
+    private final ServiceAvailabilityMatrix serviceAvailabilityMatrix;
     private static final String ROLE_ADMIN = "ADMIN";
 
     @Autowired
-    public ServicePeriodImpl(final RepositoryPeriod repositoryPeriod, final HttpServletRequest httpServletRequest,final UtilAuthContext utilAuthContext,final ServicePlanSetting servicePlanSetting,final RepositorySchedule repositorySchedule) {
+    public ServicePeriodImpl(final RepositoryPeriod repositoryPeriod, final HttpServletRequest httpServletRequest,final UtilAuthContext utilAuthContext,final ServicePlanSetting servicePlanSetting,final RepositorySchedule repositorySchedule,final ServiceAvailabilityMatrix serviceAvailabilityMatrix) {
         this.repositoryPeriod = repositoryPeriod;
         this.httpServletRequest = httpServletRequest;
         this.utilAuthContext = utilAuthContext;
         this.servicePlanSetting = servicePlanSetting;
         this.repositorySchedule = repositorySchedule;
+        this.serviceAvailabilityMatrix = serviceAvailabilityMatrix;
     }
 
     @Override
@@ -288,6 +292,7 @@ public class ServicePeriodImpl implements ServicePeriod {
         entityPeriod.setAllowLocationChange(dtoReqPeriod.getAllowLocationChange() != null ? dtoReqPeriod.getAllowLocationChange() : false);
 
         final EntityPeriod savedEntityPeriod = repositoryPeriod.save(entityPeriod);
+        serviceAvailabilityMatrix.evict(savedEntityPeriod.getPlanSettingsId());
         final DtoResPeriod dtoResPeriod = toDto(savedEntityPeriod);
         createSchedulesForPeriod(savedEntityPeriod);
         return ApiResponse.success(HttpStatus.CREATED, i18n.getPeriod(I18N_PERIOD_CREATE_SUCCESS), dtoResPeriod);
@@ -324,11 +329,16 @@ public class ServicePeriodImpl implements ServicePeriod {
         existingEntityPeriod.setShowInTimetable(request.getShowInTimetable());
         existingEntityPeriod.setAllowConflicts(request.getAllowConflicts());
         existingEntityPeriod.setOrganizationId(organizationId);
+        final Integer previousPlanSettingsId = existingEntityPeriod.getPlanSettingsId();
         existingEntityPeriod.setPlanSettingsId(request.getPlanSettingsId());
         existingEntityPeriod.setModifiedBy(userId);
         existingEntityPeriod.setAllowLocationChange(request.getAllowLocationChange() != null ? request.getAllowLocationChange() : false);
 
         final EntityPeriod updatedEntityPeriod = repositoryPeriod.save(existingEntityPeriod);
+        serviceAvailabilityMatrix.evict(previousPlanSettingsId);
+        if(!Objects.equals(previousPlanSettingsId, updatedEntityPeriod.getPlanSettingsId())) {
+            serviceAvailabilityMatrix.evict(updatedEntityPeriod.getPlanSettingsId());
+        }
         final DtoResPeriod dtoResPeriod = toDto(updatedEntityPeriod);
         return ApiResponse.success(HttpStatus.OK, i18n.getPeriod(I18N_PERIOD_UPDATE_SUCCESS), dtoResPeriod);
     }
@@ -367,6 +377,7 @@ public class ServicePeriodImpl implements ServicePeriod {
         existingEntityPeriod.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
 
         repositoryPeriod.save(existingEntityPeriod);
+        serviceAvailabilityMatrix.evict(existingEntityPeriod.getPlanSettingsId());
         return ApiResponse.success(HttpStatus.OK, i18n.getPeriod(I18N_PERIOD_DELETE_SUCCESS), null);
     }
 
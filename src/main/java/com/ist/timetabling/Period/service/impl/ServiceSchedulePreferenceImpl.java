@@ -1,19 +1,50 @@
 package com.ist.timetabling.Period.service.impl;
 
+import com.ist.timetabling.Auth.util.UtilAuthContext;
+import com.ist.timetabling.Class.entity.EntityClass;
+import com.ist.timetabling.Class.repository.RepositoryClass;
+import com.ist.timetabling.ClassBand.entity.EntityClassBand;
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
 import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreferenceGrid;
 import com.ist.timetabling.Period.dto.res.DtoResSchedulePreference;
+import com.ist.timetabling.Period.dto.res.DtoResSchedulePreferenceGrid;
+import com.ist.timetabling.Period.entity.EntityPeriod;
 import com.ist.timetabling.Period.entity.EntitySchedule;
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceChanged;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceLink;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
 import com.ist.timetabling.Period.repository.RepositorySchedule;
 import com.ist.timetabling.Period.repository.RepositorySchedulePreference;
 import com.ist.timetabling.Period.service.ServiceSchedulePreference;
+import com.ist.timetabling.Room.entity.EntityRoom;
+import com.ist.timetabling.Room.repository.RepositoryRoom;
+import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
+import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,12 +52,33 @@ public class ServiceSchedulePreferenceImpl implements ServiceSchedulePreference
 
     private final RepositorySchedulePreference repositorySchedulePreference;
     private final RepositorySchedule repositorySchedule;
+    private final RepositoryPeriod repositoryPeriod;
+    private final RepositoryTeacherProfile repositoryTeacherProfile;
+    private final RepositoryClass repositoryClass;
+    private final RepositoryClassBand repositoryClassBand;
+    private final RepositoryRoom repositoryRoom;
+    private final UtilAuthContext utilAuthContext;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Autowired
     public ServiceSchedulePreferenceImpl(final RepositorySchedulePreference repositorySchedulePreference,
-                                         final RepositorySchedule repositorySchedule) {
+                                         final RepositorySchedule repositorySchedule,
+                                         final RepositoryPeriod repositoryPeriod,
+                                         final RepositoryTeacherProfile repositoryTeacherProfile,
+                                         final RepositoryClass repositoryClass,
+                                         final RepositoryClassBand repositoryClassBand,
+                                         final RepositoryRoom repositoryRoom,
+                                         final UtilAuthContext utilAuthContext,
+                                         final ApplicationEventPublisher applicationEventPublisher) {
         this.repositorySchedulePreference = repositorySchedulePreference;
         this.repositorySchedule = repositorySchedule;
+        this.repositoryPeriod = repositoryPeriod;
+        this.repositoryTeacherProfile = repositoryTeacherProfile;
+        this.repositoryClass = repositoryClass;
+        this.repositoryClassBand = repositoryClassBand;
+        this.repositoryRoom = repositoryRoom;
+        this.utilAuthContext = utilAuthContext;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -131,6 +183,253 @@ public class ServiceSchedulePreferenceImpl implements ServiceSchedulePreference
         }
     }
 
+    /**
+     * Applies a whole grid as a diff against what the owners already have in the plan setting: one
+     * query reads the current rows, new cells are inserted in one {@code saveAll} and linked with one
+     * statement per owner, changed cells are updated in place, and cleared cells are soft-deleted in
+     * a single bulk update.
+     */
+    @Override
+    @Transactional
+    public DtoResSchedulePreferenceGrid applySchedulePreferenceGrid(final DtoReqSchedulePreferenceGrid requestDTO) {
+        final Owner owner = ownerOf(requestDTO.getOwnerType());
+        final List<Integer> ownerIds = requestDTO.getOwnerIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        final Map<Integer, Integer> organizationByOwner = organizationsOf(owner, ownerIds);
+        for(final Integer ownerId : ownerIds) {
+            final Integer organizationId = organizationByOwner.get(ownerId);
+            if(organizationId == null) {
+                throw new ExceptionCoreNotFound("Schedule preference owner not found: " + owner + " " + ownerId);
+            }
+            utilAuthContext.validateOrganizationAccess(organizationId);
+        }
+
+        final Integer planSettingsId = requestDTO.getPlanSettingsId();
+        final Map<String, DtoReqSchedulePreference> cells = cellsOf(requestDTO.getCells(), planSettingsId);
+
+        final List<ModelSchedulePreferenceLink> links = repositorySchedulePreference.findLinksByOwner(owner.name(), ownerIds, planSettingsId);
+        final Map<Integer, EntitySchedulePreference> existingById = links.isEmpty() ? Map.of()
+                : repositorySchedulePreference.findActiveByIdIn(links.stream().map(ModelSchedulePreferenceLink::getPreferenceId).collect(Collectors.toSet()))
+                        .stream().collect(Collectors.toMap(EntitySchedulePreference::getId, Function.identity()));
+        final Map<Integer, Map<String, List<EntitySchedulePreference>>> existingByOwner = new HashMap<>();
+        for(final ModelSchedulePreferenceLink link : links) {
+            final EntitySchedulePreference preference = existingById.get(link.getPreferenceId());
+            if(preference != null) {
+                existingByOwner.computeIfAbsent(link.getOwnerId(), ignored -> new LinkedHashMap<>())
+                        .computeIfAbsent(keyOf(preference.getDayOfWeek(), preference.getPeriodId()), ignored -> new ArrayList<>())
+                        .add(preference);
+            }
+        }
+
+        final Integer userId = UtilAuthContext.getAuthenticatedUserId() != null ? UtilAuthContext.getAuthenticatedUserId() : 0;
+        final List<EntitySchedulePreference> toSave = new ArrayList<>();
+        final Map<Integer, List<EntitySchedulePreference>> createdByOwner = new LinkedHashMap<>();
+        final Set<Integer> deletedIds = new HashSet<>();
+        int created = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for(final Integer ownerId : ownerIds) {
+            final Map<String, List<EntitySchedulePreference>> existing = existingByOwner.getOrDefault(ownerId, Map.of());
+            for(final Map.Entry<String, List<EntitySchedulePreference>> entry : existing.entrySet()) {
+                final DtoReqSchedulePreference cell = cells.get(entry.getKey());
+                boolean kept = false;
+                for(final EntitySchedulePreference preference : entry.getValue()) {
+                    if(cell == null || kept) {
+                        deletedIds.add(preference.getId());
+                    }else if(sameFlags(preference, cell)) {
+                        unchanged++;
+                    }else {
+                        applyFlags(preference, cell);
+                        preference.setModifiedBy(userId);
+                        toSave.add(preference);
+                        updated++;
+                    }
+                    kept = true;
+                }
+            }
+            for(final Map.Entry<String, DtoReqSchedulePreference> entry : cells.entrySet()) {
+                if(existing.containsKey(entry.getKey())) {
+                    continue;
+                }
+                final EntitySchedulePreference preference = newPreference(entry.getValue(), organizationByOwner.get(ownerId), planSettingsId, userId);
+                createdByOwner.computeIfAbsent(ownerId, ignored -> new ArrayList<>()).add(preference);
+                toSave.add(preference);
+                created++;
+            }
+        }
+
+        if(!toSave.isEmpty()) {
+            repositorySchedulePreference.saveAll(toSave);
+        }
+        for(final Map.Entry<Integer, List<EntitySchedulePreference>> entry : createdByOwner.entrySet()) {
+            link(owner, entry.getKey(), entry.getValue().stream().map(EntitySchedulePreference::getId).collect(Collectors.toList()));
+        }
+        if(!deletedIds.isEmpty()) {
+            repositorySchedulePreference.softDeleteByIdIn(deletedIds, userId);
+            publishAfterCommit(deletedIds);
+        }
+
+        return DtoResSchedulePreferenceGrid.builder()
+                .ownerType(owner.name())
+                .ownerIds(ownerIds)
+                .planSettingsId(planSettingsId)
+                .created(created)
+                .updated(updated)
+                .deleted(deletedIds.size())
+                .unchanged(unchanged)
+                .build();
+    }
+
+    private Owner ownerOf(final String ownerType) {
+        Owner owner;
+        try {
+            owner = Owner.valueOf(String.valueOf(ownerType).trim().toUpperCase(Locale.ROOT));
+        }catch(final IllegalArgumentException e) {
+            owner = null;
+        }
+        if(owner == null || owner == Owner.RULE) {
+            throw new ExceptionCoreValidation("Invalid owner type", "Unsupported schedule preference owner type: " + ownerType);
+        }
+        return owner;
+    }
+
+    private Map<Integer, Integer> organizationsOf(final Owner owner, final List<Integer> ownerIds) {
+        switch(owner) {
+            case TEACHER:
+                return repositoryTeacherProfile.findAllById(ownerIds).stream().filter(teacher -> !Boolean.TRUE.equals(teacher.getIsDeleted()))
+                        .collect(Collectors.toMap(EntityTeacherProfile::getId, EntityTeacherProfile::getOrganizationId));
+            case CLASS:
+                return repositoryClass.findAllById(ownerIds).stream().filter(entityClass -> !Boolean.TRUE.equals(entityClass.getIsDeleted()))
+                        .collect(Collectors.toMap(EntityClass::getId, EntityClass::getOrganizationId));
+            case CLASS_BAND:
+                return repositoryClassBand.findAllById(ownerIds).stream().filter(classBand -> !Boolean.TRUE.equals(classBand.getIsDeleted()))
+                        .collect(Collectors.toMap(EntityClassBand::getId, EntityClassBand::getOrganizationId));
+            default:
+                return repositoryRoom.findAllById(ownerIds).stream().filter(room -> !Boolean.TRUE.equals(room.getIsDeleted()))
+                        .collect(Collectors.toMap(EntityRoom::getId, EntityRoom::getOrganizationId));
+        }
+    }
+
+    private void link(final Owner owner, final Integer ownerId, final List<Integer> preferenceIds) {
+        switch(owner) {
+            case TEACHER:
+                repositorySchedulePreference.linkToTeacher(ownerId, preferenceIds);
+                break;
+            case CLASS:
+                repositorySchedulePreference.linkToClass(ownerId, preferenceIds);
+                break;
+            case CLASS_BAND:
+                repositorySchedulePreference.linkToClassBand(ownerId, preferenceIds);
+                break;
+            default:
+                repositorySchedulePreference.linkToRoom(ownerId, preferenceIds);
+        }
+    }
+
+    /**
+     * Keys the non-empty cells by day and period, checking every period once against the plan setting.
+     */
+    private Map<String, DtoReqSchedulePreference> cellsOf(final List<DtoReqSchedulePreference> cells, final Integer planSettingsId) {
+        final Map<String, DtoReqSchedulePreference> byKey = new LinkedHashMap<>();
+        if(cells == null) {
+            return byKey;
+        }
+        for(final DtoReqSchedulePreference cell : cells) {
+            if(cell.getDayOfWeek() == null || cell.getPeriodId() == null || cell.getDayOfWeek() < 1 || cell.getDayOfWeek() > 7) {
+                throw new ExceptionCoreValidation("Invalid cell", "Every cell needs a period and a day of week between 1 and 7");
+            }
+            if(hasFlag(cell)) {
+                byKey.put(keyOf(cell.getDayOfWeek(), cell.getPeriodId()), cell);
+            }
+        }
+        final Set<Integer> periodIds = byKey.values().stream().map(DtoReqSchedulePreference::getPeriodId).collect(Collectors.toSet());
+        final Map<Integer, EntityPeriod> periods = repositoryPeriod.findAllById(periodIds).stream()
+                .filter(period -> !Boolean.TRUE.equals(period.getIsDeleted()))
+                .collect(Collectors.toMap(EntityPeriod::getId, Function.identity()));
+        for(final Integer periodId : periodIds) {
+            final EntityPeriod period = periods.get(periodId);
+            if(period == null || (planSettingsId != null && period.getPlanSettingsId() != null && !planSettingsId.equals(period.getPlanSettingsId()))) {
+                throw new ExceptionCoreValidation("Invalid cell", "Period " + periodId + " does not belong to the plan setting");
+            }
+        }
+        return byKey;
+    }
+
+    private static String keyOf(final Integer dayOfWeek, final Integer periodId) {
+        return dayOfWeek + "-" + periodId;
+    }
+
+    private static boolean hasFlag(final DtoReqSchedulePreference cell) {
+        return cell.getIsAvailable() != null
+                || Boolean.TRUE.equals(cell.getCannotTeach()) || Boolean.TRUE.equals(cell.getPrefersToTeach())
+                || Boolean.TRUE.equals(cell.getMustTeach()) || Boolean.TRUE.equals(cell.getDontPreferToTeach())
+                || Boolean.TRUE.equals(cell.getMustScheduleClass()) || Boolean.TRUE.equals(cell.getMustNotScheduleClass())
+                || Boolean.TRUE.equals(cell.getPrefersToScheduleClass()) || Boolean.TRUE.equals(cell.getPrefersNotToScheduleClass());
+    }
+
+    private static boolean sameFlags(final EntitySchedulePreference preference, final DtoReqSchedulePreference cell) {
+        return Objects.equals(preference.getIsAvailable(), cell.getIsAvailable())
+                && Boolean.TRUE.equals(preference.getCannotTeach()) == Boolean.TRUE.equals(cell.getCannotTeach())
+                && Boolean.TRUE.equals(preference.getPrefersToTeach()) == Boolean.TRUE.equals(cell.getPrefersToTeach())
+                && Boolean.TRUE.equals(preference.getMustTeach()) == Boolean.TRUE.equals(cell.getMustTeach())
+                && Boolean.TRUE.equals(preference.getDontPreferToTeach()) == Boolean.TRUE.equals(cell.getDontPreferToTeach())
+                && Boolean.TRUE.equals(preference.getMustScheduleClass()) == Boolean.TRUE.equals(cell.getMustScheduleClass())
+                && Boolean.TRUE.equals(preference.getMustNotScheduleClass()) == Boolean.TRUE.equals(cell.getMustNotScheduleClass())
+                && Boolean.TRUE.equals(preference.getPrefersToScheduleClass()) == Boolean.TRUE.equals(cell.getPrefersToScheduleClass())
+                && Boolean.TRUE.equals(preference.getPrefersNotToScheduleClass()) == Boolean.TRUE.equals(cell.getPrefersNotToScheduleClass());
+    }
+
+    private static void applyFlags(final EntitySchedulePreference preference, final DtoReqSchedulePreference cell) {
+        preference.setIsAvailable(cell.getIsAvailable());
+        preference.setCannotTeach(Boolean.TRUE.equals(cell.getCannotTeach()));
+        preference.setPrefersToTeach(Boolean.TRUE.equals(cell.getPrefersToTeach()));
+        preference.setMustTeach(Boolean.TRUE.equals(cell.getMustTeach()));
+        preference.setDontPreferToTeach(Boolean.TRUE.equals(cell.getDontPreferToTeach()));
+        preference.setMustScheduleClass(Boolean.TRUE.equals(cell.getMustScheduleClass()));
+        preference.setMustNotScheduleClass(Boolean.TRUE.equals(cell.getMustNotScheduleClass()));
+        preference.setPrefersToScheduleClass(Boolean.TRUE.equals(cell.getPrefersToScheduleClass()));
+        preference.setPrefersNotToScheduleClass(Boolean.TRUE.equals(cell.getPrefersNotToScheduleClass()));
+        if(cell.getReason() != null) {
+            preference.setReason(cell.getReason());
+        }
+    }
+
+    private static EntitySchedulePreference newPreference(final DtoReqSchedulePreference cell, final Integer organizationId, final Integer planSettingsId, final Integer userId) {
+        final EntitySchedulePreference preference = EntitySchedulePreference.builder()
+                .periodId(cell.getPeriodId())
+                .dayOfWeek(cell.getDayOfWeek())
+                .applies(cell.getApplies())
+                .effectiveFrom(cell.getEffectiveFrom() != null ? cell.getEffectiveFrom() : LocalDateTime.now())
+                .effectiveTo(cell.getEffectiveTo())
+                .isRecurring(cell.getIsRecurring() != null ? cell.getIsRecurring() : false)
+                .organizationId(organizationId)
+                .planSettingsId(planSettingsId)
+                .createdBy(userId)
+                .modifiedBy(userId)
+                .statusId(1)
+                .isDeleted(false)
+                .build();
+        applyFlags(preference, cell);
+        return preference;
+    }
+
+    /**
+     * The bulk soft-delete bypasses the entity listener, so its ids are announced here instead.
+     */
+    private void publishAfterCommit(final Collection<Integer> preferenceIds) {
+        final ModelSchedulePreferenceChanged changed = new ModelSchedulePreferenceChanged();
+        changed.getPreferenceIds().addAll(preferenceIds);
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applicationEventPublisher.publishEvent(changed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applicationEventPublisher.publishEvent(changed);
+            }
+        });
+    }
+
     private DtoResSchedulePreference toResponseDTO(final EntitySchedulePreference e) {
         return DtoResSchedulePreference.builder()
                 .id(e.getId())
@@ -0,0 +1,57 @@
+package com.ist.timetabling.Period.util;
+
+import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+public final class UtilAvailabilityMatrix {
+
+    public static final int DISLIKED_WEIGHT = 10;
+    public static final int PREFERRED_WEIGHT = -3;
+
+    private UtilAvailabilityMatrix() {
+    }
+
+    /**
+     * Folds one entity's preferences into a row. The teacher and class flags never appear on the same
+     * row, so both families are read together: "cannot"/"must not" and unavailable rooms forbid the
+     * slot, "must" requires it, and the soft flags add {@value #DISLIKED_WEIGHT} or {@value #PREFERRED_WEIGHT}.
+     */
+    public static ModelAvailabilityMatrix.Row compile(final ModelAvailabilityMatrix matrix, final Collection<EntitySchedulePreference> preferences) {
+        final int words = (matrix.getSlotCount() + 63) >>> 6;
+        final long[] forbidden = new long[words];
+        final long[] required = new long[words];
+        final byte[] weight = new byte[matrix.getSlotCount()];
+        final int[] preferenceIds = new int[preferences.size()];
+        int count = 0;
+        for(final EntitySchedulePreference preference : preferences) {
+            if(preference.getId() == null || Boolean.TRUE.equals(preference.getIsDeleted())
+                    || (preference.getPlanSettingsId() != null && !Objects.equals(preference.getPlanSettingsId(), matrix.getPlanSettingsId()))) {
+                continue;
+            }
+            preferenceIds[count++] = preference.getId();
+            final int slot = matrix.slotOf(preference.getDayOfWeek(), preference.getPeriodId());
+            if(slot < 0) {
+                continue;
+            }
+            if(Boolean.TRUE.equals(preference.getCannotTeach()) || Boolean.TRUE.equals(preference.getMustNotScheduleClass()) || Boolean.FALSE.equals(preference.getIsAvailable())) {
+                forbidden[slot >>> 6] |= 1L << slot;
+            }else if(Boolean.TRUE.equals(preference.getMustTeach()) || Boolean.TRUE.equals(preference.getMustScheduleClass())) {
+                required[slot >>> 6] |= 1L << slot;
+            }else if(Boolean.TRUE.equals(preference.getDontPreferToTeach()) || Boolean.TRUE.equals(preference.getPrefersNotToScheduleClass())) {
+                weight[slot] = clamp(weight[slot] + DISLIKED_WEIGHT);
+            }else if(Boolean.TRUE.equals(preference.getPrefersToTeach()) || Boolean.TRUE.equals(preference.getPrefersToScheduleClass())) {
+                weight[slot] = clamp(weight[slot] + PREFERRED_WEIGHT);
+            }
+        }
+        return new ModelAvailabilityMatrix.Row(forbidden, required, weight, count == preferenceIds.length ? preferenceIds : Arrays.copyOf(preferenceIds, count));
+    }
+
+    private static byte clamp(final int value) {
+        return (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, value));
+    }
+
+}
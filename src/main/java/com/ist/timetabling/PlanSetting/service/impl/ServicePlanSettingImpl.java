@@ -20,6 +20,7 @@ import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
 import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
 import static com.ist.timetabling.PlanSetting.Constant.ConstantPlanningSettingsI18n.I18N_PLANNING_SETTINGS_CREATE_SUCCESS;
 import static com.ist.timetabling.PlanSetting.Constant.ConstantPlanningSettingsI18n.I18N_PLANNING_SETTINGS_DELETE_SUCCESS;
 import static com.ist.timetabling.PlanSetting.Constant.ConstantPlanningSettingsI18n.I18N_PLANNING_SETTINGS_EXISTS;
@@ -50,12 +51,14 @@ public class ServicePlanSettingImpl implements ServicePlanSetting {
     private final RepositoryPlanSetting repositoryPlanSetting;
     private final HttpServletRequest httpServletRequest;
     private final UtilAuthContext utilAuthContext;
+    private final ServiceAvailabilityMatrix serviceAvailabilityMatrix;
 
     @Autowired
-    public ServicePlanSettingImpl(RepositoryPlanSetting repositoryPlanSetting, HttpServletRequest httpServletRequest, UtilAuthContext utilAuthContext) {
+    public ServicePlanSettingImpl(RepositoryPlanSetting repositoryPlanSetting, HttpServletRequest httpServletRequest, UtilAuthContext utilAuthContext, ServiceAvailabilityMatrix serviceAvailabilityMatrix) {
         this.repositoryPlanSetting = repositoryPlanSetting;
         this.httpServletRequest = httpServletRequest;
         this.utilAuthContext = utilAuthContext;
+        this.serviceAvailabilityMatrix = serviceAvailabilityMatrix;
     }
 
     @Override
@@ -362,6 +365,7 @@ public class ServicePlanSettingImpl implements ServicePlanSetting {
         entityPlanSetting.getTimeBlockTypes().addAll(updatedTimeBlockTypes);
 
         EntityPlanSetting updatedPlanningSettings = repositoryPlanSetting.save(entityPlanSetting);
+        serviceAvailabilityMatrix.evict(updatedPlanningSettings.getId());
 
         DtoResPlanningSettings dtoResPlanningSettings = toDTO(updatedPlanningSettings);
         return ApiResponse.success(HttpStatus.OK, i18n.getPlanSetting(I18N_PLANNING_SETTINGS_UPDATE_SUCCESS), dtoResPlanningSettings);
@@ -383,6 +387,7 @@ public class ServicePlanSettingImpl implements ServicePlanSetting {
         entityPlanningSettings.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
         entityPlanningSettings.setModifiedDate(LocalDateTime.now());
         repositoryPlanSetting.save(entityPlanningSettings);
+        serviceAvailabilityMatrix.evict(entityPlanningSettings.getId());
         return ApiResponse.success(HttpStatus.OK, i18n.getPlanSetting(I18N_PLANNING_SETTINGS_DELETE_SUCCESS), null);
     }
 
@@ -1,13 +1,16 @@
 package com.ist.timetabling.Room.controller;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Room.dto.req.DtoReqRoom;
 import com.ist.timetabling.Room.dto.req.DtoReqRoomPreferences;
 import com.ist.timetabling.Room.dto.res.DtoResRoom;
 import com.ist.timetabling.Room.dto.res.DtoResRoomCsvUpload;
 import com.ist.timetabling.Room.dto.res.DtoResRoomSchedulePreference;
 import com.ist.timetabling.Room.service.ServiceRoom;
+import com.ist.timetabling.Room.util.RoomCsvMapper;
 import com.ist.timetabling.Room.util.UtilRoomCsv;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +39,7 @@ public class ControllerRoom {
 
     private final ServiceRoom serviceRoom;
     private final UtilRoomCsv utilRoomCsv;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
     @GetMapping("/{uuid}")
     public ResponseEntity<ApiResponse<DtoResRoom>> getRoomByUuid(@PathVariable final String uuid) {
@@ -50,7 +54,11 @@ public class ControllerRoom {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<DtoResRoom>>> getAllRooms(@RequestParam(required = false) final Integer page, @RequestParam(required = false) final Integer size, @RequestParam(required = false) final String sortBy, @RequestParam(required = false, defaultValue = "asc") final String sortDirection, @RequestParam(required = false) final String keyword, @RequestParam(required = false) final Integer orgId, @RequestParam(required = false) final Integer planSettingsId) {
+    public ResponseEntity<ApiResponse<List<DtoResRoom>>> getAllRooms(@RequestParam(required = false) final Integer page, @RequestParam(required = false) final Integer size, @RequestParam(required = false) final String sortBy, @RequestParam(required = false, defaultValue = "asc") final String sortDirection, @RequestParam(required = false) final String keyword, @RequestParam(required = false) final Integer orgId, @RequestParam(required = false) final Integer planSettingsId, @RequestParam(required = false) final String after, @RequestParam(defaultValue = "false") final boolean cursor) {
+        if ((cursor || after != null) && (keyword == null || keyword.isBlank())) {
+            final ApiResponse<List<DtoResRoom>> apiResponse = serviceRoom.findRoomsAfter(after, size, sortBy, sortDirection, orgId, planSettingsId);
+            return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
+        }
         final ApiResponse<List<DtoResRoom>> apiResponse = serviceRoom.findAllRooms(page, size, sortBy, sortDirection, keyword, orgId, planSettingsId);
         return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
     }
@@ -113,6 +121,22 @@ public class ControllerRoom {
         return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
     }
 
+    @PostMapping(value = "/import/csv/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitRoomImportJob(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) Integer organizationId,
+            @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow) {
+
+        DtoReqCsvUpload uploadRequest = DtoReqCsvUpload.builder()
+                .file(file)
+                .organizationId(organizationId)
+                .skipHeaderRow(skipHeaderRow)
+                .build();
+
+        ApiResponse<DtoResCsvImportJob> apiResponse = serviceCsvImportJob.submit(RoomCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
+    }
+
 
     @GetMapping("/import/csv/template")
     public ResponseEntity<String> getRoomCsvTemplate() {
@@ -8,6 +8,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -20,10 +21,12 @@ import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 
 
 @Table(name = EntityRoom.TABLE)
 @Entity
+@EntityListeners(ListenerTimetableContent.class)
 @Data
 @NoArgsConstructor
 public class EntityRoom {
@@ -2,12 +2,17 @@ package com.ist.timetabling.Room.repository;
 
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
 import com.ist.timetabling.Room.entity.EntityRoom;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,10 +31,21 @@ public interface RepositoryRoom extends JpaRepository<EntityRoom, Integer> {
 
     Page<EntityRoom> findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(final Integer organizationId, final Integer planSettingsId, final Pageable pageable);
 
+    Window<EntityRoom> findByIsDeletedFalse(final ScrollPosition position, final Sort sort, final Limit limit);
+
+    Window<EntityRoom> findByOrganizationIdAndIsDeletedFalse(final Integer organizationId, final ScrollPosition position, final Sort sort, final Limit limit);
+
+    Window<EntityRoom> findByPlanSettingsIdAndIsDeletedFalse(final Integer planSettingsId, final ScrollPosition position, final Sort sort, final Limit limit);
+
+    Window<EntityRoom> findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(final Integer organizationId, final Integer planSettingsId, final ScrollPosition position, final Sort sort, final Limit limit);
+
     boolean existsByCodeAndIsDeletedFalse(final String code);
 
     boolean existsByCodeAndOrganizationIdAndIsDeletedFalse(final String code, final Integer organizationId);
 
+    @Query("SELECT r.code FROM EntityRoom r WHERE r.organizationId = :organizationId AND r.isDeleted = false AND r.code IN :codes")
+    List<String> findExistingCodes(@Param("organizationId") final Integer organizationId, @Param("codes") final Collection<String> codes);
+
     long countByIsDeletedFalse();
 
     long countByOrganizationIdAndIsDeletedFalse(final Integer organizationId);
@@ -27,6 +27,15 @@ public interface ServiceRoom {
             final Integer planSettingsId
     );
 
+    ApiResponse<List<DtoResRoom>> findRoomsAfter(
+            final String after,
+            final Integer size,
+            final String sortBy,
+            final String sortDirection,
+            final Integer orgId,
+            final Integer planSettingsId
+    );
+
     ApiResponse<DtoResRoom> createRoom(final DtoReqRoom dtoReqRoom);
 
     ApiResponse<DtoResRoom> updateRoomByUuid(final String uuid, final DtoReqRoom dtoReqRoom);
@@ -2,19 +2,29 @@ package com.ist.timetabling.Room.service.impl;
 
 import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
 import com.ist.timetabling.Core.exception.CSVImportException;
 import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
 import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Core.util.CSVReaderUtil;
 import com.ist.timetabling.Core.util.PaginationUtil;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreferenceGrid;
 import com.ist.timetabling.Period.entity.EntityPeriod;
 import com.ist.timetabling.Period.entity.EntitySchedule;
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceLink;
 import com.ist.timetabling.Period.repository.RepositoryPeriod;
 import com.ist.timetabling.Period.repository.RepositorySchedule;
 import com.ist.timetabling.Period.repository.RepositorySchedulePreference;
+import com.ist.timetabling.Period.service.ServiceSchedulePreference;
 import com.ist.timetabling.Room.dto.req.DtoReqRoom;
 import com.ist.timetabling.Room.dto.req.DtoReqRoomPreference;
 import com.ist.timetabling.Room.dto.req.DtoReqRoomPreferences;
@@ -28,15 +38,19 @@ import com.ist.timetabling.Room.service.ServiceRoom;
 import com.ist.timetabling.Room.util.RoomCsvMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,19 +61,21 @@ import static com.ist.timetabling.Room.constant.ConstantRoomI18n.*;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-public class ServiceImplRoom implements ServiceRoom {
+public class ServiceImplRoom implements ServiceRoom, CSVImportJobType {
 
     private static final int DEFAULT_PAGE_NUMBER = 0;
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final List<String> KEYSET_SORT_FIELDS = List.of("name", "code", "capacity");
     private final RepositoryRoom repositoryRoom;
     private final HttpServletRequest httpServletRequest;
     private final RepositoryPeriod repositoryPeriod;
@@ -69,6 +85,8 @@ public class ServiceImplRoom implements ServiceRoom {
     private final I18n i18n;
     private final CSVReaderUtil csvReaderUtil;
     private final RoomCsvMapper roomCsvMapper;
+    private final ServiceSchedulePreference serviceSchedulePreference;
+    private final CSVImportPipeline csvImportPipeline;
 
     @Autowired
     public ServiceImplRoom(
@@ -80,7 +98,9 @@ public class ServiceImplRoom implements ServiceRoom {
             UtilAuthContext utilAuthContext,
             I18n i18n,
             CSVReaderUtil csvReaderUtil,
-            RoomCsvMapper roomCsvMapper) {
+            RoomCsvMapper roomCsvMapper,
+            ServiceSchedulePreference serviceSchedulePreference,
+            CSVImportPipeline csvImportPipeline) {
         this.repositoryRoom = repositoryRoom;
         this.httpServletRequest = httpServletRequest;
         this.repositoryPeriod = repositoryPeriod;
@@ -90,6 +110,8 @@ public class ServiceImplRoom implements ServiceRoom {
         this.i18n = i18n;
         this.csvReaderUtil = csvReaderUtil;
         this.roomCsvMapper = roomCsvMapper;
+        this.serviceSchedulePreference = serviceSchedulePreference;
+        this.csvImportPipeline = csvImportPipeline;
     }
 
     @Override
@@ -200,7 +222,43 @@ public class ServiceImplRoom implements ServiceRoom {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public ApiResponse<List<DtoResRoom>> findRoomsAfter(
+            final String after,
+            final Integer size,
+            final String sortBy,
+            final String sortDirection,
+            final Integer orgId,
+            final Integer planSettingsId) {
+
+        final I18n i18n = new I18n(httpServletRequest);
+
+        Integer effectiveOrgId = null;
+        if (!utilAuthContext.isAdmin()) {
+            effectiveOrgId = utilAuthContext.getCurrentUser().getOrganization().getId();
+        } else if (orgId != null) {
+            effectiveOrgId = orgId;
+        }
+
+        final Sort sort = PaginationUtil.createKeysetSort(sortBy == null ? "name" : sortBy, sortDirection, KEYSET_SORT_FIELDS);
+        final Limit limit = PaginationUtil.createLimit(size, DEFAULT_PAGE_SIZE);
+        final KeysetScrollPosition position = PaginationUtil.decodeCursor(after);
+
+        final Window<EntityRoom> roomsWindow;
+        if (planSettingsId != null && effectiveOrgId != null) {
+            roomsWindow = repositoryRoom.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(effectiveOrgId, planSettingsId, position, sort, limit);
+        } else if (planSettingsId != null) {
+            roomsWindow = repositoryRoom.findByPlanSettingsIdAndIsDeletedFalse(planSettingsId, position, sort, limit);
+        } else if (effectiveOrgId != null) {
+            roomsWindow = repositoryRoom.findByOrganizationIdAndIsDeletedFalse(effectiveOrgId, position, sort, limit);
+        } else {
+            roomsWindow = repositoryRoom.findByIsDeletedFalse(position, sort, limit);
+        }
+
+        return ApiResponse.success(roomsWindow.map(roomCsvMapper::mapToRoomResponse), i18n.getRoom(I18N_ROOM_RETRIEVE_SUCCESS));
+    }
+
+    @Override
     public ApiResponse<DtoResRoomCsvUpload> importRoomsFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
 
@@ -217,55 +275,20 @@ public class ServiceImplRoom implements ServiceRoom {
             organizationId = utilAuthContext.getCurrentUser().getOrganization().getId();
         }
 
-        DtoResRoomCsvUpload result = new DtoResRoomCsvUpload();
-        List<DtoResRoom> createdRooms = new ArrayList<>();
-        List<DtoResRoomCsvUpload.ImportError> errors = new ArrayList<>();
+        final RoomCsvImport roomCsvImport = new RoomCsvImport(organizationId, utilAuthContext.getAuthenticatedUserId(), i18n);
 
-        try {
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    RoomCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
-
-            result.setTotalProcessed(records.size());
-            int rowNum = uploadRequest.getSkipHeaderRow() ? 2 : 1; 
-
-            for(CSVRecord record : records) {
-                try {
-                  
-                    DtoReqRoom roomRequest = roomCsvMapper.mapToRoomRequest(record, organizationId, rowNum);
-
-                  
-                    if(repositoryRoom.existsByCodeAndOrganizationIdAndIsDeletedFalse(
-                            roomRequest.getCode(), organizationId)) {
-                        throw new Exception(i18n.getRoom(I18N_ROOM_EXISTS));
-                    }
-
-                    
-                    ApiResponse<DtoResRoom> response = createRoom(roomRequest);
-
-                    if(response.isSuccess()) {
-                        createdRooms.add(response.getData());
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-                    DtoResRoomCsvUpload.ImportError error = new DtoResRoomCsvUpload.ImportError(
-                            rowNum,
-                            record.toString(),
-                            e.getMessage()
-                    );
-                    errors.add(error);
-                   
-                }
-                rowNum++;
-            }
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), RoomCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+            final CSVImportResult<DtoResRoom> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, roomCsvImport);
 
-            result.setCreatedRooms(createdRooms);
-            result.setErrors(errors);
-            result.setSuccessCount(createdRooms.size());
-            result.setErrorCount(errors.size());
+            DtoResRoomCsvUpload result = DtoResRoomCsvUpload.builder()
+                    .createdRooms(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> new DtoResRoomCsvUpload.ImportError(error.getRowNumber(), error.getOriginalData(), error.getErrorMessage()))
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
+                    .build();
 
             String message = result.buildSuccessMessage();
             return ApiResponse.success(HttpStatus.OK, message, result);
@@ -275,6 +298,68 @@ public class ServiceImplRoom implements ServiceRoom {
         }
     }
 
+    @Override
+    public String getImportType() {
+        return RoomCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return RoomCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        return new RoomCsvImport(job.getOrganizationId(), job.getCreatedBy(), i18n);
+    }
+
+    /**
+     * The room stages of the CSV import pipeline. Room codes already taken are looked up once per
+     * chunk, and codes repeated inside the file are caught as the rows stream by.
+     */
+    private class RoomCsvImport implements CSVImportHandler<DtoReqRoom, DtoResRoom> {
+
+        private final Integer organizationId;
+        private final Integer actorId;
+        private final I18n i18n;
+        private final Set<String> seenCodes = new HashSet<>();
+
+        private RoomCsvImport(final Integer organizationId, final Integer actorId, final I18n i18n) {
+            this.organizationId = organizationId;
+            this.actorId = actorId;
+            this.i18n = i18n;
+        }
+
+        @Override
+        public DtoReqRoom validate(final CSVRecord record, final int rowNumber) {
+            return roomCsvMapper.mapToRoomRequest(record, organizationId, rowNumber);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqRoom, DtoResRoom>> rows) {
+            final Set<String> existingCodes = repositoryRoom.findExistingCodes(organizationId,
+                            rows.stream().map(row -> row.getValue().getCode()).collect(Collectors.toSet()))
+                    .stream().map(code -> code.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqRoom, DtoResRoom> row : rows) {
+                final String code = row.getValue().getCode().toLowerCase(Locale.ROOT);
+                if(existingCodes.contains(code) || !seenCodes.add(code)) {
+                    row.reject(i18n.getRoom(I18N_ROOM_EXISTS));
+                }
+            }
+        }
+
+        @Override
+        public List<DtoResRoom> persist(final List<DtoReqRoom> rows) {
+            final List<EntityRoom> rooms = rows.stream()
+                    .map(row -> newRoom(row, organizationId, actorId))
+                    .collect(Collectors.toList());
+            return repositoryRoom.saveAll(rooms).stream()
+                    .map(roomCsvMapper::mapToRoomResponse)
+                    .collect(Collectors.toList());
+        }
+
+    }
+
     @Override
     public ApiResponse<DtoResRoom> createRoom(final DtoReqRoom dtoReqRoom) {
         final I18n i18n = new I18n(httpServletRequest);
@@ -290,6 +375,13 @@ public class ServiceImplRoom implements ServiceRoom {
             throw new ExceptionRoomAlreadyExists(i18n.getRoom(I18N_ROOM_EXISTS));
         }
 
+        EntityRoom savedRoom = repositoryRoom.save(newRoom(dtoReqRoom, organizationId, utilAuthContext.getAuthenticatedUserId()));
+
+        DtoResRoom dtoResRoom = roomCsvMapper.mapToRoomResponse(savedRoom);
+        return ApiResponse.success(HttpStatus.CREATED, i18n.getRoom(I18N_ROOM_CREATE_SUCCESS), dtoResRoom);
+    }
+
+    private static EntityRoom newRoom(final DtoReqRoom dtoReqRoom, final Integer organizationId, final Integer actorId) {
         EntityRoom entityRoom = new EntityRoom();
         entityRoom.setName(dtoReqRoom.getName());
         entityRoom.setCode(dtoReqRoom.getCode());
@@ -302,19 +394,13 @@ public class ServiceImplRoom implements ServiceRoom {
         entityRoom.setLocationNumber(dtoReqRoom.getLocationNumber());
         entityRoom.setOrganizationId(organizationId);
         entityRoom.setPlanSettingsId(dtoReqRoom.getPlanSettingsId());
-        entityRoom.setCreatedBy(utilAuthContext.getAuthenticatedUserId());
-        entityRoom.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
+        entityRoom.setCreatedBy(actorId);
+        entityRoom.setModifiedBy(actorId);
         entityRoom.setUuid(UUID.randomUUID().toString());
         entityRoom.setCreatedDate(LocalDateTime.now());
         entityRoom.setModifiedDate(LocalDateTime.now());
         entityRoom.setIsDeleted(false);
-
-        EntityRoom savedRoom = repositoryRoom.save(entityRoom);
-
-        initializeRoomSchedulePreferences(savedRoom);
-
-        DtoResRoom dtoResRoom = roomCsvMapper.mapToRoomResponse(savedRoom);
-        return ApiResponse.success(HttpStatus.CREATED, i18n.getRoom(I18N_ROOM_CREATE_SUCCESS), dtoResRoom);
+        return entityRoom;
     }
 
     @Override
@@ -371,17 +457,17 @@ public class ServiceImplRoom implements ServiceRoom {
         EntityRoom room = repositoryRoom.findById(roomId)
                 .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getRoom(I18N_ROOM_NOT_FOUND)));
 
-        List<EntitySchedulePreference> roomPreferences = room.getSchedulePreferences().stream()
-                .filter(pref -> !pref.getIsDeleted())
-                .collect(Collectors.toList());
-
-        List<DtoResRoomSchedulePreference> dtoList = roomPreferences.stream()
+        List<DtoResRoomSchedulePreference> dtoList = roomPreferencesOf(room).stream()
                 .map(this::toRoomSchedulePreferenceDTO)
                 .collect(Collectors.toList());
 
         return ApiResponse.success(HttpStatus.OK, i18n.getRoom(I18N_ROOM_SCHEDULE_PREFERENCE_RETRIEVED), dtoList);
     }
 
+    /**
+     * A room is available wherever it has no preference, so only the unavailable cells of its plan
+     * setting's grid are kept; the grid is applied as one diff against what the room already has.
+     */
     @Override
     @Transactional
     @CacheEvict(value = "roomSchedulePreferences", key = "#roomId")
@@ -391,88 +477,16 @@ public class ServiceImplRoom implements ServiceRoom {
         try {
             EntityRoom room = repositoryRoom.findById(roomId).orElseThrow(() -> new ExceptionCoreNotFound(i18n.getRoom(I18N_ROOM_NOT_FOUND)));
 
-            List<EntityPeriod> allPeriods = repositoryPeriod.findAllByIsDeletedFalse();
-            Map<String, EntityPeriod> periodsByCompositeKey = allPeriods.stream()
-                    .filter(period -> period.getOrganizationId().equals(room.getOrganizationId()))
-                    .collect(Collectors.toMap(
-                        period -> period.getOrganizationId() + "-" + (period.getPlanSettingsId() != null ? period.getPlanSettingsId() : "null") + "-" + period.getPeriodNumber(),
-                        period -> period
-                    ));
-
-            Map<String, EntitySchedulePreference> existingPrefsMap = new HashMap<>();
-            for(EntitySchedulePreference pref : room.getSchedulePreferences()) {
-                if(pref.getIsDeleted()) continue;
-                String key = pref.getDayOfWeek() + "-" + pref.getPeriodId();
-                existingPrefsMap.put(key, pref);
-            }
-
-            List<EntitySchedulePreference> updatedPreferences = new ArrayList<>();
-            List<EntitySchedulePreference> preferencesToDelete = new ArrayList<>(room.getSchedulePreferences());
-
+            final Set<Integer> gridPeriodIds = slotGridOf(room).stream().map(EntityPeriod::getId).collect(Collectors.toSet());
+            final List<DtoReqSchedulePreference> cells = new ArrayList<>();
             for(DtoReqRoomPreference preference : dtoReqRoomPreferences.getPreferences()) {
-                try {
-                    Integer day = preference.getDay();
-                    Integer periodId = preference.getPeriodId();
-                    Boolean isAvailable = preference.getIsAvailable();
-
-                    // Find the period by id
-                    EntityPeriod period = allPeriods.stream()
-                        .filter(p -> p.getId().equals(periodId) && p.getOrganizationId().equals(room.getOrganizationId()))
-                        .findFirst().orElse(null);
-                    if(period == null) continue;
-
-                    String key = day + "-" + period.getId();
-                    EntitySchedulePreference existingPref = existingPrefsMap.get(key);
-
-                    if(existingPref != null) {
-                        if(existingPref.getIsAvailable() != null && existingPref.getIsAvailable().equals(isAvailable)) {
-                            preferencesToDelete.remove(existingPref);
-                            updatedPreferences.add(existingPref);
-                            continue;
-                        }else {
-                            existingPref.setIsAvailable(isAvailable);
-                            existingPref.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
-                            existingPref.setModifiedDate(LocalDateTime.now());
-                            preferencesToDelete.remove(existingPref);
-                            updatedPreferences.add(existingPref);
-                            continue;
-                        }
-                    }
-
-                    EntitySchedulePreference newPref = new EntitySchedulePreference();
-                    newPref.setPeriodId(period.getId());
-                    newPref.setDayOfWeek(day);
-                    newPref.setIsAvailable(isAvailable);
-                    newPref.setCreatedBy(utilAuthContext.getAuthenticatedUserId());
-                    newPref.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
-                    newPref.setCreatedDate(LocalDateTime.now());
-                    newPref.setModifiedDate(LocalDateTime.now());
-                    newPref.setStatusId(1);
-                    newPref.setIsDeleted(false);
-                    newPref.setOrganizationId(room.getOrganizationId());
-                    newPref.setPlanSettingsId(period.getPlanSettingsId());
-                    newPref.setUuid(UUID.randomUUID().toString());
-                    room.getSchedulePreferences().add(newPref);
-
-                }catch(Exception e) {
-                    return ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, i18n.getRoom(I18N_ROOM_NOT_FOUND) + e.getMessage(), null);
+                if(Boolean.FALSE.equals(preference.getIsAvailable()) && gridPeriodIds.contains(preference.getPeriodId())) {
+                    cells.add(unavailableCell(preference.getDay(), preference.getPeriodId()));
                 }
             }
+            applyRoomGrid(room, cells);
 
-            for(EntitySchedulePreference pref : preferencesToDelete) {
-                pref.setIsDeleted(true);
-                pref.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
-                pref.setModifiedDate(LocalDateTime.now());
-            }
-
-            schedulePreferenceRepository.saveAll(preferencesToDelete);
-            List<EntitySchedulePreference> savedPreferences = schedulePreferenceRepository.saveAll(updatedPreferences);
-
-            room.getSchedulePreferences().clear();
-            room.getSchedulePreferences().addAll(savedPreferences);
-            repositoryRoom.save(room);
-
-            List<DtoResRoomSchedulePreference> dtoList = savedPreferences.stream()
+            List<DtoResRoomSchedulePreference> dtoList = roomPreferencesOf(room).stream()
                     .map(this::toRoomSchedulePreferenceDTO)
                     .collect(Collectors.toList());
 
@@ -493,46 +507,15 @@ public class ServiceImplRoom implements ServiceRoom {
             EntityRoom room = repositoryRoom.findById(roomId)
                     .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getRoom(I18N_ROOM_NOT_FOUND)));
 
-            List<EntityPeriod> periods = repositoryPeriod.findAllByIsDeletedFalse();
-
-            Map<String, EntitySchedulePreference> existingPrefs = new HashMap<>();
-            for(EntitySchedulePreference pref : room.getSchedulePreferences()) {
-                if(pref.getIsDeleted()) continue;
-                String key = pref.getDayOfWeek() + "-" + pref.getPeriodId();
-                existingPrefs.put(key, pref);
-            }
-
-            for(EntityPeriod period : periods) {
-                List<Integer> days = period.getDays();
-                for(Integer day : days) {
-                    String key = day + "-" + period.getId();
-                    EntitySchedulePreference existingPref = existingPrefs.get(key);
-
-                    if(existingPref != null) {
-                        existingPref.setIsAvailable(isAvailable);
-                        existingPref.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
-                        existingPref.setModifiedDate(LocalDateTime.now());
-                    }else {
-                        EntitySchedulePreference newPref = new EntitySchedulePreference();
-                        newPref.setPeriodId(period.getId());
-                        newPref.setDayOfWeek(day);
-                        newPref.setIsAvailable(isAvailable);
-                        newPref.setCreatedBy(utilAuthContext.getAuthenticatedUserId());
-                        newPref.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
-                        newPref.setCreatedDate(LocalDateTime.now());
-                        newPref.setModifiedDate(LocalDateTime.now());
-                        newPref.setStatusId(1);
-                        newPref.setIsDeleted(false);
-                        newPref.setOrganizationId(room.getOrganizationId());
-                        newPref.setPlanSettingsId(period.getPlanSettingsId());
-                        newPref.setUuid(UUID.randomUUID().toString());
-                        room.getSchedulePreferences().add(newPref);
+            final List<DtoReqSchedulePreference> cells = new ArrayList<>();
+            if(Boolean.FALSE.equals(isAvailable)) {
+                for(EntityPeriod period : slotGridOf(room)) {
+                    for(Integer day : period.getDays()) {
+                        cells.add(unavailableCell(day, period.getId()));
                     }
                 }
             }
-
-            schedulePreferenceRepository.saveAll(room.getSchedulePreferences());
-            repositoryRoom.save(room);
+            applyRoomGrid(room, cells);
 
             return ApiResponse.success(HttpStatus.OK, i18n.getRoom(I18N_ROOM_AVAILABILITY_UPDATED), null);
 
@@ -552,42 +535,49 @@ public class ServiceImplRoom implements ServiceRoom {
         return dto;
     }
 
-    @Transactional
-    public ApiResponse<Object> initializeRoomSchedulePreferences(EntityRoom room) {
-        try {
-            List<EntityPeriod> periods = repositoryPeriod.findAllByIsDeletedFalse();
-            List<EntitySchedulePreference> preferences = new ArrayList<>();
-
-            for(EntityPeriod period : periods) {
-                List<Integer> days = period.getDays();
-                for(Integer day : days) {
-                    EntitySchedulePreference pref = new EntitySchedulePreference();
-                    pref.setPeriodId(period.getId());
-                    pref.setDayOfWeek(day);
-                    pref.setIsAvailable(true);
-                    pref.setCreatedBy(utilAuthContext.getAuthenticatedUserId());
-                    pref.setModifiedBy(utilAuthContext.getAuthenticatedUserId());
-                    pref.setCreatedDate(LocalDateTime.now());
-                    pref.setModifiedDate(LocalDateTime.now());
-                    pref.setStatusId(1);
-                    pref.setIsDeleted(false);
-                    pref.setOrganizationId(room.getOrganizationId());
-                    pref.setPlanSettingsId(period.getPlanSettingsId());
-                    pref.setUuid(UUID.randomUUID().toString());
-                    preferences.add(pref);
-                }
-            }
+    /**
+     * The periods of the room's own plan setting, or of its organization when it has none.
+     */
+    private List<EntityPeriod> slotGridOf(final EntityRoom room) {
+        if(room.getPlanSettingsId() != null) {
+            return repositoryPeriod.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(room.getOrganizationId(), room.getPlanSettingsId());
+        }
+        return repositoryPeriod.findAllByOrganizationIdAndIsDeletedFalse(room.getOrganizationId());
+    }
 
-            if(!preferences.isEmpty()) {
-                List<EntitySchedulePreference> savedPrefs = schedulePreferenceRepository.saveAll(preferences);
-                room.getSchedulePreferences().addAll(savedPrefs);
-                repositoryRoom.save(room);
+    private List<EntitySchedulePreference> roomPreferencesOf(final EntityRoom room) {
+        final Set<Integer> preferenceIds = roomPreferenceIdsOf(room);
+        return preferenceIds.isEmpty() ? List.of() : schedulePreferenceRepository.findActiveByIdIn(preferenceIds);
+    }
+
+    private Set<Integer> roomPreferenceIdsOf(final EntityRoom room) {
+        final List<ModelSchedulePreferenceLink> links = room.getPlanSettingsId() != null
+                ? schedulePreferenceRepository.findLinksByOwner(Owner.ROOM.name(), List.of(room.getId()), room.getPlanSettingsId())
+                : schedulePreferenceRepository.findRoomLinksWithoutPlanSetting(List.of(room.getId()));
+        return links.stream().map(ModelSchedulePreferenceLink::getPreferenceId).collect(Collectors.toSet());
+    }
+
+    /**
+     * A room without a plan setting keeps its grid unscoped, so cells written before that under their period's
+     * plan setting are moved into the unscoped grid first and then diffed like any other cell.
+     */
+    private void applyRoomGrid(final EntityRoom room, final List<DtoReqSchedulePreference> cells) {
+        if(room.getPlanSettingsId() == null) {
+            final Set<Integer> preferenceIds = roomPreferenceIdsOf(room);
+            if(!preferenceIds.isEmpty()) {
+                schedulePreferenceRepository.clearPlanSettingsIdByIdIn(preferenceIds);
             }
-        }catch(ExceptionRoomAlreadyExists e) {
-            return ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR, i18n.getRoom(I18N_ROOM_NOT_FOUND),
-                    room.getId().toString(), e.getMessage());
         }
-        return null;
+        serviceSchedulePreference.applySchedulePreferenceGrid(DtoReqSchedulePreferenceGrid.builder()
+                .ownerType(Owner.ROOM.name())
+                .ownerIds(List.of(room.getId()))
+                .planSettingsId(room.getPlanSettingsId())
+                .cells(cells)
+                .build());
+    }
+
+    private static DtoReqSchedulePreference unavailableCell(final Integer day, final Integer periodId) {
+        return DtoReqSchedulePreference.builder().dayOfWeek(day).periodId(periodId).isAvailable(false).build();
     }
 
     private Pageable createPageable(int page, int size, String sortBy, String sortDirection) {
@@ -17,6 +17,8 @@ import java.util.List;
 @Component
 public class RoomCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "ROOM";
+
     public static final String[] CSV_HEADERS = {
             "name", "code", "capacity", "description", "statusId",
             "initials", "controlNumber", "priority", "locationNumber"
@@ -1,6 +1,8 @@
 package com.ist.timetabling.Rule.controller;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
 import com.ist.timetabling.Rule.dto.req.DtoReqRuleSchedulePreference;
 import com.ist.timetabling.Rule.dto.res.DtoResRuleCsvUpload;
@@ -18,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import com.ist.timetabling.Rule.util.RuleCsvMapper;
 import com.ist.timetabling.Rule.util.UtilRuleCsv;
 
 import java.io.IOException;
@@ -33,6 +36,7 @@ public class ControllerRule {
 
     private final ServiceRule serviceRule;
     private final UtilRuleCsv utilRuleCsv;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
     @GetMapping("/{uuid}")
     public ResponseEntity<ApiResponse<EntityRule>> getRuleByUuid(@PathVariable final String uuid) {
@@ -138,6 +142,21 @@ public class ControllerRule {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    @PostMapping("/import/csv/jobs")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitRuleImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow,
+            @RequestParam(required = false) Integer organizationId) {
+
+        DtoReqCsvUpload uploadRequest = new DtoReqCsvUpload();
+        uploadRequest.setFile(file);
+        uploadRequest.setSkipHeaderRow(skipHeaderRow);
+        uploadRequest.setOrganizationId(organizationId);
+
+        final ApiResponse<DtoResCsvImportJob> response = serviceCsvImportJob.submit(RuleCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     /**
      * Get a CSV template for rule import
      *
@@ -0,0 +1,14 @@
+package com.ist.timetabling.Rule.model;
+
+import com.ist.timetabling.Rule.entity.EntityRule;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ModelRuleBinding {
+
+    private final Integer bindingId;
+    private final EntityRule rule;
+
+}
@@ -0,0 +1,180 @@
+package com.ist.timetabling.Rule.model;
+
+import java.util.Arrays;
+
+/**
+ * An enabled {@code EntityRule} parsed once into a typed, immutable check. Slot rules look only at
+ * where a lesson sits; limit rules look at how busy a teacher or class already is on that day, and
+ * are evaluated against the same {@code [slot]} bit masks the occupancy model keeps.
+ */
+public final class ModelRuleCompiled {
+
+    public enum Kind {
+        MAX_CONSECUTIVE, MAX_PER_DAY, NOT_AFTER_PERIOD, NOT_BEFORE_PERIOD, AVOID_DAYS;
+
+        public boolean isLimit() {
+            return this == MAX_CONSECUTIVE || this == MAX_PER_DAY;
+        }
+    }
+
+    public enum Scope { TEACHER, CLASS }
+
+    private static final int[] ANY = new int[0];
+
+    private final Long ruleId;
+    private final long version;
+    private final String name;
+    private final Kind kind;
+    private final Scope scope;
+    private final boolean hard;
+    private final int weight;
+    private final int value;
+    private final int dayMask;
+    private final int[] subjectIds;
+    private final int[] teacherIds;
+    private final int[] classIds;
+    private final int[] roomIds;
+
+    public ModelRuleCompiled(final Long ruleId, final long version, final String name, final Kind kind, final Scope scope, final boolean hard, final int weight, final int value,
+                             final int dayMask, final int[] subjectIds, final int[] teacherIds, final int[] classIds, final int[] roomIds) {
+        this.ruleId = ruleId;
+        this.version = version;
+        this.name = name;
+        this.kind = kind;
+        this.scope = scope != null ? scope : Scope.TEACHER;
+        this.hard = hard;
+        this.weight = weight;
+        this.value = value;
+        this.dayMask = dayMask;
+        this.subjectIds = sorted(subjectIds);
+        this.teacherIds = sorted(teacherIds);
+        this.classIds = sorted(classIds);
+        this.roomIds = sorted(roomIds);
+    }
+
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public boolean isHard() {
+        return hard;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public boolean isLimit() {
+        return kind.isLimit();
+    }
+
+    /**
+     * True when the lesson matches every filter the rule sets; ids of 0 or null never match a filter.
+     */
+    public boolean appliesTo(final Integer subjectId, final Integer teacherId, final Integer classId, final Integer roomId) {
+        return matches(subjectIds, subjectId) && matches(teacherIds, teacherId) && matches(classIds, classId) && matches(roomIds, roomId);
+    }
+
+    /**
+     * True when the resource the limit counts for is one the rule is scoped to.
+     */
+    public boolean limits(final Integer resourceId) {
+        return matches(scope == Scope.TEACHER ? teacherIds : classIds, resourceId);
+    }
+
+    public boolean violatesSlot(final int dayOfWeek, final int period) {
+        switch(kind) {
+            case NOT_AFTER_PERIOD:
+                return period > value;
+            case NOT_BEFORE_PERIOD:
+                return period < value;
+            case AVOID_DAYS:
+                return dayOfWeek >= 1 && dayOfWeek <= 31 && (dayMask & (1 << (dayOfWeek - 1))) != 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * How much further past its limit the resource's day gets once a lesson sits in {@code slot},
+     * given the resource's busy mask. Zero for slot rules and for placements that stay in bounds.
+     */
+    public int addedExcess(final long[] busy, final int slot, final int periodsPerDay) {
+        if(!isLimit() || periodsPerDay <= 0 || slot < 0) {
+            return 0;
+        }
+        final int dayStart = slot - slot % periodsPerDay;
+        return dayExcess(busy, dayStart, periodsPerDay, slot, true) - dayExcess(busy, dayStart, periodsPerDay, slot, false);
+    }
+
+    /**
+     * Total excess over the whole week for one resource, used to score a finished assignment.
+     */
+    public int excess(final long[] busy, final int days, final int periodsPerDay) {
+        if(!isLimit()) {
+            return 0;
+        }
+        int excess = 0;
+        for(int day = 0; day < days; day++) {
+            excess += dayExcess(busy, day * periodsPerDay, periodsPerDay, -1, false);
+        }
+        return excess;
+    }
+
+    private int dayExcess(final long[] busy, final int dayStart, final int periodsPerDay, final int slot, final boolean taken) {
+        int count = 0;
+        int run = 0;
+        int excess = 0;
+        for(int s = dayStart; s < dayStart + periodsPerDay; s++) {
+            if(s == slot ? taken : isSet(busy, s)) {
+                count++;
+                run++;
+                if(kind == Kind.MAX_CONSECUTIVE && run > value) {
+                    excess++;
+                }
+            }else {
+                run = 0;
+            }
+        }
+        return kind == Kind.MAX_PER_DAY ? Math.max(0, count - value) : excess;
+    }
+
+    private static boolean isSet(final long[] mask, final int slot) {
+        final int word = slot >>> 6;
+        return mask != null && word < mask.length && (mask[word] & (1L << slot)) != 0;
+    }
+
+    private static boolean matches(final int[] ids, final Integer id) {
+        return ids.length == 0 || (id != null && id != 0 && Arrays.binarySearch(ids, id) >= 0);
+    }
+
+    private static int[] sorted(final int[] ids) {
+        if(ids == null || ids.length == 0) {
+            return ANY;
+        }
+        final int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+}
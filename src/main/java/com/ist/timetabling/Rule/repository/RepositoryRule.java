@@ -2,6 +2,7 @@ package com.ist.timetabling.Rule.repository;
 
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
 import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.model.ModelRuleBinding;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,9 @@ public interface RepositoryRule extends JpaRepository<EntityRule, Integer> {
 
     boolean existsByNameAndOrganizationIdAndIsDeletedFalse(String name, Integer organizationId);
 
+    @Query("SELECT r.name FROM EntityRule r WHERE r.organizationId = :organizationId AND r.isDeleted = false AND r.name IN :names")
+    List<String> findExistingNames(@Param("organizationId") Integer organizationId, @Param("names") Collection<String> names);
+
     Page<EntityRule> findByStatusIdAndIsDeletedFalse(Integer statusId, Pageable pageable);
 
     Page<EntityRule> findByStatusIdAndOrganizationIdAndIsDeletedFalse(Integer statusId, Integer organizationId, Pageable pageable);
@@ -98,4 +103,22 @@ public interface RepositoryRule extends JpaRepository<EntityRule, Integer> {
         @Param("orgId") Integer orgId,
         @Param("planSettingsId") Integer planSettingsId,
         Pageable pageable);
+
+    @Query("""
+        SELECT r FROM EntityRule r
+        WHERE r.planSettingsId = :planSettingsId
+          AND r.isEnabled = true
+          AND r.isDeleted = false
+          AND NOT EXISTS (SELECT 1 FROM EntityBinding b JOIN b.rules br WHERE br = r)
+    """)
+    List<EntityRule> findEnabledPlanWideRules(@Param("planSettingsId") Integer planSettingsId);
+
+    @Query("""
+        SELECT new com.ist.timetabling.Rule.model.ModelRuleBinding(b.id, r)
+        FROM EntityBinding b JOIN b.rules r
+        WHERE b.id IN :bindingIds
+          AND r.isEnabled = true
+          AND r.isDeleted = false
+    """)
+    List<ModelRuleBinding> findEnabledByBindingIdIn(@Param("bindingIds") Collection<Integer> bindingIds);
 }
@@ -0,0 +1,20 @@
+package com.ist.timetabling.Rule.service;
+
+import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ServiceRuleEngine {
+
+    List<ModelRuleCompiled> compile(final Collection<EntityRule> rules);
+
+    List<ModelRuleCompiled> getPlanRules(final Integer planSettingsId);
+
+    Map<Integer, List<ModelRuleCompiled>> getBindingRules(final Collection<Integer> bindingIds);
+
+    Map<Integer, List<ModelRuleCompiled>> getRulesByBinding(final Integer planSettingsId, final Collection<Integer> bindingIds);
+
+}
@@ -3,8 +3,15 @@ package com.ist.timetabling.Rule.service.impl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Core.util.CSVReaderUtil;
 import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
 import com.ist.timetabling.Period.dto.res.DtoResSchedulePreference;
@@ -23,6 +30,7 @@ import com.ist.timetabling.Core.util.PaginationUtil;
 import com.ist.timetabling.Rule.util.RuleCsvMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
@@ -46,7 +54,7 @@ import com.ist.timetabling.Period.repository.RepositoryPeriod;
 
 @Slf4j
 @Service
-public class ServiceImplRule implements ServiceRule {
+public class ServiceImplRule implements ServiceRule, CSVImportJobType {
 
     private final RepositoryRule repositoryRule;
     private final RepositoryOrganization repositoryOrganization;
@@ -57,6 +65,7 @@ public class ServiceImplRule implements ServiceRule {
     private final ServiceSchedulePreference serviceSchedulePreference;
     private final UtilAuthContext utilAuthContext;
     private final CSVReaderUtil csvReaderUtil;
+    private final CSVImportPipeline csvImportPipeline;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final int DEFAULT_PAGE_SIZE = 10;
     private static final int DEFAULT_PAGE_NUMBER = 0;
@@ -71,6 +80,7 @@ public class ServiceImplRule implements ServiceRule {
                            final RepositoryPeriod repositoryPeriod,
                            final UtilAuthContext utilAuthContext,
                            final CSVReaderUtil csvReaderUtil,
+                           final CSVImportPipeline csvImportPipeline,
                            final HttpServletRequest httpServletRequest) {
 
         this.repositoryRule = repositoryRule;
@@ -82,12 +92,12 @@ public class ServiceImplRule implements ServiceRule {
         this.utilAuthContext = utilAuthContext;
         this.httpServletRequest = httpServletRequest;
         this.csvReaderUtil = csvReaderUtil;
+        this.csvImportPipeline = csvImportPipeline;
 
         objectMapper.findAndRegisterModules();
     }
 
     @Override
-    @Transactional
     public ApiResponse<DtoResRuleCsvUpload> importRulesFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
         if(uploadRequest.getFile().isEmpty()) {
@@ -104,52 +114,20 @@ public class ServiceImplRule implements ServiceRule {
             return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getRule(I18N_ORGANIZATION_NOT_FOUND));
         }
 
-        DtoResRuleCsvUpload result = new DtoResRuleCsvUpload();
-        List<EntityRule> createdRules = new ArrayList<>();
-        List<DtoResRuleCsvUpload.ImportError> errors = new ArrayList<>();
-
-        try {
-            RuleCsvMapper ruleCsvMapper = new RuleCsvMapper(csvReaderUtil);
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    RuleCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
+        final RuleCsvImport ruleCsvImport = new RuleCsvImport(organizationId, i18n);
 
-            result.setTotalProcessed(records.size());
-            int rowNum = uploadRequest.getSkipHeaderRow() ? 2 : 1;
-
-            for(CSVRecord record : records) {
-                try {
-                    DtoReqRule ruleRequest = ruleCsvMapper.mapToRuleRequest(record, organizationId, rowNum);
-
-                    if(repositoryRule.existsByNameAndOrganizationIdAndIsDeletedFalse(
-                            ruleRequest.getName(), organizationId)) {
-                        throw new Exception(i18n.getRule(I18N_RULE_EXISTS));
-                    }
-
-                    ApiResponse<EntityRule> response = createRule(ruleRequest);
-
-                    if(response.isSuccess()) {
-                        createdRules.add(response.getData());
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-                    DtoResRuleCsvUpload.ImportError error = new DtoResRuleCsvUpload.ImportError(
-                            rowNum,
-                            record.toString(),
-                            e.getMessage()
-                    );
-                    errors.add(error);
-                }
-                rowNum++;
-            }
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), RuleCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+            final CSVImportResult<EntityRule> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, ruleCsvImport);
 
-            result.setCreatedRules(createdRules);
-            result.setErrors(errors);
-            result.setSuccessCount(createdRules.size());
-            result.setErrorCount(errors.size());
+            DtoResRuleCsvUpload result = DtoResRuleCsvUpload.builder()
+                    .createdRules(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> new DtoResRuleCsvUpload.ImportError(error.getRowNumber(), error.getOriginalData(), error.getErrorMessage()))
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
+                    .build();
 
             String message = result.buildSuccessMessage();
             return ApiResponse.success(HttpStatus.OK, message, result);
@@ -159,6 +137,65 @@ public class ServiceImplRule implements ServiceRule {
         }
     }
 
+    @Override
+    public String getImportType() {
+        return RuleCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return RuleCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        if(!repositoryOrganization.existsById(job.getOrganizationId())) {
+            throw new ExceptionCoreNotFound(i18n.getRule(I18N_ORGANIZATION_NOT_FOUND));
+        }
+        return new RuleCsvImport(job.getOrganizationId(), i18n);
+    }
+
+    /**
+     * The rule stages of the CSV import pipeline. Rule names already taken are looked up once per
+     * chunk, and names repeated inside the file are caught as the rows stream by.
+     */
+    private class RuleCsvImport implements CSVImportHandler<DtoReqRule, EntityRule> {
+
+        private final Integer organizationId;
+        private final I18n i18n;
+        private final RuleCsvMapper ruleCsvMapper = new RuleCsvMapper(csvReaderUtil);
+        private final Set<String> seenNames = new HashSet<>();
+
+        private RuleCsvImport(final Integer organizationId, final I18n i18n) {
+            this.organizationId = organizationId;
+            this.i18n = i18n;
+        }
+
+        @Override
+        public DtoReqRule validate(final CSVRecord record, final int rowNumber) {
+            return ruleCsvMapper.mapToRuleRequest(record, organizationId, rowNumber);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqRule, EntityRule>> rows) {
+            final Set<String> existingNames = repositoryRule.findExistingNames(organizationId,
+                            rows.stream().map(row -> row.getValue().getName()).collect(Collectors.toSet()))
+                    .stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqRule, EntityRule> row : rows) {
+                final String name = row.getValue().getName().toLowerCase(Locale.ROOT);
+                if(existingNames.contains(name) || !seenNames.add(name)) {
+                    row.reject(i18n.getRule(I18N_RULE_EXISTS));
+                }
+            }
+        }
+
+        @Override
+        public List<EntityRule> persist(final List<DtoReqRule> rows) {
+            return repositoryRule.saveAll(rows.stream().map(ServiceImplRule::toDto).collect(Collectors.toList()));
+        }
+
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ApiResponse<EntityRule> getRuleByUuid(final String uuid) {
@@ -617,7 +654,7 @@ public class ServiceImplRule implements ServiceRule {
         return repositoryRule.save(entityRule);
     }
 
-    private EntityRule toDto(final DtoReqRule dtoReqRule) {
+    private static EntityRule toDto(final DtoReqRule dtoReqRule) {
         final EntityRule entityRule = new EntityRule();
         entityRule.setName(dtoReqRule.getName());
         entityRule.setOrganizationId(dtoReqRule.getOrganizationId());
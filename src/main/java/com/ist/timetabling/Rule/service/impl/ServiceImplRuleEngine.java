@@ -0,0 +1,111 @@
+package com.ist.timetabling.Rule.service.impl;
+
+import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.model.ModelRuleBinding;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Rule.repository.RepositoryRule;
+import com.ist.timetabling.Rule.service.ServiceRuleEngine;
+import com.ist.timetabling.Rule.util.UtilRuleCompiler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class ServiceImplRuleEngine implements ServiceRuleEngine {
+
+    private final RepositoryRule repositoryRule;
+    private final Map<Long, Compiled> compiled = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceImplRuleEngine(final RepositoryRule repositoryRule) {
+        this.repositoryRule = repositoryRule;
+    }
+
+    @Override
+    public List<ModelRuleCompiled> compile(final Collection<EntityRule> rules) {
+        final List<ModelRuleCompiled> result = new ArrayList<>(rules.size());
+        for(final EntityRule rule : rules) {
+            compiledOf(rule).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ModelRuleCompiled> getPlanRules(final Integer planSettingsId) {
+        if(planSettingsId == null) {
+            return List.of();
+        }
+        return compile(repositoryRule.findEnabledPlanWideRules(planSettingsId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, List<ModelRuleCompiled>> getBindingRules(final Collection<Integer> bindingIds) {
+        final Map<Integer, List<ModelRuleCompiled>> rulesByBinding = new HashMap<>();
+        if(bindingIds.isEmpty()) {
+            return rulesByBinding;
+        }
+        for(final ModelRuleBinding row : repositoryRule.findEnabledByBindingIdIn(bindingIds)) {
+            compiledOf(row.getRule()).ifPresent(rule -> rulesByBinding.computeIfAbsent(row.getBindingId(), key -> new ArrayList<>()).add(rule));
+        }
+        return rulesByBinding;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, List<ModelRuleCompiled>> getRulesByBinding(final Integer planSettingsId, final Collection<Integer> bindingIds) {
+        final List<ModelRuleCompiled> planRules = getPlanRules(planSettingsId);
+        final Map<Integer, List<ModelRuleCompiled>> ownRules = getBindingRules(bindingIds);
+        final Map<Integer, List<ModelRuleCompiled>> rulesByBinding = new HashMap<>();
+        for(final Integer bindingId : bindingIds) {
+            final List<ModelRuleCompiled> own = ownRules.get(bindingId);
+            if(own == null) {
+                rulesByBinding.put(bindingId, planRules);
+            }else {
+                final List<ModelRuleCompiled> rules = new ArrayList<>(planRules);
+                rules.addAll(own);
+                rulesByBinding.put(bindingId, rules);
+            }
+        }
+        return rulesByBinding;
+    }
+
+    private Optional<ModelRuleCompiled> compiledOf(final EntityRule rule) {
+        if(rule.getId() == null) {
+            return UtilRuleCompiler.compile(rule);
+        }
+        final long version = UtilRuleCompiler.versionOf(rule);
+        final Compiled cached = compiled.get(rule.getId());
+        if(cached != null && cached.version == version) {
+            return cached.rule;
+        }
+        final Optional<ModelRuleCompiled> fresh = UtilRuleCompiler.compile(rule);
+        compiled.put(rule.getId(), new Compiled(version, fresh));
+        log.debug("Compiled rule {} at version {}: {}", rule.getId(), version, fresh.map(ModelRuleCompiled::getKind).orElse(null));
+        return fresh;
+    }
+
+    private static final class Compiled {
+
+        private final long version;
+        private final Optional<ModelRuleCompiled> rule;
+
+        private Compiled(final long version, final Optional<ModelRuleCompiled> rule) {
+            this.version = version;
+            this.rule = rule;
+        }
+
+    }
+
+}
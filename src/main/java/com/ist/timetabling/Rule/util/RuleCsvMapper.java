@@ -16,6 +16,8 @@ import java.util.List;
 @Component
 public class RuleCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "RULE";
+
     public static final String[] CSV_HEADERS = {
             "name", "initials", "data", "priority", "isEnabled", "statusId", "comment"
     };
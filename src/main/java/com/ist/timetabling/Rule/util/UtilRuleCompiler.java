@@ -0,0 +1,127 @@
+package com.ist.timetabling.Rule.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled.Kind;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled.Scope;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Turns {@link EntityRule#getData()} into a {@link ModelRuleCompiled}. The data is a JSON object
+ * with a {@code type} and the fields that type needs, for example:
+ * <pre>
+ * {"type":"MAX_CONSECUTIVE","scope":"TEACHER","max":3}
+ * {"type":"MAX_PER_DAY","scope":"CLASS","max":6,"classIds":[12]}
+ * {"type":"NOT_AFTER_PERIOD","period":4,"subjectIds":[7],"hard":true}
+ * {"type":"NOT_BEFORE_PERIOD","period":2,"teacherIds":[3]}
+ * {"type":"AVOID_DAYS","days":[5],"weight":25}
+ * </pre>
+ * {@code subjectIds}, {@code teacherIds}, {@code classIds} and {@code roomIds} narrow the lessons a
+ * rule applies to. The two limit types count every lesson of the teacher or class in {@code scope},
+ * so only {@code teacherIds} or {@code classIds} narrow them. Rules are soft unless {@code hard} is
+ * set; soft rules weigh {@code weight}, or the rule priority when no weight is given. Data without a
+ * known type, such as free text meant only for the AI prompt, compiles to nothing.
+ */
+@Slf4j
+public final class UtilRuleCompiler {
+
+    public static final int DEFAULT_WEIGHT = 10;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private UtilRuleCompiler() {
+    }
+
+    public static long versionOf(final EntityRule rule) {
+        final long modified = rule.getModifiedDate() != null ? rule.getModifiedDate().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return modified * 31 + Objects.hash(rule.getData(), rule.getPriority(), rule.isEnabled());
+    }
+
+    public static Optional<ModelRuleCompiled> compile(final EntityRule rule) {
+        if(!rule.isEnabled() || Boolean.TRUE.equals(rule.getIsDeleted()) || rule.getData() == null || rule.getData().isBlank()) {
+            return Optional.empty();
+        }
+        final JsonNode data;
+        try {
+            data = OBJECT_MAPPER.readTree(rule.getData());
+        }catch(final Exception e) {
+            log.debug("Rule {} data is not JSON, skipping compilation", rule.getId());
+            return Optional.empty();
+        }
+        if(data == null || !data.isObject()) {
+            return Optional.empty();
+        }
+        final Kind kind = enumOf(Kind.class, data.path("type").asText(null));
+        if(kind == null) {
+            return Optional.empty();
+        }
+
+        final int value = kind.isLimit() ? intOf(data, "max", "value") : intOf(data, "period", "value");
+        final int dayMask = daysOf(data.path("days"));
+        if((kind != Kind.AVOID_DAYS && value <= 0) || (kind == Kind.AVOID_DAYS && dayMask == 0)) {
+            log.debug("Rule {} of type {} has no usable bound, skipping compilation", rule.getId(), kind);
+            return Optional.empty();
+        }
+
+        final int weight = data.path("weight").asInt(rule.getPriority() > 0 ? rule.getPriority() : DEFAULT_WEIGHT);
+        return Optional.of(new ModelRuleCompiled(
+                rule.getId(),
+                versionOf(rule),
+                rule.getName(),
+                kind,
+                enumOf(Scope.class, data.path("scope").asText(null)),
+                data.path("hard").asBoolean(false),
+                Math.max(1, weight),
+                value,
+                dayMask,
+                idsOf(data.path("subjectIds")),
+                idsOf(data.path("teacherIds")),
+                idsOf(data.path("classIds")),
+                idsOf(data.path("roomIds"))));
+    }
+
+    private static int intOf(final JsonNode data, final String name, final String alias) {
+        return data.has(name) ? data.path(name).asInt(0) : data.path(alias).asInt(0);
+    }
+
+    private static int daysOf(final JsonNode days) {
+        int mask = 0;
+        for(final JsonNode day : days) {
+            final int dayOfWeek = day.asInt(0);
+            if(dayOfWeek >= 1 && dayOfWeek <= 31) {
+                mask |= 1 << (dayOfWeek - 1);
+            }
+        }
+        return mask;
+    }
+
+    private static int[] idsOf(final JsonNode ids) {
+        if(!ids.isArray()) {
+            return null;
+        }
+        final int[] values = new int[ids.size()];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = ids.get(i).asInt(0);
+        }
+        return values;
+    }
+
+    private static <E extends Enum<E>> E enumOf(final Class<E> type, final String name) {
+        if(name == null || name.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name.trim().toUpperCase(Locale.ROOT));
+        }catch(final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
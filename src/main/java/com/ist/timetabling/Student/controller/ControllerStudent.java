@@ -1,11 +1,14 @@
 package com.ist.timetabling.Student.controller;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Student.dto.req.DtoReqStudent;
 import com.ist.timetabling.Student.dto.res.DtoResStudent;
 import com.ist.timetabling.Student.dto.res.DtoResStudentCsvUpload;
 import com.ist.timetabling.Student.service.ServiceStudent;
+import com.ist.timetabling.Student.util.StudentCsvMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,9 +25,11 @@ import java.util.List;
 public class ControllerStudent {
 
     private final ServiceStudent serviceStudent;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
-    public ControllerStudent(final ServiceStudent serviceStudent) {
+    public ControllerStudent(final ServiceStudent serviceStudent, final ServiceCsvImportJob serviceCsvImportJob) {
         this.serviceStudent = serviceStudent;
+        this.serviceCsvImportJob = serviceCsvImportJob;
     }
 
     @GetMapping("/{uuid}")
@@ -103,6 +108,23 @@ public class ControllerStudent {
         return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
     }
 
+    @PostMapping(value = "/import/csv/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitStudentImportJob(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) Integer organizationId,
+            @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow) {
+
+        DtoReqCsvUpload uploadRequest = DtoReqCsvUpload.builder()
+                .file(file)
+                .organizationId(organizationId)
+                .skipHeaderRow(skipHeaderRow)
+                .build();
+
+        ApiResponse<DtoResCsvImportJob> apiResponse = serviceCsvImportJob.submit(StudentCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
+    }
+
     @PutMapping("/{uuid}/assign-class/{classId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<ApiResponse<DtoResStudent>> assignStudentToClass(@PathVariable final String uuid, @PathVariable final Integer classId) {
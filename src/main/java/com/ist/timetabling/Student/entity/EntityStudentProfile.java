@@ -1,5 +1,6 @@
 package com.ist.timetabling.Student.entity;
 
+import com.ist.timetabling.Core.config.ConfigCoreTableIds;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -21,7 +22,9 @@ public class EntityStudentProfile {
     public static final String TABLE = "student_profiles";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = TABLE)
+    @TableGenerator(name = TABLE, table = ConfigCoreTableIds.ID_TABLE, pkColumnName = ConfigCoreTableIds.ID_TABLE_KEY,
+            valueColumnName = ConfigCoreTableIds.ID_TABLE_VALUE, pkColumnValue = TABLE, allocationSize = ConfigCoreTableIds.ID_ALLOCATION_SIZE)
     @Column(name = ID)
     private Integer id;
     public static final String ID = "student_id";
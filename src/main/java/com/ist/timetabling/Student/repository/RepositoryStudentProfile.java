@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,4 +75,7 @@ public interface RepositoryStudentProfile extends JpaRepository<EntityStudentPro
 
     @Query("SELECT sp FROM EntityStudentProfile sp WHERE (sp.studentClassId IS NULL OR sp.studentClassId = 0) AND sp.isDeleted = false")
     Page<EntityStudentProfile> findUnassignedStudents(Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("SELECT sp.studentIdNumber FROM EntityStudentProfile sp WHERE sp.organizationId = :organizationId AND sp.isDeleted = false AND sp.studentIdNumber IN :studentIdNumbers")
+    List<String> findExistingStudentIdNumbers(@Param("organizationId") Integer organizationId, @Param("studentIdNumbers") Collection<String> studentIdNumbers);
+}
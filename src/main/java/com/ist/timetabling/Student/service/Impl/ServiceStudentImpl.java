@@ -6,8 +6,16 @@ import com.ist.timetabling.Auth.repository.RepositoryRole;
 import com.ist.timetabling.Auth.service.ServiceEmail;
 import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.model.ModelGeneratedPassword;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Core.util.PaginationUtil;
 import com.ist.timetabling.Core.util.UtilPasswordGenerator;
 import com.ist.timetabling.Organization.entity.EntityOrganization;
@@ -27,14 +35,16 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.ist.timetabling.Core.util.CSVReaderUtil;
 
 import java.io.IOException;
@@ -50,7 +60,7 @@ import static com.ist.timetabling.User.constant.ConstantUserI18n.I18N_USER_NOT_F
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class ServiceStudentImpl implements ServiceStudent {
+public class ServiceStudentImpl implements ServiceStudent, CSVImportJobType {
     @Value("${spring.mail.username}")
     private String username;
 
@@ -62,16 +72,15 @@ public class ServiceStudentImpl implements ServiceStudent {
     private final HttpServletRequest httpServletRequest;
     private final UtilAuthContext utilAuthContext;
     private final UtilPasswordGenerator utilPasswordGenerator;
-    private final PasswordEncoder passwordEncoder;
     private final ServiceEmail serviceEmail;
     private final CSVReaderUtil csvReaderUtil;
     private final StudentCsvMapper studentCsvMapper;
+    private final CSVImportPipeline csvImportPipeline;
 
     private static final String ROLE_ADMIN = "ADMIN";
     private static final String STUDENT_ROLE = "STUDENT";
 
     @Override
-    @Transactional
     public ApiResponse<DtoResStudentCsvUpload> importStudentsFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
 
@@ -87,82 +96,38 @@ public class ServiceStudentImpl implements ServiceStudent {
             organizationId = utilAuthContext.getCurrentUser().getOrganization().getId();
         }
 
-        if(!repositoryOrganization.existsById(organizationId)) {
+        Optional<EntityOrganization> organization = repositoryOrganization.findById(organizationId);
+        if(organization.isEmpty()) {
             return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getStudent(I18N_ORGANIZATION_NOT_FOUND));
         }
 
-        DtoResStudentCsvUpload.DtoResStudentCsvUploadBuilder resultBuilder = DtoResStudentCsvUpload.builder();
-        List<DtoResStudent> createdStudents = new ArrayList<>();
-        List<DtoResStudentCsvUpload.StudentImportError> errors = new ArrayList<>();
-
-        try {
-       
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    studentCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
-
-            int rowNumber = uploadRequest.getSkipHeaderRow() ? 2 : 1; 
-            int successCount = 0;
-            int errorCount = 0;
-
-            for(CSVRecord record : records) {
-                try {
-                    
-                    DtoReqStudent studentRequest = studentCsvMapper.mapToStudentRequest(record, organizationId, rowNumber);
-                    
-                   
-                    Optional<EntityStudentProfile> existingStudent = repositoryStudentProfile.findByStudentIdNumberAndIsDeletedFalseAndOrganizationId(
-                            studentRequest.getStudentIdNumber(), organizationId);
-
-                    if(existingStudent.isPresent()) {
-                        throw new Exception(i18n.getStudent(I18N_STUDENT_ID_EXISTS));
-                    }
-
-                
-                    if(studentRequest.getEmail() != null && !studentRequest.getEmail().isEmpty()) {
-                        Optional<EntityUser> existingEmail = repositoryUser.findByEmailAndIsDeletedFalse(studentRequest.getEmail());
-                        if(existingEmail.isPresent()) {
-                            throw new Exception(i18n.getStudent(I18N_STUDENT_EMAIL_EXISTS));
-                        }
-                    }
-
-                
-                    ApiResponse<DtoResStudent> response = createStudent(studentRequest);
-
-                    if(response.isSuccess()) {
-                        createdStudents.add(response.getData());
-                        successCount++;
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-                 
-                    DtoResStudentCsvUpload.StudentImportError error = DtoResStudentCsvUpload.StudentImportError.builder()
-                            .rowNumber(rowNumber)
-                            .originalData(record.toString())
-                            .errorMessage(e.getMessage())
-                            .build();
-                    errors.add(error);
-                    errorCount++;
-                }
-                rowNumber++;
-            }
-
-            DtoResStudentCsvUpload result = resultBuilder
-                    .createdStudents(createdStudents)
-                    .errors(errors)
-                    .totalProcessed(successCount + errorCount)
-                    .successCount(successCount)
-                    .errorCount(errorCount)
+        final EntityRole entityRole = (EntityRole) repositoryRole.findByName(STUDENT_ROLE)
+                .orElseThrow(() -> new ExceptionUserNotFound(i18n.getTeacher(I18N_USER_NOT_FOUND)));
+        final StudentCsvImport studentCsvImport = new StudentCsvImport(organization.get(), entityRole, utilAuthContext.getCurrentUser().getId(), i18n);
+
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), StudentCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+
+            final CSVImportResult<DtoResStudent> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, studentCsvImport);
+
+            DtoResStudentCsvUpload result = DtoResStudentCsvUpload.builder()
+                    .createdStudents(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> DtoResStudentCsvUpload.StudentImportError.builder()
+                                    .rowNumber(error.getRowNumber())
+                                    .originalData(error.getOriginalData())
+                                    .errorMessage(error.getErrorMessage())
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
                     .build();
 
      
             String message;
             HttpStatus status;
             
-            if(successCount > 0) {
+            if(result.getSuccessCount() > 0) {
                 message = String.format("Processed %d students: %d created, %d errors",
                         result.getTotalProcessed(), result.getSuccessCount(), result.getErrorCount());
                 status = HttpStatus.OK;
@@ -185,6 +150,114 @@ public class ServiceStudentImpl implements ServiceStudent {
             );
         }
     }
+
+    @Override
+    public String getImportType() {
+        return StudentCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return StudentCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        final EntityOrganization organization = repositoryOrganization.findById(job.getOrganizationId())
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getStudent(I18N_ORGANIZATION_NOT_FOUND)));
+        final EntityRole entityRole = (EntityRole) repositoryRole.findByName(STUDENT_ROLE)
+                .orElseThrow(() -> new ExceptionUserNotFound(i18n.getTeacher(I18N_USER_NOT_FOUND)));
+        return new StudentCsvImport(organization, entityRole, job.getCreatedBy(), i18n);
+    }
+
+    /**
+     * The student stages of the CSV import pipeline. Student numbers and emails already taken are
+     * looked up once per chunk, and duplicates inside the file are caught as the rows stream by.
+     */
+    private class StudentCsvImport implements CSVImportHandler<DtoReqStudent, DtoResStudent> {
+
+        private final EntityOrganization organization;
+        private final EntityRole entityRole;
+        private final Integer actorId;
+        private final I18n i18n;
+        private final Set<String> seenStudentIdNumbers = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Map<DtoReqStudent, ModelGeneratedPassword> credentials = new IdentityHashMap<>();
+
+        private StudentCsvImport(final EntityOrganization organization, final EntityRole entityRole, final Integer actorId, final I18n i18n) {
+            this.organization = organization;
+            this.entityRole = entityRole;
+            this.actorId = actorId;
+            this.i18n = i18n;
+        }
+
+        @Override
+        public DtoReqStudent validate(final CSVRecord record, final int rowNumber) {
+            return studentCsvMapper.mapToStudentRequest(record, organization.getId(), rowNumber);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqStudent, DtoResStudent>> rows) {
+            final Set<String> existingStudentIdNumbers = new HashSet<>(repositoryStudentProfile.findExistingStudentIdNumbers(organization.getId(),
+                    rows.stream().map(row -> row.getValue().getStudentIdNumber()).filter(Objects::nonNull).collect(Collectors.toSet())));
+            final Set<String> existingEmails = repositoryUser.findExistingEmails(rows.stream().map(row -> row.getValue().getEmail())
+                            .filter(email -> email != null && !email.isEmpty()).collect(Collectors.toSet()))
+                    .stream().map(email -> email.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqStudent, DtoResStudent> row : rows) {
+                final DtoReqStudent student = row.getValue();
+                if(existingStudentIdNumbers.contains(student.getStudentIdNumber()) || !seenStudentIdNumbers.add(student.getStudentIdNumber())) {
+                    row.reject(i18n.getStudent(I18N_STUDENT_ID_EXISTS));
+                }else if(student.getEmail() != null && !student.getEmail().isEmpty()) {
+                    final String email = student.getEmail().toLowerCase(Locale.ROOT);
+                    if(existingEmails.contains(email) || !seenEmails.add(email)) {
+                        row.reject(i18n.getStudent(I18N_STUDENT_EMAIL_EXISTS));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void prepare(final List<DtoReqStudent> rows) {
+            credentials.clear();
+            final List<ModelGeneratedPassword> generated = utilPasswordGenerator.generateEncodedPasswords(rows.size(), 12);
+            for(int i = 0; i < rows.size(); i++) {
+                credentials.put(rows.get(i), generated.get(i));
+            }
+        }
+
+        @Override
+        public List<DtoResStudent> persist(final List<DtoReqStudent> rows) {
+            final List<ModelGeneratedPassword> passwords = rows.stream().map(credentials::get).collect(Collectors.toList());
+            final List<EntityUser> users = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                users.add(newStudentUser(rows.get(i), entityRole, organization, passwords.get(i).getPasswordHash(), actorId));
+            }
+            repositoryUser.saveAll(users);
+
+            final List<EntityStudentProfile> profiles = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                profiles.add(newStudentProfile(rows.get(i), users.get(i).getId(), organization.getId(), actorId));
+            }
+            repositoryStudentProfile.saveAll(profiles);
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for(int i = 0; i < users.size(); i++) {
+                        serviceEmail.sendEmail(accountCreatedEmail(users.get(i), profiles.get(i), passwords.get(i).getPassword(), organization));
+                    }
+                }
+            });
+
+            final List<DtoResStudent> created = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                created.add(mapToDto(users.get(i), profiles.get(i)));
+            }
+            return created;
+        }
+
+    }
+
     @Override
     public ApiResponse<DtoResStudent> findStudentByUuid(final String uuid) {
         final I18n i18n = new I18n(httpServletRequest);
@@ -401,63 +474,25 @@ public class ServiceStudentImpl implements ServiceStudent {
             }
         }
 
-        String password = utilPasswordGenerator.generateSecurePassword(12);
+        final ModelGeneratedPassword password = utilPasswordGenerator.generateEncodedPassword(12);
 
 
         EntityRole entityRole = (EntityRole) repositoryRole.findByName(STUDENT_ROLE)
                 .orElseThrow(() -> new ExceptionUserNotFound(i18n.getTeacher(I18N_USER_NOT_FOUND)));
 
-        EntityUser entityUser = new EntityUser();
-        entityUser.setPasswordHash(passwordEncoder.encode(password));
-        entityUser.setEmail(dtoReqStudent.getEmail());
-        entityUser.setFirstName(dtoReqStudent.getFullName());
-        entityUser.setLastName("");
-        entityUser.setPhone(dtoReqStudent.getPhone());
-        entityUser.setIsActive(true);
-        entityUser.setIsDeleted(false);
-        entityUser.setStatusId(dtoReqStudent.getStatusId() != null ? dtoReqStudent.getStatusId() : 0);
-        entityUser.setEntityRole(entityRole);
-        entityUser.setOrganization(entityOrganization);
-        entityUser.setCreatedBy(utilAuthContext.getCurrentUser().getId());
-        entityUser.setModifiedBy(utilAuthContext.getCurrentUser().getId());
+        final Integer actorId = utilAuthContext.getCurrentUser().getId();
+        EntityUser entityUser = newStudentUser(dtoReqStudent, entityRole, entityOrganization, password.getPasswordHash(), actorId);
 
         final EntityUser entityUserSaved = repositoryUser.save(entityUser);
 
-        EntityStudentProfile entityStudentProfile = EntityStudentProfile.builder()
-                .userId(entityUser.getId())
-                .organizationId(organizationId)
-                .studentIdNumber(dtoReqStudent.getStudentIdNumber())
-                .department(dtoReqStudent.getDepartment() != null ? dtoReqStudent.getDepartment() : "")
-                .address(dtoReqStudent.getAddress() != null ? dtoReqStudent.getAddress() : "")
-                .statusId(dtoReqStudent.getStatusId() != null ? dtoReqStudent.getStatusId() : 0)
-                .studentClassId(dtoReqStudent.getClassId())
-                .createdBy(utilAuthContext.getCurrentUser().getId())
-                .modifiedBy(utilAuthContext.getCurrentUser().getId())
-                .isDeleted(false)
-                .build();
+        EntityStudentProfile entityStudentProfile = newStudentProfile(dtoReqStudent, entityUser.getId(), organizationId, actorId);
 
         entityStudentProfile = repositoryStudentProfile.save(entityStudentProfile);
 
         DtoResStudent dtoResStudent = mapToDto(entityUser, entityStudentProfile);
 
         try {
-            DtoEmailRequest emailRequest = new DtoEmailRequest();
-            emailRequest.setTo(Collections.singletonList(entityUser.getEmail()));
-            emailRequest.setSubject("Your Student Account Has Been Created");
-            emailRequest.setTemplateName("account-created");
-            emailRequest.setFrom(username);
-
-            Map<String, Object> templateVariables = new HashMap<>();
-            templateVariables.put("firstName", entityUser.getFirstName());
-            templateVariables.put("email", entityUser.getEmail());
-            templateVariables.put("password", password);
-            templateVariables.put("role", "Student");
-            templateVariables.put("organizationName", entityOrganization.getName());
-            templateVariables.put("loginUrl", "https://timetable.ist-legal.rw/login");
-            templateVariables.put("studentId", entityStudentProfile.getStudentIdNumber());
-            emailRequest.setTemplateVariables(templateVariables);
-
-            serviceEmail.sendEmail(emailRequest);
+            serviceEmail.sendEmail(accountCreatedEmail(entityUser, entityStudentProfile, password.getPassword(), entityOrganization));
         }catch(ExceptionUserNotFound e) {
             return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getTeacher(I18N_TEACHER_NOT_FOUND));
         }
@@ -677,6 +712,57 @@ public class ServiceStudentImpl implements ServiceStudent {
                 .collect(Collectors.toList());
     }
 
+    private EntityUser newStudentUser(final DtoReqStudent dtoReqStudent, final EntityRole entityRole, final EntityOrganization entityOrganization, final String passwordHash, final Integer actorId) {
+        EntityUser entityUser = new EntityUser();
+        entityUser.setPasswordHash(passwordHash);
+        entityUser.setEmail(dtoReqStudent.getEmail());
+        entityUser.setFirstName(dtoReqStudent.getFullName());
+        entityUser.setLastName("");
+        entityUser.setPhone(dtoReqStudent.getPhone());
+        entityUser.setIsActive(true);
+        entityUser.setIsDeleted(false);
+        entityUser.setStatusId(dtoReqStudent.getStatusId() != null ? dtoReqStudent.getStatusId() : 0);
+        entityUser.setEntityRole(entityRole);
+        entityUser.setOrganization(entityOrganization);
+        entityUser.setCreatedBy(actorId);
+        entityUser.setModifiedBy(actorId);
+        return entityUser;
+    }
+
+    private EntityStudentProfile newStudentProfile(final DtoReqStudent dtoReqStudent, final Integer userId, final Integer organizationId, final Integer actorId) {
+        return EntityStudentProfile.builder()
+                .userId(userId)
+                .organizationId(organizationId)
+                .studentIdNumber(dtoReqStudent.getStudentIdNumber())
+                .department(dtoReqStudent.getDepartment() != null ? dtoReqStudent.getDepartment() : "")
+                .address(dtoReqStudent.getAddress() != null ? dtoReqStudent.getAddress() : "")
+                .statusId(dtoReqStudent.getStatusId() != null ? dtoReqStudent.getStatusId() : 0)
+                .studentClassId(dtoReqStudent.getClassId())
+                .createdBy(actorId)
+                .modifiedBy(actorId)
+                .isDeleted(false)
+                .build();
+    }
+
+    private DtoEmailRequest accountCreatedEmail(final EntityUser entityUser, final EntityStudentProfile entityStudentProfile, final String password, final EntityOrganization entityOrganization) {
+        DtoEmailRequest emailRequest = new DtoEmailRequest();
+        emailRequest.setTo(Collections.singletonList(entityUser.getEmail()));
+        emailRequest.setSubject("Your Student Account Has Been Created");
+        emailRequest.setTemplateName("account-created");
+        emailRequest.setFrom(username);
+
+        Map<String, Object> templateVariables = new HashMap<>();
+        templateVariables.put("firstName", entityUser.getFirstName());
+        templateVariables.put("email", entityUser.getEmail());
+        templateVariables.put("password", password);
+        templateVariables.put("role", "Student");
+        templateVariables.put("organizationName", entityOrganization.getName());
+        templateVariables.put("loginUrl", "https://timetable.ist-legal.rw/login");
+        templateVariables.put("studentId", entityStudentProfile.getStudentIdNumber());
+        emailRequest.setTemplateVariables(templateVariables);
+        return emailRequest;
+    }
+
     private DtoResStudent mapToDto(EntityUser user, EntityStudentProfile profile) {
         DtoResStudent dto = new DtoResStudent();
         dto.setId(profile.getId());
@@ -15,6 +15,8 @@ import java.util.List;
 @Component
 public class StudentCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "STUDENT";
+
     public static final String[] CSV_HEADERS = {
             "studentIdNumber", "fullName", "email", "phone",
             "department", "address", "notes", "statusId", "classId",
@@ -1,11 +1,14 @@
 package com.ist.timetabling.Subject.controller;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Subject.dto.req.DtoReqSubject;
 import com.ist.timetabling.Subject.dto.res.DtoResSubject;
 import com.ist.timetabling.Subject.dto.res.DtoResSubjectCsvUpload;
 import com.ist.timetabling.Subject.service.ServiceSubject;
+import com.ist.timetabling.Subject.util.SubjectCsvMapper;
 import com.ist.timetabling.Subject.util.UtilSubjectCsv;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -26,10 +29,12 @@ import java.util.List;
 public class ControllerSubject {
     private final ServiceSubject serviceSubject;
     private final UtilSubjectCsv utilSubjectCsv;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
-    public ControllerSubject(final ServiceSubject serviceSubject, final UtilSubjectCsv utilSubjectCsv) {
+    public ControllerSubject(final ServiceSubject serviceSubject, final UtilSubjectCsv utilSubjectCsv, final ServiceCsvImportJob serviceCsvImportJob) {
         this.serviceSubject = serviceSubject;
         this.utilSubjectCsv = utilSubjectCsv;
+        this.serviceCsvImportJob = serviceCsvImportJob;
     }
 
     @GetMapping("/{uuid}")
@@ -78,6 +83,21 @@ public class ControllerSubject {
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    @PostMapping("/import/csv/jobs")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitSubjectImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow,
+            @RequestParam(required = false) Integer organizationId) {
+
+        DtoReqCsvUpload uploadRequest = new DtoReqCsvUpload();
+        uploadRequest.setFile(file);
+        uploadRequest.setSkipHeaderRow(skipHeaderRow);
+        uploadRequest.setOrganizationId(organizationId);
+
+        final ApiResponse<DtoResCsvImportJob> response = serviceCsvImportJob.submit(SubjectCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
   
     @GetMapping("/template")
     public ResponseEntity<String> getSubjectCsvTemplate() {
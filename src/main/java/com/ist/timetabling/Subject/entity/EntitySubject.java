@@ -1,5 +1,6 @@
 package com.ist.timetabling.Subject.entity;
 
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 
 @Entity
+@EntityListeners(ListenerTimetableContent.class)
 @Table(name = EntitySubject.TABLE)
 @Data
 @NoArgsConstructor
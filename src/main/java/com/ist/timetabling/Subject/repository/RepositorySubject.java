@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +36,9 @@ public interface RepositorySubject extends JpaRepository<EntitySubject,Integer>
 
     Optional<EntitySubject> findByNameAndOrganizationIdAndIsDeletedFalse(final String name, final Integer orgId);
 
+    @Query("SELECT s.name FROM EntitySubject s WHERE s.organizationId = :organizationId AND s.isDeleted = false AND s.name IN :names")
+    List<String> findExistingNames(@Param("organizationId") final Integer organizationId, @Param("names") final Collection<String> names);
+
     @Query(value = "SELECT s.* FROM subjects s " +
             "WHERE s.subject_is_deleted = false AND " +
             "(LOWER(s.subject_name) LIKE %:keyword% OR LOWER(s.subject_initials) LIKE %:keyword% OR LOWER(s.subject_description) LIKE %:keyword%)",
@@ -1,8 +1,14 @@
 package com.ist.timetabling.Subject.service.impl;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Core.util.CSVReaderUtil;
 import com.ist.timetabling.Subject.dto.req.DtoReqSubject;
 import com.ist.timetabling.Subject.dto.res.DtoResSubject;
@@ -11,8 +17,11 @@ import com.ist.timetabling.Subject.entity.EntitySubject;
 import com.ist.timetabling.Subject.repository.RepositorySubject;
 import com.ist.timetabling.Subject.service.ServiceSubject;
 import com.ist.timetabling.Subject.util.SubjectCsvMapper;
+import com.ist.timetabling.User.entity.EntityUser;
+import com.ist.timetabling.User.repository.RepositoryUser;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,36 +35,44 @@ import com.ist.timetabling.Notifications.service.ServiceNotification;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import static com.ist.timetabling.Subject.constant.ConstantSubjectI18n.*;
 
 @Service
-public class ServiceSubjectImpl implements ServiceSubject {
+public class ServiceSubjectImpl implements ServiceSubject, CSVImportJobType {
 
     private final RepositorySubject repositorySubject;
     private final HttpServletRequest httpServletRequest;
     private final com.ist.timetabling.Auth.util.UtilAuthContext utilAuthContext;
     private final CSVReaderUtil csvReaderUtil;
     private final ServiceNotification serviceNotification;
+    private final RepositoryUser repositoryUser;
+    private final CSVImportPipeline csvImportPipeline;
 
     @Autowired
     public ServiceSubjectImpl(final RepositorySubject repositorySubject,
                               final HttpServletRequest httpServletRequest,
                               final com.ist.timetabling.Auth.util.UtilAuthContext utilAuthContext,
                               final CSVReaderUtil csvReaderUtil,
-                              final ServiceNotification serviceNotification) {
+                              final ServiceNotification serviceNotification,
+                              final RepositoryUser repositoryUser,
+                              final CSVImportPipeline csvImportPipeline) {
         this.repositorySubject = repositorySubject;
         this.httpServletRequest = httpServletRequest;
         this.utilAuthContext = utilAuthContext;
         this.csvReaderUtil = csvReaderUtil;
         this.serviceNotification = serviceNotification;
+        this.repositoryUser = repositoryUser;
+        this.csvImportPipeline = csvImportPipeline;
     }
 
     @Override
-    @Transactional
     public ApiResponse<DtoResSubjectCsvUpload> importSubjectsFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
 
@@ -72,60 +89,20 @@ public class ServiceSubjectImpl implements ServiceSubject {
             organizationId = utilAuthContext.getAuthenticatedUserOrganizationId();
         }
 
-        DtoResSubjectCsvUpload result = new DtoResSubjectCsvUpload();
-        List<DtoResSubject> createdSubjects = new ArrayList<>();
-        List<DtoResSubjectCsvUpload.ImportError> errors = new ArrayList<>();
-
-        try {
-         
-            SubjectCsvMapper subjectCsvMapper = new SubjectCsvMapper(csvReaderUtil);
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    SubjectCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
-
-            result.setTotalProcessed(records.size());
-            int rowNum = uploadRequest.getSkipHeaderRow() ? 2 : 1;
-
-            for(CSVRecord record : records) {
-                try {
-               
-                    DtoReqSubject subjectRequest = subjectCsvMapper.mapToSubjectRequest(record, organizationId, rowNum);
-
-                    
-                    Optional<EntitySubject> existingSubject = repositorySubject.findByNameAndOrganizationIdAndIsDeletedFalse(
-                            subjectRequest.getName(), organizationId);
-
-                    if(existingSubject.isPresent()) {
-                        throw new Exception(i18n.getSubject(I18N_SUBJECT_EXISTS));
-                    }
-
-              
-                    ApiResponse<DtoResSubject> response = createSubject(subjectRequest);
-
-                    if(response.isSuccess()) {
-                        createdSubjects.add(response.getData());
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-                   
-                    DtoResSubjectCsvUpload.ImportError error = new DtoResSubjectCsvUpload.ImportError(
-                            rowNum,
-                            record.toString(),
-                            e.getMessage()
-                    );
-                    errors.add(error);
+        final SubjectCsvImport subjectCsvImport = new SubjectCsvImport(organizationId, utilAuthContext.getCurrentUser().getUuid(), i18n);
 
-                }
-                rowNum++;
-            }
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), SubjectCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+            final CSVImportResult<DtoResSubject> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, subjectCsvImport);
 
-            result.setCreatedSubjects(createdSubjects);
-            result.setErrors(errors);
-            result.setSuccessCount(createdSubjects.size());
-            result.setErrorCount(errors.size());
+            DtoResSubjectCsvUpload result = DtoResSubjectCsvUpload.builder()
+                    .createdSubjects(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> new DtoResSubjectCsvUpload.ImportError(error.getRowNumber(), error.getOriginalData(), error.getErrorMessage()))
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
+                    .build();
 
             String message = result.buildSuccessMessage();
             return ApiResponse.success(HttpStatus.OK, message, result);
@@ -135,6 +112,72 @@ public class ServiceSubjectImpl implements ServiceSubject {
         }
     }
 
+    @Override
+    public String getImportType() {
+        return SubjectCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return SubjectCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        final String actorUuid = repositoryUser.findById(job.getCreatedBy()).map(EntityUser::getUuid).orElse(null);
+        return new SubjectCsvImport(job.getOrganizationId(), actorUuid, i18n);
+    }
+
+    /**
+     * The subject stages of the CSV import pipeline. Subject names already taken are looked up once
+     * per chunk, and names repeated inside the file are caught as the rows stream by.
+     */
+    private class SubjectCsvImport implements CSVImportHandler<DtoReqSubject, DtoResSubject> {
+
+        private final Integer organizationId;
+        private final String actorUuid;
+        private final I18n i18n;
+        private final SubjectCsvMapper subjectCsvMapper = new SubjectCsvMapper(csvReaderUtil);
+        private final Set<String> seenNames = new HashSet<>();
+
+        private SubjectCsvImport(final Integer organizationId, final String actorUuid, final I18n i18n) {
+            this.organizationId = organizationId;
+            this.actorUuid = actorUuid;
+            this.i18n = i18n;
+        }
+
+        @Override
+        public DtoReqSubject validate(final CSVRecord record, final int rowNumber) {
+            return subjectCsvMapper.mapToSubjectRequest(record, organizationId, rowNumber);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqSubject, DtoResSubject>> rows) {
+            final Set<String> existingNames = repositorySubject.findExistingNames(organizationId,
+                            rows.stream().map(row -> row.getValue().getName()).collect(Collectors.toSet()))
+                    .stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqSubject, DtoResSubject> row : rows) {
+                final String name = row.getValue().getName().toLowerCase(Locale.ROOT);
+                if(existingNames.contains(name) || !seenNames.add(name)) {
+                    row.reject(i18n.getSubject(I18N_SUBJECT_EXISTS));
+                }
+            }
+        }
+
+        @Override
+        public List<DtoResSubject> persist(final List<DtoReqSubject> rows) {
+            final List<EntitySubject> subjects = repositorySubject.saveAll(rows.stream()
+                    .map(row -> newSubject(row, organizationId))
+                    .collect(Collectors.toList()));
+            for(EntitySubject subject : subjects) {
+                serviceNotification.createActionNotification(actorUuid, "Subject Created",
+                        "New subject '" + subject.getName() + "' has been created.", "CREATE", "SUBJECT");
+            }
+            return subjects.stream().map(ServiceSubjectImpl.this::convertToDTO).collect(Collectors.toList());
+        }
+
+    }
+
     @Override
     public ApiResponse<DtoResSubject> findSubjectByUuid(final String uuid) {
         final I18n i18n = new I18n(httpServletRequest);
@@ -213,14 +256,7 @@ public class ServiceSubjectImpl implements ServiceSubject {
         if(existingSubject.isPresent()) {
             return ApiResponse.error(HttpStatus.CONFLICT, i18n.getSubject(I18N_SUBJECT_EXISTS));
         }
-        final EntitySubject entitySubject = new EntitySubject();
-        BeanUtils.copyProperties(dtoReqSubject, entitySubject);
-        entitySubject.setOrganizationId(orgId);
-        entitySubject.setCreatedDate(LocalDateTime.now());
-        entitySubject.setModifiedDate(LocalDateTime.now());
-        entitySubject.setIsDeleted(false);
-        entitySubject.setColor(dtoReqSubject.getColor());
-        EntitySubject savedSubject = repositorySubject.save(entitySubject);
+        EntitySubject savedSubject = repositorySubject.save(newSubject(dtoReqSubject, orgId));
         
         // Create notification for subject creation
         String userUuid = utilAuthContext.getCurrentUser().getUuid();
@@ -231,6 +267,17 @@ public class ServiceSubjectImpl implements ServiceSubject {
         return ApiResponse.success(HttpStatus.CREATED, i18n.getSubject(I18N_SUBJECT_CREATE_SUCCESS), convertToDTO(savedSubject));
     }
 
+    private static EntitySubject newSubject(final DtoReqSubject dtoReqSubject, final Integer orgId) {
+        final EntitySubject entitySubject = new EntitySubject();
+        BeanUtils.copyProperties(dtoReqSubject, entitySubject);
+        entitySubject.setOrganizationId(orgId);
+        entitySubject.setCreatedDate(LocalDateTime.now());
+        entitySubject.setModifiedDate(LocalDateTime.now());
+        entitySubject.setIsDeleted(false);
+        entitySubject.setColor(dtoReqSubject.getColor());
+        return entitySubject;
+    }
+
     @Override
     @Transactional
     public ApiResponse<DtoResSubject> updateSubject(final String uuid, final DtoReqSubject dtoReqSubject) {
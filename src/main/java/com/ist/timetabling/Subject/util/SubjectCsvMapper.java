@@ -16,6 +16,8 @@ import java.util.List;
 @Component
 public class SubjectCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "SUBJECT";
+
     public static final String[] CSV_HEADERS = {
             "name", "initials", "description", "durationInMinutes", "redRepetition",
             "blueRepetition", "autoConflictHandling", "group", "conflictSubjectId", "statusId"
@@ -1,13 +1,16 @@
 package com.ist.timetabling.Teacher.controller;
 
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
+import com.ist.timetabling.Core.dto.res.DtoResCsvImportJob;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.service.ServiceCsvImportJob;
 import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
 import com.ist.timetabling.Teacher.dto.req.DtoReqTeacher;
 import com.ist.timetabling.Teacher.dto.req.DtoReqTeacherPreference;
 import com.ist.timetabling.Teacher.dto.res.DtoResTeacher;
 import com.ist.timetabling.Teacher.dto.res.DtoResTeacherCsvUpload;
 import com.ist.timetabling.Teacher.service.ServiceTeacher;
+import com.ist.timetabling.Teacher.util.TeacherCsvMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +28,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ControllerTeacher {
     private final ServiceTeacher serviceTeacher;
+    private final ServiceCsvImportJob serviceCsvImportJob;
 
     @GetMapping("/{uuid}")
     public ResponseEntity<ApiResponse<DtoResTeacher>> getTeacher(@PathVariable final String uuid) {
@@ -33,7 +37,10 @@ public class ControllerTeacher {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<ApiResponse<List<DtoResTeacher>>> getAllTeachers(@RequestParam(required = false, defaultValue = "0") final Integer page, @RequestParam(required = false, defaultValue = "10") final Integer size, @RequestParam(required = false) final String sortBy, @RequestParam(required = false, defaultValue = "asc") final String sortDirection, @RequestParam(required = false) final String keyword, @RequestParam(required = false) final Integer orgId, @RequestParam(required = false) final Integer planSettingsId) {
+    public ResponseEntity<ApiResponse<List<DtoResTeacher>>> getAllTeachers(@RequestParam(required = false, defaultValue = "0") final Integer page, @RequestParam(required = false, defaultValue = "10") final Integer size, @RequestParam(required = false) final String sortBy, @RequestParam(required = false, defaultValue = "asc") final String sortDirection, @RequestParam(required = false) final String keyword, @RequestParam(required = false) final Integer orgId, @RequestParam(required = false) final Integer planSettingsId, @RequestParam(required = false) final String after, @RequestParam(defaultValue = "false") final boolean cursor) {
+        if((cursor || after != null) && (keyword == null || keyword.isBlank()) && planSettingsId == null) {
+            return ResponseEntity.ok(serviceTeacher.getTeachersAfter(after, size, sortBy, sortDirection, orgId));
+        }
         return ResponseEntity.ok(serviceTeacher.getAllTeachers(page, size, sortBy, sortDirection, keyword, orgId, planSettingsId));
     }
 
@@ -108,6 +115,15 @@ public class ControllerTeacher {
         return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
     }
 
+    @PostMapping(value = "/import/csv/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ApiResponse<DtoResCsvImportJob>> submitTeacherImportJob(@RequestPart("file") MultipartFile file, @RequestParam(required = false) Integer organizationId, @RequestParam(required = false, defaultValue = "true") Boolean skipHeaderRow) {
+
+        DtoReqCsvUpload uploadRequest = DtoReqCsvUpload.builder().file(file).organizationId(organizationId).skipHeaderRow(skipHeaderRow).build();
+        ApiResponse<DtoResCsvImportJob> apiResponse = serviceCsvImportJob.submit(TeacherCsvMapper.CSV_IMPORT_TYPE, uploadRequest);
+        return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
+    }
+
     @GetMapping("/profiles")
     public ResponseEntity<ApiResponse<List<DtoResTeacher>>> getAllTeacherProfiles(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "100") int size, @RequestParam(defaultValue = "firstName") String sortBy, @RequestParam(defaultValue = "asc") String sortDirection) {
         ApiResponse<List<DtoResTeacher>> response = serviceTeacher.getAllTeacherProfiles(page, size, sortBy, sortDirection);
@@ -1,6 +1,8 @@
 package com.ist.timetabling.Teacher.entity;
 
+import com.ist.timetabling.Core.config.ConfigCoreTableIds;
 import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,15 +18,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "teacher_profiles")
+@EntityListeners(ListenerTimetableContent.class)
+@Table(name = EntityTeacherProfile.TABLE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class EntityTeacherProfile {
 
+    public static final String TABLE = "teacher_profiles";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = TABLE)
+    @TableGenerator(name = TABLE, table = ConfigCoreTableIds.ID_TABLE, pkColumnName = ConfigCoreTableIds.ID_TABLE_KEY,
+            valueColumnName = ConfigCoreTableIds.ID_TABLE_VALUE, pkColumnValue = TABLE, allocationSize = ConfigCoreTableIds.ID_ALLOCATION_SIZE)
     @Column(name = ID)
     private Integer id;
     public static final String ID = "teacher_profile_id";
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,8 @@ public interface RepositoryTeacherProfile extends JpaRepository<EntityTeacherPro
 
     Optional<EntityTeacherProfile> findByUserIdAndOrganizationIdAndPlanSettingsId(final Integer userId, final Integer organizationId, final Integer planSettingsId);
 
+    List<EntityTeacherProfile> findByUserIdIn(final Collection<Integer> userIds);
+
     List<EntityTeacherProfile> findBySchedulePreferencesContaining(final EntitySchedulePreference schedulePreference);
 
     @Query(value = "SELECT tp.* FROM teacher_profiles tp " +
@@ -18,6 +18,8 @@ public interface ServiceTeacher {
 
     ApiResponse<List<DtoResTeacher>> getAllTeachers(final Integer page, final Integer size, final String sortBy, final String sortDirection, final String keyword, final Integer orgId, final Integer planSettingsId);
 
+    ApiResponse<List<DtoResTeacher>> getTeachersAfter(final String after, final Integer size, final String sortBy, final String sortDirection, final Integer orgId);
+
     ApiResponse<DtoResTeacher> createTeacher(final DtoReqTeacher dtoReqTeacher);
 
     ApiResponse<DtoResTeacher> updateTeacher(final String uuid, final DtoReqTeacher dtoReqTeacher);
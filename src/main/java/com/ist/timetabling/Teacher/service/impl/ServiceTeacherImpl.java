@@ -7,9 +7,18 @@ import com.ist.timetabling.Auth.service.ServiceEmail;
 import com.ist.timetabling.Auth.util.UtilAuthContext;
 import com.ist.timetabling.Core.dto.req.DtoReqCsvUpload;
 import com.ist.timetabling.Core.exception.CSVImportException;
+import com.ist.timetabling.Core.entity.EntityCsvImportJob;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
 import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.model.ModelGeneratedPassword;
+import com.ist.timetabling.Core.service.CSVImportHandler;
+import com.ist.timetabling.Core.service.CSVImportJobType;
+import com.ist.timetabling.Core.service.CSVImportPipeline;
 import com.ist.timetabling.Core.util.CSVReaderUtil;
+import com.ist.timetabling.Core.util.PaginationUtil;
 import com.ist.timetabling.Core.util.UtilPasswordGenerator;
 import com.ist.timetabling.Organization.entity.EntityOrganization;
 import com.ist.timetabling.Organization.repository.RepositoryOrganization;
@@ -32,17 +41,23 @@ import com.ist.timetabling.User.repository.RepositoryUser;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
 import java.util.*;
@@ -52,8 +67,9 @@ import static com.ist.timetabling.Auth.constant.ConstantI18nAuth.I18N_AUTH_UNAUT
 import static com.ist.timetabling.Teacher.constant.ConstantTeacherI18n.*;
 
 @Service
-public class ServiceTeacherImpl implements ServiceTeacher {
+public class ServiceTeacherImpl implements ServiceTeacher, CSVImportJobType {
     private static final String TEACHER_ROLE = "TEACHER";
+    private static final List<String> KEYSET_SORT_FIELDS = List.of("firstName", "lastName", "email");
     @Value("${spring.mail.username}") private String sender;
     @Autowired
     private RepositoryUser repositoryUser;
@@ -88,17 +104,16 @@ public class ServiceTeacherImpl implements ServiceTeacher {
     @Autowired
     private ServiceEmail serviceEmail;
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     @Autowired
     private CSVReaderUtil csvReaderUtil;
 
     @Autowired
     private TeacherCsvMapper teacherCsvMapper;
 
+    @Autowired
+    private CSVImportPipeline csvImportPipeline;
+
     @Override
-    @Transactional
     public ApiResponse<DtoResTeacherCsvUpload> importTeachersFromCsv(final DtoReqCsvUpload uploadRequest) {
         final I18n i18n = new I18n(httpServletRequest);
 
@@ -116,68 +131,34 @@ public class ServiceTeacherImpl implements ServiceTeacher {
         }
 
 
-        if(!repositoryOrganization.existsById(organizationId)) {
+        Optional<EntityOrganization> organization = repositoryOrganization.findById(organizationId);
+        if(organization.isEmpty()) {
             return ApiResponse.error(HttpStatus.BAD_REQUEST, i18n.getTeacher(I18N_ORGANIZATION_NOT_FOUND));
         }
 
-        DtoResTeacherCsvUpload.DtoResTeacherCsvUploadBuilder resultBuilder = DtoResTeacherCsvUpload.builder();
-        List<DtoResTeacher> createdTeachers = new ArrayList<>();
-        List<DtoResTeacherCsvUpload.TeacherImportError> errors = new ArrayList<>();
-
-        try {
-
-            List<CSVRecord> records = csvReaderUtil.parseCSV(
-                    uploadRequest.getFile(),
-                    TeacherCsvMapper.CSV_HEADERS,
-                    uploadRequest.getSkipHeaderRow()
-            );
-
-            int rowNumber = uploadRequest.getSkipHeaderRow() ? 2 : 1;
-            int errorCount = 0;
-            int successCount = 0;
-
-            for(CSVRecord record : records) {
-                try {
-
-                    DtoReqTeacher teacherRequest = teacherCsvMapper.mapToTeacherRequest(record, organizationId, rowNumber);
-
-
-                    if(repositoryUser.existsByEmailAndIsDeletedFalse(teacherRequest.getEmail())) {
-                        throw new Exception(i18n.getTeacher(I18N_TEACHER_EXISTS));
-                    }
-
-
-                    ApiResponse<DtoResTeacher> response = createTeacher(teacherRequest);
-
-                    if(response.isSuccess()) {
-                        createdTeachers.add(response.getData());
-                        successCount++;
-                    }else {
-                        throw new Exception(response.getMessage());
-                    }
-                }catch(Exception e) {
-
-                    DtoResTeacherCsvUpload.TeacherImportError error = DtoResTeacherCsvUpload.TeacherImportError.builder()
-                            .rowNumber(rowNumber)
-                            .originalData(record.toString())
-                            .errorMessage(e.getMessage())
-                            .build();
-                    errors.add(error);
-
-                    errorCount++;
-                }
-                rowNumber++;
-            }
-
-            DtoResTeacherCsvUpload result = resultBuilder
-                    .createdTeachers(createdTeachers)
-                    .errors(errors)
-                    .totalProcessed(successCount + errorCount)
-                    .successCount(successCount)
-                    .errorCount(errorCount)
+        final EntityRole entityRole = (EntityRole) repositoryRole.findByName(TEACHER_ROLE)
+                .orElseThrow(() -> new ExceptionUserNotFound(i18n.getTeacher(I18N_TEACHER_NOT_FOUND)));
+        final TeacherCsvImport teacherCsvImport = new TeacherCsvImport(organization.get(), entityRole, utilAuthContext.getCurrentUser().getId(), i18n);
+
+        try(CSVParser records = csvReaderUtil.openCSV(uploadRequest.getFile(), TeacherCsvMapper.CSV_HEADERS, uploadRequest.getSkipHeaderRow())) {
+
+            final CSVImportResult<DtoResTeacher> imported = csvImportPipeline.run(records, uploadRequest.getSkipHeaderRow() ? 2 : 1, teacherCsvImport);
+
+            DtoResTeacherCsvUpload result = DtoResTeacherCsvUpload.builder()
+                    .createdTeachers(imported.getCreatedItems())
+                    .errors(imported.getErrors().stream()
+                            .map(error -> DtoResTeacherCsvUpload.TeacherImportError.builder()
+                                    .rowNumber(error.getRowNumber())
+                                    .originalData(error.getOriginalData())
+                                    .errorMessage(error.getErrorMessage())
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .totalProcessed(imported.getTotalProcessed())
+                    .successCount(imported.getSuccessCount())
+                    .errorCount(imported.getErrorCount())
                     .build();
 
-            if(successCount == 0) {
+            if(result.getSuccessCount() == 0) {
                 return ApiResponse.error(
                         HttpStatus.BAD_REQUEST,
                         i18n.getTeacher(I18N_TEACHER_CSV_IMPORT_FAILED) + ": No teachers were created"
@@ -207,6 +188,105 @@ public class ServiceTeacherImpl implements ServiceTeacher {
             );
         }
     }
+
+    @Override
+    public String getImportType() {
+        return TeacherCsvMapper.CSV_IMPORT_TYPE;
+    }
+
+    @Override
+    public String[] getCsvHeaders() {
+        return TeacherCsvMapper.CSV_HEADERS;
+    }
+
+    @Override
+    public CSVImportHandler<?, ?> newCsvImportHandler(final EntityCsvImportJob job, final I18n i18n) {
+        final EntityOrganization organization = repositoryOrganization.findById(job.getOrganizationId())
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getTeacher(I18N_ORGANIZATION_NOT_FOUND)));
+        final EntityRole entityRole = (EntityRole) repositoryRole.findByName(TEACHER_ROLE)
+                .orElseThrow(() -> new ExceptionUserNotFound(i18n.getTeacher(I18N_TEACHER_NOT_FOUND)));
+        return new TeacherCsvImport(organization, entityRole, job.getCreatedBy(), i18n);
+    }
+
+    /**
+     * The teacher stages of the CSV import pipeline. The organization, role and acting user are
+     * resolved once per file, and emails already taken are looked up once per chunk.
+     */
+    private class TeacherCsvImport implements CSVImportHandler<DtoReqTeacher, DtoResTeacher> {
+
+        private final EntityOrganization organization;
+        private final EntityRole entityRole;
+        private final Integer actorId;
+        private final I18n i18n;
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Map<DtoReqTeacher, ModelGeneratedPassword> credentials = new IdentityHashMap<>();
+
+        private TeacherCsvImport(final EntityOrganization organization, final EntityRole entityRole, final Integer actorId, final I18n i18n) {
+            this.organization = organization;
+            this.entityRole = entityRole;
+            this.actorId = actorId;
+            this.i18n = i18n;
+        }
+
+        @Override
+        public DtoReqTeacher validate(final CSVRecord record, final int rowNumber) {
+            return teacherCsvMapper.mapToTeacherRequest(record, organization.getId(), rowNumber);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<DtoReqTeacher, DtoResTeacher>> rows) {
+            final Set<String> existing = repositoryUser.findExistingEmails(rows.stream().map(row -> row.getValue().getEmail()).collect(Collectors.toSet()))
+                    .stream().map(email -> email.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+            for(CSVImportRow<DtoReqTeacher, DtoResTeacher> row : rows) {
+                final String email = row.getValue().getEmail().toLowerCase(Locale.ROOT);
+                if(existing.contains(email) || !seenEmails.add(email)) {
+                    row.reject(i18n.getTeacher(I18N_TEACHER_EXISTS));
+                }
+            }
+        }
+
+        @Override
+        public void prepare(final List<DtoReqTeacher> rows) {
+            credentials.clear();
+            final List<ModelGeneratedPassword> generated = utilPasswordGenerator.generateEncodedPasswords(rows.size(), 8);
+            for(int i = 0; i < rows.size(); i++) {
+                credentials.put(rows.get(i), generated.get(i));
+            }
+        }
+
+        @Override
+        public List<DtoResTeacher> persist(final List<DtoReqTeacher> rows) {
+            final List<ModelGeneratedPassword> passwords = rows.stream().map(credentials::get).collect(Collectors.toList());
+            final List<EntityUser> users = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                users.add(newTeacherUser(rows.get(i), entityRole, organization, passwords.get(i).getPasswordHash(), actorId));
+            }
+            repositoryUser.saveAll(users);
+
+            final List<EntityTeacherProfile> profiles = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                profiles.add(newTeacherProfile(rows.get(i), users.get(i).getId(), organization.getId(), actorId));
+            }
+            repositoryTeacherProfile.saveAll(profiles);
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for(int i = 0; i < users.size(); i++) {
+                        serviceEmail.sendEmail(accountCreatedEmail(users.get(i), passwords.get(i).getPassword(), organization));
+                    }
+                }
+            });
+
+            final List<DtoResTeacher> created = new ArrayList<>(rows.size());
+            for(int i = 0; i < rows.size(); i++) {
+                created.add(mapToDto(users.get(i), profiles.get(i)));
+            }
+            return created;
+        }
+
+    }
+
     @Override
     public ApiResponse<DtoResTeacher> findTeacherByUuid(final String uuid) {
         final I18n i18n = new I18n(httpServletRequest);
@@ -438,6 +518,46 @@ public class ServiceTeacherImpl implements ServiceTeacher {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<List<DtoResTeacher>> getTeachersAfter(final String after, final Integer size, final String sortBy, final String sortDirection, final Integer orgId) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final Integer organizationId = utilAuthContext.isAdmin() ? orgId : utilAuthContext.getAuthenticatedUserOrganizationId();
+
+        final Sort sort = PaginationUtil.createKeysetSort(sortBy, sortDirection, KEYSET_SORT_FIELDS);
+        final Limit limit = PaginationUtil.createLimit(size, 20);
+        final KeysetScrollPosition position = PaginationUtil.decodeCursor(after);
+        final Window<EntityUser> teacherWindow = organizationId != null
+                ? repositoryUser.findByIsDeletedFalseAndOrganizationIdAndEntityRole_Name(organizationId, TEACHER_ROLE, position, sort, limit)
+                : repositoryUser.findByIsDeletedFalseAndEntityRole_Name(TEACHER_ROLE, position, sort, limit);
+
+        // One profile query per page instead of one per teacher.
+        final Map<Integer, EntityTeacherProfile> profilesByUserId = new HashMap<>();
+        final List<Integer> userIds = teacherWindow.getContent().stream().map(EntityUser::getId).collect(Collectors.toList());
+        for(final EntityTeacherProfile profile : userIds.isEmpty() ? List.<EntityTeacherProfile>of() : repositoryTeacherProfile.findByUserIdIn(userIds)) {
+            if(organizationId == null || organizationId.equals(profile.getOrganizationId())) {
+                profilesByUserId.putIfAbsent(profile.getUserId(), profile);
+            }
+        }
+
+        final List<DtoResTeacher> dtoResTeachers = teacherWindow.getContent().stream()
+                .filter(teacher -> profilesByUserId.containsKey(teacher.getId()))
+                .map(teacher -> mapToDto(teacher, profilesByUserId.get(teacher.getId())))
+                .collect(Collectors.toList());
+
+        return ApiResponse.<List<DtoResTeacher>>builder()
+                .status(HttpStatus.OK.value())
+                .success(true)
+                .time(System.currentTimeMillis())
+                .language(LocaleContextHolder.getLocale().getLanguage())
+                .message(i18n.getTeacher(ConstantTeacherI18n.I18N_TEACHERS_RETRIEVE_SUCCESS))
+                .data(dtoResTeachers)
+                .totalItems(dtoResTeachers.size())
+                .hasNext(teacherWindow.hasNext())
+                .nextCursor(PaginationUtil.encodeCursor(teacherWindow))
+                .build();
+    }
+
     @Override
     @Transactional
     public ApiResponse<DtoResTeacher> createTeacher(final DtoReqTeacher dtoReqTeacher) {
@@ -455,46 +575,18 @@ public class ServiceTeacherImpl implements ServiceTeacher {
             organizationId = entityOrganization.getId();
         }
 
-        String password = utilPasswordGenerator.generateSecurePassword(8);
+        final ModelGeneratedPassword password = utilPasswordGenerator.generateEncodedPassword(8);
 
 
         EntityRole entityRole = (EntityRole) repositoryRole.findByName(TEACHER_ROLE)
                 .orElseThrow(() -> new ExceptionUserNotFound(i18n.getTeacher(I18N_TEACHER_NOT_FOUND)));
 
-        EntityUser entityUser = new EntityUser();
-        entityUser.setPasswordHash(passwordEncoder.encode(password));
-        entityUser.setEmail(dtoReqTeacher.getEmail());
-        entityUser.setFirstName(dtoReqTeacher.getFirstName());
-        entityUser.setLastName(dtoReqTeacher.getLastName());
-        entityUser.setPhone(dtoReqTeacher.getPhone());
-        entityUser.setIsActive(true);
-        entityUser.setIsDeleted(false);
-        entityUser.setStatusId(dtoReqTeacher.getStatusId());
-        entityUser.setEntityRole(entityRole);
-        entityUser.setOrganization(entityOrganization);
-        entityUser.setCreatedBy(utilAuthContext.getCurrentUser().getId());
-        entityUser.setModifiedBy(utilAuthContext.getCurrentUser().getId());
+        final Integer actorId = utilAuthContext.getCurrentUser().getId();
+        EntityUser entityUser = newTeacherUser(dtoReqTeacher, entityRole, entityOrganization, password.getPasswordHash(), actorId);
 
         final EntityUser entityUserSaved = repositoryUser.save(entityUser);
 
-        EntityTeacherProfile entityTeacherProfile = new EntityTeacherProfile();
-        entityTeacherProfile.setUserId(entityUser.getId());
-        entityTeacherProfile.setOrganizationId(organizationId);
-        if(dtoReqTeacher.getPlanSettingsId() != null) {
-            entityTeacherProfile.setPlanSettingsId(dtoReqTeacher.getPlanSettingsId());
-        }
-        entityTeacherProfile.setBio(dtoReqTeacher.getBio() != null ? dtoReqTeacher.getBio() : "");
-        entityTeacherProfile.setInitials(dtoReqTeacher.getInitials() != null ? dtoReqTeacher.getInitials() : "");
-        entityTeacherProfile.setDepartment(dtoReqTeacher.getDepartment() != null ? dtoReqTeacher.getDepartment() : "");
-        entityTeacherProfile.setQualification(dtoReqTeacher.getQualification() != null ? dtoReqTeacher.getQualification() : "");
-        entityTeacherProfile.setContractType(dtoReqTeacher.getContractType() != null ? dtoReqTeacher.getContractType() : "");
-        entityTeacherProfile.setControlNumber(dtoReqTeacher.getControlNumber() != null ? dtoReqTeacher.getControlNumber() : 1);
-        entityTeacherProfile.setNotes(dtoReqTeacher.getNotes());
-        entityTeacherProfile.setPreferredStartTime(dtoReqTeacher.getPreferredStartTime());
-        entityTeacherProfile.setPreferredEndTime(dtoReqTeacher.getPreferredEndTime());
-        entityTeacherProfile.setMaxDailyHours(dtoReqTeacher.getMaxDailyHours() != null ? dtoReqTeacher.getMaxDailyHours() : 8);
-        entityTeacherProfile.setCreatedBy(utilAuthContext.getCurrentUser().getId());
-        entityTeacherProfile.setModifiedBy(utilAuthContext.getCurrentUser().getId());
+        EntityTeacherProfile entityTeacherProfile = newTeacherProfile(dtoReqTeacher, entityUser.getId(), organizationId, actorId);
 
         if(dtoReqTeacher.getPrimarySchedulePreferenceId() != null) {
             Optional<EntitySchedulePreference> optPref = repositorySchedulePreference.findById(Long.valueOf(dtoReqTeacher.getPrimarySchedulePreferenceId()));
@@ -515,22 +607,7 @@ public class ServiceTeacherImpl implements ServiceTeacher {
         DtoResTeacher dtoResTeacher = mapToDto(entityUser, entityTeacherProfile);
 
         try {
-            DtoEmailRequest emailRequest = new DtoEmailRequest();
-            emailRequest.setTo(Collections.singletonList(entityUser.getEmail()));
-            emailRequest.setSubject("Your Teacher Account Has Been Created");
-            emailRequest.setTemplateName("account-created");
-            emailRequest.setFrom(sender);
-
-            Map<String, Object> templateVariables = new HashMap<>();
-            templateVariables.put("firstName", entityUser.getFirstName());
-            templateVariables.put("email", entityUser.getEmail());
-            templateVariables.put("password", password);
-            templateVariables.put("role", "Teacher");
-            templateVariables.put("organizationName", entityOrganization.getName());
-            templateVariables.put("loginUrl", "https://timetable.ist-legal.rw/login");
-            emailRequest.setTemplateVariables(templateVariables);
-
-            serviceEmail.sendEmail(emailRequest);
+            serviceEmail.sendEmail(accountCreatedEmail(entityUser, password.getPassword(), entityOrganization));
         }catch(Exception e) {
             return ApiResponse.error(HttpStatus.CREATED, i18n.getTeacher(I18N_TEACHER_NOT_FOUND + e.getMessage()));
         }
@@ -921,6 +998,63 @@ public class ServiceTeacherImpl implements ServiceTeacher {
         return profiles.stream().anyMatch(profile -> profile.getOrganizationId().equals(userOrgId));
     }
 
+    private EntityUser newTeacherUser(final DtoReqTeacher dtoReqTeacher, final EntityRole entityRole, final EntityOrganization entityOrganization, final String passwordHash, final Integer actorId) {
+        EntityUser entityUser = new EntityUser();
+        entityUser.setPasswordHash(passwordHash);
+        entityUser.setEmail(dtoReqTeacher.getEmail());
+        entityUser.setFirstName(dtoReqTeacher.getFirstName());
+        entityUser.setLastName(dtoReqTeacher.getLastName());
+        entityUser.setPhone(dtoReqTeacher.getPhone());
+        entityUser.setIsActive(true);
+        entityUser.setIsDeleted(false);
+        entityUser.setStatusId(dtoReqTeacher.getStatusId());
+        entityUser.setEntityRole(entityRole);
+        entityUser.setOrganization(entityOrganization);
+        entityUser.setCreatedBy(actorId);
+        entityUser.setModifiedBy(actorId);
+        return entityUser;
+    }
+
+    private EntityTeacherProfile newTeacherProfile(final DtoReqTeacher dtoReqTeacher, final Integer userId, final Integer organizationId, final Integer actorId) {
+        EntityTeacherProfile entityTeacherProfile = new EntityTeacherProfile();
+        entityTeacherProfile.setUserId(userId);
+        entityTeacherProfile.setOrganizationId(organizationId);
+        if(dtoReqTeacher.getPlanSettingsId() != null) {
+            entityTeacherProfile.setPlanSettingsId(dtoReqTeacher.getPlanSettingsId());
+        }
+        entityTeacherProfile.setBio(dtoReqTeacher.getBio() != null ? dtoReqTeacher.getBio() : "");
+        entityTeacherProfile.setInitials(dtoReqTeacher.getInitials() != null ? dtoReqTeacher.getInitials() : "");
+        entityTeacherProfile.setDepartment(dtoReqTeacher.getDepartment() != null ? dtoReqTeacher.getDepartment() : "");
+        entityTeacherProfile.setQualification(dtoReqTeacher.getQualification() != null ? dtoReqTeacher.getQualification() : "");
+        entityTeacherProfile.setContractType(dtoReqTeacher.getContractType() != null ? dtoReqTeacher.getContractType() : "");
+        entityTeacherProfile.setControlNumber(dtoReqTeacher.getControlNumber() != null ? dtoReqTeacher.getControlNumber() : 1);
+        entityTeacherProfile.setNotes(dtoReqTeacher.getNotes());
+        entityTeacherProfile.setPreferredStartTime(dtoReqTeacher.getPreferredStartTime());
+        entityTeacherProfile.setPreferredEndTime(dtoReqTeacher.getPreferredEndTime());
+        entityTeacherProfile.setMaxDailyHours(dtoReqTeacher.getMaxDailyHours() != null ? dtoReqTeacher.getMaxDailyHours() : 8);
+        entityTeacherProfile.setCreatedBy(actorId);
+        entityTeacherProfile.setModifiedBy(actorId);
+        return entityTeacherProfile;
+    }
+
+    private DtoEmailRequest accountCreatedEmail(final EntityUser entityUser, final String password, final EntityOrganization entityOrganization) {
+        DtoEmailRequest emailRequest = new DtoEmailRequest();
+        emailRequest.setTo(Collections.singletonList(entityUser.getEmail()));
+        emailRequest.setSubject("Your Teacher Account Has Been Created");
+        emailRequest.setTemplateName("account-created");
+        emailRequest.setFrom(sender);
+
+        Map<String, Object> templateVariables = new HashMap<>();
+        templateVariables.put("firstName", entityUser.getFirstName());
+        templateVariables.put("email", entityUser.getEmail());
+        templateVariables.put("password", password);
+        templateVariables.put("role", "Teacher");
+        templateVariables.put("organizationName", entityOrganization.getName());
+        templateVariables.put("loginUrl", "https://timetable.ist-legal.rw/login");
+        emailRequest.setTemplateVariables(templateVariables);
+        return emailRequest;
+    }
+
     private DtoResTeacher mapToDto(final EntityUser teacher, final EntityTeacherProfile profile) {
         DtoResTeacher dtoResTeacher = new DtoResTeacher();
         dtoResTeacher.setUuid(profile.getUuid());
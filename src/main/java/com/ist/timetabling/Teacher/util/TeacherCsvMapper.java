@@ -18,6 +18,8 @@ import java.util.List;
 @Component
 public class TeacherCsvMapper {
 
+    public static final String CSV_IMPORT_TYPE = "TEACHER";
+
     public static final String[] CSV_HEADERS = {
             "email", "phone", "firstName", "lastName", "initials", "department",
             "qualification", "contractType", "controlNumber", "notes", "bio",
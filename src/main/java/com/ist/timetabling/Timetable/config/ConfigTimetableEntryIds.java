@@ -0,0 +1,27 @@
+package com.ist.timetabling.Timetable.config;
+
+import com.ist.timetabling.Core.config.ConfigCoreTableIds;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lifts the timetable entry hi/lo counter above every id already in {@link EntityTimetableEntry#TABLE}, which
+ * matters for rows written while the column was still IDENTITY. Runs before the web server accepts requests.
+ */
+@Component
+public class ConfigTimetableEntryIds implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConfigTimetableEntryIds(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ConfigCoreTableIds.liftCounter(jdbcTemplate, EntityTimetableEntry.ID_TABLE, EntityTimetableEntry.TABLE, EntityTimetableEntry.ID, EntityTimetableEntry.ID_ALLOCATION_SIZE);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.ist.timetabling.Timetable.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Getter
+public class ConfigTimetableSolver {
+
+    @Value("${timetable.solver.parallelism:0}")
+    private int parallelism;
+
+    @Value("${timetable.solver.portfolio-size:0}")
+    private int portfolioSize;
+
+    @Value("${timetable.solver.accept-score:#{null}}")
+    private Long acceptScore;
+
+    @Value("${timetable.solver.repair-time-limit-millis:800}")
+    private long repairTimeLimitMillis;
+
+    @Value("${timetable.generation.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${timetable.generation.max-jobs-per-organization:1}")
+    private int maxJobsPerOrganization;
+
+    @Value("${timetable.generation.max-queued-per-organization:10}")
+    private int maxQueuedPerOrganization;
+
+    @Value("${timetable.generation.event-timeout-millis:1800000}")
+    private long eventTimeoutMillis;
+
+    @Value("${timetable.generation.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    @Value("${timetable.cache.max-entries:256}")
+    private long cacheMaxEntries;
+
+    @Value("${timetable.cache.ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    @Value("${timetable.changes.retention-days:7}")
+    private long changeRetentionDays;
+
+    @Value("${timetable.versions.max-chain-depth:16}")
+    private int versionMaxChainDepth;
+
+    public int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getEffectivePortfolioSize() {
+        return portfolioSize > 0 ? portfolioSize : getEffectiveParallelism();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool timetableSolverPool() {
+        return new ForkJoinPool(getEffectiveParallelism());
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService timetableGenerationExecutor() {
+        final int threads = Math.max(1, maxConcurrentJobs);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(threads), new CustomizableThreadFactory("timetable-generation-"));
+    }
+
+}
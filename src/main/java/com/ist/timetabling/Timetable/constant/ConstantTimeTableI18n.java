@@ -14,6 +14,32 @@ public class ConstantTimeTableI18n {
     public static final String I18N_TIMETABLE_ORGANIZATION_REQUIRED = "timetable.organization.required";
     public static final String I18N_TIMETABLE_ACADEMIC_REQUIRED = "timetable.academic.required";
     public static final String I18N_TIMETABLE_SEMESTER_REQUIRED = "timetable.semester.required";
+    public static final String I18N_TIMETABLE_PLAN_SETTING_REQUIRED = "timetable.plansetting.required";
+    public static final String I18N_TIMETABLE_GENERATE_SUCCESS = "timetable.generate.success";
+    public static final String I18N_TIMETABLE_PLAN_SETTING_NOT_FOUND = "timetable.plansetting.notfound";
+    public static final String I18N_TIMETABLE_REPAIR_SUCCESS = "timetable.repair.success";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_SUBMITTED = "timetable.generation.job.submitted";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_RETRIEVE_SUCCESS = "timetable.generation.job.retrieve.success";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_NOT_FOUND = "timetable.generation.job.notfound";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_CANCEL_SUCCESS = "timetable.generation.job.cancel.success";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_CANCELLED = "timetable.generation.job.cancelled";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_FINISHED = "timetable.generation.job.finished";
+    public static final String I18N_TIMETABLE_GENERATION_JOB_QUEUE_FULL = "timetable.generation.job.queue.full";
+    public static final String I18N_TIMETABLE_VERSION_CREATE_SUCCESS = "timetable.version.create.success";
+    public static final String I18N_TIMETABLE_VERSION_LIST_SUCCESS = "timetable.version.list.success";
+    public static final String I18N_TIMETABLE_VERSION_RETRIEVE_SUCCESS = "timetable.version.retrieve.success";
+    public static final String I18N_TIMETABLE_VERSION_RESTORE_SUCCESS = "timetable.version.restore.success";
+    public static final String I18N_TIMETABLE_VERSION_NOT_FOUND = "timetable.version.notfound";
+    public static final String I18N_TIMETABLE_DIFF_SUCCESS = "timetable.diff.success";
+    public static final String I18N_TIMETABLE_OPERATION_UNDO_SUCCESS = "timetable.operation.undo.success";
+    public static final String I18N_TIMETABLE_OPERATION_REDO_SUCCESS = "timetable.operation.redo.success";
+    public static final String I18N_TIMETABLE_OPERATION_NOTHING_TO_UNDO = "timetable.operation.undo.empty";
+    public static final String I18N_TIMETABLE_OPERATION_NOTHING_TO_REDO = "timetable.operation.redo.empty";
+    public static final String I18N_TIMETABLE_OPERATION_STALE = "timetable.operation.stale";
+    public static final String I18N_TIMETABLE_OPERATION_CONFLICT = "timetable.operation.conflict";
+    public static final String I18N_TIMETABLE_MOVE_CHAIN_SUCCESS = "timetable.move.chain.success";
+    public static final String I18N_TIMETABLE_MOVE_CHAIN_REJECTED = "timetable.move.chain.rejected";
+    public static final String I18N_TIMETABLE_MOVE_CHAIN_INVALID = "timetable.move.chain.invalid";
 
     public static final String I18N_ACCESS_DENIED = "access.denied";
     public static final String I18N_INTERNAL_ERROR = "internal.error";
@@ -24,6 +50,14 @@ public class ConstantTimeTableI18n {
     public static final String I18N_TEACHER_SCHEDULE_CONFLICT = "teacher.schedule.conflict";
     public static final String I18N_ROOM_SCHEDULE_CONFLICT = "room.schedule.conflict";
     public static final String I18N_CLASS_SCHEDULE_CONFLICT = "class.schedule.conflict";
+    public static final String I18N_CLASS_BAND_SCHEDULE_CONFLICT = "classband.schedule.conflict";
+    public static final String I18N_TEACHER_UNAVAILABLE = "teacher.unavailable";
+    public static final String I18N_ROOM_UNAVAILABLE = "room.unavailable";
+    public static final String I18N_CLASS_UNAVAILABLE = "class.unavailable";
+    public static final String I18N_TEACHER_PREFERENCE_CONFLICT = "teacher.preference.conflict";
+    public static final String I18N_CLASS_PREFERENCE_CONFLICT = "class.preference.conflict";
+    public static final String I18N_RULE_VIOLATED = "rule.violated";
+    public static final String I18N_SCHEDULE_SLOT_NOT_SCHEDULABLE = "schedule.slot.not.schedulable";
     public static final String I18N_SCHEDULE_ENTRY_INVALID = "schedule.entry.invalid";
     public static final String I18N_SCHEDULE_VALIDATE_SUCCESS = "schedule.validate.success";
     public static final String I18N_SCHEDULE_ENTRY_CREATE_SUCCESS = "schedule.entry.create.success";
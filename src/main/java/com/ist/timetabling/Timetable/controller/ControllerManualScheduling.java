@@ -13,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -47,7 +48,7 @@ public class ControllerManualScheduling {
         DtoResScheduleValidation validation = serviceManualScheduling.validateScheduleEntry(dtoReqManualScheduleEntry);
         if (validation.getIsValid() == null || !validation.getIsValid()) {
             return ResponseEntity.badRequest().body(
-                    ApiResponse.error(HttpStatus.BAD_REQUEST, "Invalid schedule entry")
+                    ApiResponse.error(HttpStatus.BAD_REQUEST, rejectionReasons(validation))
             );
         }
         serviceTimetableEntry.createManualEntry(dtoReqManualScheduleEntry);
@@ -56,6 +57,22 @@ public class ControllerManualScheduling {
         );
     }
 
+    private String[] rejectionReasons(final DtoResScheduleValidation validation) {
+        final List<String> reasons = new ArrayList<>();
+        if (validation.getValidationErrors() != null) {
+            reasons.addAll(validation.getValidationErrors());
+        }
+        if (validation.getConflicts() != null) {
+            validation.getConflicts().stream()
+                    .filter(conflict -> "HARD".equals(conflict.getSeverity()))
+                    .forEach(conflict -> reasons.add(conflict.getResourceName() + ": " + conflict.getConflictDescription()));
+        }
+        if (reasons.isEmpty()) {
+            reasons.add("Invalid schedule entry");
+        }
+        return reasons.toArray(new String[0]);
+    }
+
     @DeleteMapping("/entry/{entryId}")
     public ResponseEntity<ApiResponse<Void>> removeScheduleEntry(@PathVariable Integer entryId) {
         serviceTimetableEntry.removeEntry(entryId);
@@ -2,17 +2,42 @@ package com.ist.timetabling.Timetable.controller;
 
 import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetable;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableChanges;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableDiff;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetable;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntry;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntryMove;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableVersion;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableGenerationJob;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableMoveChain;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableOperation;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableRepair;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetableStats;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableVersion;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableView;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids.View;
 import com.ist.timetabling.Timetable.service.ServiceTimetable;
+import com.ist.timetabling.Timetable.service.ServiceTimetableChange;
+import com.ist.timetabling.Timetable.service.ServiceTimetableDiff;
 import com.ist.timetabling.Timetable.service.ServiceTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableGenerate;
+import com.ist.timetabling.Timetable.service.ServiceTimetableGenerationJob;
+import com.ist.timetabling.Timetable.service.ServiceTimetableMoveChain;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableRepair;
+import com.ist.timetabling.Timetable.service.ServiceTimetableVersion;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,12 +47,27 @@ public class ControllerTimetable {
 
     private final ServiceTimetable serviceTimetable;
     private final ServiceTimetableEntry serviceTimetableEntry;
- 
+    private final ServiceTimetableGenerate serviceTimetableGenerate;
+    private final ServiceTimetableRepair serviceTimetableRepair;
+    private final ServiceTimetableGenerationJob serviceTimetableGenerationJob;
+    private final ServiceTimetableChange serviceTimetableChange;
+    private final ServiceTimetableVersion serviceTimetableVersion;
+    private final ServiceTimetableDiff serviceTimetableDiff;
+    private final ServiceTimetableOperation serviceTimetableOperation;
+    private final ServiceTimetableMoveChain serviceTimetableMoveChain;
 
     @Autowired
-    public ControllerTimetable(ServiceTimetable serviceTimetable,ServiceTimetableEntry serviceTimetableEntry) {
+    public ControllerTimetable(ServiceTimetable serviceTimetable,ServiceTimetableEntry serviceTimetableEntry, ServiceTimetableGenerate serviceTimetableGenerate, ServiceTimetableRepair serviceTimetableRepair, ServiceTimetableGenerationJob serviceTimetableGenerationJob, ServiceTimetableChange serviceTimetableChange, ServiceTimetableVersion serviceTimetableVersion, ServiceTimetableDiff serviceTimetableDiff, ServiceTimetableOperation serviceTimetableOperation, ServiceTimetableMoveChain serviceTimetableMoveChain) {
         this.serviceTimetable = serviceTimetable;
         this.serviceTimetableEntry = serviceTimetableEntry;
+        this.serviceTimetableGenerate = serviceTimetableGenerate;
+        this.serviceTimetableRepair = serviceTimetableRepair;
+        this.serviceTimetableGenerationJob = serviceTimetableGenerationJob;
+        this.serviceTimetableChange = serviceTimetableChange;
+        this.serviceTimetableVersion = serviceTimetableVersion;
+        this.serviceTimetableDiff = serviceTimetableDiff;
+        this.serviceTimetableOperation = serviceTimetableOperation;
+        this.serviceTimetableMoveChain = serviceTimetableMoveChain;
     }
 
     @GetMapping
@@ -36,10 +76,20 @@ public class ControllerTimetable {
         return ResponseEntity.ok(timetables);
     }
 
+    @GetMapping(value = "/entries", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllTimetablesEntries(@RequestParam final Integer organizationId) {
+        final StreamingResponseBody body = outputStream -> serviceTimetable.writeAllTimetablesEntries(organizationId, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/{uuid}")
-    public ResponseEntity<DtoResTimetable> getTimetableByUuid(@PathVariable String uuid) {
+    public ResponseEntity<DtoResTimetable> getTimetableByUuid(@PathVariable String uuid, WebRequest webRequest) {
+        final String eTag = serviceTimetable.getTimetableETag(uuid);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         DtoResTimetable timetable = serviceTimetable.getTimetableByUuid(uuid);
-        return ResponseEntity.ok(timetable);
+        return ResponseEntity.ok().eTag(eTag).body(timetable);
     }
 
     @GetMapping("/{uuid}/entries")
@@ -48,16 +98,23 @@ public class ControllerTimetable {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
-        
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            WebRequest webRequest) {
+        final String eTag = serviceTimetable.getTimetableETag(uuid);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
 
         DtoResTimetable timetable = serviceTimetable.getTimetableByUuid(uuid);
         Integer timetableId = timetable.getId();
         
-        ApiResponse<List<DtoResTimetableEntry>> apiResponse = serviceTimetableEntry.getAllTimetableEntries(
-                timetableId, page, size, sortBy, direction);
+        ApiResponse<List<DtoResTimetableEntry>> apiResponse = cursor || after != null
+                ? serviceTimetableEntry.getTimetableEntriesAfter(timetableId, after, size, sortBy, direction)
+                : serviceTimetableEntry.getAllTimetableEntries(timetableId, page, size, sortBy, direction);
         
-        return ResponseEntity.status(apiResponse.getStatus()).body(apiResponse);
+        return ResponseEntity.status(apiResponse.getStatus()).eTag(eTag).body(apiResponse);
     }
 
     @GetMapping("/{uuid}/entries/day/{dayOfWeek}")
@@ -78,10 +135,77 @@ public class ControllerTimetable {
         return ResponseEntity.ok(entries);
     }
 
+    @GetMapping("/{uuid}/views/{view}/{resourceId}")
+    public ResponseEntity<DtoResTimetableView> getTimetableView(@PathVariable String uuid, @PathVariable View view, @PathVariable Integer resourceId) {
+        DtoResTimetableView timetableView = serviceTimetable.getTimetableView(uuid, view, resourceId);
+        return ResponseEntity.ok(timetableView);
+    }
+
+    @GetMapping("/{uuid}/changes")
+    public ResponseEntity<DtoResTimetableChanges> getTimetableChanges(@PathVariable String uuid, @RequestParam(defaultValue = "0") Long since) {
+        DtoResTimetableChanges changes = serviceTimetableChange.getChanges(uuid, since);
+        return ResponseEntity.ok(changes);
+    }
+
+    @PostMapping("/{uuid}/versions")
+    public ResponseEntity<ApiResponse<DtoResTimetableVersion>> createTimetableVersion(@PathVariable final String uuid, @RequestBody(required = false) final DtoReqTimetableVersion dtoReqTimetableVersion) {
+        final ApiResponse<DtoResTimetableVersion> response = serviceTimetableVersion.createVersion(uuid, dtoReqTimetableVersion);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping("/{uuid}/versions")
+    public ResponseEntity<ApiResponse<List<DtoResTimetableVersion>>> getTimetableVersions(@PathVariable final String uuid) {
+        final ApiResponse<List<DtoResTimetableVersion>> response = serviceTimetableVersion.getVersions(uuid);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping("/{uuid}/versions/{versionUuid}/entries")
+    public ResponseEntity<ApiResponse<List<DtoResTimetableEntry>>> getTimetableVersionEntries(@PathVariable final String uuid, @PathVariable final String versionUuid) {
+        final ApiResponse<List<DtoResTimetableEntry>> response = serviceTimetableVersion.getVersionEntries(uuid, versionUuid);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @PostMapping("/{uuid}/versions/{versionUuid}/restore")
+    public ResponseEntity<ApiResponse<DtoResTimetableVersion>> restoreTimetableVersion(@PathVariable final String uuid, @PathVariable final String versionUuid) {
+        final ApiResponse<DtoResTimetableVersion> response = serviceTimetableVersion.restoreVersion(uuid, versionUuid);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping("/{uuid}/diff")
+    public ResponseEntity<ApiResponse<DtoResTimetableDiff>> diffTimetables(@PathVariable final String uuid,
+                                                                           @RequestParam(required = false) final String version,
+                                                                           @RequestParam(required = false) final String against,
+                                                                           @RequestParam(required = false) final String againstVersion) {
+        final ApiResponse<DtoResTimetableDiff> response = serviceTimetableDiff.diff(uuid, version, against, againstVersion);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @PostMapping("/{uuid}/undo")
+    public ResponseEntity<ApiResponse<DtoResTimetableOperation>> undoTimetableEdit(@PathVariable final String uuid) {
+        final ApiResponse<DtoResTimetableOperation> response = serviceTimetableOperation.undo(uuid);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @PostMapping("/{uuid}/redo")
+    public ResponseEntity<ApiResponse<DtoResTimetableOperation>> redoTimetableEdit(@PathVariable final String uuid) {
+        final ApiResponse<DtoResTimetableOperation> response = serviceTimetableOperation.redo(uuid);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @PostMapping("/{uuid}/entries/moves")
+    public ResponseEntity<ApiResponse<DtoResTimetableMoveChain>> moveTimetableEntries(@PathVariable final String uuid, @RequestBody final List<DtoReqTimetableEntryMove> moves) {
+        final ApiResponse<DtoResTimetableMoveChain> response = serviceTimetableMoveChain.moveEntries(uuid, moves);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     @GetMapping("/latest")
-    public ResponseEntity<DtoResTimetable> getLatestTimetable(@RequestParam Integer organizationId) {
+    public ResponseEntity<DtoResTimetable> getLatestTimetable(@RequestParam Integer organizationId, WebRequest webRequest) {
+        final String eTag = serviceTimetable.getLatestTimetableETag(organizationId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         DtoResTimetable timetable = serviceTimetable.getLatestTimetable(organizationId);
-        return ResponseEntity.ok(timetable);
+        return ResponseEntity.ok().eTag(eTag).body(timetable);
     }
 
     @GetMapping("/{uuid}/filter")
@@ -118,6 +242,41 @@ public class ControllerTimetable {
         return ResponseEntity.ok(timetable);
     }
 
+    @PostMapping("/generate")
+    public ResponseEntity<ApiResponse<DtoResTimetable>> generateTimetable(@Valid @RequestBody final DtoReqTimetableGenerate dtoReqTimetableGenerate) {
+        final ApiResponse<DtoResTimetable> response = serviceTimetableGenerate.generate(dtoReqTimetableGenerate);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @PostMapping("/generate/jobs")
+    public ResponseEntity<ApiResponse<DtoResTimetableGenerationJob>> submitGenerationJob(@Valid @RequestBody final DtoReqTimetableGenerate dtoReqTimetableGenerate) {
+        final ApiResponse<DtoResTimetableGenerationJob> response = serviceTimetableGenerationJob.submit(dtoReqTimetableGenerate);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping("/generate/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<DtoResTimetableGenerationJob>> getGenerationJob(@PathVariable final String jobId) {
+        final ApiResponse<DtoResTimetableGenerationJob> response = serviceTimetableGenerationJob.getJob(jobId);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @GetMapping(value = "/generate/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGenerationJob(@PathVariable final String jobId) {
+        return serviceTimetableGenerationJob.streamEvents(jobId);
+    }
+
+    @DeleteMapping("/generate/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<DtoResTimetableGenerationJob>> cancelGenerationJob(@PathVariable final String jobId) {
+        final ApiResponse<DtoResTimetableGenerationJob> response = serviceTimetableGenerationJob.cancel(jobId);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    @PostMapping("/{uuid}/repair")
+    public ResponseEntity<ApiResponse<DtoResTimetableRepair>> repairTimetable(@PathVariable final String uuid, @RequestParam final String bindingUuid) {
+        final ApiResponse<DtoResTimetableRepair> response = serviceTimetableRepair.repairBinding(uuid, bindingUuid);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
     @PutMapping("/entries/{uuid}/lock")
     public ResponseEntity<ApiResponse<DtoResTimetableEntry>> updateEntryLockStatus(
             @PathVariable final String uuid,
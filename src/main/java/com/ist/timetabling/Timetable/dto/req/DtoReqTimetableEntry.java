@@ -36,4 +36,5 @@ public class DtoReqTimetableEntry {
     private Boolean isClassBandEntry;
     private Integer classBandId;
     private Boolean isLocked;
+    private Long version;
 }
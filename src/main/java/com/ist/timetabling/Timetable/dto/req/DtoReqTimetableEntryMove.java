@@ -0,0 +1,18 @@
+package com.ist.timetabling.Timetable.dto.req;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One step of a move chain: the entry, the version the editor last saw, and the cell it goes to. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoReqTimetableEntryMove {
+    private String uuid;
+    private Long version;
+    private Integer dayOfWeek;
+    private Integer period;
+}
@@ -0,0 +1,31 @@
+package com.ist.timetabling.Timetable.dto.req;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoReqTimetableGenerate {
+
+    @NotNull(message = I18N_TIMETABLE_ORGANIZATION_REQUIRED)
+    private Integer organizationId;
+
+    @NotNull(message = I18N_TIMETABLE_PLAN_SETTING_REQUIRED)
+    private Integer planSettingId;
+
+    @NotBlank(message = I18N_TIMETABLE_ACADEMIC_REQUIRED)
+    private String academicYear;
+
+    @NotBlank(message = I18N_TIMETABLE_SEMESTER_REQUIRED)
+    private String semester;
+
+    private Long seed;
+    private Long timeLimitMillis;
+}
@@ -0,0 +1,15 @@
+package com.ist.timetabling.Timetable.dto.req;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoReqTimetableVersion {
+    private String name;
+    private String description;
+}
@@ -20,4 +20,5 @@ public class DtoResScheduleConflict {
     private Integer dayOfWeek;
     private Integer periodId;
     private String conflictDescription;
+    private String severity; // HARD blocks placement, SOFT is a warning
 } 
\ No newline at end of file
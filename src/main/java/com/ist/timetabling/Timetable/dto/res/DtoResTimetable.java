@@ -33,5 +33,6 @@ public class DtoResTimetable {
     private Integer generationFailureCount;
     private List<DtoResTimetableEntry> entries;
     private List<Integer> timetablePlan;
+    private Long contentVersion;
 
 }
@@ -0,0 +1,22 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableChanges {
+    private String timetableUuid;
+    private Long sinceVersion;
+    private Long version;
+    private Boolean fullReload;
+    private List<DtoResTimetableEntry> upserted;
+    private List<Integer> deletedIds;
+    private List<String> deletedUuids;
+}
@@ -0,0 +1,31 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableDiff {
+    private String baseTimetableUuid;
+    private String baseVersionUuid;
+    private String targetTimetableUuid;
+    private String targetVersionUuid;
+    private Integer baseEntryCount;
+    private Integer targetEntryCount;
+    private Integer unchangedCount;
+    private List<DtoResTimetableDiffLesson> moved;
+    private List<DtoResTimetableDiffLesson> reassigned;
+    private List<DtoResTimetableDiffLesson> removed;
+    private List<DtoResTimetableDiffLesson> added;
+    private Map<Integer, Integer> teacherChangeCounts;
+    private Map<Integer, Integer> classChangeCounts;
+    private Map<Integer, Integer> classBandChangeCounts;
+    private Long elapsedMillis;
+}
@@ -0,0 +1,26 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableDiffLesson {
+    private String fromEntryUuid;
+    private String toEntryUuid;
+    private Integer classId;
+    private Integer classBandId;
+    private Integer subjectId;
+    private Integer fromTeacherId;
+    private Integer toTeacherId;
+    private Integer fromRoomId;
+    private Integer toRoomId;
+    private Integer fromDayOfWeek;
+    private Integer fromPeriod;
+    private Integer toDayOfWeek;
+    private Integer toPeriod;
+}
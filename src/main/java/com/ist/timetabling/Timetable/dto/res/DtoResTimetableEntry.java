@@ -35,6 +35,8 @@ public class DtoResTimetableEntry {
     private String classBandUuid;
     private String classBandName;
     private Boolean isClassBandEntry;
+    private Integer bindingId;
     private Boolean isLocked;
     private Boolean isDeleted;
+    private Long version;
 }
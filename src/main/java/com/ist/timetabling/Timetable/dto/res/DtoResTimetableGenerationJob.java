@@ -0,0 +1,31 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableGenerationJob {
+    private String jobId;
+    private String status;
+    private Integer organizationId;
+    private Integer planSettingId;
+    private Integer lessonCount;
+    private Integer placedCount;
+    private Integer unplacedCount;
+    private Long bestScore;
+    private String strategy;
+    private Long elapsedMillis;
+    private LocalDateTime queuedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Integer timetableId;
+    private String timetableUuid;
+    private String message;
+}
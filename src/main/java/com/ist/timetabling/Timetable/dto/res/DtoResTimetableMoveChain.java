@@ -0,0 +1,19 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableMoveChain {
+    private Boolean valid;
+    private List<DtoResTimetableEntry> entries;
+    private List<DtoResScheduleConflict> conflicts;
+    private List<String> validationErrors;
+}
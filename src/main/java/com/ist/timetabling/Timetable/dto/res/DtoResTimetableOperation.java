@@ -0,0 +1,20 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableOperation {
+    private String type;
+    private List<DtoResTimetableEntry> entries;
+    private List<String> removedEntryUuids;
+    private Boolean canUndo;
+    private Boolean canRedo;
+}
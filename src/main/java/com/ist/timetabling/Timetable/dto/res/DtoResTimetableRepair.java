@@ -0,0 +1,22 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableRepair {
+    private Integer timetableId;
+    private Integer bindingId;
+    private Integer placedCount;
+    private Integer unplacedCount;
+    private Integer movedCount;
+    private Integer removedCount;
+    private Integer lockedConflictCount;
+    private Boolean widened;
+    private Long elapsedMillis;
+}
@@ -0,0 +1,27 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableVersion {
+    private String uuid;
+    private Integer timetableId;
+    private String parentUuid;
+    private String name;
+    private String description;
+    private Boolean isKeyframe;
+    private Boolean isHead;
+    private Integer depth;
+    private Integer slotCount;
+    private Integer entryCount;
+    private Integer createdBy;
+    private LocalDateTime createdDate;
+}
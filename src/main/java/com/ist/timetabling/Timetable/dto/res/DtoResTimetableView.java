@@ -0,0 +1,21 @@
+package com.ist.timetabling.Timetable.dto.res;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoResTimetableView {
+    private Integer timetableId;
+    private String view;
+    private Integer resourceId;
+    private Integer days;
+    private Integer periodsPerDay;
+    private List<List<List<DtoResTimetableEntry>>> cells;
+}
@@ -10,12 +10,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 import com.ist.timetabling.Timetable.util.IntegerListJsonConverter;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ListenerTimetableContent.class)
 @Table(name = EntityTimetable.TABLE)
 @Data
 @Builder
@@ -155,6 +157,23 @@ public class EntityTimetable {
     private Boolean isDeleted = false;
     public static final String IS_DELETED = "timetable_is_deleted";
 
+    @Column(name = CONTENT_VERSION, nullable = false, updatable = false)
+    @Builder.Default
+    private Long contentVersion = 0L;
+    public static final String CONTENT_VERSION = "timetable_content_version";
+
+    @Column(name = HEAD_VERSION_ID, updatable = false)
+    private Integer headVersionId;
+    public static final String HEAD_VERSION_ID = "timetable_head_version_id";
+
+    @Column(name = HEAD_CONTENT_VERSION, updatable = false)
+    private Long headContentVersion;
+    public static final String HEAD_CONTENT_VERSION = "timetable_head_content_version";
+
+    @Column(name = OPERATION_HEAD_ID, updatable = false)
+    private Long operationHeadId;
+    public static final String OPERATION_HEAD_ID = "timetable_operation_head_id";
+
     @Column(name = PLAN_SETTING_UUID)
     private String planSettingUuid = "";
     public static final String PLAN_SETTING_UUID = "timetable_plan_setting_uuid";
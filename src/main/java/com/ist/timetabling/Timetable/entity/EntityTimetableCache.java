@@ -32,6 +32,7 @@ public class EntityTimetableCache {
     private String cacheKey = "";
     public static final String CACHE_KEY = "cache_key";
 
+    @Lob
     @Column(name = CACHE_DATA)
     @Builder.Default
     private String cacheData = "";
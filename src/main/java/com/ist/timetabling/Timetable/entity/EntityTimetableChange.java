@@ -0,0 +1,55 @@
+package com.ist.timetabling.Timetable.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = EntityTimetableChange.TABLE, indexes = @Index(columnList = EntityTimetableChange.TIMETABLE_ID + "," + EntityTimetableChange.VERSION))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityTimetableChange {
+
+    public static final String TABLE = "timetable_changes";
+
+    public static final String OPERATION_UPSERT = "UPSERT";
+    public static final String OPERATION_DELETE = "DELETE";
+    public static final String OPERATION_RELOAD = "RELOAD";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = ID)
+    private Long id;
+    public static final String ID = "change_id";
+
+    @Column(name = TIMETABLE_ID, nullable = false)
+    private Integer timetableId;
+    public static final String TIMETABLE_ID = "change_timetable_id";
+
+    @Column(name = VERSION, nullable = false)
+    private Long version;
+    public static final String VERSION = "change_version";
+
+    @Column(name = ENTRY_ID)
+    private Integer entryId;
+    public static final String ENTRY_ID = "change_entry_id";
+
+    @Column(name = ENTRY_UUID, length = 36)
+    private String entryUuid;
+    public static final String ENTRY_UUID = "change_entry_uuid";
+
+    @Column(name = OPERATION, nullable = false, length = 16)
+    private String operation;
+    public static final String OPERATION = "change_operation";
+
+    @Column(name = CHANGED_AT, nullable = false)
+    private LocalDateTime changedAt;
+    public static final String CHANGED_AT = "change_changed_at";
+
+}
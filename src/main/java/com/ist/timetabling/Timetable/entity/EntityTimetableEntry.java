@@ -1,11 +1,14 @@
 package com.ist.timetabling.Timetable.entity;
 
+import com.ist.timetabling.Core.config.ConfigCoreTableIds;
+import com.ist.timetabling.Timetable.listener.ListenerTimetableContent;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UuidGenerator;
 
 @Entity
+@EntityListeners(ListenerTimetableContent.class)
 @Table(name = EntityTimetableEntry.TABLE)
 @Data
 @NoArgsConstructor
@@ -13,8 +16,16 @@ public class EntityTimetableEntry {
 
     public static final String TABLE = "timetable_entries";
 
+    /** Hi/lo id table, so a generated timetable's inserts can be JDBC-batched instead of one IDENTITY round-trip per row. */
+    public static final String ID_TABLE = "timetable_entry_ids";
+    public static final String ID_TABLE_KEY = ConfigCoreTableIds.ID_TABLE_KEY;
+    public static final String ID_TABLE_VALUE = ConfigCoreTableIds.ID_TABLE_VALUE;
+    public static final int ID_ALLOCATION_SIZE = 1000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_TABLE)
+    @TableGenerator(name = ID_TABLE, table = ID_TABLE, pkColumnName = ID_TABLE_KEY, valueColumnName = ID_TABLE_VALUE,
+            pkColumnValue = TABLE, allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = ID)
     private Integer id;
     public static final String ID = "entry_id";
@@ -84,4 +95,14 @@ public class EntityTimetableEntry {
     private Integer classBandId;
     public static final String CLASS_BAND_ID = "entry_class_band_id";
 
+    @Column(name = BINDING_ID)
+    private Integer bindingId;
+    public static final String BINDING_ID = "entry_binding_id";
+
+    /** Optimistic lock; the column default backfills rows written before it existed, so loaded entries are never mistaken for new ones. */
+    @Version
+    @Column(name = VERSION, nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+    public static final String VERSION = "entry_version";
+
 }
\ No newline at end of file
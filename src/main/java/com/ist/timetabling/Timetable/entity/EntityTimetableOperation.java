@@ -0,0 +1,100 @@
+package com.ist.timetabling.Timetable.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One manual edit, stored with just enough state to replay it in either direction. Rows are never changed:
+ * each points at the operation that was the timetable's undo head when it was recorded, and undo and redo
+ * only move {@link EntityTimetable#getOperationHeadId()} along that chain.
+ */
+@Entity
+@Table(name = EntityTimetableOperation.TABLE, indexes = @Index(columnList = EntityTimetableOperation.TIMETABLE_ID + "," + EntityTimetableOperation.PREVIOUS_ID))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityTimetableOperation {
+
+    public static final String TABLE = "timetable_operations";
+
+    public static final String TYPE_SWAP = "SWAP";
+    public static final String TYPE_MOVE = "MOVE";
+    public static final String TYPE_LOCK = "LOCK";
+    public static final String TYPE_REMOVE = "REMOVE";
+    public static final String TYPE_RESTORE = "RESTORE";
+    public static final String TYPE_CHAIN = "CHAIN";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = ID)
+    private Long id;
+    public static final String ID = "operation_id";
+
+    @Column(name = TIMETABLE_ID, nullable = false)
+    private Integer timetableId;
+    public static final String TIMETABLE_ID = "operation_timetable_id";
+
+    @Column(name = PREVIOUS_ID)
+    private Long previousId;
+    public static final String PREVIOUS_ID = "operation_previous_id";
+
+    @Column(name = TYPE, nullable = false, length = 16)
+    private String type;
+    public static final String TYPE = "operation_type";
+
+    /** The entry an operation acts on; for a chain, the first entry it moved. */
+    @Column(name = ENTRY_UUID, nullable = false, length = 36)
+    private String entryUuid;
+    public static final String ENTRY_UUID = "operation_entry_uuid";
+
+    /** The entry that traded places with {@link #entryUuid} in a swap or move. */
+    @Column(name = OTHER_ENTRY_UUID, length = 36)
+    private String otherEntryUuid;
+    public static final String OTHER_ENTRY_UUID = "operation_other_entry_uuid";
+
+    @Column(name = FROM_DAY_OF_WEEK)
+    private Integer fromDayOfWeek;
+    public static final String FROM_DAY_OF_WEEK = "operation_from_day_of_week";
+
+    @Column(name = FROM_PERIOD)
+    private Integer fromPeriod;
+    public static final String FROM_PERIOD = "operation_from_period";
+
+    @Column(name = TO_DAY_OF_WEEK)
+    private Integer toDayOfWeek;
+    public static final String TO_DAY_OF_WEEK = "operation_to_day_of_week";
+
+    @Column(name = TO_PERIOD)
+    private Integer toPeriod;
+    public static final String TO_PERIOD = "operation_to_period";
+
+    @Column(name = FROM_LOCKED)
+    private Boolean fromLocked;
+    public static final String FROM_LOCKED = "operation_from_locked";
+
+    @Column(name = TO_LOCKED)
+    private Boolean toLocked;
+    public static final String TO_LOCKED = "operation_to_locked";
+
+    /** The removed entry as JSON, so undoing a hard delete can insert it again; for a chain, its moves. */
+    @Column(name = SNAPSHOT, columnDefinition = "TEXT")
+    private String snapshot;
+    public static final String SNAPSHOT = "operation_snapshot";
+
+    @Column(name = CREATED_BY)
+    private Integer createdBy;
+    public static final String CREATED_BY = "operation_created_by";
+
+    @CreationTimestamp
+    @Column(name = CREATED_DATE, nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+    public static final String CREATED_DATE = "operation_created_date";
+
+}
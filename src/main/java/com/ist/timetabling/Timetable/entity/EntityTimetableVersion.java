@@ -0,0 +1,84 @@
+package com.ist.timetabling.Timetable.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * An immutable saved state of a timetable. A keyframe version holds every entry in its slots; any other version
+ * holds only the slots that differ from its parent, so its state is the keyframe replayed through the chain.
+ */
+@Entity
+@Table(name = EntityTimetableVersion.TABLE, indexes = @Index(columnList = EntityTimetableVersion.TIMETABLE_ID))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityTimetableVersion {
+
+    public static final String TABLE = "timetable_versions";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = ID)
+    private Integer id;
+    public static final String ID = "version_id";
+
+    @UuidGenerator
+    @Column(name = UUID, columnDefinition = "char(36)")
+    private String uuid;
+    public static final String UUID = "version_uuid";
+
+    @Column(name = TIMETABLE_ID, nullable = false)
+    private Integer timetableId;
+    public static final String TIMETABLE_ID = "version_timetable_id";
+
+    @Column(name = PARENT_ID)
+    private Integer parentId;
+    public static final String PARENT_ID = "version_parent_id";
+
+    @Column(name = NAME, nullable = false)
+    @Builder.Default
+    private String name = "";
+    public static final String NAME = "version_name";
+
+    @Column(name = DESCRIPTION, columnDefinition = "TEXT")
+    private String description;
+    public static final String DESCRIPTION = "version_description";
+
+    @Column(name = IS_KEYFRAME, nullable = false)
+    @Builder.Default
+    private Boolean isKeyframe = false;
+    public static final String IS_KEYFRAME = "version_is_keyframe";
+
+    @Column(name = DEPTH, nullable = false)
+    @Builder.Default
+    private Integer depth = 0;
+    public static final String DEPTH = "version_depth";
+
+    @Column(name = SLOT_COUNT, nullable = false)
+    @Builder.Default
+    private Integer slotCount = 0;
+    public static final String SLOT_COUNT = "version_slot_count";
+
+    @Column(name = ENTRY_COUNT, nullable = false)
+    @Builder.Default
+    private Integer entryCount = 0;
+    public static final String ENTRY_COUNT = "version_entry_count";
+
+    @Column(name = CREATED_BY)
+    private Integer createdBy;
+    public static final String CREATED_BY = "version_created_by";
+
+    @CreationTimestamp
+    @Column(name = CREATED_DATE, nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+    public static final String CREATED_DATE = "version_created_date";
+
+}
@@ -0,0 +1,104 @@
+package com.ist.timetabling.Timetable.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a {@link EntityTimetableVersion} as it stood when the version was saved, keyed by the entry uuid.
+ * A removed slot is a tombstone for an entry the parent version still had.
+ */
+@Entity
+@Table(name = EntityTimetableVersionSlot.TABLE, indexes = @Index(columnList = EntityTimetableVersionSlot.VERSION_ID + "," + EntityTimetableVersionSlot.ENTRY_UUID))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityTimetableVersionSlot {
+
+    public static final String TABLE = "timetable_version_slots";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = TABLE)
+    @TableGenerator(name = TABLE, table = EntityTimetableEntry.ID_TABLE, pkColumnName = EntityTimetableEntry.ID_TABLE_KEY,
+            valueColumnName = EntityTimetableEntry.ID_TABLE_VALUE, pkColumnValue = TABLE, allocationSize = EntityTimetableEntry.ID_ALLOCATION_SIZE)
+    @Column(name = ID)
+    private Long id;
+    public static final String ID = "slot_id";
+
+    @Column(name = VERSION_ID, nullable = false)
+    private Integer versionId;
+    public static final String VERSION_ID = "slot_version_id";
+
+    @Column(name = ENTRY_UUID, nullable = false, length = 36)
+    private String entryUuid;
+    public static final String ENTRY_UUID = "slot_entry_uuid";
+
+    @Column(name = ENTRY_ID)
+    private Integer entryId;
+    public static final String ENTRY_ID = "slot_entry_id";
+
+    @Column(name = IS_REMOVED, nullable = false)
+    @Builder.Default
+    private Boolean isRemoved = false;
+    public static final String IS_REMOVED = "slot_is_removed";
+
+    @Column(name = CLASS_ID)
+    private Integer classId;
+    public static final String CLASS_ID = "slot_class_id";
+
+    @Column(name = CLASS_BAND_ID)
+    private Integer classBandId;
+    public static final String CLASS_BAND_ID = "slot_class_band_id";
+
+    @Column(name = IS_CLASS_BAND_ENTRY)
+    private Boolean isClassBandEntry;
+    public static final String IS_CLASS_BAND_ENTRY = "slot_is_class_band_entry";
+
+    @Column(name = SUBJECT_ID)
+    private Integer subjectId;
+    public static final String SUBJECT_ID = "slot_subject_id";
+
+    @Column(name = TEACHER_ID)
+    private Integer teacherId;
+    public static final String TEACHER_ID = "slot_teacher_id";
+
+    @Column(name = ROOM_ID)
+    private Integer roomId;
+    public static final String ROOM_ID = "slot_room_id";
+
+    @Column(name = BINDING_ID)
+    private Integer bindingId;
+    public static final String BINDING_ID = "slot_binding_id";
+
+    @Column(name = DAY_OF_WEEK)
+    private Integer dayOfWeek;
+    public static final String DAY_OF_WEEK = "slot_day_of_week";
+
+    @Column(name = PERIOD)
+    private Integer period;
+    public static final String PERIOD = "slot_period";
+
+    @Column(name = PERIOD_NUMBER)
+    private Integer periodNumber;
+    public static final String PERIOD_NUMBER = "slot_period_number";
+
+    @Column(name = PERIOD_TYPE)
+    private String periodType;
+    public static final String PERIOD_TYPE = "slot_period_type";
+
+    @Column(name = DURATION_MINUTES)
+    private Integer durationMinutes;
+    public static final String DURATION_MINUTES = "slot_duration_minutes";
+
+    @Column(name = STATUS)
+    private String status;
+    public static final String STATUS = "slot_status";
+
+    @Column(name = IS_LOCKED)
+    private Boolean isLocked;
+    public static final String IS_LOCKED = "slot_is_locked";
+
+}
@@ -0,0 +1,9 @@
+package com.ist.timetabling.Timetable.exception;
+
+public class ExceptionTimetableGenerationCancelled extends RuntimeException {
+
+    public ExceptionTimetableGenerationCancelled(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.ist.timetabling.Timetable.listener;
+
+import com.ist.timetabling.Class.entity.EntityClass;
+import com.ist.timetabling.ClassBand.entity.EntityClassBand;
+import com.ist.timetabling.Room.entity.EntityRoom;
+import com.ist.timetabling.Subject.entity.EntitySubject;
+import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentCommitting;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Turns writes to timetables, their entries and to the subjects, rooms, classes, bands and teachers they
+ * display into one {@link ModelTimetableContentChanged} per transaction. It is handed to the change log
+ * before commit as a {@link ModelTimetableContentCommitting} and published as is after commit.
+ */
+public class ListenerTimetableContent {
+
+    private static final Object PENDING_KEY = ListenerTimetableContent.class.getName() + ".pending";
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Joins the transaction as soon as one of these entities is loaded, because an update to it is only
+     * flushed, and reported here, once the transaction is already committing.
+     */
+    @PostLoad
+    public void onLoad(final Object entity) {
+        if(applicationEventPublisher != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending();
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(final Object entity) {
+        onChange(entity, false);
+    }
+
+    @PostRemove
+    public void onRemove(final Object entity) {
+        onChange(entity, true);
+    }
+
+    private void onChange(final Object entity, final boolean removed) {
+        if(applicationEventPublisher == null) {
+            return;
+        }
+        final ModelTimetableContentChanged changed = pending();
+        if(entity instanceof EntityTimetableEntry entry) {
+            changed.recordEntry(entry.getTimetableId(), entry.getId(), entry.getUuid(), removed || Boolean.TRUE.equals(entry.getIsDeleted()));
+        }else if(entity instanceof EntityTimetable timetable) {
+            addPositive(changed, timetable.getId(), false);
+        }else if(entity instanceof EntitySubject subject) {
+            addPositive(changed, subject.getOrganizationId(), true);
+        }else if(entity instanceof EntityRoom room) {
+            addPositive(changed, room.getOrganizationId(), true);
+        }else if(entity instanceof EntityClass entityClass) {
+            addPositive(changed, entityClass.getOrganizationId(), true);
+        }else if(entity instanceof EntityClassBand classBand) {
+            addPositive(changed, classBand.getOrganizationId(), true);
+        }else if(entity instanceof EntityTeacherProfile teacher) {
+            addPositive(changed, teacher.getOrganizationId(), true);
+        }
+        if(!TransactionSynchronizationManager.isSynchronizationActive() && !changed.isEmpty()) {
+            applicationEventPublisher.publishEvent(changed);
+        }
+    }
+
+    private ModelTimetableContentChanged pending() {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new ModelTimetableContentChanged();
+        }
+        final ModelTimetableContentChanged bound = (ModelTimetableContentChanged) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if(bound != null) {
+            return bound;
+        }
+        final ModelTimetableContentChanged changed = new ModelTimetableContentChanged();
+        TransactionSynchronizationManager.bindResource(PENDING_KEY, changed);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                if(!readOnly) {
+                    applicationEventPublisher.publishEvent(new ModelTimetableContentCommitting(changed));
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if(!changed.isEmpty()) {
+                    applicationEventPublisher.publishEvent(changed);
+                }
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+            }
+        });
+        return changed;
+    }
+
+    private static void addPositive(final ModelTimetableContentChanged changed, final Integer id, final boolean organization) {
+        if(id != null && id > 0) {
+            (organization ? changed.getOrganizationIds() : changed.getTimetableIds()).add(id);
+        }
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import com.ist.timetabling.binding.entity.EntityBinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class ModelTimetableConflictIndex {
+
+    private final Integer timetableId;
+    private final long loadedAt;
+    private final ModelTimetableOccupancy occupancy;
+    private final List<List<EntityTimetableEntry>> entriesBySlot;
+    private final Map<Integer, Integer> periodNumberById;
+    private final long[] schedulable;
+    private final Map<Integer, EntityBinding> bindingsById = new HashMap<>();
+    private final Map<Integer, Set<Integer>> classesByBand = new HashMap<>();
+    private final Map<Resource, Map<Integer, long[]>> unavailable = new EnumMap<>(Resource.class);
+    private final Map<Resource, Map<Integer, long[]>> disliked = new EnumMap<>(Resource.class);
+    private final Map<Resource, Map<Integer, String>> names = new EnumMap<>(Resource.class);
+    private final Map<Integer, List<ModelRuleCompiled>> bindingRules = new HashMap<>();
+    private List<ModelRuleCompiled> planRules = Collections.emptyList();
+    private Integer organizationId;
+    private Integer planSettingId;
+
+    public ModelTimetableConflictIndex(final Integer timetableId, final ModelTimetableOccupancy occupancy, final Map<Integer, Integer> periodNumberById, final long[] schedulable) {
+        this.timetableId = timetableId;
+        this.loadedAt = System.currentTimeMillis();
+        this.occupancy = occupancy;
+        this.periodNumberById = periodNumberById;
+        this.schedulable = schedulable;
+        this.entriesBySlot = new ArrayList<>(occupancy.getSlotCount());
+        for(int slot = 0; slot < occupancy.getSlotCount(); slot++) {
+            entriesBySlot.add(new ArrayList<>());
+        }
+        for(final Resource resource : Resource.values()) {
+            unavailable.put(resource, new HashMap<>());
+            disliked.put(resource, new HashMap<>());
+            names.put(resource, new HashMap<>());
+        }
+    }
+
+    public Integer getTimetableId() {
+        return timetableId;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public Integer getOrganizationId() {
+        return organizationId;
+    }
+
+    public Integer getPlanSettingId() {
+        return planSettingId;
+    }
+
+    /** The organization and plan setting of the timetable, which every binding placed in it must share. */
+    public void setScope(final Integer organizationId, final Integer planSettingId) {
+        this.organizationId = organizationId;
+        this.planSettingId = planSettingId;
+    }
+
+    public ModelTimetableOccupancy getOccupancy() {
+        return occupancy;
+    }
+
+    public int slotOf(final Integer dayOfWeek, final Integer periodId) {
+        final Integer periodNumber = periodNumberById.get(periodId);
+        return periodNumber != null ? occupancy.slotOf(dayOfWeek, periodNumber) : ModelTimetableSolverInput.NONE;
+    }
+
+    public Integer periodNumberOf(final Integer periodId) {
+        return periodNumberById.get(periodId);
+    }
+
+    public boolean isSchedulable(final int slot) {
+        return slot >= 0 && (slot >>> 6) < schedulable.length && (schedulable[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public List<EntityTimetableEntry> entriesAt(final int slot) {
+        return slot >= 0 && slot < entriesBySlot.size() ? entriesBySlot.get(slot) : Collections.emptyList();
+    }
+
+    public boolean occupy(final EntityTimetableEntry entry) {
+        final int slot = occupancy.slotOf(entry.getDayOfWeek(), entry.getPeriod());
+        if(slot < 0) {
+            return false;
+        }
+        occupancy.occupy(entry);
+        entriesBySlot.get(slot).add(entry);
+        return true;
+    }
+
+    public void release(final EntityTimetableEntry entry) {
+        final int slot = occupancy.slotOf(entry.getDayOfWeek(), entry.getPeriod());
+        if(slot < 0 || entry.getId() == null) {
+            return;
+        }
+        final boolean removed = entriesBySlot.get(slot).removeIf(existing -> Objects.equals(existing.getId(), entry.getId()));
+        if(removed) {
+            occupancy.release(entry);
+        }
+    }
+
+    public EntityBinding getBinding(final Integer bindingId) {
+        return bindingsById.get(bindingId);
+    }
+
+    public void putBinding(final EntityBinding binding) {
+        bindingsById.put(binding.getId(), binding);
+    }
+
+    public Set<Integer> classesOfBand(final Integer classBandId) {
+        return classesByBand.getOrDefault(classBandId, Collections.emptySet());
+    }
+
+    public void putBandClasses(final Integer classBandId, final Set<Integer> classIds) {
+        classesByBand.put(classBandId, new HashSet<>(classIds));
+    }
+
+    public Set<Integer> classesOf(final Integer classId, final Integer classBandId) {
+        final Set<Integer> classIds = new HashSet<>();
+        if(classId != null && classId > 0) {
+            classIds.add(classId);
+        }
+        if(classBandId != null && classBandId > 0) {
+            classIds.addAll(classesOfBand(classBandId));
+        }
+        return classIds;
+    }
+
+    public List<ModelRuleCompiled> getPlanRules() {
+        return planRules;
+    }
+
+    public void setPlanRules(final List<ModelRuleCompiled> planRules) {
+        this.planRules = planRules;
+    }
+
+    public List<ModelRuleCompiled> rulesOfBinding(final Integer bindingId) {
+        return bindingRules.getOrDefault(bindingId, Collections.emptyList());
+    }
+
+    public void putBindingRules(final Integer bindingId, final List<ModelRuleCompiled> rules) {
+        bindingRules.put(bindingId, rules);
+    }
+
+    public void markUnavailable(final Resource resource, final Integer id, final int slot) {
+        mark(unavailable, resource, id, slot);
+    }
+
+    public void markDisliked(final Resource resource, final Integer id, final int slot) {
+        mark(disliked, resource, id, slot);
+    }
+
+    public boolean isUnavailable(final Resource resource, final Integer id, final int slot) {
+        return isMarked(unavailable, resource, id, slot);
+    }
+
+    public boolean isDisliked(final Resource resource, final Integer id, final int slot) {
+        return isMarked(disliked, resource, id, slot);
+    }
+
+    public void putName(final Resource resource, final Integer id, final String name) {
+        names.get(resource).put(id, name);
+    }
+
+    public String nameOf(final Resource resource, final Integer id) {
+        return names.get(resource).getOrDefault(id, resource.name() + " " + id);
+    }
+
+    private void mark(final Map<Resource, Map<Integer, long[]>> masks, final Resource resource, final Integer id, final int slot) {
+        if(id == null || slot < 0) {
+            return;
+        }
+        final long[] mask = masks.get(resource).computeIfAbsent(id, key -> new long[ModelTimetableSolverInput.wordsFor(occupancy.getSlotCount())]);
+        mask[slot >>> 6] |= 1L << slot;
+    }
+
+    private boolean isMarked(final Map<Resource, Map<Integer, long[]>> masks, final Resource resource, final Integer id, final int slot) {
+        if(id == null || slot < 0) {
+            return false;
+        }
+        final long[] mask = masks.get(resource).get(id);
+        return mask != null && (mask[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Published once per committed transaction that changed timetables, their entries or the
+ * reference data they display. Timetable ids are directly affected; organization ids stand for
+ * every timetable of that organization. Each event bumps the content version of those timetables,
+ * normally before commit through {@link ModelTimetableContentCommitting}, after which it is marked logged.
+ */
+@Getter
+public class ModelTimetableContentChanged {
+
+    private final Set<Integer> timetableIds = new HashSet<>();
+    private final Set<Integer> organizationIds = new HashSet<>();
+    private final Map<Integer, EntryChange> entryChanges = new LinkedHashMap<>();
+    private boolean logged;
+
+    public boolean isEmpty() {
+        return timetableIds.isEmpty() && organizationIds.isEmpty();
+    }
+
+    public void markLogged() {
+        logged = true;
+    }
+
+    /**
+     * Records the latest operation on an entry within the transaction; an entry that is written and
+     * then deleted ends up as a single delete.
+     */
+    public void recordEntry(final Integer timetableId, final Integer entryId, final String entryUuid, final boolean deleted) {
+        if(timetableId == null || entryId == null) {
+            return;
+        }
+        timetableIds.add(timetableId);
+        entryChanges.put(entryId, new EntryChange(timetableId, entryId, entryUuid, deleted));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class EntryChange {
+        private final Integer timetableId;
+        private final Integer entryId;
+        private final String entryUuid;
+        private final boolean deleted;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published from inside a writing transaction just before it commits, carrying the changes it has made
+ * so far. Handlers run in that transaction, so what they write commits or rolls back with the entries.
+ * The same {@link ModelTimetableContentChanged} is published again after commit for caches and clients.
+ */
+@Getter
+@AllArgsConstructor
+public class ModelTimetableContentCommitting {
+
+    private final ModelTimetableContentChanged changed;
+
+}
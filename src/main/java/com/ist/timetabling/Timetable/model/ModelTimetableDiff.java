@@ -0,0 +1,27 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Result of {@code UtilTimetableDiff.diff}. Indices point into the base and target entry lists; moved and
+ * reassigned lessons are parallel arrays of base and target index. Class change counts are keyed by class id,
+ * with class bands as negative ids.
+ */
+@Getter
+@Builder
+public class ModelTimetableDiff {
+
+    private final int[] movedBase;
+    private final int[] movedTarget;
+    private final int[] reassignedBase;
+    private final int[] reassignedTarget;
+    private final int[] removed;
+    private final int[] added;
+    private final int unchangedCount;
+    private final Map<Integer, Integer> teacherChangeCounts;
+    private final Map<Integer, Integer> classChangeCounts;
+
+}
@@ -0,0 +1,29 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ModelTimetableEntryRow {
+
+    private final EntityTimetableEntry entry;
+    private final String subjectUuid;
+    private final String subjectName;
+    private final String subjectColor;
+    private final String subjectInitials;
+    private final String teacherUuid;
+    private final String teacherInitials;
+    private final String teacherFirstName;
+    private final String teacherLastName;
+    private final String roomUuid;
+    private final String roomName;
+    private final String roomCode;
+    private final String classUuid;
+    private final String className;
+    private final String classInitial;
+    private final String classBandUuid;
+    private final String classBandName;
+
+}
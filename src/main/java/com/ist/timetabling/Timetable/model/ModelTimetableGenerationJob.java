@@ -0,0 +1,78 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+public class ModelTimetableGenerationJob {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+    public static final long PUBLISH_INTERVAL_MILLIS = 1_000L;
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final DtoReqTimetableGenerate request;
+    private final I18n i18n;
+    private final LocalDateTime queuedAt = LocalDateTime.now();
+
+    private volatile String status = STATUS_QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedAtMillis;
+    private volatile long finishedAtMillis;
+    private volatile ModelTimetableSolverProgress progress;
+    private volatile Integer timetableId;
+    private volatile String timetableUuid;
+    private volatile String message;
+    private long publishedAtMillis;
+
+    public ModelTimetableGenerationJob(final DtoReqTimetableGenerate request, final I18n i18n) {
+        this.request = request;
+        this.i18n = i18n;
+    }
+
+    public Integer getOrganizationId() {
+        return request.getOrganizationId();
+    }
+
+    public long getElapsedMillis() {
+        if(startedAtMillis == 0L) {
+            return 0L;
+        }
+        return (finishedAtMillis > 0L ? finishedAtMillis : System.currentTimeMillis()) - startedAtMillis;
+    }
+
+    public boolean isFinished() {
+        return STATUS_COMPLETED.equals(status) || STATUS_FAILED.equals(status) || STATUS_CANCELLED.equals(status);
+    }
+
+    /**
+     * Keeps the best progress reported so far: most lessons placed, then lowest score. Portfolio
+     * searches report concurrently, so the latest report is not necessarily the best one. Answers
+     * whether the job should publish now, i.e. on improvement or once the interval has passed.
+     */
+    public synchronized boolean offer(final ModelTimetableSolverProgress candidate) {
+        final boolean improved = progress == null || candidate.getPlacedCount() > progress.getPlacedCount()
+                || candidate.getPlacedCount() == progress.getPlacedCount() && candidate.getScore() < progress.getScore();
+        if(improved) {
+            progress = candidate;
+        }
+        final long now = System.currentTimeMillis();
+        if(improved || now - publishedAtMillis >= PUBLISH_INTERVAL_MILLIS) {
+            publishedAtMillis = now;
+            return true;
+        }
+        return false;
+    }
+
+}
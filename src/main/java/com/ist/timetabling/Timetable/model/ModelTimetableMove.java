@@ -0,0 +1,19 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** An entry's cell before and after one step of a move chain, as kept in the operation log. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelTimetableMove {
+    private String entryUuid;
+    private Integer fromDayOfWeek;
+    private Integer fromPeriod;
+    private Integer toDayOfWeek;
+    private Integer toPeriod;
+}
@@ -0,0 +1,170 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ModelTimetableOccupancy {
+
+    public enum Resource { TEACHER, CLASS, ROOM, CLASS_BAND }
+
+    private static final long[] NONE = new long[0];
+
+    private final int days;
+    private final int periodsPerDay;
+    private final int words;
+    private final Map<Resource, Map<Integer, long[]>> busy = new EnumMap<>(Resource.class);
+    private final Map<Long, Integer> overbooked = new HashMap<>();
+
+    public ModelTimetableOccupancy(final int days, final int periodsPerDay) {
+        this.days = days;
+        this.periodsPerDay = periodsPerDay;
+        this.words = ModelTimetableSolverInput.wordsFor(days * periodsPerDay);
+        for(final Resource resource : Resource.values()) {
+            busy.put(resource, new HashMap<>());
+        }
+    }
+
+    public static ModelTimetableOccupancy of(final int days, final int periodsPerDay, final List<EntityTimetableEntry> entries) {
+        int maxDay = days;
+        int maxPeriod = periodsPerDay;
+        for(final EntityTimetableEntry entry : entries) {
+            maxDay = Math.max(maxDay, entry.getDayOfWeek() != null ? entry.getDayOfWeek() : 0);
+            maxPeriod = Math.max(maxPeriod, entry.getPeriod() != null ? entry.getPeriod() : 0);
+        }
+        final ModelTimetableOccupancy occupancy = new ModelTimetableOccupancy(maxDay, maxPeriod);
+        for(final EntityTimetableEntry entry : entries) {
+            occupancy.occupy(entry);
+        }
+        return occupancy;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getPeriodsPerDay() {
+        return periodsPerDay;
+    }
+
+    public int getSlotCount() {
+        return days * periodsPerDay;
+    }
+
+    public int slotOf(final Integer dayOfWeek, final Integer period) {
+        if(dayOfWeek == null || period == null || dayOfWeek < 1 || dayOfWeek > days || period < 1 || period > periodsPerDay) {
+            return ModelTimetableSolverInput.NONE;
+        }
+        return (dayOfWeek - 1) * periodsPerDay + (period - 1);
+    }
+
+    public boolean isFree(final Resource resource, final Integer id, final int slot) {
+        if(id == null || slot < 0) {
+            return true;
+        }
+        final long[] mask = busy.get(resource).get(id);
+        return mask == null || (mask[slot >>> 6] & (1L << slot)) == 0;
+    }
+
+    public boolean isFree(final Integer teacherId, final Integer classId, final Integer roomId, final Integer classBandId, final int slot) {
+        return isFree(Resource.TEACHER, positive(teacherId), slot)
+                && isFree(Resource.CLASS, positive(classId), slot)
+                && isFree(Resource.ROOM, positive(roomId), slot)
+                && isFree(Resource.CLASS_BAND, positive(classBandId), slot);
+    }
+
+    public long[] busyWords(final Resource resource, final Integer id) {
+        final long[] mask = id != null ? busy.get(resource).get(id) : null;
+        return mask != null ? mask : NONE;
+    }
+
+    public long[] freeSlots(final Integer teacherId, final Integer classId, final Integer roomId, final Integer classBandId) {
+        final long[] free = new long[words];
+        final long[] teacher = busyWords(Resource.TEACHER, positive(teacherId));
+        final long[] group = busyWords(Resource.CLASS, positive(classId));
+        final long[] room = busyWords(Resource.ROOM, positive(roomId));
+        final long[] band = busyWords(Resource.CLASS_BAND, positive(classBandId));
+        for(int w = 0; w < words; w++) {
+            free[w] = ~(word(teacher, w) | word(group, w) | word(room, w) | word(band, w));
+        }
+        final int tail = getSlotCount() & 63;
+        if(tail != 0) {
+            free[words - 1] &= (1L << tail) - 1;
+        }
+        return free;
+    }
+
+    public void occupy(final Resource resource, final Integer id, final int slot) {
+        if(id == null || slot < 0) {
+            return;
+        }
+        final long[] mask = busy.get(resource).computeIfAbsent(id, key -> new long[words]);
+        final long bit = 1L << slot;
+        if((mask[slot >>> 6] & bit) != 0) {
+            overbooked.merge(key(resource, id, slot), 1, Integer::sum);
+            return;
+        }
+        mask[slot >>> 6] |= bit;
+    }
+
+    public void release(final Resource resource, final Integer id, final int slot) {
+        if(id == null || slot < 0) {
+            return;
+        }
+        final long[] mask = busy.get(resource).get(id);
+        if(mask == null) {
+            return;
+        }
+        // Overbooking is rare; skipping the lookup keeps the solver's release path free of boxing.
+        if(!overbooked.isEmpty()) {
+            final long key = key(resource, id, slot);
+            final Integer extra = overbooked.get(key);
+            if(extra != null) {
+                if(extra > 1) {
+                    overbooked.put(key, extra - 1);
+                }else {
+                    overbooked.remove(key);
+                }
+                return;
+            }
+        }
+        mask[slot >>> 6] &= ~(1L << slot);
+    }
+
+    public void occupy(final EntityTimetableEntry entry) {
+        final int slot = slotOf(entry.getDayOfWeek(), entry.getPeriod());
+        occupy(Resource.TEACHER, positive(entry.getTeacherId()), slot);
+        occupy(Resource.CLASS, positive(entry.getClassId()), slot);
+        occupy(Resource.ROOM, positive(entry.getRoomId()), slot);
+        occupy(Resource.CLASS_BAND, positive(entry.getClassBandId()), slot);
+    }
+
+    public void release(final EntityTimetableEntry entry) {
+        final int slot = slotOf(entry.getDayOfWeek(), entry.getPeriod());
+        release(Resource.TEACHER, positive(entry.getTeacherId()), slot);
+        release(Resource.CLASS, positive(entry.getClassId()), slot);
+        release(Resource.ROOM, positive(entry.getRoomId()), slot);
+        release(Resource.CLASS_BAND, positive(entry.getClassBandId()), slot);
+    }
+
+    public boolean isOverbooked(final Resource resource, final Integer id, final int slot) {
+        return id != null && !overbooked.isEmpty() && overbooked.containsKey(key(resource, id, slot));
+    }
+
+    private static long word(final long[] mask, final int index) {
+        return index < mask.length ? mask[index] : 0L;
+    }
+
+    private static Integer positive(final Integer id) {
+        return id != null && id > 0 ? id : null;
+    }
+
+    /** Packs id, slot and resource into one long; slots stay far below 2^30, so the parts never overlap. */
+    private static long key(final Resource resource, final Integer id, final int slot) {
+        return ((long) id << 32) | ((long) slot << 2) | resource.ordinal();
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ModelTimetableRepairResult {
+
+    private final int[] lessonEntry;
+    private final int[] lessonBinding;
+    private final int[] lessonSlot;
+    private final int[] removedEntries;
+    private final int unplacedCount;
+    private final int movedCount;
+    private final boolean widened;
+    private final long elapsedMillis;
+
+}
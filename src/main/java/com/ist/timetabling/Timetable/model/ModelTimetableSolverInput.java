@@ -0,0 +1,98 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ModelTimetableSolverInput {
+
+    public static final int NONE = -1;
+
+    private static final ModelRuleCompiled[] NO_RULES = new ModelRuleCompiled[0];
+
+    public enum Strategy { MOST_CONSTRAINED_FIRST, BUSIEST_TEACHER_FIRST, RANDOM_ORDER, LOCAL_SEARCH }
+
+    private final int days;
+    private final int periodsPerDay;
+
+    private final int teacherCount;
+    private final int roomCount;
+    private final int groupCount;
+
+    private final int[] bindingTeacher;
+    private final int[] bindingRoom;
+    private final int[][] bindingGroups;
+    private final long[][] bindingForbidden;
+    private final int[][] bindingPenalty;
+    private final ModelRuleCompiled[][] teacherRules;
+    private final ModelRuleCompiled[][] groupRules;
+    private final long[][] teacherRequired;
+    private final long[][] groupRequired;
+
+    private final int[] lessonBinding;
+    private final int[] lessonFixedSlot;
+    private final int[] lessonHintSlot;
+
+    private final long seed;
+    private final long maxIterations;
+    private final long timeLimitMillis;
+
+    public int getSlotCount() {
+        return days * periodsPerDay;
+    }
+
+    public int getBindingCount() {
+        return bindingTeacher.length;
+    }
+
+    public int getLessonCount() {
+        return lessonBinding.length;
+    }
+
+    public int slotOf(final int dayOfWeek, final int period) {
+        return (dayOfWeek - 1) * periodsPerDay + (period - 1);
+    }
+
+    public int dayOf(final int slot) {
+        return slot / periodsPerDay + 1;
+    }
+
+    public int periodOf(final int slot) {
+        return slot % periodsPerDay + 1;
+    }
+
+    public int hintOf(final int lesson) {
+        return lessonHintSlot != null ? lessonHintSlot[lesson] : NONE;
+    }
+
+    public ModelRuleCompiled[] teacherRulesOf(final int teacher) {
+        return teacherRules != null && teacher >= 0 && teacher < teacherRules.length ? teacherRules[teacher] : NO_RULES;
+    }
+
+    public ModelRuleCompiled[] groupRulesOf(final int group) {
+        return groupRules != null && group >= 0 && group < groupRules.length ? groupRules[group] : NO_RULES;
+    }
+
+    public boolean isTeacherRequired(final int teacher, final int slot) {
+        return isSet(teacherRequired, teacher, slot);
+    }
+
+    public boolean isGroupRequired(final int group, final int slot) {
+        return isSet(groupRequired, group, slot);
+    }
+
+    public boolean isForbidden(final int binding, final int slot) {
+        return (bindingForbidden[binding][slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public static int wordsFor(final int slotCount) {
+        return (slotCount + 63) >>> 6;
+    }
+
+    private static boolean isSet(final long[][] masks, final int index, final int slot) {
+        return masks != null && index >= 0 && index < masks.length && (masks[index][slot >>> 6] & (1L << slot)) != 0;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ModelTimetableSolverProgress {
+
+    private final int lessonCount;
+    private final int placedCount;
+    private final long score;
+    private final long iterations;
+    private final long elapsedMillis;
+    private final ModelTimetableSolverInput.Strategy strategy;
+
+    public int getUnplacedCount() {
+        return lessonCount - placedCount;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.ist.timetabling.Timetable.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ModelTimetableSolverResult {
+
+    private final int[] lessonSlot;
+    private final int unplacedCount;
+    private final long score;
+    private final long iterations;
+    private final long elapsedMillis;
+    private final ModelTimetableSolverInput.Strategy strategy;
+    private final long seed;
+
+    public boolean isComplete() {
+        return unplacedCount == 0;
+    }
+
+}
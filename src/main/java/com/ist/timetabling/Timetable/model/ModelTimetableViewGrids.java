@@ -0,0 +1,240 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Per-view slices of one timetable, kept as dense {@code [day][period]} grids of entry ids per
+ * teacher, class, room, class band and subject. Entries are stored once; a cell only holds the ids
+ * of the entries placed there, so reading a view is a walk over its slots.
+ */
+public class ModelTimetableViewGrids {
+
+    public enum View {
+        TEACHER(DtoResTimetableEntry::getTeacherId),
+        CLASS(DtoResTimetableEntry::getClassId),
+        ROOM(DtoResTimetableEntry::getRoomId),
+        CLASS_BAND(DtoResTimetableEntry::getClassBandId),
+        SUBJECT(DtoResTimetableEntry::getSubjectId);
+
+        private final Function<DtoResTimetableEntry, Integer> key;
+
+        View(final Function<DtoResTimetableEntry, Integer> key) {
+            this.key = key;
+        }
+
+        public Integer keyOf(final DtoResTimetableEntry entry) {
+            final Integer id = key.apply(entry);
+            return id != null && id > 0 ? id : null;
+        }
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Integer timetableId;
+    private final long loadedAt;
+    private final int days;
+    private final int periodsPerDay;
+    private final Map<Integer, DtoResTimetableEntry> entries = new HashMap<>();
+    private final Map<View, Map<Integer, int[][][]>> grids = new EnumMap<>(View.class);
+
+    public ModelTimetableViewGrids(final Integer timetableId, final int days, final int periodsPerDay) {
+        this.timetableId = timetableId;
+        this.loadedAt = System.currentTimeMillis();
+        this.days = days;
+        this.periodsPerDay = periodsPerDay;
+        for(final View view : View.values()) {
+            grids.put(view, new HashMap<>());
+        }
+    }
+
+    public static ModelTimetableViewGrids of(final Integer timetableId, final int days, final int periodsPerDay, final List<DtoResTimetableEntry> entries) {
+        int maxDay = days;
+        int maxPeriod = periodsPerDay;
+        for(final DtoResTimetableEntry entry : entries) {
+            maxDay = Math.max(maxDay, entry.getDayOfWeek() != null ? entry.getDayOfWeek() : 0);
+            maxPeriod = Math.max(maxPeriod, entry.getPeriod() != null ? entry.getPeriod() : 0);
+        }
+        final ModelTimetableViewGrids viewGrids = new ModelTimetableViewGrids(timetableId, maxDay, maxPeriod);
+        for(final DtoResTimetableEntry entry : entries) {
+            viewGrids.put(entry);
+        }
+        return viewGrids;
+    }
+
+    public Integer getTimetableId() {
+        return timetableId;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public int getPeriodsPerDay() {
+        return periodsPerDay;
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Places the entry in every view it belongs to, replacing its previous placement. Answers false
+     * when the entry lies outside the grid, in which case the grids must be rebuilt.
+     */
+    public boolean put(final DtoResTimetableEntry entry) {
+        remove(entry.getId());
+        if(entry.getId() == null || Boolean.TRUE.equals(entry.getIsDeleted())) {
+            return true;
+        }
+        if(!contains(entry.getDayOfWeek(), entry.getPeriod())) {
+            return false;
+        }
+        entries.put(entry.getId(), entry);
+        for(final View view : View.values()) {
+            final Integer key = view.keyOf(entry);
+            if(key != null) {
+                final int[][][] grid = grids.get(view).computeIfAbsent(key, id -> new int[days][periodsPerDay][]);
+                final int[] cell = cellOf(grid, entry);
+                final int[] grown = cell != null ? Arrays.copyOf(cell, cell.length + 1) : new int[1];
+                grown[grown.length - 1] = entry.getId();
+                grid[entry.getDayOfWeek() - 1][entry.getPeriod() - 1] = grown;
+            }
+        }
+        return true;
+    }
+
+    public void remove(final Integer entryId) {
+        final DtoResTimetableEntry previous = entryId != null ? entries.remove(entryId) : null;
+        if(previous == null) {
+            return;
+        }
+        for(final View view : View.values()) {
+            final Integer key = view.keyOf(previous);
+            final int[][][] grid = key != null ? grids.get(view).get(key) : null;
+            final int[] cell = grid != null ? cellOf(grid, previous) : null;
+            if(cell == null) {
+                continue;
+            }
+            final int[] kept = Arrays.stream(cell).filter(id -> id != entryId).toArray();
+            grid[previous.getDayOfWeek() - 1][previous.getPeriod() - 1] = kept.length > 0 ? kept : null;
+        }
+    }
+
+    public int[] entryIdsAt(final View view, final Integer id, final int dayOfWeek, final int period) {
+        final int[][][] grid = id != null ? grids.get(view).get(id) : null;
+        if(grid == null || !contains(dayOfWeek, period)) {
+            return EMPTY;
+        }
+        final int[] cell = grid[dayOfWeek - 1][period - 1];
+        return cell != null ? cell : EMPTY;
+    }
+
+    public List<List<List<DtoResTimetableEntry>>> cells(final View view, final Integer id) {
+        final int[][][] grid = id != null ? grids.get(view).get(id) : null;
+        final List<List<List<DtoResTimetableEntry>>> cells = new ArrayList<>(days);
+        for(int day = 0; day < days; day++) {
+            final List<List<DtoResTimetableEntry>> row = new ArrayList<>(periodsPerDay);
+            for(int period = 0; period < periodsPerDay; period++) {
+                final int[] cell = grid != null ? grid[day][period] : null;
+                final List<DtoResTimetableEntry> placed = new ArrayList<>(cell != null ? cell.length : 0);
+                if(cell != null) {
+                    for(final int entryId : cell) {
+                        placed.add(entries.get(entryId));
+                    }
+                }
+                row.add(placed);
+            }
+            cells.add(row);
+        }
+        return cells;
+    }
+
+    public List<DtoResTimetableEntry> entries(final View view, final Integer id) {
+        final Set<Integer> ids = new LinkedHashSet<>();
+        collect(view, id, ids);
+        return resolve(ids);
+    }
+
+    /**
+     * Entries matching every non-empty filter, where a filter matches when the entry belongs to
+     * any of its ids. With no filters at all every entry is returned, in slot order.
+     */
+    public List<DtoResTimetableEntry> filter(final Map<View, ? extends Collection<Integer>> filters) {
+        Set<Integer> matched = null;
+        for(final Map.Entry<View, ? extends Collection<Integer>> filter : filters.entrySet()) {
+            if(filter.getValue() == null || filter.getValue().isEmpty()) {
+                continue;
+            }
+            final Set<Integer> ids = new LinkedHashSet<>();
+            for(final Integer id : filter.getValue()) {
+                collect(filter.getKey(), id, ids);
+            }
+            if(matched == null) {
+                matched = ids;
+            }else {
+                matched.retainAll(ids);
+            }
+        }
+        return matched != null ? sorted(matched) : all();
+    }
+
+    public List<DtoResTimetableEntry> all() {
+        return sorted(entries.keySet());
+    }
+
+    private void collect(final View view, final Integer id, final Set<Integer> ids) {
+        final int[][][] grid = id != null ? grids.get(view).get(id) : null;
+        if(grid == null) {
+            return;
+        }
+        for(final int[][] day : grid) {
+            for(final int[] cell : day) {
+                if(cell != null) {
+                    for(final int entryId : cell) {
+                        ids.add(entryId);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<DtoResTimetableEntry> sorted(final Collection<Integer> ids) {
+        final List<DtoResTimetableEntry> resolved = resolve(ids);
+        resolved.sort((a, b) -> a.getDayOfWeek().equals(b.getDayOfWeek())
+                ? a.getPeriod().equals(b.getPeriod()) ? Integer.compare(a.getId(), b.getId()) : Integer.compare(a.getPeriod(), b.getPeriod())
+                : Integer.compare(a.getDayOfWeek(), b.getDayOfWeek()));
+        return resolved;
+    }
+
+    private List<DtoResTimetableEntry> resolve(final Collection<Integer> ids) {
+        final List<DtoResTimetableEntry> resolved = new ArrayList<>(ids.size());
+        for(final Integer id : ids) {
+            resolved.add(entries.get(id));
+        }
+        return resolved;
+    }
+
+    private boolean contains(final Integer dayOfWeek, final Integer period) {
+        return dayOfWeek != null && period != null && dayOfWeek >= 1 && dayOfWeek <= days && period >= 1 && period <= periodsPerDay;
+    }
+
+    private static int[] cellOf(final int[][][] grid, final DtoResTimetableEntry entry) {
+        return grid[entry.getDayOfWeek() - 1][entry.getPeriod() - 1];
+    }
+
+}
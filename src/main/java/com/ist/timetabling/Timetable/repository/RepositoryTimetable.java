@@ -3,10 +3,12 @@ package com.ist.timetabling.Timetable.repository;
 import com.ist.timetabling.Timetable.entity.EntityTimetable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +30,8 @@ public interface RepositoryTimetable extends JpaRepository<EntityTimetable, Inte
 
     Optional<EntityTimetable> findByUuidAndIsDeletedFalse(final String uuid);
 
+    Optional<EntityTimetable> findFirstByOrganizationIdAndPlansettingIdAndIsDeletedFalseOrderByCreatedDateDescIdDesc(final Integer organizationId, final Integer plansettingId);
+
     @Query("SELECT t FROM EntityTimetable t WHERE t.organizationId = :organizationId AND t.isDeleted = false ORDER BY t.createdDate DESC")
     List<EntityTimetable> findLatestByOrganizationId(@Param("organizationId") Integer organizationId, Pageable pageable);
 
@@ -35,4 +39,30 @@ public interface RepositoryTimetable extends JpaRepository<EntityTimetable, Inte
 
     long countByGeneratedDateAfterAndOrganizationId(LocalDateTime date, Integer organizationId);
 
+    @Modifying
+    @Query("UPDATE EntityTimetable t SET t.contentVersion = t.contentVersion + 1 WHERE t.id IN :ids")
+    int incrementContentVersion(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE EntityTimetable t SET t.contentVersion = t.contentVersion + 1 WHERE t.organizationId IN :organizationIds")
+    int incrementContentVersionByOrganizationIdIn(@Param("organizationIds") Collection<Integer> organizationIds);
+
+    @Query("SELECT t.id, t.contentVersion FROM EntityTimetable t WHERE t.id IN :ids")
+    List<Object[]> findContentVersions(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT t.id, t.contentVersion FROM EntityTimetable t WHERE t.organizationId IN :organizationIds")
+    List<Object[]> findContentVersionsByOrganizationIdIn(@Param("organizationIds") Collection<Integer> organizationIds);
+
+    @Modifying
+    @Query("UPDATE EntityTimetable t SET t.headVersionId = :versionId, t.headContentVersion = :contentVersion WHERE t.id = :id")
+    int updateHeadVersion(@Param("id") Integer id, @Param("versionId") Integer versionId, @Param("contentVersion") Long contentVersion);
+
+    @Query("SELECT t.operationHeadId FROM EntityTimetable t WHERE t.id = :id")
+    Long findOperationHeadId(@Param("id") Integer id);
+
+    @Modifying
+    @Query("UPDATE EntityTimetable t SET t.operationHeadId = :operationId WHERE t.id = :id"
+            + " AND (t.operationHeadId = :expectedId OR (t.operationHeadId IS NULL AND :expectedId IS NULL))")
+    int updateOperationHead(@Param("id") Integer id, @Param("expectedId") Long expectedId, @Param("operationId") Long operationId);
+
 }
\ No newline at end of file
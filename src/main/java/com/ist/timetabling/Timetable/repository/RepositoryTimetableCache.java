@@ -0,0 +1,33 @@
+package com.ist.timetabling.Timetable.repository;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+
+@Repository
+public interface RepositoryTimetableCache extends JpaRepository<EntityTimetableCache, Integer> {
+
+    @Query("SELECT c FROM EntityTimetableCache c WHERE c.cacheKey IN :cacheKeys AND c.isValid = true AND c.expiresAt > :now")
+    List<EntityTimetableCache> findValidByCacheKeyIn(@Param("cacheKeys") Collection<String> cacheKeys, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM EntityTimetableCache c WHERE c.timetableId IN :timetableIds")
+    int deleteByTimetableIdIn(@Param("timetableIds") Collection<Integer> timetableIds);
+
+    @Modifying
+    @Query("DELETE FROM EntityTimetableCache c WHERE c.timetableId IN (SELECT t.id FROM EntityTimetable t WHERE t.organizationId IN :organizationIds)")
+    int deleteByOrganizationIdIn(@Param("organizationIds") Collection<Integer> organizationIds);
+
+    @Modifying
+    @Query("DELETE FROM EntityTimetableCache c WHERE c.expiresAt <= :now OR c.isValid = false")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,26 @@
+package com.ist.timetabling.Timetable.repository;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+@Repository
+public interface RepositoryTimetableChange extends JpaRepository<EntityTimetableChange, Long> {
+
+    List<EntityTimetableChange> findByTimetableIdAndVersionGreaterThanOrderByVersionAscIdAsc(final Integer timetableId, final Long version);
+
+    @Query("SELECT MIN(c.version) FROM EntityTimetableChange c WHERE c.timetableId = :timetableId")
+    Long findOldestVersion(@Param("timetableId") Integer timetableId);
+
+    @Modifying
+    @Query("DELETE FROM EntityTimetableChange c WHERE c.changedAt < :before")
+    int deleteByChangedAtBefore(@Param("before") LocalDateTime before);
+
+}
@@ -1,21 +1,56 @@
 package com.ist.timetabling.Timetable.repository;
 
 import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableEntryRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 
 @Repository
 public interface RepositoryTimetableEntry extends JpaRepository<EntityTimetableEntry, Integer> {
 
+    String SELECT_ENTRY_ROWS = "SELECT new com.ist.timetabling.Timetable.model.ModelTimetableEntryRow(e, " +
+            "s.uuid, s.name, s.color, s.initials, t.uuid, t.initials, u.firstName, u.lastName, " +
+            "r.uuid, r.name, r.code, c.uuid, c.name, c.initial, cb.uuid, cb.name) " +
+            "FROM EntityTimetableEntry e " +
+            "LEFT JOIN EntitySubject s ON s.id = e.subjectId " +
+            "LEFT JOIN EntityTeacherProfile t ON t.id = e.teacherId " +
+            "LEFT JOIN EntityUser u ON u.id = t.userId " +
+            "LEFT JOIN EntityRoom r ON r.id = e.roomId " +
+            "LEFT JOIN EntityClass c ON c.id = e.classId " +
+            "LEFT JOIN EntityClassBand cb ON cb.id = e.classBandId ";
+
+    @Query(SELECT_ENTRY_ROWS + "WHERE e.timetableId IN :timetableIds AND e.isDeleted = false ORDER BY e.id")
+    List<ModelTimetableEntryRow> findRowsByTimetableIdIn(@Param("timetableIds") Collection<Integer> timetableIds);
+
+    // Integer.MIN_VALUE makes Connector/J stream rows one at a time instead of buffering the result.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(SELECT_ENTRY_ROWS + "WHERE e.timetableId IN (SELECT tt.id FROM EntityTimetable tt WHERE tt.organizationId = :organizationId AND tt.isDeleted = false) " +
+            "AND e.isDeleted = false ORDER BY e.timetableId, e.id")
+    Stream<ModelTimetableEntryRow> streamRowsByOrganizationId(@Param("organizationId") Integer organizationId);
+
+    @Query(SELECT_ENTRY_ROWS + "WHERE e.id IN :ids")
+    List<ModelTimetableEntryRow> findRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
     @Query("SELECT COUNT(e) FROM EntityTimetableEntry e WHERE e.timetableId = :timetableId")
     long countByTimetableId(@Param("timetableId") Integer timetableId);
 
@@ -23,6 +58,8 @@ public interface RepositoryTimetableEntry extends JpaRepository<EntityTimetableE
 
     Optional<EntityTimetableEntry> findByUuidAndIsDeletedFalse(String uuid);
 
+    Optional<EntityTimetableEntry> findByUuid(String uuid);
+
     List<EntityTimetableEntry> findByTimetableIdAndIsDeletedFalse(Integer timetableId);
 
     List<EntityTimetableEntry> findByTimetableIdAndDayOfWeek(Integer timetableId, Integer dayOfWeek);
@@ -68,6 +105,8 @@ public interface RepositoryTimetableEntry extends JpaRepository<EntityTimetableE
 
     Page<EntityTimetableEntry> findByTimetableIdAndIsDeletedFalse(Integer timetableId, Pageable pageable);
 
+    Window<EntityTimetableEntry> findByTimetableIdAndIsDeletedFalse(Integer timetableId, ScrollPosition position, Sort sort, Limit limit);
+
     List<EntityTimetableEntry> findByUuidInAndIsDeletedFalse(List<String> uuids);
 
     List<EntityTimetableEntry> findByTimetableIdAndDayOfWeekAndPeriodAndIsDeletedTrue(
@@ -0,0 +1,17 @@
+package com.ist.timetabling.Timetable.repository;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableOperation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+
+@Repository
+public interface RepositoryTimetableOperation extends JpaRepository<EntityTimetableOperation, Long> {
+
+    Optional<EntityTimetableOperation> findFirstByTimetableIdAndPreviousIdOrderByIdDesc(final Integer timetableId, final Long previousId);
+
+    boolean existsByTimetableIdAndPreviousId(final Integer timetableId, final Long previousId);
+
+}
@@ -0,0 +1,15 @@
+package com.ist.timetabling.Timetable.repository;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+public interface RepositoryTimetableVersion extends JpaRepository<EntityTimetableVersion, Integer> {
+
+    List<EntityTimetableVersion> findByTimetableIdOrderByIdAsc(final Integer timetableId);
+
+}
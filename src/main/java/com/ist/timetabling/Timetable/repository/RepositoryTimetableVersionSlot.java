@@ -0,0 +1,18 @@
+package com.ist.timetabling.Timetable.repository;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableVersionSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+
+@Repository
+public interface RepositoryTimetableVersionSlot extends JpaRepository<EntityTimetableVersionSlot, Long> {
+
+    List<EntityTimetableVersionSlot> findByVersionIdIn(final Collection<Integer> versionIds);
+
+    List<EntityTimetableVersionSlot> findByVersionIdInAndEntryUuidIn(final Collection<Integer> versionIds, final Collection<String> entryUuids);
+
+}
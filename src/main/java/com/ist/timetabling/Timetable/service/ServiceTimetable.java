@@ -6,7 +6,11 @@ import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntry;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetable;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetableStats;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableView;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids.View;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 
@@ -18,6 +22,8 @@ public interface ServiceTimetable {
 
     List<DtoResTimetableEntry> getAllTimetablesEntriesFlat(final Integer organizationId);
 
+    void writeAllTimetablesEntries(final Integer organizationId, final OutputStream outputStream) throws IOException;
+
     DtoResTimetable getTimetableByUuid(final String uuid);
 
     List<DtoResTimetableEntry> getTimetableEntriesByUuid(final String uuid);
@@ -34,6 +40,12 @@ public interface ServiceTimetable {
 
     DtoResTimetable getLatestTimetable(final Integer organizationId);
 
+    String getTimetableETag(final String uuid);
+
+    String getLatestTimetableETag(final Integer organizationId);
+
+    DtoResTimetableView getTimetableView(final String uuid, final View view, final Integer resourceId);
+
 
     List<DtoResTimetableEntry> filterTimetableEntries(final String uuid, final List<Integer> subjectIds, final List<Integer> roomIds, final List<Integer> teacherIds,List<Integer> classIds);
 
@@ -0,0 +1,21 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+
+import java.util.List;
+import java.util.Map;
+
+
+public interface ServiceTimetableCache {
+
+    List<DtoResTimetableEntry> getEntries(final EntityTimetable timetable);
+
+    Map<Integer, List<DtoResTimetableEntry>> getEntriesByTimetable(final List<EntityTimetable> timetables);
+
+    void onContentChanged(final ModelTimetableContentChanged changed);
+
+    void purgeExpired();
+
+}
@@ -0,0 +1,18 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableChanges;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentCommitting;
+
+
+public interface ServiceTimetableChange {
+
+    DtoResTimetableChanges getChanges(final String uuid, final Long sinceVersion);
+
+    void onContentCommitting(final ModelTimetableContentCommitting committing);
+
+    void onContentChanged(final ModelTimetableContentChanged changed);
+
+    void purgeExpired();
+
+}
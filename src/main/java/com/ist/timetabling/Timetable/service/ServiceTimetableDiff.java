@@ -0,0 +1,11 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableDiff;
+
+
+public interface ServiceTimetableDiff {
+
+    ApiResponse<DtoResTimetableDiff> diff(final String baseUuid, final String baseVersionUuid, final String targetUuid, final String targetVersionUuid);
+
+}
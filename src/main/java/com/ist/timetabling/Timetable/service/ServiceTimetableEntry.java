@@ -15,6 +15,8 @@ public interface ServiceTimetableEntry {
 
     ApiResponse<List<DtoResTimetableEntry>> getAllTimetableEntries(final Integer timetableId, final int page, final int size, final String sortBy, final String direction);
 
+    ApiResponse<List<DtoResTimetableEntry>> getTimetableEntriesAfter(final Integer timetableId, final String after, final int size, final String sortBy, final String direction);
+
     DtoResTimetableEntry getTimetableEntryByUuid(final String uuid);
 
     List<DtoResTimetableEntry> getTimetableEntriesByUuid(final String uuid);
@@ -0,0 +1,22 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+public interface ServiceTimetableEntryReadModel {
+
+    List<DtoResTimetableEntry> getEntries(final Integer timetableId);
+
+    Map<Integer, List<DtoResTimetableEntry>> getEntriesByTimetable(final Collection<Integer> timetableIds);
+
+    List<DtoResTimetableEntry> toDtos(final List<EntityTimetableEntry> entries);
+
+    long forEachEntryOfOrganization(final Integer organizationId, final Consumer<DtoResTimetableEntry> consumer);
+
+}
@@ -1,11 +1,19 @@
 package com.ist.timetabling.Timetable.service;
 
 import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetable;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverProgress;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 
 public interface ServiceTimetableGenerate {
 
-    ApiResponse<DtoResTimetable> generate();
+    ApiResponse<DtoResTimetable> generate(final DtoReqTimetableGenerate dtoReqTimetableGenerate);
+
+    ApiResponse<DtoResTimetable> generate(final DtoReqTimetableGenerate dtoReqTimetableGenerate, final I18n i18n, final BooleanSupplier cancelled, final Consumer<ModelTimetableSolverProgress> listener);
 
 }
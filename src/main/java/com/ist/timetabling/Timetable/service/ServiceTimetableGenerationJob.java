@@ -0,0 +1,19 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableGenerationJob;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+public interface ServiceTimetableGenerationJob {
+
+    ApiResponse<DtoResTimetableGenerationJob> submit(final DtoReqTimetableGenerate dtoReqTimetableGenerate);
+
+    ApiResponse<DtoResTimetableGenerationJob> getJob(final String jobId);
+
+    ApiResponse<DtoResTimetableGenerationJob> cancel(final String jobId);
+
+    SseEmitter streamEvents(final String jobId);
+
+}
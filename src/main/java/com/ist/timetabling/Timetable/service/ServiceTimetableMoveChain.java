@@ -0,0 +1,14 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntryMove;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableMoveChain;
+
+import java.util.List;
+
+
+public interface ServiceTimetableMoveChain {
+
+    ApiResponse<DtoResTimetableMoveChain> moveEntries(final String timetableUuid, final List<DtoReqTimetableEntryMove> moves);
+
+}
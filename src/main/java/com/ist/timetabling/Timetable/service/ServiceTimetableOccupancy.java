@@ -0,0 +1,29 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrixChanged;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+
+import java.util.List;
+
+
+public interface ServiceTimetableOccupancy {
+
+    ModelTimetableOccupancy getOccupancy(final Integer timetableId);
+
+    ModelTimetableConflictIndex getConflictIndex(final Integer timetableId);
+
+    boolean isFree(final Integer timetableId, final Integer teacherId, final Integer classId, final Integer roomId, final Integer classBandId, final Integer dayOfWeek, final Integer period);
+
+    void occupy(final EntityTimetableEntry entry);
+
+    void occupyAll(final List<EntityTimetableEntry> entries);
+
+    void release(final EntityTimetableEntry entry);
+
+    void evict(final Integer timetableId);
+
+    void onAvailabilityChanged(final ModelAvailabilityMatrixChanged changed);
+
+}
@@ -0,0 +1,27 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableOperation;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableMove;
+
+import java.util.List;
+
+
+public interface ServiceTimetableOperation {
+
+    void recordSwap(final EntityTimetableEntry moved, final EntityTimetableEntry displaced, final boolean removesDisplaced);
+
+    void recordLock(final EntityTimetableEntry entry, final Boolean wasLocked);
+
+    void recordRemove(final EntityTimetableEntry entry);
+
+    void recordRestore(final EntityTimetableEntry entry);
+
+    void recordMoves(final Integer timetableId, final List<ModelTimetableMove> moves);
+
+    ApiResponse<DtoResTimetableOperation> undo(final String timetableUuid);
+
+    ApiResponse<DtoResTimetableOperation> redo(final String timetableUuid);
+
+}
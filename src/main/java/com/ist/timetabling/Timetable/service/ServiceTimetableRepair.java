@@ -0,0 +1,16 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableRepair;
+import com.ist.timetabling.binding.entity.EntityBinding;
+
+import java.util.List;
+
+
+public interface ServiceTimetableRepair {
+
+    ApiResponse<DtoResTimetableRepair> repairBinding(final String timetableUuid, final String bindingUuid);
+
+    List<DtoResTimetableRepair> repairAfterBindingUpdate(final EntityBinding previous, final EntityBinding binding);
+
+}
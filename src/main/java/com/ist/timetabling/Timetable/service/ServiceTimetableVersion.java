@@ -0,0 +1,24 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableVersion;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableVersion;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+
+import java.util.List;
+
+
+public interface ServiceTimetableVersion {
+
+    ApiResponse<DtoResTimetableVersion> createVersion(final String timetableUuid, final DtoReqTimetableVersion dtoReqTimetableVersion);
+
+    ApiResponse<List<DtoResTimetableVersion>> getVersions(final String timetableUuid);
+
+    ApiResponse<List<DtoResTimetableEntry>> getVersionEntries(final String timetableUuid, final String versionUuid);
+
+    List<EntityTimetableEntry> getVersionEntities(final Integer timetableId, final String versionUuid);
+
+    ApiResponse<DtoResTimetableVersion> restoreVersion(final String timetableUuid, final String versionUuid);
+
+}
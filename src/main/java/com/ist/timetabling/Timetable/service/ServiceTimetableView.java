@@ -0,0 +1,29 @@
+package com.ist.timetabling.Timetable.service;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableView;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids.View;
+
+import java.util.List;
+
+
+public interface ServiceTimetableView {
+
+    List<DtoResTimetableEntry> getEntries(final Integer timetableId);
+
+    List<DtoResTimetableEntry> getEntries(final Integer timetableId, final View view, final Integer resourceId);
+
+    List<DtoResTimetableEntry> getEntriesByDay(final Integer timetableId, final Integer dayOfWeek);
+
+    List<DtoResTimetableEntry> filter(final Integer timetableId, final List<Integer> teacherIds, final List<Integer> roomIds, final List<Integer> subjectIds, final List<Integer> classIds);
+
+    DtoResTimetableView getView(final Integer timetableId, final View view, final Integer resourceId);
+
+    void refresh(final List<EntityTimetableEntry> entries);
+
+    void remove(final EntityTimetableEntry entry);
+
+    void evict(final Integer timetableId);
+
+}
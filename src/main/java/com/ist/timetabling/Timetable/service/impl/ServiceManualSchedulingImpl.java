@@ -1,34 +1,210 @@
 package com.ist.timetabling.Timetable.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
 import com.ist.timetabling.Timetable.dto.req.DtoReqManualScheduleEntry;
 import com.ist.timetabling.Timetable.dto.res.DtoResScheduleConflict;
 import com.ist.timetabling.Timetable.dto.res.DtoResScheduleValidation;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
 import com.ist.timetabling.Timetable.service.ServiceManualScheduling;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.binding.entity.EntityBinding;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
 
 @Service
 @Slf4j
 public class ServiceManualSchedulingImpl implements ServiceManualScheduling {
 
+    public static final String SEVERITY_HARD = "HARD";
+    public static final String SEVERITY_SOFT = "SOFT";
+    public static final String CONFLICT_RULE = "RULE";
+
     private final ObjectMapper objectMapper;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final RepositoryBinding repositoryBinding;
     private final HttpServletRequest httpServletRequest;
 
     @Autowired
-    public ServiceManualSchedulingImpl(ObjectMapper objectMapper, HttpServletRequest httpServletRequest) {
+    public ServiceManualSchedulingImpl(ObjectMapper objectMapper, ServiceTimetableOccupancy serviceTimetableOccupancy, RepositoryBinding repositoryBinding, HttpServletRequest httpServletRequest) {
         this.objectMapper = objectMapper;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.repositoryBinding = repositoryBinding;
         this.httpServletRequest = httpServletRequest;
     }
 
     @Override
     public DtoResScheduleValidation validateScheduleEntry(DtoReqManualScheduleEntry dtoReqManualScheduleEntry) {
-        // Create a dummy validation that always passes
-        // This will need to be replaced with actual validation logic
-        return new DtoResScheduleValidation();
+        final long start = System.nanoTime();
+        final I18n i18n = new I18n(httpServletRequest);
+        final List<DtoResScheduleConflict> conflicts = new ArrayList<>();
+        final List<String> validationErrors = new ArrayList<>();
+        final DtoResScheduleValidation validation = DtoResScheduleValidation.builder()
+                .bindingId(dtoReqManualScheduleEntry.getBindingId())
+                .dayOfWeek(dtoReqManualScheduleEntry.getDayOfWeek())
+                .periodId(dtoReqManualScheduleEntry.getPeriodId())
+                .timetableId(dtoReqManualScheduleEntry.getTimetableId())
+                .conflicts(conflicts)
+                .validationErrors(validationErrors)
+                .valid(false)
+                .build();
+
+        final ModelTimetableConflictIndex index = serviceTimetableOccupancy.getConflictIndex(dtoReqManualScheduleEntry.getTimetableId());
+        synchronized(index) {
+            EntityBinding binding = index.getBinding(dtoReqManualScheduleEntry.getBindingId());
+            if(binding == null && dtoReqManualScheduleEntry.getBindingId() != null) {
+                // Bindings created after the index was built are looked up, but only within the timetable's organization and plan setting.
+                binding = repositoryBinding.findById(dtoReqManualScheduleEntry.getBindingId())
+                        .filter(found -> !Boolean.TRUE.equals(found.getIsDeleted()))
+                        .filter(found -> Objects.equals(found.getOrganizationId(), index.getOrganizationId()) && Objects.equals(found.getPlanSettingsId(), index.getPlanSettingId()))
+                        .orElse(null);
+                if(binding != null) {
+                    index.putBinding(binding);
+                }
+            }
+            if(binding == null) {
+                validationErrors.add(i18n.getTimetable(I18N_BINDING_NOT_FOUND));
+            }
+            if(index.periodNumberOf(dtoReqManualScheduleEntry.getPeriodId()) == null) {
+                validationErrors.add(i18n.getTimetable(I18N_PERIOD_NOT_FOUND));
+            }
+            final int slot = index.slotOf(dtoReqManualScheduleEntry.getDayOfWeek(), dtoReqManualScheduleEntry.getPeriodId());
+            if(validationErrors.isEmpty() && !index.isSchedulable(slot)) {
+                validationErrors.add(i18n.getTimetable(I18N_SCHEDULE_SLOT_NOT_SCHEDULABLE));
+            }
+            if(!validationErrors.isEmpty()) {
+                return validation;
+            }
+
+            collectConflicts(index, binding, slot, dtoReqManualScheduleEntry, i18n, conflicts);
+        }
+
+        validation.setValid(conflicts.stream().noneMatch(conflict -> SEVERITY_HARD.equals(conflict.getSeverity())));
+        log.debug("Validated binding {} at day {} period {} in {} us with {} conflicts", dtoReqManualScheduleEntry.getBindingId(), dtoReqManualScheduleEntry.getDayOfWeek(),
+                dtoReqManualScheduleEntry.getPeriodId(), (System.nanoTime() - start) / 1000, conflicts.size());
+        return validation;
+    }
+
+    private void collectConflicts(final ModelTimetableConflictIndex index, final EntityBinding binding, final int slot, final DtoReqManualScheduleEntry request, final I18n i18n, final List<DtoResScheduleConflict> conflicts) {
+        final Integer teacherId = positive(binding.getTeacherId());
+        final Integer roomId = positive(binding.getRoomId());
+        final Integer classBandId = positive(binding.getClassBandId());
+        final Set<Integer> classIds = index.classesOf(binding.getClassId(), binding.getClassBandId());
+
+        for(final EntityTimetableEntry entry : index.entriesAt(slot)) {
+            if(teacherId != null && teacherId.equals(entry.getTeacherId())) {
+                conflicts.add(conflict(index, Resource.TEACHER, teacherId, entry, request, i18n.getTimetable(I18N_TEACHER_SCHEDULE_CONFLICT), SEVERITY_HARD));
+            }
+            if(roomId != null && roomId.equals(entry.getRoomId())) {
+                conflicts.add(conflict(index, Resource.ROOM, roomId, entry, request, i18n.getTimetable(I18N_ROOM_SCHEDULE_CONFLICT), SEVERITY_HARD));
+            }
+            if(classBandId != null && classBandId.equals(entry.getClassBandId())) {
+                conflicts.add(conflict(index, Resource.CLASS_BAND, classBandId, entry, request, i18n.getTimetable(I18N_CLASS_BAND_SCHEDULE_CONFLICT), SEVERITY_HARD));
+                continue;
+            }
+            final Set<Integer> entryClassIds = index.classesOf(entry.getClassId(), entry.getClassBandId());
+            for(final Integer classId : classIds) {
+                if(entryClassIds.contains(classId)) {
+                    conflicts.add(conflict(index, Resource.CLASS, classId, entry, request, i18n.getTimetable(I18N_CLASS_SCHEDULE_CONFLICT), SEVERITY_HARD));
+                    break;
+                }
+            }
+        }
+
+        if(index.isUnavailable(Resource.TEACHER, teacherId, slot)) {
+            conflicts.add(conflict(index, Resource.TEACHER, teacherId, null, request, i18n.getTimetable(I18N_TEACHER_UNAVAILABLE), SEVERITY_HARD));
+        }else if(index.isDisliked(Resource.TEACHER, teacherId, slot)) {
+            conflicts.add(conflict(index, Resource.TEACHER, teacherId, null, request, i18n.getTimetable(I18N_TEACHER_PREFERENCE_CONFLICT), SEVERITY_SOFT));
+        }
+        if(index.isUnavailable(Resource.ROOM, roomId, slot)) {
+            conflicts.add(conflict(index, Resource.ROOM, roomId, null, request, i18n.getTimetable(I18N_ROOM_UNAVAILABLE), SEVERITY_HARD));
+        }
+        if(index.isUnavailable(Resource.CLASS_BAND, classBandId, slot)) {
+            conflicts.add(conflict(index, Resource.CLASS_BAND, classBandId, null, request, i18n.getTimetable(I18N_CLASS_UNAVAILABLE), SEVERITY_HARD));
+        }else if(index.isDisliked(Resource.CLASS_BAND, classBandId, slot)) {
+            conflicts.add(conflict(index, Resource.CLASS_BAND, classBandId, null, request, i18n.getTimetable(I18N_CLASS_PREFERENCE_CONFLICT), SEVERITY_SOFT));
+        }
+        for(final Integer classId : classIds) {
+            if(index.isUnavailable(Resource.CLASS, classId, slot)) {
+                conflicts.add(conflict(index, Resource.CLASS, classId, null, request, i18n.getTimetable(I18N_CLASS_UNAVAILABLE), SEVERITY_HARD));
+            }else if(index.isDisliked(Resource.CLASS, classId, slot)) {
+                conflicts.add(conflict(index, Resource.CLASS, classId, null, request, i18n.getTimetable(I18N_CLASS_PREFERENCE_CONFLICT), SEVERITY_SOFT));
+            }
+        }
+
+        final String ruleDescription = i18n.getTimetable(I18N_RULE_VIOLATED);
+        for(final ModelRuleCompiled rule : index.getPlanRules()) {
+            checkRule(index, rule, binding, slot, request, ruleDescription, conflicts);
+        }
+        for(final ModelRuleCompiled rule : index.rulesOfBinding(binding.getId())) {
+            checkRule(index, rule, binding, slot, request, ruleDescription, conflicts);
+        }
     }
-}
\ No newline at end of file
+
+    private void checkRule(final ModelTimetableConflictIndex index, final ModelRuleCompiled rule, final EntityBinding binding, final int slot, final DtoReqManualScheduleEntry request,
+                           final String description, final List<DtoResScheduleConflict> conflicts) {
+        if(!rule.isLimit()) {
+            if(rule.appliesTo(binding.getSubjectId(), binding.getTeacherId(), binding.getClassId(), binding.getRoomId())
+                    && rule.violatesSlot(request.getDayOfWeek(), index.periodNumberOf(request.getPeriodId()))) {
+                conflicts.add(ruleConflict(rule, null, request, description));
+            }
+            return;
+        }
+        final boolean teacherScope = rule.getScope() == ModelRuleCompiled.Scope.TEACHER;
+        final Integer resourceId = positive(teacherScope ? binding.getTeacherId() : binding.getClassId());
+        if(resourceId == null || !rule.limits(resourceId)) {
+            return;
+        }
+        final ModelTimetableOccupancy occupancy = index.getOccupancy();
+        if(rule.addedExcess(occupancy.busyWords(teacherScope ? Resource.TEACHER : Resource.CLASS, resourceId), slot, occupancy.getPeriodsPerDay()) > 0) {
+            conflicts.add(ruleConflict(rule, resourceId, request, description));
+        }
+    }
+
+    private DtoResScheduleConflict ruleConflict(final ModelRuleCompiled rule, final Integer resourceId, final DtoReqManualScheduleEntry request, final String description) {
+        return DtoResScheduleConflict.builder()
+                .conflictType(CONFLICT_RULE)
+                .resourceId(resourceId)
+                .resourceName(rule.getName())
+                .bindingId(request.getBindingId())
+                .dayOfWeek(request.getDayOfWeek())
+                .periodId(request.getPeriodId())
+                .conflictDescription(description)
+                .severity(rule.isHard() ? SEVERITY_HARD : SEVERITY_SOFT)
+                .build();
+    }
+
+    private DtoResScheduleConflict conflict(final ModelTimetableConflictIndex index, final Resource resource, final Integer resourceId, final EntityTimetableEntry entry,
+                                            final DtoReqManualScheduleEntry request, final String description, final String severity) {
+        return DtoResScheduleConflict.builder()
+                .conflictType(entry != null ? resource.name() : resource.name() + "_" + (SEVERITY_HARD.equals(severity) ? "UNAVAILABLE" : "PREFERENCE"))
+                .resourceId(resourceId)
+                .resourceName(index.nameOf(resource, resourceId))
+                .bindingId(request.getBindingId())
+                .timetableEntryId(entry != null ? entry.getId() : null)
+                .dayOfWeek(request.getDayOfWeek())
+                .periodId(request.getPeriodId())
+                .conflictDescription(description)
+                .severity(severity)
+                .build();
+    }
+
+    private static Integer positive(final Integer id) {
+        return id != null && id > 0 ? id : null;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableCache;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableCache;
+import com.ist.timetabling.Timetable.service.ServiceTimetableCache;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entry lists of whole timetables, cached in heap in front of the {@code timetable_cache} table.
+ * Keys carry the timetable's content version, which {@link ServiceTimetableChangeImpl} bumps
+ * whenever its entries or the reference data they display change, so a stale copy can never be
+ * served under the current key.
+ */
+@Slf4j
+@Service
+public class ServiceTimetableCacheImpl implements ServiceTimetableCache {
+
+    private static final TypeReference<List<DtoResTimetableEntry>> ENTRIES_TYPE = new TypeReference<>() {};
+
+    private final RepositoryTimetableCache repositoryTimetableCache;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ConfigTimetableSolver configTimetableSolver;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, List<DtoResTimetableEntry>> heap;
+
+    @Autowired
+    public ServiceTimetableCacheImpl(
+            RepositoryTimetableCache repositoryTimetableCache,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ConfigTimetableSolver configTimetableSolver) {
+        this.repositoryTimetableCache = repositoryTimetableCache;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.configTimetableSolver = configTimetableSolver;
+        this.objectMapper = new ObjectMapper();
+        this.heap = CacheBuilder.newBuilder()
+                .maximumSize(configTimetableSolver.getCacheMaxEntries())
+                .expireAfterWrite(configTimetableSolver.getCacheTtlMinutes(), TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> getEntries(final EntityTimetable timetable) {
+        return getEntriesByTimetable(List.of(timetable)).getOrDefault(timetable.getId(), new ArrayList<>());
+    }
+
+    @Override
+    public Map<Integer, List<DtoResTimetableEntry>> getEntriesByTimetable(final List<EntityTimetable> timetables) {
+        final Map<Integer, List<DtoResTimetableEntry>> found = new LinkedHashMap<>();
+        final Map<String, EntityTimetable> missing = new LinkedHashMap<>();
+        for(final EntityTimetable timetable : timetables) {
+            final String key = keyOf(timetable);
+            final List<DtoResTimetableEntry> cached = heap.getIfPresent(key);
+            if(cached != null) {
+                found.put(timetable.getId(), cached);
+            }else {
+                missing.put(key, timetable);
+            }
+        }
+
+        if(!missing.isEmpty()) {
+            for(final EntityTimetableCache row : repositoryTimetableCache.findValidByCacheKeyIn(missing.keySet(), LocalDateTime.now())) {
+                final List<DtoResTimetableEntry> stored = missing.containsKey(row.getCacheKey()) ? read(row) : null;
+                if(stored != null) {
+                    heap.put(row.getCacheKey(), stored);
+                    found.put(row.getTimetableId(), stored);
+                    missing.remove(row.getCacheKey());
+                }
+            }
+        }
+
+        if(!missing.isEmpty()) {
+            final Map<Integer, List<DtoResTimetableEntry>> loaded = serviceTimetableEntryReadModel.getEntriesByTimetable(
+                    missing.values().stream().map(EntityTimetable::getId).collect(Collectors.toList()));
+            final List<EntityTimetableCache> rows = new ArrayList<>();
+            for(final Map.Entry<String, EntityTimetable> miss : missing.entrySet()) {
+                final List<DtoResTimetableEntry> entries = loaded.getOrDefault(miss.getValue().getId(), new ArrayList<>());
+                heap.put(miss.getKey(), entries);
+                found.put(miss.getValue().getId(), entries);
+                final EntityTimetableCache row = write(miss.getKey(), miss.getValue().getId(), entries);
+                if(row != null) {
+                    rows.add(row);
+                }
+            }
+            repositoryTimetableCache.saveAll(rows);
+        }
+
+        final Map<Integer, List<DtoResTimetableEntry>> ordered = new LinkedHashMap<>();
+        for(final EntityTimetable timetable : timetables) {
+            ordered.put(timetable.getId(), new ArrayList<>(found.getOrDefault(timetable.getId(), List.of())));
+        }
+        return ordered;
+    }
+
+    @Override
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onContentChanged(final ModelTimetableContentChanged changed) {
+        if(!changed.getTimetableIds().isEmpty()) {
+            repositoryTimetableCache.deleteByTimetableIdIn(changed.getTimetableIds());
+            heap.asMap().keySet().removeIf(key -> changed.getTimetableIds().contains(timetableIdOf(key)));
+        }
+        if(!changed.getOrganizationIds().isEmpty()) {
+            repositoryTimetableCache.deleteByOrganizationIdIn(changed.getOrganizationIds());
+        }
+        log.debug("Invalidated cached entries of timetables {} and organizations {}", changed.getTimetableIds(), changed.getOrganizationIds());
+    }
+
+    @Override
+    @Scheduled(fixedRate = 900000)
+    @Transactional
+    public void purgeExpired() {
+        final int purged = repositoryTimetableCache.deleteExpired(LocalDateTime.now());
+        if(purged > 0) {
+            log.debug("Purged {} expired timetable cache rows", purged);
+        }
+    }
+
+    static String keyOf(final EntityTimetable timetable) {
+        return "entries:" + timetable.getId() + ":v" + (timetable.getContentVersion() != null ? timetable.getContentVersion() : 0L);
+    }
+
+    private static Integer timetableIdOf(final String key) {
+        return Integer.valueOf(key.substring(key.indexOf(':') + 1, key.lastIndexOf(':')));
+    }
+
+    private List<DtoResTimetableEntry> read(final EntityTimetableCache row) {
+        try {
+            return objectMapper.readValue(row.getCacheData(), ENTRIES_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable timetable cache row {}: {}", row.getCacheKey(), e.getMessage());
+            return null;
+        }
+    }
+
+    private EntityTimetableCache write(final String key, final Integer timetableId, final List<DtoResTimetableEntry> entries) {
+        try {
+            final LocalDateTime now = LocalDateTime.now();
+            return EntityTimetableCache.builder()
+                    .cacheKey(key)
+                    .cacheData(objectMapper.writeValueAsString(entries))
+                    .timetableId(timetableId)
+                    .createdAt(now)
+                    .expiresAt(now.plusMinutes(configTimetableSolver.getCacheTtlMinutes()))
+                    .isValid(true)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise entries of timetable {}: {}", timetableId, e.getMessage());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableChanges;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableChange;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentCommitting;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableChange;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableChange;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the per-timetable content version and the log of entry changes made under each version,
+ * so that clients holding version {@code n} can fetch only what changed after it.
+ */
+@Slf4j
+@Service
+public class ServiceTimetableChangeImpl implements ServiceTimetableChange {
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final RepositoryTimetableChange repositoryTimetableChange;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ConfigTimetableSolver configTimetableSolver;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ServiceTimetableChangeImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            RepositoryTimetableChange repositoryTimetableChange,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ConfigTimetableSolver configTimetableSolver) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.repositoryTimetableChange = repositoryTimetableChange;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.configTimetableSolver = configTimetableSolver;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DtoResTimetableChanges getChanges(final String uuid, final Long sinceVersion) {
+        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
+        final long since = sinceVersion != null ? sinceVersion : 0L;
+        final long version = timetable.getContentVersion() != null ? timetable.getContentVersion() : 0L;
+        final DtoResTimetableChanges.DtoResTimetableChangesBuilder changes = DtoResTimetableChanges.builder()
+                .timetableUuid(uuid)
+                .sinceVersion(since)
+                .version(version)
+                .fullReload(false)
+                .upserted(new ArrayList<>())
+                .deletedIds(new ArrayList<>())
+                .deletedUuids(new ArrayList<>());
+        if(since == version) {
+            return changes.build();
+        }
+
+        final Long oldest = repositoryTimetableChange.findOldestVersion(timetable.getId());
+        if(since > version || oldest == null || since < oldest - 1) {
+            return changes.fullReload(true).build();
+        }
+
+        final Map<Integer, EntityTimetableChange> latestByEntry = new LinkedHashMap<>();
+        for(final EntityTimetableChange change : repositoryTimetableChange.findByTimetableIdAndVersionGreaterThanOrderByVersionAscIdAsc(timetable.getId(), since)) {
+            if(EntityTimetableChange.OPERATION_RELOAD.equals(change.getOperation())) {
+                return changes.fullReload(true).build();
+            }
+            latestByEntry.remove(change.getEntryId());
+            latestByEntry.put(change.getEntryId(), change);
+        }
+
+        final List<Integer> upsertedIds = new ArrayList<>();
+        final List<Integer> deletedIds = new ArrayList<>();
+        final List<String> deletedUuids = new ArrayList<>();
+        for(final EntityTimetableChange change : latestByEntry.values()) {
+            if(EntityTimetableChange.OPERATION_DELETE.equals(change.getOperation())) {
+                deletedIds.add(change.getEntryId());
+                deletedUuids.add(change.getEntryUuid());
+            }else {
+                upsertedIds.add(change.getEntryId());
+            }
+        }
+
+        final List<DtoResTimetableEntry> upserted = new ArrayList<>();
+        final List<EntityTimetableEntry> current = upsertedIds.isEmpty() ? List.of() : repositoryTimetableEntry.findAllById(upsertedIds);
+        for(final DtoResTimetableEntry entry : serviceTimetableEntryReadModel.toDtos(current)) {
+            if(Boolean.TRUE.equals(entry.getIsDeleted())) {
+                deletedIds.add(entry.getId());
+                deletedUuids.add(entry.getUuid());
+            }else {
+                upserted.add(entry);
+            }
+        }
+        return changes.upserted(upserted).deletedIds(deletedIds).deletedUuids(deletedUuids).build();
+    }
+
+    /**
+     * Runs inside the writing transaction just before it commits, so the version bump and the change rows
+     * commit or roll back together with the entries they describe. The flush makes writes that Hibernate
+     * would otherwise only send at commit report themselves into the event first.
+     */
+    @Override
+    @EventListener
+    @Transactional
+    public void onContentCommitting(final ModelTimetableContentCommitting committing) {
+        entityManager.flush();
+        record(committing.getChanged());
+    }
+
+    /**
+     * Logs changes that were published without a before-commit step: writes made outside a transaction,
+     * or first seen by the commit's own flush. Changes already logged before commit are skipped.
+     */
+    @Override
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onContentChanged(final ModelTimetableContentChanged changed) {
+        if(!changed.isLogged()) {
+            record(changed);
+        }
+    }
+
+    private void record(final ModelTimetableContentChanged changed) {
+        if(changed.isEmpty()) {
+            return;
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        final List<EntityTimetableChange> changes = new ArrayList<>();
+        if(!changed.getTimetableIds().isEmpty()) {
+            repositoryTimetable.incrementContentVersion(changed.getTimetableIds());
+            final Map<Integer, Long> versions = new HashMap<>();
+            for(final Object[] row : repositoryTimetable.findContentVersions(changed.getTimetableIds())) {
+                versions.put((Integer) row[0], (Long) row[1]);
+            }
+            for(final ModelTimetableContentChanged.EntryChange entryChange : changed.getEntryChanges().values()) {
+                final Long version = versions.get(entryChange.getTimetableId());
+                if(version != null) {
+                    changes.add(EntityTimetableChange.builder()
+                            .timetableId(entryChange.getTimetableId())
+                            .version(version)
+                            .entryId(entryChange.getEntryId())
+                            .entryUuid(entryChange.getEntryUuid())
+                            .operation(entryChange.isDeleted() ? EntityTimetableChange.OPERATION_DELETE : EntityTimetableChange.OPERATION_UPSERT)
+                            .changedAt(now)
+                            .build());
+                }
+            }
+        }
+        if(!changed.getOrganizationIds().isEmpty()) {
+            repositoryTimetable.incrementContentVersionByOrganizationIdIn(changed.getOrganizationIds());
+            for(final Object[] row : repositoryTimetable.findContentVersionsByOrganizationIdIn(changed.getOrganizationIds())) {
+                changes.add(EntityTimetableChange.builder()
+                        .timetableId((Integer) row[0])
+                        .version((Long) row[1])
+                        .operation(EntityTimetableChange.OPERATION_RELOAD)
+                        .changedAt(now)
+                        .build());
+            }
+        }
+        repositoryTimetableChange.saveAll(changes);
+        changed.markLogged();
+    }
+
+    @Override
+    @Scheduled(fixedRate = 3600000)
+    @Transactional
+    public void purgeExpired() {
+        final int purged = repositoryTimetableChange.deleteByChangedAtBefore(LocalDateTime.now().minusDays(configTimetableSolver.getChangeRetentionDays()));
+        if(purged > 0) {
+            log.debug("Purged {} timetable change log rows", purged);
+        }
+    }
+
+}
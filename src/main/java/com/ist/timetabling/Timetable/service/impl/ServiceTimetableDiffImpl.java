@@ -0,0 +1,129 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableDiff;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableDiffLesson;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableDiff;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableDiff;
+import com.ist.timetabling.Timetable.service.ServiceTimetableVersion;
+import com.ist.timetabling.Timetable.util.UtilTimetableDiff;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+
+@Service
+public class ServiceTimetableDiffImpl implements ServiceTimetableDiff {
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final ServiceTimetableVersion serviceTimetableVersion;
+    private final HttpServletRequest httpServletRequest;
+
+    @Autowired
+    public ServiceTimetableDiffImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            ServiceTimetableVersion serviceTimetableVersion,
+            HttpServletRequest httpServletRequest) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.serviceTimetableVersion = serviceTimetableVersion;
+        this.httpServletRequest = httpServletRequest;
+    }
+
+    /**
+     * Compares two sides, each the live entries of a timetable or one of its saved versions. The target
+     * timetable defaults to the base one, so two versions of the same timetable only need the base uuid.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<DtoResTimetableDiff> diff(final String baseUuid, final String baseVersionUuid, final String targetUuid, final String targetVersionUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final String resolvedTargetUuid = targetUuid != null && !targetUuid.isBlank() ? targetUuid : baseUuid;
+        final List<EntityTimetableEntry> base = entriesOf(baseUuid, baseVersionUuid, i18n);
+        final List<EntityTimetableEntry> target = entriesOf(resolvedTargetUuid, targetVersionUuid, i18n);
+
+        final long startedAt = System.currentTimeMillis();
+        final ModelTimetableDiff diff = UtilTimetableDiff.diff(base, target);
+        final Map<Integer, Integer> classChangeCounts = new HashMap<>();
+        final Map<Integer, Integer> classBandChangeCounts = new HashMap<>();
+        diff.getClassChangeCounts().forEach((classKey, count) -> {
+            if(classKey > 0) {
+                classChangeCounts.put(classKey, count);
+            }else {
+                classBandChangeCounts.put(-classKey, count);
+            }
+        });
+
+        final DtoResTimetableDiff dtoResTimetableDiff = DtoResTimetableDiff.builder()
+                .baseTimetableUuid(baseUuid)
+                .baseVersionUuid(baseVersionUuid)
+                .targetTimetableUuid(resolvedTargetUuid)
+                .targetVersionUuid(targetVersionUuid)
+                .baseEntryCount(base.size())
+                .targetEntryCount(target.size())
+                .unchangedCount(diff.getUnchangedCount())
+                .moved(lessons(base, diff.getMovedBase(), target, diff.getMovedTarget()))
+                .reassigned(lessons(base, diff.getReassignedBase(), target, diff.getReassignedTarget()))
+                .removed(lessons(base, diff.getRemoved(), target, null))
+                .added(lessons(base, null, target, diff.getAdded()))
+                .teacherChangeCounts(diff.getTeacherChangeCounts())
+                .classChangeCounts(classChangeCounts)
+                .classBandChangeCounts(classBandChangeCounts)
+                .elapsedMillis(System.currentTimeMillis() - startedAt)
+                .build();
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_DIFF_SUCCESS), dtoResTimetableDiff);
+    }
+
+    private List<EntityTimetableEntry> entriesOf(final String timetableUuid, final String versionUuid, final I18n i18n) {
+        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(timetableUuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound(i18n.getTimetable(I18N_TIMETABLE_NOT_FOUND)));
+        if(versionUuid != null && !versionUuid.isBlank()) {
+            return serviceTimetableVersion.getVersionEntities(timetable.getId(), versionUuid);
+        }
+        return repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
+    }
+
+    /** Pairs base and target entries index by index; a side without indices leaves the lessons' from or to half empty. */
+    private static List<DtoResTimetableDiffLesson> lessons(final List<EntityTimetableEntry> base, final int[] baseIndices, final List<EntityTimetableEntry> target, final int[] targetIndices) {
+        final int count = baseIndices != null ? baseIndices.length : targetIndices.length;
+        final List<DtoResTimetableDiffLesson> lessons = new ArrayList<>(count);
+        for(int k = 0; k < count; k++) {
+            final EntityTimetableEntry before = baseIndices != null ? base.get(baseIndices[k]) : null;
+            final EntityTimetableEntry after = targetIndices != null ? target.get(targetIndices[k]) : null;
+            final EntityTimetableEntry source = before != null ? before : after;
+            lessons.add(DtoResTimetableDiffLesson.builder()
+                    .fromEntryUuid(before != null ? before.getUuid() : null)
+                    .toEntryUuid(after != null ? after.getUuid() : null)
+                    .classId(source.getClassId())
+                    .classBandId(source.getClassBandId())
+                    .subjectId(source.getSubjectId())
+                    .fromTeacherId(before != null ? before.getTeacherId() : null)
+                    .toTeacherId(after != null ? after.getTeacherId() : null)
+                    .fromRoomId(before != null ? before.getRoomId() : null)
+                    .toRoomId(after != null ? after.getRoomId() : null)
+                    .fromDayOfWeek(before != null ? before.getDayOfWeek() : null)
+                    .fromPeriod(before != null ? before.getPeriod() : null)
+                    .toDayOfWeek(after != null ? after.getDayOfWeek() : null)
+                    .toPeriod(after != null ? after.getPeriod() : null)
+                    .build());
+        }
+        return lessons;
+    }
+
+}
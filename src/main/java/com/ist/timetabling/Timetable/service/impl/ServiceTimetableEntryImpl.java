@@ -1,9 +1,6 @@
 package com.ist.timetabling.Timetable.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.ist.timetabling.Class.entity.EntityClass;
-import com.ist.timetabling.Class.repository.RepositoryClass;
 import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Core.model.I18n;
 import com.ist.timetabling.Core.util.PaginationUtil;
@@ -13,8 +10,6 @@ import com.ist.timetabling.Room.entity.EntityRoom;
 import com.ist.timetabling.Room.repository.RepositoryRoom;
 import com.ist.timetabling.Subject.entity.EntitySubject;
 import com.ist.timetabling.Subject.repository.RepositorySubject;
-import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
-import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
 import com.ist.timetabling.Timetable.dto.req.DtoReqManualScheduleEntry;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntry;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
@@ -24,18 +19,26 @@ import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
 import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
 import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
 import com.ist.timetabling.Timetable.service.ServiceTimetableEntry;
-import com.ist.timetabling.User.entity.EntityUser;
-import com.ist.timetabling.User.repository.RepositoryUser;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
 import com.ist.timetabling.binding.entity.EntityBinding;
 import com.ist.timetabling.binding.repository.RepositoryBinding;
 import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.*;
@@ -44,42 +47,50 @@ import java.util.*;
 public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
 
     private static final Logger log = LoggerFactory.getLogger(ServiceTimetableEntryImpl.class);
+    // Subject, teacher, room and class may be null on an entry, and a keyset predicate never matches null.
+    private static final List<String> KEYSET_SORT_FIELDS = List.of("dayOfWeek", "period");
     private final RepositoryTimetableEntry repositoryTimetableEntry;
     private final ObjectMapper objectMapper;
     private final RepositorySubject repositorySubject;
-    private final RepositoryUser repositoryUser;
     private final RepositoryRoom repositoryRoom;
-    private final RepositoryTeacherProfile repositoryTeacherProfile;
     private final RepositoryTimetable repositoryTimetable;
     private final RepositoryBinding repositoryBinding;
     private final RepositoryPeriod repositoryPeriod;
-    private final RepositoryClass repositoryClass;
     private final RepositoryClassBand classBandRepository;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ServiceTimetableView serviceTimetableView;
+    private final ServiceTimetableOperation serviceTimetableOperation;
     private final HttpServletRequest httpServletRequest;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     public ServiceTimetableEntryImpl(
             RepositoryTimetableEntry repositoryTimetableEntry,
             RepositorySubject repositorySubject,
-            RepositoryUser repositoryUser,
             RepositoryRoom repositoryRoom,
-            RepositoryTeacherProfile repositoryTeacherProfile,
             RepositoryTimetable repositoryTimetable,
             RepositoryBinding repositoryBinding,
             RepositoryPeriod repositoryPeriod,
-            RepositoryClass repositoryClass,
             RepositoryClassBand classBandRepository,
+            ServiceTimetableOccupancy serviceTimetableOccupancy,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ServiceTimetableView serviceTimetableView,
+            ServiceTimetableOperation serviceTimetableOperation,
             HttpServletRequest httpServletRequest) {
         this.repositoryTimetableEntry = repositoryTimetableEntry;
         this.repositorySubject = repositorySubject;
-        this.repositoryUser = repositoryUser;
         this.repositoryRoom = repositoryRoom;
-        this.repositoryTeacherProfile = repositoryTeacherProfile;
         this.repositoryTimetable = repositoryTimetable;
         this.repositoryBinding = repositoryBinding;
         this.repositoryPeriod = repositoryPeriod;
-        this.repositoryClass = repositoryClass;
         this.classBandRepository = classBandRepository;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.serviceTimetableView = serviceTimetableView;
+        this.serviceTimetableOperation = serviceTimetableOperation;
         this.objectMapper = new ObjectMapper();
         this.httpServletRequest = httpServletRequest;
     }
@@ -177,8 +188,11 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
         entityTimetable.setIsDeleted(false);
         entityTimetable.setIsClassBandEntry(dtoReqTimetableEntry.getIsClassBandEntry());
         entityTimetable.setClassBandId(dtoReqTimetableEntry.getClassBandId());
+        entityTimetable.setBindingId(dtoReqTimetableEntry.getBindingId());
 
         repositoryTimetableEntry.save(entityTimetable);
+        serviceTimetableOccupancy.occupy(entityTimetable);
+        serviceTimetableView.refresh(List.of(entityTimetable));
 
         List<EntityTimetableEntry> entries = new ArrayList<>();
         entries.add(entityTimetable);
@@ -192,6 +206,7 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
     }
 
     @Override
+    @Transactional
     public ApiResponse<List<DtoResTimetableEntry>> createAll(final List<DtoReqTimetableEntry> listDtoReqTimetableEntry) {
         final ApiResponse<List<DtoResTimetableEntry>> apiResponse = new ApiResponse<>();
         final List<EntityTimetableEntry> savedEntities = new ArrayList<>();
@@ -214,8 +229,7 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
             entityTimetable.setIsDeleted(false);
             entityTimetable.setIsClassBandEntry(dtoReqTimetableEntry.getIsClassBandEntry());
             entityTimetable.setClassBandId(dtoReqTimetableEntry.getClassBandId());
-
-            repositoryTimetableEntry.save(entityTimetable);
+            entityTimetable.setBindingId(dtoReqTimetableEntry.getBindingId());
             savedEntities.add(entityTimetable);
 
             if (timetableId == null && entityTimetable.getTimetableId() != null) {
@@ -223,6 +237,10 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
             }
         }
 
+        batchEntryInserts();
+        repositoryTimetableEntry.saveAll(savedEntities);
+        serviceTimetableOccupancy.occupyAll(savedEntities);
+        serviceTimetableView.refresh(savedEntities);
         final List<DtoResTimetableEntry> responses = convertToEntryDtos(savedEntities, timetableId);
 
         apiResponse.setSuccess(true);
@@ -233,8 +251,10 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
 
     @Override
     public DtoResTimetableEntry createManualEntry(final DtoReqManualScheduleEntry dtoReqManualScheduleEntry) {
-        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(dtoReqManualScheduleEntry.getTimetableId().toString())
-                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + dtoReqManualScheduleEntry.getTimetableId()));
+        final EntityTimetable timetable = repositoryTimetable.findById(dtoReqManualScheduleEntry.getTimetableId())
+                .filter(existing -> !Boolean.TRUE.equals(existing.getIsDeleted()))
+                .or(() -> repositoryTimetable.findByUuidAndIsDeletedFalse(dtoReqManualScheduleEntry.getTimetableId().toString()))
+                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with ID: " + dtoReqManualScheduleEntry.getTimetableId()));
 
         final EntityBinding binding = repositoryBinding.findById(dtoReqManualScheduleEntry.getBindingId())
                 .orElseThrow(() -> new RuntimeException("Binding not found with UUID: " + dtoReqManualScheduleEntry.getBindingId()));
@@ -246,13 +266,15 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
         entityTimetableEntry.setClassId(binding.getClassId());
         entityTimetableEntry.setSubjectId(binding.getSubjectId());
         entityTimetableEntry.setRoomId(binding.getRoomId());
+        entityTimetableEntry.setBindingId(binding.getId());
         entityTimetableEntry.setDayOfWeek(dtoReqManualScheduleEntry.getDayOfWeek());
-        entityTimetableEntry.setPeriod(dtoReqManualScheduleEntry.getPeriodId());
+        final Integer periodNumber = entityPeriod.map(EntityPeriod::getPeriodNumber).orElse(dtoReqManualScheduleEntry.getPeriodId());
+        entityTimetableEntry.setPeriod(periodNumber);
         entityTimetableEntry.setIsDeleted(false);
         entityTimetableEntry.setStatus("Active");
 
 
-        if (binding.getClassBandId() != null) {
+        if (binding.getClassBandId() != null && binding.getClassBandId() > 0) {
             entityTimetableEntry.setClassBandId(binding.getClassBandId());
             entityTimetableEntry.setIsClassBandEntry(true);
         } else {
@@ -268,9 +290,11 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
             entityTimetableEntry.setPeriodType("Regular");
         }
 
-        entityTimetableEntry.setPeriodNumber(dtoReqManualScheduleEntry.getPeriodId());
+        entityTimetableEntry.setPeriodNumber(periodNumber);
 
         repositoryTimetableEntry.save(entityTimetableEntry);
+        serviceTimetableOccupancy.occupy(entityTimetableEntry);
+        serviceTimetableView.refresh(List.of(entityTimetableEntry));
 
         List<EntityTimetableEntry> entries = new ArrayList<>();
         entries.add(entityTimetableEntry);
@@ -280,7 +304,13 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
     }
 
     @Override
+    @Transactional
     public void removeEntry(final Integer entryId) {
+        repositoryTimetableEntry.findById(entryId).ifPresent(entry -> {
+            serviceTimetableOperation.recordRemove(entry);
+            serviceTimetableOccupancy.release(entry);
+            serviceTimetableView.remove(entry);
+        });
         repositoryTimetableEntry.deleteById(entryId);
     }
 
@@ -291,6 +321,7 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
     }
 
     @Override
+    @Transactional
     public void saveEntriesForTimetable(final Integer timetableId, List<DtoReqTimetableEntry> entries) {
         List<EntityTimetableEntry> oldEntries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetableId);
 
@@ -313,10 +344,21 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
             entityTimetableEntry.setIsDeleted(false);
             entityTimetableEntry.setIsClassBandEntry(dto.getIsClassBandEntry());
             entityTimetableEntry.setClassBandId(dto.getClassBandId());
-
-            repositoryTimetableEntry.save(entityTimetableEntry);
+            entityTimetableEntry.setBindingId(dto.getBindingId());
             newEntities.add(entityTimetableEntry);
         }
+        batchEntryInserts();
+        repositoryTimetableEntry.saveAll(newEntities);
+        serviceTimetableOccupancy.occupyAll(newEntities);
+        serviceTimetableView.refresh(newEntities);
+    }
+
+    /**
+     * Lets this session send a whole id block of entry inserts per JDBC batch; the global
+     * {@code hibernate.jdbc.batch_size} stays small for every other write.
+     */
+    private void batchEntryInserts() {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(EntityTimetableEntry.ID_ALLOCATION_SIZE);
     }
 
     @Override
@@ -332,153 +374,7 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
 
     @Override
     public List<DtoResTimetableEntry> convertToEntryDtos(final List<EntityTimetableEntry> entries, final Integer timetableId) {
-        if (entries == null || entries.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        final List<DtoResTimetableEntry> dtos = new ArrayList<>();
-
-        Set<Integer> subjectIds = new HashSet<>();
-        Set<Integer> teacherIds = new HashSet<>();
-        Set<Integer> roomIds = new HashSet<>();
-        Set<Integer> classIds = new HashSet<>();
-
-        for (EntityTimetableEntry entry : entries) {
-            if (entry.getSubjectId() != null) subjectIds.add(entry.getSubjectId());
-            if (entry.getTeacherId() != null) teacherIds.add(entry.getTeacherId());
-            if (entry.getRoomId() != null) roomIds.add(entry.getRoomId());
-            if (entry.getClassId() != null) classIds.add(entry.getClassId());
-        }
-
-        Map<Integer, EntitySubject> subjectMap = new HashMap<>();
-        if (!subjectIds.isEmpty()) {
-            try {
-                List<EntitySubject> subjects = repositorySubject.findAllById(new ArrayList<>(subjectIds));
-                for (EntitySubject subject : subjects) {
-                    subjectMap.put(subject.getId(), subject);
-                }
-            } catch (Exception e) {
-                log.error("Error fetching subjects: {}", e.getMessage());
-            }
-        }
-
-        Map<Integer, EntityTeacherProfile> teacherProfileMap = new HashMap<>();
-        Map<Integer, EntityUser> userMap = new HashMap<>();
-        if (!teacherIds.isEmpty()) {
-            try {
-                List<EntityTeacherProfile> teacherProfiles = repositoryTeacherProfile.findAllById(new ArrayList<>(teacherIds));
-
-                Set<Integer> userIds = new HashSet<>();
-                for (EntityTeacherProfile profile : teacherProfiles) {
-                    teacherProfileMap.put(profile.getId(), profile);
-                    if (profile.getUserId() != null) {
-                        userIds.add(profile.getUserId());
-                    }
-                }
-
-                if (!userIds.isEmpty()) {
-                    List<EntityUser> users = repositoryUser.findAllById(new ArrayList<>(userIds));
-                    for (EntityUser user : users) {
-                        userMap.put(user.getId(), user);
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error fetching teacher profiles: {}", e.getMessage());
-            }
-        }
-
-        Map<Integer, EntityRoom> roomMap = new HashMap<>();
-        if (!roomIds.isEmpty()) {
-            try {
-                List<EntityRoom> rooms = repositoryRoom.findAllById(new ArrayList<>(roomIds));
-                for (EntityRoom room : rooms) {
-                    roomMap.put(room.getId(), room);
-                }
-            } catch (Exception e) {
-                log.error("Error fetching rooms: {}", e.getMessage());
-            }
-        }
-
-        Map<Integer, EntityClass> classMap = new HashMap<>();
-        if (!classIds.isEmpty()) {
-            try {
-                List<EntityClass> classes = repositoryClass.findAllById(new ArrayList<>(classIds));
-                for (EntityClass classEntity : classes) {
-                    classMap.put(classEntity.getId(), classEntity);
-                }
-            } catch (Exception e) {
-                log.error("Error fetching classes: {}", e.getMessage());
-            }
-        }
-
-        for (EntityTimetableEntry entry : entries) {
-            final DtoResTimetableEntry dtoResTimetableEntry = new DtoResTimetableEntry();
-            dtoResTimetableEntry.setId(entry.getId());
-            dtoResTimetableEntry.setUuid(entry.getUuid());
-            dtoResTimetableEntry.setTimetableId(entry.getTimetableId());
-            dtoResTimetableEntry.setDayOfWeek(entry.getDayOfWeek());
-            dtoResTimetableEntry.setPeriod(entry.getPeriod());
-            dtoResTimetableEntry.setDurationMinutes(entry.getDurationMinutes());
-            dtoResTimetableEntry.setPeriodType(entry.getPeriodType());
-            dtoResTimetableEntry.setStatus(entry.getStatus());
-
-            dtoResTimetableEntry.setClassId(entry.getClassId());
-
-
-            dtoResTimetableEntry.setClassBandId(entry.getClassBandId());
-            dtoResTimetableEntry.setIsClassBandEntry(entry.getIsClassBandEntry());
-
-
-            dtoResTimetableEntry.setSubjectId(entry.getSubjectId());
-            if (entry.getSubjectId() != null && subjectMap.containsKey(entry.getSubjectId())) {
-                EntitySubject subject = subjectMap.get(entry.getSubjectId());
-                dtoResTimetableEntry.setSubjectUuid(subject.getUuid());
-                dtoResTimetableEntry.setSubjectName(subject.getName());
-                dtoResTimetableEntry.setSubjectColor(subject.getColor());
-                dtoResTimetableEntry.setSubjectInitials(subject.getInitials());
-            }
-
-
-            dtoResTimetableEntry.setTeacherId(entry.getTeacherId());
-            if (entry.getTeacherId() != null && teacherProfileMap.containsKey(entry.getTeacherId())) {
-                EntityTeacherProfile teacherProfile = teacherProfileMap.get(entry.getTeacherId());
-                dtoResTimetableEntry.setTeacherUuid(teacherProfile.getUuid());
-                dtoResTimetableEntry.setTeacherInitials(teacherProfile.getInitials());
-
-                if (teacherProfile.getUserId() != null && userMap.containsKey(teacherProfile.getUserId())) {
-                    EntityUser user = userMap.get(teacherProfile.getUserId());
-                    dtoResTimetableEntry.setTeacherName(user.getFirstName() + " " + user.getLastName());
-                } else {
-                    dtoResTimetableEntry.setTeacherName("");
-                }
-            }
-
-
-            dtoResTimetableEntry.setRoomId(entry.getRoomId());
-            if (entry.getRoomId() != null && roomMap.containsKey(entry.getRoomId())) {
-                EntityRoom room = roomMap.get(entry.getRoomId());
-                dtoResTimetableEntry.setRoomUuid(room.getUuid());
-                dtoResTimetableEntry.setRoomName(room.getName());
-                dtoResTimetableEntry.setRoomInitials(room.getCode());
-            }
-
-
-            dtoResTimetableEntry.setClassId(entry.getClassId());
-            if (entry.getClassId() != null && classMap.containsKey(entry.getClassId())) {
-                EntityClass classEntity = classMap.get(entry.getClassId());
-                dtoResTimetableEntry.setClassUuid(classEntity.getUuid());
-                dtoResTimetableEntry.setClassName(classEntity.getName());
-                dtoResTimetableEntry.setClassInitials(classEntity.getInitial());
-            }
-
-
-            Boolean lockStatus = entry.getIsLocked();
-            dtoResTimetableEntry.setIsLocked(lockStatus != null ? lockStatus : false);
-
-            dtos.add(dtoResTimetableEntry);
-        }
-
-        return dtos;
+        return serviceTimetableEntryReadModel.toDtos(entries);
     }
 
     @Override
@@ -490,10 +386,13 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
             final EntityTimetableEntry entityTimetableEntry = repositoryTimetableEntry.findByUuidAndIsDeletedFalse(uuid)
                     .orElseThrow(() -> new RuntimeException("Timetable entry not found with UUID: " + uuid));
 
+            final Boolean wasLocked = entityTimetableEntry.getIsLocked();
             entityTimetableEntry.setIsLocked(isLocked);
 
 
             final EntityTimetableEntry savedEntry = repositoryTimetableEntry.save(entityTimetableEntry);
+            serviceTimetableOperation.recordLock(savedEntry, wasLocked);
+            serviceTimetableView.refresh(List.of(savedEntry));
 
 
 
@@ -528,16 +427,7 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
         
         final Page<EntityTimetableEntry> timetableEntries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetableId, pageable);
 
-        List<DtoResTimetableEntry> dtoList = new ArrayList<>();
-        for (EntityTimetableEntry entry : timetableEntries.getContent()) {
-            List<EntityTimetableEntry> entryList = new ArrayList<>();
-            entryList.add(entry);
-            List<DtoResTimetableEntry> dtos = convertToEntryDtos(entryList, timetableId);
-            if (!dtos.isEmpty()) {
-                dtoList.add(dtos.get(0));
-            }
-        }
-        
+        final List<DtoResTimetableEntry> dtoList = convertToEntryDtos(timetableEntries.getContent(), timetableId);
 
         return ApiResponse.<List<DtoResTimetableEntry>>builder()
                 .status(HttpStatus.OK.value())
@@ -552,6 +442,24 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
                 .build();
     }
 
+    @Override
+    public ApiResponse<List<DtoResTimetableEntry>> getTimetableEntriesAfter(final Integer timetableId, final String after, final int size, final String sortBy, final String direction) {
+        final Sort sort = PaginationUtil.createKeysetSort(sortBy, direction, KEYSET_SORT_FIELDS);
+        final Window<EntityTimetableEntry> window = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(
+                timetableId, PaginationUtil.decodeCursor(after), sort, PaginationUtil.createLimit(size, 10));
+
+        final List<DtoResTimetableEntry> dtoList = convertToEntryDtos(window.getContent(), timetableId);
+        return ApiResponse.<List<DtoResTimetableEntry>>builder()
+                .status(HttpStatus.OK.value())
+                .success(true)
+                .message("Timetable entries retrieved successfully")
+                .data(dtoList)
+                .totalItems(dtoList.size())
+                .hasNext(window.hasNext())
+                .nextCursor(PaginationUtil.encodeCursor(window))
+                .build();
+    }
+
     @Override
     public ApiResponse<List<DtoResTimetableEntry>> bulkUpdateLockStatus(final String timetableUuid, final List<String> entryUuids, final Boolean isLocked) {
         final ApiResponse<List<DtoResTimetableEntry>> apiResponse = new ApiResponse<>();
@@ -575,6 +483,7 @@ public class ServiceTimetableEntryImpl implements ServiceTimetableEntry {
             
 
             final List<EntityTimetableEntry> savedEntries = repositoryTimetableEntry.saveAll(entries);
+            serviceTimetableView.refresh(savedEntries);
 
             final List<DtoResTimetableEntry> dtoEntries = convertToEntryDtos(savedEntries, timetable.getId());
             
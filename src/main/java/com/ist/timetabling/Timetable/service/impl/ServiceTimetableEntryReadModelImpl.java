@@ -0,0 +1,160 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableEntryRow;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ServiceTimetableEntryReadModelImpl implements ServiceTimetableEntryReadModel {
+
+    public static final String DEFAULT_SUBJECT_COLOR = "#808080";
+
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ServiceTimetableEntryReadModelImpl(RepositoryTimetableEntry repositoryTimetableEntry) {
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> getEntries(final Integer timetableId) {
+        if(timetableId == null) {
+            return new ArrayList<>();
+        }
+        return getEntriesByTimetable(List.of(timetableId)).getOrDefault(timetableId, new ArrayList<>());
+    }
+
+    @Override
+    public Map<Integer, List<DtoResTimetableEntry>> getEntriesByTimetable(final Collection<Integer> timetableIds) {
+        final Map<Integer, List<DtoResTimetableEntry>> entriesByTimetable = new LinkedHashMap<>();
+        if(timetableIds == null || timetableIds.isEmpty()) {
+            return entriesByTimetable;
+        }
+        for(final ModelTimetableEntryRow row : repositoryTimetableEntry.findRowsByTimetableIdIn(timetableIds)) {
+            entriesByTimetable.computeIfAbsent(row.getEntry().getTimetableId(), id -> new ArrayList<>()).add(toDto(row.getEntry(), row));
+        }
+        return entriesByTimetable;
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> toDtos(final List<EntityTimetableEntry> entries) {
+        if(entries == null || entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Set<Integer> ids = entries.stream()
+                .map(EntityTimetableEntry::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Map<Integer, ModelTimetableEntryRow> rowsById = new HashMap<>();
+        if(!ids.isEmpty()) {
+            for(final ModelTimetableEntryRow row : repositoryTimetableEntry.findRowsByIdIn(ids)) {
+                rowsById.put(row.getEntry().getId(), row);
+            }
+        }
+
+        final List<DtoResTimetableEntry> dtos = new ArrayList<>(entries.size());
+        for(final EntityTimetableEntry entry : entries) {
+            dtos.add(toDto(entry, entry.getId() != null ? rowsById.get(entry.getId()) : null));
+        }
+        return dtos;
+    }
+
+    /**
+     * Hands every live entry of the organisation to the consumer as it is read from a forward-only
+     * cursor. Each entry is detached once converted so the persistence context does not grow with
+     * the organisation.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachEntryOfOrganization(final Integer organizationId, final Consumer<DtoResTimetableEntry> consumer) {
+        long count = 0;
+        try(final Stream<ModelTimetableEntryRow> rows = repositoryTimetableEntry.streamRowsByOrganizationId(organizationId)) {
+            final Iterator<ModelTimetableEntryRow> iterator = rows.iterator();
+            while(iterator.hasNext()) {
+                final ModelTimetableEntryRow row = iterator.next();
+                consumer.accept(toDto(row.getEntry(), row));
+                if(entityManager != null) {
+                    entityManager.detach(row.getEntry());
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static DtoResTimetableEntry toDto(final EntityTimetableEntry entry, final ModelTimetableEntryRow row) {
+        final DtoResTimetableEntry dto = new DtoResTimetableEntry();
+        dto.setId(entry.getId());
+        dto.setUuid(entry.getUuid());
+        dto.setTimetableId(entry.getTimetableId());
+        dto.setDayOfWeek(entry.getDayOfWeek());
+        dto.setPeriod(entry.getPeriod());
+        dto.setDurationMinutes(entry.getDurationMinutes());
+        dto.setPeriodType(entry.getPeriodType());
+        dto.setStatus(entry.getStatus());
+        dto.setSubjectId(entry.getSubjectId());
+        dto.setTeacherId(entry.getTeacherId());
+        dto.setRoomId(entry.getRoomId());
+        dto.setClassId(entry.getClassId());
+        dto.setClassBandId(entry.getClassBandId());
+        dto.setIsClassBandEntry(entry.getIsClassBandEntry());
+        dto.setBindingId(entry.getBindingId());
+        dto.setIsLocked(entry.getIsLocked() != null ? entry.getIsLocked() : false);
+        dto.setIsDeleted(entry.getIsDeleted() != null ? entry.getIsDeleted() : false);
+        dto.setVersion(entry.getVersion());
+        if(row == null) {
+            return dto;
+        }
+
+        if(row.getSubjectUuid() != null) {
+            dto.setSubjectUuid(row.getSubjectUuid());
+            dto.setSubjectName(row.getSubjectName());
+            dto.setSubjectColor(row.getSubjectColor() != null ? row.getSubjectColor() : DEFAULT_SUBJECT_COLOR);
+            dto.setSubjectInitials(row.getSubjectInitials());
+        }
+        if(entry.getTeacherId() != null) {
+            dto.setTeacherUuid(row.getTeacherUuid());
+            dto.setTeacherInitials(row.getTeacherInitials());
+            dto.setTeacherName(row.getTeacherFirstName() != null ? row.getTeacherFirstName() + " " + row.getTeacherLastName() : "");
+        }
+        if(row.getRoomUuid() != null) {
+            dto.setRoomUuid(row.getRoomUuid());
+            dto.setRoomName(row.getRoomName());
+            dto.setRoomInitials(row.getRoomCode());
+        }
+        if(row.getClassUuid() != null) {
+            dto.setClassUuid(row.getClassUuid());
+            dto.setClassName(row.getClassName());
+            dto.setClassInitials(row.getClassInitial());
+        }
+        if(row.getClassBandUuid() != null) {
+            dto.setClassBandUuid(row.getClassBandUuid());
+            dto.setClassBandName(row.getClassBandName());
+        }
+        return dto;
+    }
+
+}
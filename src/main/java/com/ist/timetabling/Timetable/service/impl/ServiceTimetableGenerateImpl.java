@@ -1,85 +1,244 @@
 package com.ist.timetabling.Timetable.service.impl;
 
-import com.ist.timetabling.Class.entity.EntityClass;
-import com.ist.timetabling.Class.service.ServiceClass;
+import com.ist.timetabling.ClassBand.entity.EntityClassBand;
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
 import com.ist.timetabling.Core.model.ApiResponse;
-import com.ist.timetabling.Organization.entity.EntityOrganization;
-import com.ist.timetabling.Organization.service.ServiceOrganization;
+import com.ist.timetabling.Core.model.I18n;
 import com.ist.timetabling.Period.entity.EntityPeriod;
-import com.ist.timetabling.Period.service.ServicePeriod;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
 import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
-import com.ist.timetabling.PlanSetting.service.ServicePlanSetting;
-import com.ist.timetabling.Room.entity.EntityRoom;
-import com.ist.timetabling.Room.service.ServiceRoom;
-import com.ist.timetabling.Rule.entity.EntityRule;
-import com.ist.timetabling.Rule.service.ServiceRule;
-import com.ist.timetabling.Subject.entity.EntitySubject;
-import com.ist.timetabling.Subject.service.ServiceSubject;
-import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
-import com.ist.timetabling.Teacher.service.ServiceTeacher;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Rule.service.ServiceRuleEngine;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetable;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntry;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetable;
 import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableGenerationCancelled;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverProgress;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverResult;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
 import com.ist.timetabling.Timetable.service.ServiceTimetable;
 import com.ist.timetabling.Timetable.service.ServiceTimetableEntry;
 import com.ist.timetabling.Timetable.service.ServiceTimetableGenerate;
+import com.ist.timetabling.Timetable.util.UtilTimetableSolverInput;
+import com.ist.timetabling.Timetable.util.UtilTimetableSolverPortfolio;
 import com.ist.timetabling.binding.entity.EntityBinding;
-import com.ist.timetabling.binding.service.ServiceBinding;
-
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+
+@Slf4j
+@Service
 public class ServiceTimetableGenerateImpl implements ServiceTimetableGenerate {
 
-    private ServiceTimetable serviceTimetable;
-    private ServiceTimetableEntry serviceTimetableEntry;
+    public static final String GENERATED_BY = "System";
+    public static final long DEFAULT_SEED = 1L;
+
+    private final ServiceTimetable serviceTimetable;
+    private final ServiceTimetableEntry serviceTimetableEntry;
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryPlanSetting repositoryPlanSetting;
+    private final RepositoryPeriod repositoryPeriod;
+    private final RepositoryBinding repositoryBinding;
+    private final RepositoryClassBand repositoryClassBand;
+    private final ServiceAvailabilityMatrix serviceAvailabilityMatrix;
+    private final ConfigTimetableSolver configTimetableSolver;
+    private final ForkJoinPool timetableSolverPool;
+    private final HttpServletRequest httpServletRequest;
+    private final ServiceRuleEngine serviceRuleEngine;
+    private final TransactionTemplate readTransactionTemplate;
+    private final TransactionTemplate writeTransactionTemplate;
+
+    @Autowired
+    public ServiceTimetableGenerateImpl(
+            ServiceTimetable serviceTimetable,
+            ServiceTimetableEntry serviceTimetableEntry,
+            RepositoryTimetable repositoryTimetable,
+            RepositoryPlanSetting repositoryPlanSetting,
+            RepositoryPeriod repositoryPeriod,
+            RepositoryBinding repositoryBinding,
+            RepositoryClassBand repositoryClassBand,
+            ServiceAvailabilityMatrix serviceAvailabilityMatrix,
+            ConfigTimetableSolver configTimetableSolver,
+            @Qualifier("timetableSolverPool") ForkJoinPool timetableSolverPool,
+            HttpServletRequest httpServletRequest,
+            ServiceRuleEngine serviceRuleEngine,
+            PlatformTransactionManager transactionManager) {
+        this.serviceTimetable = serviceTimetable;
+        this.serviceTimetableEntry = serviceTimetableEntry;
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryPlanSetting = repositoryPlanSetting;
+        this.repositoryPeriod = repositoryPeriod;
+        this.repositoryBinding = repositoryBinding;
+        this.repositoryClassBand = repositoryClassBand;
+        this.serviceAvailabilityMatrix = serviceAvailabilityMatrix;
+        this.configTimetableSolver = configTimetableSolver;
+        this.timetableSolverPool = timetableSolverPool;
+        this.httpServletRequest = httpServletRequest;
+        this.serviceRuleEngine = serviceRuleEngine;
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
-    private ServiceBinding serviceBinding;
-    private ServiceClass serviceClass;
-    private ServiceOrganization serviceOrganization;
-    private ServicePeriod servicePeriod;
-    private ServicePlanSetting servicePlanSetting;
-    private ServiceRoom serviceRoom;
-    private ServiceRule serviceRule;
-    private ServiceSubject serviceSubject;
-    private ServiceTeacher serviceTeacher;
+    @Override
+    public ApiResponse<DtoResTimetable> generate(final DtoReqTimetableGenerate dtoReqTimetableGenerate) {
+        return generate(dtoReqTimetableGenerate, new I18n(httpServletRequest), () -> false, null);
+    }
 
+    /**
+     * Loads the solver input in a read-only transaction, solves outside any transaction so no pooled connection is
+     * held for the length of the search, and writes the timetable in a transaction of its own.
+     */
     @Override
-    public ApiResponse<DtoResTimetable> generate() {
-        final ApiResponse<DtoResTimetable> apiResponse = new ApiResponse<>();
-
-        // final ApiResponse<List<EntityBinding>> resBinding = serviceBinding.getAllBindings();
-        // final ApiResponse<List<EntityClass>> resClass = serviceClass.getAllClasses();
-        // final ApiResponse<List<EntityOrganization>> resOrganization = serviceOrganization.getAllOrganizations();
-        // final ApiResponse<List<EntityPeriod>> resPeriod = servicePeriod.getPeriodsByOrganizationId();
-        // final ApiResponse<List<EntityPlanSetting>> resPlanSetting = servicePlanSetting.findPlanningSettingsByOrganizationId();
-        // final ApiResponse<List<EntityRoom>> resRoom = serviceRoom.findAllRooms();
-        // final ApiResponse<List<EntityRule>> resRules = serviceRule.getRuleAllPreferences();
-        // final ApiResponse<List<EntitySubject>> resSubject = serviceSubject.getAllSubjects();
-        // final ApiResponse<List<EntityTeacherProfile>> resTeacher = serviceTeacher.getAllTeachers();
+    public ApiResponse<DtoResTimetable> generate(final DtoReqTimetableGenerate dtoReqTimetableGenerate, final I18n i18n, final BooleanSupplier cancelled, final Consumer<ModelTimetableSolverProgress> listener) {
+        final long startedAt = System.currentTimeMillis();
+        final Integer planSettingId = dtoReqTimetableGenerate.getPlanSettingId();
+        final GenerationInput generationInput = readTransactionTemplate.execute(status -> load(dtoReqTimetableGenerate, i18n));
+        final ModelTimetableSolverInput input = generationInput.input;
+
+        final ModelTimetableSolverResult result = UtilTimetableSolverPortfolio.solve(timetableSolverPool, input, configTimetableSolver.getEffectivePortfolioSize(), configTimetableSolver.getAcceptScore(), cancelled, listener);
+        log.info("Solved plan setting {}: {} lessons, {} unplaced, score {}, {} iterations in {} ms (strategy {}, seed {})", planSettingId, input.getLessonCount(), result.getUnplacedCount(), result.getScore(),
+                result.getIterations(), result.getElapsedMillis(), result.getStrategy(), result.getSeed());
+        if(cancelled.getAsBoolean()) {
+            throw new ExceptionTimetableGenerationCancelled(i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_CANCELLED));
+        }
+
+        final DtoResTimetable dtoResTimetable = writeTransactionTemplate.execute(status -> persist(dtoReqTimetableGenerate, generationInput, result, startedAt, i18n));
+        return ApiResponse.success(HttpStatus.CREATED, i18n.getTimetable(I18N_TIMETABLE_GENERATE_SUCCESS), dtoResTimetable);
+    }
 
+    private GenerationInput load(final DtoReqTimetableGenerate dtoReqTimetableGenerate, final I18n i18n) {
+        final Integer planSettingId = dtoReqTimetableGenerate.getPlanSettingId();
+        final EntityPlanSetting planSetting = repositoryPlanSetting.findByOrganizationIdAndIdAndIsDeletedFalse(String.valueOf(dtoReqTimetableGenerate.getOrganizationId()), planSettingId)
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getTimetable(I18N_TIMETABLE_PLAN_SETTING_NOT_FOUND)));
+
+        final List<EntityBinding> bindings = repositoryBinding.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(dtoReqTimetableGenerate.getOrganizationId(), planSettingId);
+        final List<EntityPeriod> periods = repositoryPeriod.findByPlanSettingsIdAndIsDeletedFalse(planSettingId);
+        final List<EntityClassBand> classBands = repositoryClassBand.findAllById(idsOf(bindings, EntityBinding::getClassBandId));
+
+        final long seed = dtoReqTimetableGenerate.getSeed() != null ? dtoReqTimetableGenerate.getSeed() : DEFAULT_SEED;
+        final long timeLimitMillis = dtoReqTimetableGenerate.getTimeLimitMillis() != null ? dtoReqTimetableGenerate.getTimeLimitMillis() : 0L;
+        final Map<Integer, List<ModelRuleCompiled>> rules = serviceRuleEngine.getRulesByBinding(planSettingId, idsOf(bindings, EntityBinding::getId));
+        final ModelTimetableSolverInput input = UtilTimetableSolverInput.build(planSetting, periods, bindings, classBands, serviceAvailabilityMatrix.getMatrix(planSettingId), seed, timeLimitMillis,
+                binding -> rules.getOrDefault(binding.getId(), List.of()));
+        return new GenerationInput(bindings, periods, input);
+    }
+
+    private DtoResTimetable persist(final DtoReqTimetableGenerate dtoReqTimetableGenerate, final GenerationInput generationInput, final ModelTimetableSolverResult result,
+                                    final long startedAt, final I18n i18n) {
+        final ModelTimetableSolverInput input = generationInput.input;
         final DtoReqTimetable dtoReqTimetable = new DtoReqTimetable();
-        final List<DtoReqTimetableEntry> listDtoReqTimetableEntry = new ArrayList<>();
+        dtoReqTimetable.setOrganizationId(dtoReqTimetableGenerate.getOrganizationId());
+        dtoReqTimetable.setPlanSettingId(dtoReqTimetableGenerate.getPlanSettingId());
+        dtoReqTimetable.setAcademicYear(dtoReqTimetableGenerate.getAcademicYear());
+        dtoReqTimetable.setSemester(dtoReqTimetableGenerate.getSemester());
+        final DtoResTimetable dtoResTimetable = serviceTimetable.createTimetable(dtoReqTimetable);
+
+        final List<DtoReqTimetableEntry> entries = toEntries(dtoResTimetable.getId(), input, result, generationInput.bindings, generationInput.periods);
+        final ApiResponse<List<DtoResTimetableEntry>> resCreateEntries = serviceTimetableEntry.createAll(entries);
+        dtoResTimetable.setEntries(resCreateEntries.getData());
+
+        final EntityTimetable entityTimetable = repositoryTimetable.findById(dtoResTimetable.getId())
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getTimetable(I18N_TIMETABLE_NOT_FOUND)));
+        entityTimetable.setGeneratedBy(GENERATED_BY);
+        entityTimetable.setGeneratedDate(LocalDateTime.now());
+        entityTimetable.setGenerationDuration((int) (System.currentTimeMillis() - startedAt));
+        entityTimetable.setGenerationSuccessCount(input.getLessonCount() - result.getUnplacedCount());
+        entityTimetable.setGenerationFailureCount(result.getUnplacedCount());
+        repositoryTimetable.save(entityTimetable);
+
+        dtoResTimetable.setGeneratedBy(entityTimetable.getGeneratedBy());
+        dtoResTimetable.setGenerationDuration(entityTimetable.getGenerationDuration());
+        return dtoResTimetable;
+    }
+
+    private List<DtoReqTimetableEntry> toEntries(final Integer timetableId, final ModelTimetableSolverInput input, final ModelTimetableSolverResult result, final List<EntityBinding> bindings, final List<EntityPeriod> periods) {
+        final Map<Integer, EntityPeriod> periodsByNumber = new HashMap<>();
+        for(final EntityPeriod period : periods) {
+            periodsByNumber.putIfAbsent(period.getPeriodNumber(), period);
+        }
 
-        final DtoResTimetable resCreate = serviceTimetable.createTimetable(dtoReqTimetable);
+        final List<DtoReqTimetableEntry> entries = new ArrayList<>();
+        final int[] lessonSlot = result.getLessonSlot();
+        for(int lesson = 0; lesson < lessonSlot.length; lesson++) {
+            if(lessonSlot[lesson] < 0) {
+                continue;
+            }
+            final EntityBinding binding = bindings.get(input.getLessonBinding()[lesson]);
+            final int periodNumber = input.periodOf(lessonSlot[lesson]);
+            final EntityPeriod period = periodsByNumber.get(periodNumber);
+            final boolean isClassBandEntry = binding.getClassBandId() != null && binding.getClassBandId() > 0;
+
+            final DtoReqTimetableEntry entry = new DtoReqTimetableEntry();
+            entry.setTimetableId(timetableId);
+            entry.setBindingId(binding.getId());
+            entry.setDayOfWeek(input.dayOf(lessonSlot[lesson]));
+            entry.setPeriod(periodNumber);
+            entry.setTeacherId(binding.getTeacherId());
+            entry.setSubjectId(binding.getSubjectId());
+            entry.setRoomId(binding.getRoomId());
+            entry.setClassId(binding.getClassId());
+            entry.setIsClassBandEntry(isClassBandEntry);
+            entry.setClassBandId(isClassBandEntry ? binding.getClassBandId() : null);
+            entry.setDurationMinutes(period != null ? period.getDurationMinutes() : 45);
+            entry.setPeriodType(period != null ? period.getPeriodType() : "Regular");
+            entry.setStatus("Active");
+            entry.setIsLocked(false);
+            entries.add(entry);
+        }
+        return entries;
+    }
 
-        if(resCreate != null) {
+    private static Set<Integer> idsOf(final List<EntityBinding> bindings, final Function<EntityBinding, Integer> id) {
+        return bindings.stream()
+                .map(id)
+                .filter(Objects::nonNull)
+                .filter(value -> value > 0)
+                .collect(Collectors.toSet());
+    }
 
-            final ApiResponse<List<DtoResTimetableEntry>> resCreateEntries = serviceTimetableEntry.createAll(listDtoReqTimetableEntry);
+    /** What the solve needs from the read transaction, detached once it ends. */
+    private static final class GenerationInput {
 
-            apiResponse.setSuccess(true);
-            apiResponse.setMessage("Timetable generate successfully");
-            apiResponse.setData(resCreate);
+        private final List<EntityBinding> bindings;
+        private final List<EntityPeriod> periods;
+        private final ModelTimetableSolverInput input;
 
-        }else {
-            apiResponse.setSuccess(false);
-            apiResponse.setStatus(500);
-            apiResponse.setError("Failed to create timetable");
+        private GenerationInput(final List<EntityBinding> bindings, final List<EntityPeriod> periods, final ModelTimetableSolverInput input) {
+            this.bindings = bindings;
+            this.periods = periods;
+            this.input = input;
         }
 
-        return apiResponse;
     }
 
 }
@@ -0,0 +1,291 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetable;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableGenerationJob;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableGenerationCancelled;
+import com.ist.timetabling.Timetable.model.ModelTimetableGenerationJob;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverProgress;
+import com.ist.timetabling.Timetable.service.ServiceTimetableGenerate;
+import com.ist.timetabling.Timetable.service.ServiceTimetableGenerationJob;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+
+@Slf4j
+@Service
+public class ServiceTimetableGenerationJobImpl implements ServiceTimetableGenerationJob {
+
+    public static final String EVENT_PROGRESS = "progress";
+
+    private final ServiceTimetableGenerate serviceTimetableGenerate;
+    private final ConfigTimetableSolver configTimetableSolver;
+    private final ExecutorService timetableGenerationExecutor;
+    private final HttpServletRequest httpServletRequest;
+
+    private final Map<String, ModelTimetableGenerationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Deque<ModelTimetableGenerationJob> pending = new ArrayDeque<>();
+    private final Map<Integer, Integer> runningByOrganization = new HashMap<>();
+    private int running;
+
+    @Autowired
+    public ServiceTimetableGenerationJobImpl(
+            ServiceTimetableGenerate serviceTimetableGenerate,
+            ConfigTimetableSolver configTimetableSolver,
+            @Qualifier("timetableGenerationExecutor") ExecutorService timetableGenerationExecutor,
+            HttpServletRequest httpServletRequest) {
+        this.serviceTimetableGenerate = serviceTimetableGenerate;
+        this.configTimetableSolver = configTimetableSolver;
+        this.timetableGenerationExecutor = timetableGenerationExecutor;
+        this.httpServletRequest = httpServletRequest;
+    }
+
+    @Override
+    public ApiResponse<DtoResTimetableGenerationJob> submit(final DtoReqTimetableGenerate dtoReqTimetableGenerate) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final ModelTimetableGenerationJob job = new ModelTimetableGenerationJob(dtoReqTimetableGenerate, i18n);
+        synchronized(this) {
+            final long active = jobs.values().stream()
+                    .filter(other -> !other.isFinished())
+                    .filter(other -> Objects.equals(other.getOrganizationId(), job.getOrganizationId()))
+                    .count();
+            if(active >= configTimetableSolver.getMaxQueuedPerOrganization()) {
+                return ApiResponse.error(HttpStatus.TOO_MANY_REQUESTS, i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_QUEUE_FULL));
+            }
+            jobs.put(job.getJobId(), job);
+            pending.add(job);
+            dispatch();
+        }
+        return ApiResponse.success(HttpStatus.ACCEPTED, i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_SUBMITTED), toDto(job));
+    }
+
+    @Override
+    public ApiResponse<DtoResTimetableGenerationJob> getJob(final String jobId) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final ModelTimetableGenerationJob job = findJob(jobId, i18n);
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_RETRIEVE_SUCCESS), toDto(job));
+    }
+
+    @Override
+    public ApiResponse<DtoResTimetableGenerationJob> cancel(final String jobId) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final ModelTimetableGenerationJob job = findJob(jobId, i18n);
+        if(job.isFinished()) {
+            return ApiResponse.error(HttpStatus.CONFLICT, i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_FINISHED));
+        }
+        job.setCancelRequested(true);
+        final boolean wasQueued;
+        synchronized(this) {
+            wasQueued = pending.remove(job);
+        }
+        if(wasQueued) {
+            finish(job, ModelTimetableGenerationJob.STATUS_CANCELLED, i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_CANCELLED));
+        }
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_CANCEL_SUCCESS), toDto(job));
+    }
+
+    @Override
+    public SseEmitter streamEvents(final String jobId) {
+        final ModelTimetableGenerationJob job = findJob(jobId, new I18n(httpServletRequest));
+        final SseEmitter emitter = new SseEmitter(configTimetableSolver.getEventTimeoutMillis());
+        final List<SseEmitter> listeners = emitters.computeIfAbsent(jobId, key -> new CopyOnWriteArrayList<>());
+        listeners.add(emitter);
+        emitter.onCompletion(() -> listeners.remove(emitter));
+        emitter.onTimeout(() -> listeners.remove(emitter));
+        emitter.onError(error -> listeners.remove(emitter));
+
+        if(job.isFinished()) {
+            listeners.remove(emitter);
+            if(send(job, emitter, eventName(job))) {
+                emitter.complete();
+            }
+        }else {
+            send(job, emitter, EVENT_PROGRESS);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedRate = 600000)
+    public void purgeFinishedJobs() {
+        final long cutoff = System.currentTimeMillis() - configTimetableSolver.getJobRetentionMinutes() * 60_000L;
+        jobs.values().removeIf(job -> {
+            if(job.isFinished() && job.getFinishedAtMillis() < cutoff) {
+                emitters.remove(job.getJobId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void cancelAll() {
+        jobs.values().forEach(job -> job.setCancelRequested(true));
+    }
+
+    private ModelTimetableGenerationJob findJob(final String jobId, final I18n i18n) {
+        final ModelTimetableGenerationJob job = jobs.get(jobId);
+        if(job == null) {
+            throw new ExceptionCoreNotFound(i18n.getTimetable(I18N_TIMETABLE_GENERATION_JOB_NOT_FOUND));
+        }
+        return job;
+    }
+
+    private synchronized void dispatch() {
+        final Iterator<ModelTimetableGenerationJob> iterator = pending.iterator();
+        while(iterator.hasNext() && running < Math.max(1, configTimetableSolver.getMaxConcurrentJobs())) {
+            final ModelTimetableGenerationJob job = iterator.next();
+            final int organizationRunning = runningByOrganization.getOrDefault(job.getOrganizationId(), 0);
+            if(organizationRunning >= Math.max(1, configTimetableSolver.getMaxJobsPerOrganization())) {
+                continue;
+            }
+            iterator.remove();
+            running++;
+            runningByOrganization.put(job.getOrganizationId(), organizationRunning + 1);
+            try {
+                timetableGenerationExecutor.execute(() -> run(job));
+            }catch(final RejectedExecutionException rejectedExecutionException) {
+                release(job);
+                finish(job, ModelTimetableGenerationJob.STATUS_FAILED, job.getI18n().getTimetable(I18N_TIMETABLE_GENERATION_JOB_QUEUE_FULL));
+                return;
+            }
+        }
+    }
+
+    private synchronized void release(final ModelTimetableGenerationJob job) {
+        running--;
+        runningByOrganization.computeIfPresent(job.getOrganizationId(), (organizationId, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void run(final ModelTimetableGenerationJob job) {
+        String status = ModelTimetableGenerationJob.STATUS_FAILED;
+        String message = null;
+        try {
+            if(job.isCancelRequested()) {
+                throw new ExceptionTimetableGenerationCancelled(job.getI18n().getTimetable(I18N_TIMETABLE_GENERATION_JOB_CANCELLED));
+            }
+            job.setStartedAt(LocalDateTime.now());
+            job.setStartedAtMillis(System.currentTimeMillis());
+            job.setStatus(ModelTimetableGenerationJob.STATUS_RUNNING);
+            publish(job, EVENT_PROGRESS);
+
+            final ApiResponse<DtoResTimetable> response = serviceTimetableGenerate.generate(job.getRequest(), job.getI18n(), job::isCancelRequested, progress -> onProgress(job, progress));
+            final DtoResTimetable dtoResTimetable = response.getData();
+            if(dtoResTimetable != null) {
+                job.setTimetableId(dtoResTimetable.getId());
+                job.setTimetableUuid(dtoResTimetable.getUuid());
+            }
+            status = ModelTimetableGenerationJob.STATUS_COMPLETED;
+            message = job.getI18n().getTimetable(I18N_TIMETABLE_GENERATE_SUCCESS);
+        }catch(final ExceptionTimetableGenerationCancelled exceptionTimetableGenerationCancelled) {
+            status = ModelTimetableGenerationJob.STATUS_CANCELLED;
+            message = exceptionTimetableGenerationCancelled.getMessage();
+        }catch(final RuntimeException runtimeException) {
+            log.error("Timetable generation job {} failed", job.getJobId(), runtimeException);
+            message = runtimeException.getMessage();
+        }finally {
+            release(job);
+            finish(job, status, message);
+            dispatch();
+        }
+    }
+
+    private void onProgress(final ModelTimetableGenerationJob job, final ModelTimetableSolverProgress progress) {
+        if(job.offer(progress)) {
+            publish(job, EVENT_PROGRESS);
+        }
+    }
+
+    private void finish(final ModelTimetableGenerationJob job, final String status, final String message) {
+        job.setMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setFinishedAtMillis(System.currentTimeMillis());
+        job.setStatus(status);
+        log.info("Timetable generation job {} for organization {} finished as {} in {} ms", job.getJobId(), job.getOrganizationId(), status, job.getElapsedMillis());
+
+        final String eventName = eventName(job);
+        final List<SseEmitter> listeners = emitters.remove(job.getJobId());
+        if(listeners != null) {
+            for(final SseEmitter emitter : listeners) {
+                if(send(job, emitter, eventName)) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void publish(final ModelTimetableGenerationJob job, final String eventName) {
+        final List<SseEmitter> listeners = emitters.get(job.getJobId());
+        if(listeners != null) {
+            for(final SseEmitter emitter : listeners) {
+                send(job, emitter, eventName);
+            }
+        }
+    }
+
+    private boolean send(final ModelTimetableGenerationJob job, final SseEmitter emitter, final String eventName) {
+        try {
+            emitter.send(SseEmitter.event().id(job.getJobId()).name(eventName).data(toDto(job)));
+            return true;
+        }catch(final Exception exception) {
+            final List<SseEmitter> listeners = emitters.get(job.getJobId());
+            if(listeners != null) {
+                listeners.remove(emitter);
+            }
+            emitter.completeWithError(exception);
+            return false;
+        }
+    }
+
+    private static String eventName(final ModelTimetableGenerationJob job) {
+        return job.isFinished() ? job.getStatus().toLowerCase() : EVENT_PROGRESS;
+    }
+
+    private DtoResTimetableGenerationJob toDto(final ModelTimetableGenerationJob job) {
+        final ModelTimetableSolverProgress progress = job.getProgress();
+        return DtoResTimetableGenerationJob.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .organizationId(job.getOrganizationId())
+                .planSettingId(job.getRequest().getPlanSettingId())
+                .lessonCount(progress != null ? progress.getLessonCount() : null)
+                .placedCount(progress != null ? progress.getPlacedCount() : null)
+                .unplacedCount(progress != null ? progress.getUnplacedCount() : null)
+                .bestScore(progress != null ? progress.getScore() : null)
+                .strategy(progress != null && progress.getStrategy() != null ? progress.getStrategy().name() : null)
+                .elapsedMillis(job.getElapsedMillis())
+                .queuedAt(job.getQueuedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .timetableId(job.getTimetableId())
+                .timetableUuid(job.getTimetableUuid())
+                .message(job.getMessage())
+                .build();
+    }
+
+}
@@ -1,11 +1,10 @@
 package com.ist.timetabling.Timetable.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.ist.timetabling.Class.entity.EntityClass;
-import com.ist.timetabling.Class.repository.RepositoryClass;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.ist.timetabling.Core.model.ApiResponse;
 import com.ist.timetabling.Period.dto.res.DtoResPeriod;
 import com.ist.timetabling.Period.repository.RepositoryPeriod;
@@ -15,28 +14,34 @@ import com.ist.timetabling.Room.entity.EntityRoom;
 import com.ist.timetabling.Room.repository.RepositoryRoom;
 import com.ist.timetabling.Subject.entity.EntitySubject;
 import com.ist.timetabling.Subject.repository.RepositorySubject;
-import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
-import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetable;
 import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntry;
 import com.ist.timetabling.Timetable.dto.res.*;
 import com.ist.timetabling.Timetable.entity.EntityTimetable;
 import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
 import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids.View;
 import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
 import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
 import com.ist.timetabling.Timetable.service.ServiceTimetable;
-import com.ist.timetabling.User.entity.EntityUser;
-import com.ist.timetabling.User.repository.RepositoryUser;
+import com.ist.timetabling.Timetable.service.ServiceTimetableCache;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -49,34 +54,40 @@ public class ServiceTimetableImpl implements ServiceTimetable {
     private final RepositoryTimetableEntry repositoryTimetableEntry;
     private final ObjectMapper objectMapper;
     private final RepositorySubject repositorySubject;
-    private final RepositoryUser repositoryUser;
     private final RepositoryRoom repositoryRoom;
-    private final RepositoryTeacherProfile repositoryTeacherProfile;
-    private final RepositoryClass repositoryClass;
     private final RepositoryPeriod repositoryPeriod;
     private final RepositoryPlanSetting repositoryPlanSetting;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ServiceTimetableView serviceTimetableView;
+    private final ServiceTimetableCache serviceTimetableCache;
+    private final ServiceTimetableOperation serviceTimetableOperation;
 
     @Autowired
     public ServiceTimetableImpl(
             RepositoryTimetable repositoryTimetable,
             RepositoryTimetableEntry repositoryTimetableEntry,
             RepositorySubject repositorySubject,
-            RepositoryUser repositoryUser,
             RepositoryRoom repositoryRoom,
-            RepositoryTeacherProfile repositoryTeacherProfile,
-            RepositoryClass repositoryClass,
             RepositoryPeriod repositoryPeriod,
-            RepositoryPlanSetting repositoryPlanSetting
+            RepositoryPlanSetting repositoryPlanSetting,
+            ServiceTimetableOccupancy serviceTimetableOccupancy,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ServiceTimetableView serviceTimetableView,
+            ServiceTimetableCache serviceTimetableCache,
+            ServiceTimetableOperation serviceTimetableOperation
     ) {
         this.repositoryTimetable = repositoryTimetable;
         this.repositoryTimetableEntry = repositoryTimetableEntry;
         this.repositorySubject = repositorySubject;
-        this.repositoryUser = repositoryUser;
         this.repositoryRoom = repositoryRoom;
-        this.repositoryTeacherProfile = repositoryTeacherProfile;
-        this.repositoryClass = repositoryClass;
         this.repositoryPeriod = repositoryPeriod;
         this.repositoryPlanSetting = repositoryPlanSetting;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.serviceTimetableView = serviceTimetableView;
+        this.serviceTimetableCache = serviceTimetableCache;
+        this.serviceTimetableOperation = serviceTimetableOperation;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -84,12 +95,11 @@ public class ServiceTimetableImpl implements ServiceTimetable {
     public List<DtoResTimetable> getAllTimetables(Integer organizationId) {
         final List<EntityTimetable> timetables = repositoryTimetable.findByOrganizationIdAndIsDeletedFalse(organizationId);
         final List<DtoResTimetable> responses = new ArrayList<>();
+        final Map<Integer, List<DtoResTimetableEntry>> entriesByTimetable = serviceTimetableCache.getEntriesByTimetable(timetables);
 
         for (EntityTimetable timetable : timetables) {
             DtoResTimetable dto = convertToDto(timetable);
-            List<EntityTimetableEntry> entryEntities = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
-            List<DtoResTimetableEntry> entryDtos = convertToEntryDtos(entryEntities, timetable.getId());
-            dto.setEntries(entryDtos);
+            dto.setEntries(entriesByTimetable.getOrDefault(timetable.getId(), new ArrayList<>()));
             responses.add(dto);
         }
 
@@ -101,11 +111,8 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
                 .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
 
-        syncTimetableRelatedEntities(timetable.getId());
-
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
         final DtoResTimetable timetableDto = convertToDto(timetable);
-        timetableDto.setEntries(convertToEntryDtos(entries, timetable.getId()));
+        timetableDto.setEntries(serviceTimetableCache.getEntries(timetable));
 
         return timetableDto;
     }
@@ -115,18 +122,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
                 .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
 
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
-        
-        final List<DtoResTimetableEntry> dtoEntries = convertToEntryDtos(entries, timetable.getId());
-        
-        
-        for (DtoResTimetableEntry dto : dtoEntries) {
-            if (dto.getIsLocked() == null) {
-                dto.setIsLocked(false);
-            }
-        }
-        
-        return dtoEntries;
+        return serviceTimetableCache.getEntries(timetable);
     }
 
     @Override
@@ -134,14 +130,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
                 .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
 
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndDayOfWeek(timetable.getId(), dayOfWeek);
-        final List<DtoResTimetableEntry> dtoEntries = entries.stream()
-                .map(this::mapEntityToDto)
-                .collect(Collectors.toList());
-
-        enrichTimetableEntriesWithSubjectData(dtoEntries);
-
-        return dtoEntries;
+        return serviceTimetableView.getEntriesByDay(timetable.getId(), dayOfWeek);
     }
 
     @Override
@@ -149,68 +138,15 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
                 .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
 
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndSubjectId(timetable.getId(), subjectId);
-        return convertToEntryDtos(entries, timetable.getId());
-    }
-
-    private DtoResTimetableEntry mapEntityToDto(EntityTimetableEntry entry) {
-        final DtoResTimetableEntry dto = new DtoResTimetableEntry();
-        dto.setId(entry.getId());
-        dto.setUuid(entry.getUuid());
-        dto.setTimetableId(entry.getTimetableId());
-        dto.setDayOfWeek(entry.getDayOfWeek());
-        dto.setPeriod(entry.getPeriod());
-
-        // Ensure subject data is properly populated
-        if (entry.getSubjectId() != null) {
-            EntitySubject subject = repositorySubject.findById(entry.getSubjectId())
-                    .orElseThrow(() -> new RuntimeException("Subject not found with ID: " + entry.getSubjectId()));
-            dto.setSubjectId(subject.getId());
-            dto.setSubjectUuid(subject.getUuid());
-            dto.setSubjectName(subject.getName());
-            dto.setSubjectColor(subject.getColor());
-            dto.setSubjectInitials(subject.getInitials());
-        }
-
-        dto.setDurationMinutes(entry.getDurationMinutes());
-        dto.setPeriodType(entry.getPeriodType());
-        dto.setStatus(entry.getStatus());
-
-        return dto;
+        return serviceTimetableView.getEntries(timetable.getId(), View.SUBJECT, subjectId);
     }
 
-    private void enrichTimetableEntriesWithSubjectData(List<DtoResTimetableEntry> entries) {
-        // Create a map of subject IDs to fetch missing data in one query
-        Set<Integer> subjectIds = entries.stream()
-                .filter(e -> e.getSubjectId() != null && (e.getSubjectName() == null || e.getSubjectColor() == null))
-                .map(DtoResTimetableEntry::getSubjectId)
-                .collect(Collectors.toSet());
-
-        if (!subjectIds.isEmpty()) {
-            Map<Integer, EntitySubject> subjectMap = repositorySubject.findAllById(subjectIds).stream()
-                    .collect(Collectors.toMap(EntitySubject::getId, subject -> subject));
-
-            // Update entries with missing subject data
-            entries.forEach(entry -> {
-                if (entry.getSubjectId() != null && (entry.getSubjectName() == null || entry.getSubjectColor() == null)) {
-                    EntitySubject subject = subjectMap.get(entry.getSubjectId());
-                    if (subject != null) {
-                        entry.setSubjectUuid(subject.getUuid());
-                        entry.setSubjectName(subject.getName());
-                        entry.setSubjectColor(subject.getColor());
-                        entry.setSubjectInitials(subject.getInitials());
-                    }
-                }
-            });
-        }
-    }
     @Override
     public List<DtoResTimetableEntry> getTimetableEntriesByUuidAndRoom(final String uuid, final Integer roomId) {
         final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
                 .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
 
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndRoomId(timetable.getId(), roomId);
-        return convertToEntryDtos(entries, timetable.getId());
+        return serviceTimetableView.getEntries(timetable.getId(), View.ROOM, roomId);
     }
 
     @Override
@@ -221,8 +157,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntitySubject subject = repositorySubject.findByUuidAndIsDeletedFalse(subjectUuid)
                 .orElseThrow(() -> new RuntimeException("Subject not found with UUID: " + subjectUuid));
 
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndSubjectId(timetable.getId(), subject.getId());
-        return convertToEntryDtos(entries, timetable.getId());
+        return serviceTimetableView.getEntries(timetable.getId(), View.SUBJECT, subject.getId());
     }
 
     @Override
@@ -233,8 +168,34 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntityRoom room = repositoryRoom.findByUuidAndIsDeletedFalse(roomUuid)
                 .orElseThrow(() -> new RuntimeException("Room not found with UUID: " + roomUuid));
 
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndRoomId(timetable.getId(), room.getId());
-        return convertToEntryDtos(entries, timetable.getId());
+        return serviceTimetableView.getEntries(timetable.getId(), View.ROOM, room.getId());
+    }
+
+    @Override
+    public String getTimetableETag(final String uuid) {
+        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
+
+        return eTagOf(timetable);
+    }
+
+    @Override
+    public String getLatestTimetableETag(final Integer organizationId) {
+        final List<EntityTimetable> timetables = repositoryTimetable.findLatestByOrganizationId(organizationId, PageRequest.of(0, 1));
+
+        if (timetables.isEmpty()) {
+            throw new ExceptionTimetableNotFound("No timetables found for organization ID: " + organizationId);
+        }
+
+        return eTagOf(timetables.get(0));
+    }
+
+    @Override
+    public DtoResTimetableView getTimetableView(final String uuid, final View view, final Integer resourceId) {
+        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with UUID: " + uuid));
+
+        return serviceTimetableView.getView(timetable.getId(), view, resourceId);
     }
 
     @Override
@@ -248,11 +209,8 @@ public class ServiceTimetableImpl implements ServiceTimetable {
 
         final EntityTimetable latestTimetable = timetables.get(0);
 
-        syncTimetableRelatedEntities(latestTimetable.getId());
-
-        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(latestTimetable.getId());
-        final DtoResTimetable timetableDto = convertToDto(latestTimetable);      
-        timetableDto.setEntries(convertToEntryDtos(entries, latestTimetable.getId()));
+        final DtoResTimetable timetableDto = convertToDto(latestTimetable);
+        timetableDto.setEntries(serviceTimetableCache.getEntries(latestTimetable));
 
         return timetableDto;
     }
@@ -262,42 +220,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(uuid)
                 .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with uuid: " + uuid));
 
-        // Get all entries for this timetable
-        List<EntityTimetableEntry> allEntries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
-
-        // Apply filters with null-safe checks
-        List<EntityTimetableEntry> filteredEntries = allEntries.stream()
-                .filter(entry -> {
-                    // Teacher filter
-                    boolean matchesTeacher = teacherIds == null || teacherIds.isEmpty();
-                    if (!matchesTeacher && entry.getTeacherId() != null) {
-                        matchesTeacher = teacherIds.contains(entry.getTeacherId());
-                    }
-
-                    // Room filter
-                    boolean matchesRoom = roomIds == null || roomIds.isEmpty();
-                    if (!matchesRoom && entry.getRoomId() != null) {
-                        matchesRoom = roomIds.contains(entry.getRoomId());
-                    }
-
-                    // Subject filter
-                    boolean matchesSubject = subjectIds == null || subjectIds.isEmpty();
-                    if (!matchesSubject && entry.getSubjectId() != null) {
-                        matchesSubject = subjectIds.contains(entry.getSubjectId());
-                    }
-
-                    // Class filter
-                    boolean matchesClass = classIds == null || classIds.isEmpty();
-                    if (!matchesClass && entry.getClassId() != null) {
-                        matchesClass = classIds.contains(entry.getClassId());
-                    }
-
-                    return matchesTeacher && matchesRoom && matchesSubject && matchesClass;
-                })
-                .collect(Collectors.toList());
-
-        // Convert to DTOs with all data preserved
-        return convertToEntryDtos(filteredEntries, timetable.getId());
+        return serviceTimetableView.filter(timetable.getId(), teacherIds, roomIds, subjectIds, classIds);
     }
 
     @Override
@@ -312,7 +235,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
 
         final DtoResTimetable dtoResTimetable = convertToDtoAi(entityTimetable);
         final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableId(entityTimetable.getId());
-        dtoResTimetable.setEntries(convertToEntryDtos(entries, entityTimetable.getId()));
+        dtoResTimetable.setEntries(convertToEntryDtos(entries));
 
         apiResponse.setSuccess(true);
         apiResponse.setData(dtoResTimetable);
@@ -346,7 +269,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
 
         final DtoResTimetable dtoResTimetable = convertToDtoAi(entityTimetable);
         final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableId(entityTimetable.getId());
-        dtoResTimetable.setEntries(convertToEntryDtos(entries, entityTimetable.getId()));
+        dtoResTimetable.setEntries(convertToEntryDtos(entries));
         return dtoResTimetable;
     }
 
@@ -393,6 +316,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
     }
 
     @Override
+    @Transactional
     public List<DtoResTimetableEntry> updateTimetableEntryPositions(final String timetableUuid, final List<DtoReqTimetableEntry> entryPositions, final String operation) {
         
         if (entryPositions == null || entryPositions.size() != 2) {
@@ -406,6 +330,11 @@ public class ServiceTimetableImpl implements ServiceTimetable {
                 .orElseThrow(() -> new RuntimeException("Timetable entry not found with UUID: " + first.getUuid()));
         EntityTimetableEntry entry2 = repositoryTimetableEntry.findByUuidAndIsDeletedFalse(second.getUuid())
                 .orElseThrow(() -> new RuntimeException("Timetable entry not found with UUID: " + second.getUuid()));
+        checkVersion(first, entry1);
+        checkVersion(second, entry2);
+
+        serviceTimetableOccupancy.release(entry1);
+        serviceTimetableOccupancy.release(entry2);
 
         if ("create".equalsIgnoreCase(operation)) {
             // Move operation - Move entry1 to entry2's position and mark entry2 as deleted
@@ -422,14 +351,17 @@ public class ServiceTimetableImpl implements ServiceTimetable {
             // Mark entry2 as deleted
             entry2.setIsDeleted(true);
 
-            repositoryTimetableEntry.save(entry1);
-            repositoryTimetableEntry.save(entry2);
+            repositoryTimetableEntry.saveAll(List.of(entry1, entry2));
+            serviceTimetableOperation.recordSwap(entry1, entry2, true);
+            serviceTimetableOccupancy.occupy(entry1);
+            serviceTimetableOccupancy.occupy(entry2);
+            serviceTimetableView.refresh(List.of(entry1, entry2));
 
             List<EntityTimetableEntry> updatedEntries = new ArrayList<>();
             updatedEntries.add(entry1);
             updatedEntries.add(entry2);
 
-            return convertToEntryDtos(updatedEntries, entry1.getTimetableId());
+            return convertToEntryDtos(updatedEntries);
         } else {
             // Standard swap operation - remains unchanged
             Integer tempDay = entry1.getDayOfWeek();
@@ -441,14 +373,24 @@ public class ServiceTimetableImpl implements ServiceTimetable {
             entry2.setDayOfWeek(tempDay);
             entry2.setPeriod(tempPeriod);
 
-            repositoryTimetableEntry.save(entry1);
-            repositoryTimetableEntry.save(entry2);
+            repositoryTimetableEntry.saveAll(List.of(entry1, entry2));
+            serviceTimetableOperation.recordSwap(entry1, entry2, false);
+            serviceTimetableOccupancy.occupy(entry1);
+            serviceTimetableOccupancy.occupy(entry2);
+            serviceTimetableView.refresh(List.of(entry1, entry2));
 
             List<EntityTimetableEntry> swappedEntries = new ArrayList<>();
             swappedEntries.add(entry1);
             swappedEntries.add(entry2);
 
-            return convertToEntryDtos(swappedEntries, entry1.getTimetableId());
+            return convertToEntryDtos(swappedEntries);
+        }
+    }
+
+    /** An editor that sent the version it read is refused when the entry has changed since. */
+    private void checkVersion(final DtoReqTimetableEntry position, final EntityTimetableEntry entry) {
+        if(position.getVersion() != null && !position.getVersion().equals(entry.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(EntityTimetableEntry.class, entry.getId());
         }
     }
 
@@ -484,6 +426,11 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         return stats;
     }
 
+    private static String eTagOf(final EntityTimetable timetable) {
+        final long contentVersion = timetable.getContentVersion() != null ? timetable.getContentVersion() : 0L;
+        return "\"" + timetable.getId() + "-" + contentVersion + "\"";
+    }
+
     private DtoResTimetable convertToDto(final EntityTimetable timetable) {
         final DtoResTimetable dto = new DtoResTimetable();
         dto.setId(timetable.getId());
@@ -511,6 +458,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         dto.setGenerationSuccessCount(timetable.getGenerationSuccessCount());
         dto.setGenerationFailureCount(timetable.getGenerationFailureCount());
         dto.setTimetablePlan(timetable.getTimetablePlan());
+        dto.setContentVersion(timetable.getContentVersion());
         return dto;
     }
 
@@ -541,236 +489,51 @@ public class ServiceTimetableImpl implements ServiceTimetable {
         return dto;
     }
 
-    @Transactional
-    public void syncTimetableRelatedEntities(final Integer timetableId) {
-        final EntityTimetable timetable = repositoryTimetable.findById(timetableId)
-                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with ID: " + timetableId));
-
-        try {
-            final List<EntitySubject> subjects = repositorySubject.findByOrganizationIdAndIsDeletedFalse(timetable.getOrganizationId());
-            final List<EntityRoom> rooms = repositoryRoom.findByOrganizationId(timetable.getOrganizationId());
-            final List<EntityTeacherProfile> teacherProfiles = repositoryTeacherProfile.findByOrganizationIdAndIsDeletedFalse(timetable.getOrganizationId());
-            final List<EntityClass> classes = repositoryClass.findByOrganizationIdAndIsDeletedFalse(timetable.getOrganizationId());
-
-            final ObjectMapper mapper = new ObjectMapper();
-            final ObjectNode rootNode = mapper.createObjectNode();
-
-            final ArrayNode subjectsArray = mapper.createArrayNode();
-            for (EntitySubject subject : subjects) {
-                final ObjectNode subjectNode = mapper.createObjectNode();
-                subjectNode.put("id", subject.getId());
-                subjectNode.put("uuid", subject.getUuid());
-                subjectNode.put("name", subject.getName());
-                subjectNode.put("color", subject.getColor() != null ? subject.getColor() : "#808080");
-                subjectNode.put("initials", subject.getInitials());
-                subjectsArray.add(subjectNode);
-            }
-            rootNode.set("subjects", subjectsArray);
-
-            final ArrayNode teachersArray = mapper.createArrayNode();
-            for (EntityTeacherProfile profile : teacherProfiles) {
-                final ObjectNode teacherNode = mapper.createObjectNode();
-                teacherNode.put("id", profile.getId());
-                teacherNode.put("uuid", profile.getUuid());
-                teacherNode.put("name", "");
-                teacherNode.put("initials", profile.getInitials());
-                teachersArray.add(teacherNode);
-            }
-            rootNode.set("teachers", teachersArray);
-
-            final ArrayNode roomsArray = mapper.createArrayNode();
-            for (EntityRoom room : rooms) {
-                final ObjectNode roomNode = mapper.createObjectNode();
-                roomNode.put("id", room.getId());
-                roomNode.put("uuid", room.getUuid());
-                roomNode.put("name", room.getName());
-                roomNode.put("code", room.getCode());
-                roomsArray.add(roomNode);
-            }
-            rootNode.set("rooms", roomsArray);
-
-            final ArrayNode classesArray = mapper.createArrayNode();
-            for (EntityClass classEntity : classes) {
-                final ObjectNode classNode = mapper.createObjectNode();
-                classNode.put("id", classEntity.getId());
-                classNode.put("uuid", classEntity.getUuid());
-                classNode.put("name", classEntity.getName());
-                classNode.put("initials", classEntity.getInitial());
-                classesArray.add(classNode);
-            }
-            rootNode.set("classes", classesArray);
-
-            final String cachedDataJson = mapper.writeValueAsString(rootNode);
-            timetable.setCachedData(cachedDataJson);
-            repositoryTimetable.save(timetable);
-
-        } catch (Exception e) {
-            log.error("Error updating cached data: {}", e.getMessage());
-        }
-    }
-
-    private List<DtoResTimetableEntry> convertToEntryDtos(final List<EntityTimetableEntry> entries, final Integer timetableId) {
-        final List<DtoResTimetableEntry> dtos = new ArrayList<>();
-
-        final EntityTimetable timetable = repositoryTimetable.findById(timetableId)
-                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with ID: " + timetableId));
-
-        final ObjectMapper mapper = new ObjectMapper();
-        JsonNode cachedData;
-        try {
-            cachedData = mapper.readTree(timetable.getCachedData());
-        } catch (Exception e) {
-            log.error("Error parsing cached data: {}", e.getMessage());
-            cachedData = mapper.createObjectNode();
-        }
-
-        final Map<Integer, JsonNode> subjectMap = new HashMap<>();
-        final Map<Integer, JsonNode> teacherMap = new HashMap<>();
-        final Map<Integer, JsonNode> roomMap = new HashMap<>();
-        final Map<Integer, JsonNode> classMap = new HashMap<>();
-
-        if (cachedData.has("subjects") && cachedData.get("subjects").isArray()) {
-            for (JsonNode subject : cachedData.get("subjects")) {
-                if (subject.has("id")) {
-                    subjectMap.put(subject.get("id").asInt(), subject);
-                }
-            }
-        }
-
-        if (cachedData.has("teachers") && cachedData.get("teachers").isArray()) {
-            for (JsonNode teacher : cachedData.get("teachers")) {
-                if (teacher.has("id")) {
-                    teacherMap.put(teacher.get("id").asInt(), teacher);
-                }
-            }
-        }
-
-        if (cachedData.has("rooms") && cachedData.get("rooms").isArray()) {
-            for (JsonNode room : cachedData.get("rooms")) {
-                if (room.has("id")) {
-                    roomMap.put(room.get("id").asInt(), room);
-                }
-            }
-        }
-
-        if (cachedData.has("classes") && cachedData.get("classes").isArray()) {
-            for (JsonNode classNode : cachedData.get("classes")) {
-                if (classNode.has("id")) {
-                    classMap.put(classNode.get("id").asInt(), classNode);
-                }
-            }
-        }
-
-        Set<Integer> teacherProfileIds = new HashSet<>();
-        for (EntityTimetableEntry entry : entries) {
-            if (entry.getTeacherId() != null) {
-                teacherProfileIds.add(entry.getTeacherId());
-            }
-        }
-
-        Map<Integer, EntityTeacherProfile> teacherProfileMap = new HashMap<>();
-        Map<Integer, EntityUser> userMap = new HashMap<>();
-
-        if (!teacherProfileIds.isEmpty()) {
-            try {
-                List<EntityTeacherProfile> teacherProfiles = repositoryTeacherProfile.findAllById(new ArrayList<>(teacherProfileIds));
-
-                Set<Integer> userIds = new HashSet<>();
-                for (EntityTeacherProfile profile : teacherProfiles) {
-                    teacherProfileMap.put(profile.getId(), profile);
-                    userIds.add(profile.getUserId());
-                }
-
-                if (!userIds.isEmpty()) {
-                    List<EntityUser> users = repositoryUser.findAllById(new ArrayList<>(userIds));
-                    for (EntityUser user : users) {
-                        userMap.put(user.getId(), user);
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error fetching teacher data: {}", e.getMessage());
-            }
-        }
-
-        for (EntityTimetableEntry entry : entries) {
-            if(!entry.getIsDeleted()){
-                final DtoResTimetableEntry dto = new DtoResTimetableEntry();
-                dto.setId(entry.getId());
-                dto.setUuid(entry.getUuid());
-                dto.setTimetableId(entry.getTimetableId());
-                dto.setDayOfWeek(entry.getDayOfWeek());
-                dto.setPeriod(entry.getPeriod());
-                dto.setDurationMinutes(entry.getDurationMinutes());
-                dto.setPeriodType(entry.getPeriodType());
-                dto.setStatus(entry.getStatus());
-
-                dto.setSubjectId(entry.getSubjectId());
-                if (entry.getSubjectId() != null && subjectMap.containsKey(entry.getSubjectId())) {
-                    final JsonNode subject = subjectMap.get(entry.getSubjectId());
-                    dto.setSubjectUuid(subject.has("uuid") ? subject.get("uuid").asText() : null);
-                    dto.setSubjectName(subject.has("name") ? subject.get("name").asText() : null);
-                    dto.setSubjectColor(subject.has("color") ? subject.get("color").asText() : null);
-                    dto.setSubjectInitials(subject.has("initials") ? subject.get("initials").asText() : null);
-                }
-
-                dto.setTeacherId(entry.getTeacherId());
-                if (entry.getTeacherId() != null) {
-                    if (teacherProfileMap.containsKey(entry.getTeacherId())) {
-                        EntityTeacherProfile teacherProfile = teacherProfileMap.get(entry.getTeacherId());
-                        dto.setTeacherUuid(teacherProfile.getUuid());
-                        dto.setTeacherInitials(teacherProfile.getInitials());
-
-                        if (userMap.containsKey(teacherProfile.getUserId())) {
-                            EntityUser user = userMap.get(teacherProfile.getUserId());
-                            dto.setTeacherName(user.getFirstName() + " " + user.getLastName());
-                        } else {
-                            dto.setTeacherName("");
-                        }
-                    } else {
-                        dto.setTeacherUuid(null);
-                        dto.setTeacherName("");
-                        dto.setTeacherInitials(null);
-                    }
-                }
-
-                dto.setRoomId(entry.getRoomId());
-                if (entry.getRoomId() != null && roomMap.containsKey(entry.getRoomId())) {
-                    final JsonNode room = roomMap.get(entry.getRoomId());
-                    dto.setRoomUuid(room.has("uuid") ? room.get("uuid").asText() : null);
-                    dto.setRoomName(room.has("name") ? room.get("name").asText() : null);
-                    dto.setRoomInitials(room.has("code") ? room.get("code").asText() : null);
-                }
-
-                dto.setClassId(entry.getClassId());
-                if (entry.getClassId() != null && classMap.containsKey(entry.getClassId())) {
-                    final JsonNode classNode = classMap.get(entry.getClassId());
-                    dto.setClassUuid(classNode.has("uuid") ? classNode.get("uuid").asText() : null);
-                    dto.setClassName(classNode.has("name") ? classNode.get("name").asText() : null);
-                    dto.setClassInitials(classNode.has("initials") ? classNode.get("initials").asText() : null);
-                }
-                dto.setIsLocked(entry.getIsLocked() != null ? entry.getIsLocked() : false);
-                dto.setIsDeleted(entry.getIsDeleted() != null ? entry.getIsDeleted() : false);
-
-                dtos.add(dto);
-            }
-
-        }
-
-        return dtos;
+    private List<DtoResTimetableEntry> convertToEntryDtos(final List<EntityTimetableEntry> entries) {
+        return serviceTimetableEntryReadModel.toDtos(entries.stream()
+                .filter(entry -> !Boolean.TRUE.equals(entry.getIsDeleted()))
+                .collect(Collectors.toList()));
     }
 
     @Override
     public List<DtoResTimetableEntry> getAllTimetablesEntriesFlat(final Integer organizationId) {
         final List<EntityTimetable> timetables = repositoryTimetable.findByOrganizationIdAndIsDeletedFalse(organizationId);
         final List<DtoResTimetableEntry> allEntries = new ArrayList<>();
-        for (EntityTimetable timetable : timetables) {
-            List<EntityTimetableEntry> entryEntities = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
-            List<DtoResTimetableEntry> entryDtos = convertToEntryDtos(entryEntities, timetable.getId());
-            allEntries.addAll(entryDtos);
-        }
+        serviceTimetableCache.getEntriesByTimetable(timetables)
+                .values()
+                .forEach(allEntries::addAll);
         return allEntries;
     }
 
+    /**
+     * Writes the same envelope as {@link #getAllTimetablesEntries(Integer)}, but entry by entry
+     * straight from the database cursor, so memory stays flat however large the organisation is.
+     */
+    @Override
+    public void writeAllTimetablesEntries(final Integer organizationId, final OutputStream outputStream) throws IOException {
+        final ObjectWriter entryWriter = objectMapper.writerFor(DtoResTimetableEntry.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try(final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("status", HttpStatus.OK.value());
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", "Successfully retrieved all timetable entries");
+            generator.writeArrayFieldStart("data");
+            try {
+                serviceTimetableEntryReadModel.forEachEntryOfOrganization(organizationId, entry -> {
+                    try {
+                        entryWriter.writeValue(generator, entry);
+                    }catch(final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }catch(final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
     @Override
     public ApiResponse<List<DtoResTimetableEntry>> getAllTimetablesEntries(final Integer organizationId) {
         List<DtoResTimetableEntry> entries = getAllTimetablesEntriesFlat(organizationId);
@@ -783,6 +546,7 @@ public class ServiceTimetableImpl implements ServiceTimetable {
     }
 
     @Override
+    @Transactional
     public List<DtoResTimetableEntry> restoreDeletedEntry(final String timetableUuid, final Integer dayOfWeek, final Integer period) {
 
             final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(timetableUuid)
@@ -796,10 +560,13 @@ public class ServiceTimetableImpl implements ServiceTimetable {
             
             entryToRestore.setIsDeleted(false);
             repositoryTimetableEntry.save(entryToRestore);
+            serviceTimetableOperation.recordRestore(entryToRestore);
+            serviceTimetableOccupancy.occupy(entryToRestore);
+            serviceTimetableView.refresh(List.of(entryToRestore));
             
             List<EntityTimetableEntry> restoredEntryList = new ArrayList<>();
             restoredEntryList.add(entryToRestore);
-            List<DtoResTimetableEntry> dtoList = convertToEntryDtos(restoredEntryList, timetable.getId());
+            List<DtoResTimetableEntry> dtoList = convertToEntryDtos(restoredEntryList);
             
         return dtoList;
     }
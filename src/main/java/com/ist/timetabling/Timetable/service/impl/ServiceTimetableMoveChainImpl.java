@@ -0,0 +1,263 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntryMove;
+import com.ist.timetabling.Timetable.dto.res.DtoResScheduleConflict;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableMoveChain;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableMove;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableMoveChain;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+import static com.ist.timetabling.Timetable.service.impl.ServiceManualSchedulingImpl.SEVERITY_HARD;
+
+@Service
+public class ServiceTimetableMoveChainImpl implements ServiceTimetableMoveChain {
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ServiceTimetableView serviceTimetableView;
+    private final ServiceTimetableOperation serviceTimetableOperation;
+    private final HttpServletRequest httpServletRequest;
+
+    @Autowired
+    public ServiceTimetableMoveChainImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            ServiceTimetableOccupancy serviceTimetableOccupancy,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ServiceTimetableView serviceTimetableView,
+            ServiceTimetableOperation serviceTimetableOperation,
+            HttpServletRequest httpServletRequest) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.serviceTimetableView = serviceTimetableView;
+        this.serviceTimetableOperation = serviceTimetableOperation;
+        this.httpServletRequest = httpServletRequest;
+    }
+
+    /**
+     * Moves every entry of the chain to its cell in one transaction. The chain is checked as a whole, so its entries
+     * may trade places among themselves, and it is refused outright when an entry changed since the editor read it
+     * or when a move clashes with an entry outside the chain, with another move, or with an unavailable resource.
+     */
+    @Override
+    @Transactional
+    public ApiResponse<DtoResTimetableMoveChain> moveEntries(final String timetableUuid, final List<DtoReqTimetableEntryMove> moves) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(timetableUuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound(i18n.getTimetable(I18N_TIMETABLE_NOT_FOUND)));
+        final List<EntityTimetableEntry> entries = findEntries(timetable.getId(), moves, i18n);
+
+        final List<ModelTimetableMove> applied = new ArrayList<>(moves.size());
+        final ModelTimetableConflictIndex index = serviceTimetableOccupancy.getConflictIndex(timetable.getId());
+        synchronized(index) {
+            final List<String> validationErrors = new ArrayList<>();
+            final List<DtoResScheduleConflict> conflicts = new ArrayList<>();
+            collectConflicts(index, entries, moves, i18n, validationErrors, conflicts);
+            if(!validationErrors.isEmpty() || !conflicts.isEmpty()) {
+                return ApiResponse.<DtoResTimetableMoveChain>builder()
+                        .status(conflicts.isEmpty() ? HttpStatus.BAD_REQUEST.value() : HttpStatus.CONFLICT.value())
+                        .success(false)
+                        .message(i18n.getTimetable(I18N_TIMETABLE_MOVE_CHAIN_REJECTED))
+                        .data(DtoResTimetableMoveChain.builder().valid(false).conflicts(conflicts).validationErrors(validationErrors).build())
+                        .build();
+            }
+
+            // Claimed in the index before the rows are written, so a chain validated right after this one already sees these cells taken.
+            for(int m = 0; m < moves.size(); m++) {
+                final EntityTimetableEntry entry = entries.get(m);
+                final DtoReqTimetableEntryMove move = moves.get(m);
+                applied.add(ModelTimetableMove.builder()
+                        .entryUuid(entry.getUuid())
+                        .fromDayOfWeek(entry.getDayOfWeek())
+                        .fromPeriod(entry.getPeriod())
+                        .toDayOfWeek(move.getDayOfWeek())
+                        .toPeriod(move.getPeriod())
+                        .build());
+                serviceTimetableOccupancy.release(entry);
+                entry.setDayOfWeek(move.getDayOfWeek());
+                entry.setPeriod(move.getPeriod());
+            }
+            serviceTimetableOccupancy.occupyAll(entries);
+        }
+
+        try {
+            repositoryTimetableEntry.saveAllAndFlush(entries);
+            serviceTimetableOperation.recordMoves(timetable.getId(), applied);
+        }catch(final RuntimeException e) {
+            // The index already holds the new cells; dropping it makes the next read rebuild it from what was committed.
+            serviceTimetableOccupancy.evict(timetable.getId());
+            throw e;
+        }
+        serviceTimetableView.refresh(entries);
+
+        final DtoResTimetableMoveChain dtoResTimetableMoveChain = DtoResTimetableMoveChain.builder()
+                .valid(true)
+                .entries(serviceTimetableEntryReadModel.toDtos(entries))
+                .conflicts(List.of())
+                .validationErrors(List.of())
+                .build();
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_MOVE_CHAIN_SUCCESS), dtoResTimetableMoveChain);
+    }
+
+    /** Loads the chain's entries in move order, rejecting malformed chains and versions the editor no longer holds. */
+    private List<EntityTimetableEntry> findEntries(final Integer timetableId, final List<DtoReqTimetableEntryMove> moves, final I18n i18n) {
+        if(moves == null || moves.isEmpty()) {
+            throw new ExceptionCoreValidation("Invalid move chain", i18n.getTimetable(I18N_TIMETABLE_MOVE_CHAIN_INVALID));
+        }
+        final Set<String> uuids = new HashSet<>();
+        for(final DtoReqTimetableEntryMove move : moves) {
+            if(move.getUuid() == null || move.getDayOfWeek() == null || move.getPeriod() == null || !uuids.add(move.getUuid())) {
+                throw new ExceptionCoreValidation("Invalid move chain", i18n.getTimetable(I18N_TIMETABLE_MOVE_CHAIN_INVALID));
+            }
+        }
+
+        final Map<String, EntityTimetableEntry> entriesByUuid = new HashMap<>();
+        for(final EntityTimetableEntry entry : repositoryTimetableEntry.findByUuidInAndIsDeletedFalse(new ArrayList<>(uuids))) {
+            entriesByUuid.put(entry.getUuid(), entry);
+        }
+        final List<EntityTimetableEntry> entries = new ArrayList<>(moves.size());
+        for(final DtoReqTimetableEntryMove move : moves) {
+            final EntityTimetableEntry entry = entriesByUuid.get(move.getUuid());
+            if(entry == null || !timetableId.equals(entry.getTimetableId())) {
+                throw new ExceptionTimetableNotFound(i18n.getTimetable(I18N_TIMETABLE_ENTRY_NOT_FOUND));
+            }
+            if(move.getVersion() != null && !move.getVersion().equals(entry.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(EntityTimetableEntry.class, entry.getId());
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Checks every target cell against the index with the chain's own entries lifted out of it, then against the
+     * moves before it in the chain that land in the same cell.
+     */
+    private static void collectConflicts(final ModelTimetableConflictIndex index, final List<EntityTimetableEntry> entries, final List<DtoReqTimetableEntryMove> moves,
+                                         final I18n i18n, final List<String> validationErrors, final List<DtoResScheduleConflict> conflicts) {
+        final Set<Integer> movingIds = new HashSet<>();
+        for(final EntityTimetableEntry entry : entries) {
+            movingIds.add(entry.getId());
+        }
+        collectConflicts(index, entries, moves, movingIds, i18n, validationErrors, conflicts);
+    }
+
+    /** Same check with the lifted entries given explicitly, for callers that also clear entries which do not move, such as one being deleted. */
+    static void collectConflicts(final ModelTimetableConflictIndex index, final List<EntityTimetableEntry> entries, final List<DtoReqTimetableEntryMove> moves,
+                                 final Set<Integer> movingIds, final I18n i18n, final List<String> validationErrors, final List<DtoResScheduleConflict> conflicts) {
+        final int[] slots = new int[moves.size()];
+        for(int m = 0; m < moves.size(); m++) {
+            final EntityTimetableEntry entry = entries.get(m);
+            final DtoReqTimetableEntryMove move = moves.get(m);
+            final int slot = index.getOccupancy().slotOf(move.getDayOfWeek(), move.getPeriod());
+            slots[m] = slot;
+            if(!index.isSchedulable(slot)) {
+                validationErrors.add(i18n.getTimetable(I18N_SCHEDULE_SLOT_NOT_SCHEDULABLE) + ": " + entry.getUuid());
+                continue;
+            }
+
+            for(final EntityTimetableEntry other : index.entriesAt(slot)) {
+                if(!movingIds.contains(other.getId())) {
+                    collectClashes(index, entry, other, move, i18n, conflicts);
+                }
+            }
+            for(int k = 0; k < m; k++) {
+                if(slots[k] == slot) {
+                    collectClashes(index, entry, entries.get(k), move, i18n, conflicts);
+                }
+            }
+
+            final Integer teacherId = positive(entry.getTeacherId());
+            final Integer roomId = positive(entry.getRoomId());
+            final Integer classBandId = positive(entry.getClassBandId());
+            if(index.isUnavailable(Resource.TEACHER, teacherId, slot)) {
+                conflicts.add(conflict(index, Resource.TEACHER, teacherId, entry, null, move, i18n.getTimetable(I18N_TEACHER_UNAVAILABLE)));
+            }
+            if(index.isUnavailable(Resource.ROOM, roomId, slot)) {
+                conflicts.add(conflict(index, Resource.ROOM, roomId, entry, null, move, i18n.getTimetable(I18N_ROOM_UNAVAILABLE)));
+            }
+            if(index.isUnavailable(Resource.CLASS_BAND, classBandId, slot)) {
+                conflicts.add(conflict(index, Resource.CLASS_BAND, classBandId, entry, null, move, i18n.getTimetable(I18N_CLASS_UNAVAILABLE)));
+            }
+            for(final Integer classId : index.classesOf(entry.getClassId(), entry.getClassBandId())) {
+                if(index.isUnavailable(Resource.CLASS, classId, slot)) {
+                    conflicts.add(conflict(index, Resource.CLASS, classId, entry, null, move, i18n.getTimetable(I18N_CLASS_UNAVAILABLE)));
+                }
+            }
+        }
+    }
+
+    private static void collectClashes(final ModelTimetableConflictIndex index, final EntityTimetableEntry entry, final EntityTimetableEntry other,
+                                       final DtoReqTimetableEntryMove move, final I18n i18n, final List<DtoResScheduleConflict> conflicts) {
+        final Integer teacherId = positive(entry.getTeacherId());
+        final Integer roomId = positive(entry.getRoomId());
+        final Integer classBandId = positive(entry.getClassBandId());
+        if(teacherId != null && teacherId.equals(other.getTeacherId())) {
+            conflicts.add(conflict(index, Resource.TEACHER, teacherId, entry, other, move, i18n.getTimetable(I18N_TEACHER_SCHEDULE_CONFLICT)));
+        }
+        if(roomId != null && roomId.equals(other.getRoomId())) {
+            conflicts.add(conflict(index, Resource.ROOM, roomId, entry, other, move, i18n.getTimetable(I18N_ROOM_SCHEDULE_CONFLICT)));
+        }
+        if(classBandId != null && classBandId.equals(other.getClassBandId())) {
+            conflicts.add(conflict(index, Resource.CLASS_BAND, classBandId, entry, other, move, i18n.getTimetable(I18N_CLASS_BAND_SCHEDULE_CONFLICT)));
+            return;
+        }
+        final Set<Integer> otherClassIds = index.classesOf(other.getClassId(), other.getClassBandId());
+        for(final Integer classId : index.classesOf(entry.getClassId(), entry.getClassBandId())) {
+            if(otherClassIds.contains(classId)) {
+                conflicts.add(conflict(index, Resource.CLASS, classId, entry, other, move, i18n.getTimetable(I18N_CLASS_SCHEDULE_CONFLICT)));
+                break;
+            }
+        }
+    }
+
+    private static DtoResScheduleConflict conflict(final ModelTimetableConflictIndex index, final Resource resource, final Integer resourceId, final EntityTimetableEntry entry,
+                                                   final EntityTimetableEntry other, final DtoReqTimetableEntryMove move, final String description) {
+        return DtoResScheduleConflict.builder()
+                .conflictType(other != null ? resource.name() : resource.name() + "_UNAVAILABLE")
+                .resourceId(resourceId)
+                .resourceName(index.nameOf(resource, resourceId))
+                .bindingId(entry.getBindingId())
+                .timetableEntryId(other != null ? other.getId() : entry.getId())
+                .dayOfWeek(move.getDayOfWeek())
+                .conflictDescription(description)
+                .severity(SEVERITY_HARD)
+                .build();
+    }
+
+    private static Integer positive(final Integer id) {
+        return id != null && id > 0 ? id : null;
+    }
+
+}
@@ -0,0 +1,330 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Class.entity.EntityClass;
+import com.ist.timetabling.Class.repository.RepositoryClass;
+import com.ist.timetabling.ClassBand.entity.EntityClassBand;
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrixChanged;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Room.entity.EntityRoom;
+import com.ist.timetabling.Room.repository.RepositoryRoom;
+import com.ist.timetabling.Rule.service.ServiceRuleEngine;
+import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
+import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.util.UtilTimetableSolverInput;
+import com.ist.timetabling.User.entity.EntityUser;
+import com.ist.timetabling.User.repository.RepositoryUser;
+import com.ist.timetabling.binding.entity.EntityBinding;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ServiceTimetableOccupancyImpl implements ServiceTimetableOccupancy {
+
+    public static final long INDEX_TTL_MILLIS = 10 * 60 * 1000L;
+
+    private static final int DEFAULT_DAYS_PER_WEEK = 5;
+
+    private static final Object PENDING_KEY = ServiceTimetableOccupancyImpl.class.getName() + ".pending";
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final RepositoryPlanSetting repositoryPlanSetting;
+    private final RepositoryPeriod repositoryPeriod;
+    private final RepositoryBinding repositoryBinding;
+    private final RepositoryTeacherProfile repositoryTeacherProfile;
+    private final RepositoryClass repositoryClass;
+    private final RepositoryClassBand repositoryClassBand;
+    private final RepositoryRoom repositoryRoom;
+    private final RepositoryUser repositoryUser;
+    private final ServiceRuleEngine serviceRuleEngine;
+    private final ServiceAvailabilityMatrix serviceAvailabilityMatrix;
+    private final Map<Integer, ModelTimetableConflictIndex> indexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceTimetableOccupancyImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            RepositoryPlanSetting repositoryPlanSetting,
+            RepositoryPeriod repositoryPeriod,
+            RepositoryBinding repositoryBinding,
+            RepositoryTeacherProfile repositoryTeacherProfile,
+            RepositoryClass repositoryClass,
+            RepositoryClassBand repositoryClassBand,
+            RepositoryRoom repositoryRoom,
+            RepositoryUser repositoryUser,
+            ServiceRuleEngine serviceRuleEngine,
+            ServiceAvailabilityMatrix serviceAvailabilityMatrix) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.repositoryPlanSetting = repositoryPlanSetting;
+        this.repositoryPeriod = repositoryPeriod;
+        this.repositoryBinding = repositoryBinding;
+        this.repositoryTeacherProfile = repositoryTeacherProfile;
+        this.repositoryClass = repositoryClass;
+        this.repositoryClassBand = repositoryClassBand;
+        this.repositoryRoom = repositoryRoom;
+        this.repositoryUser = repositoryUser;
+        this.serviceRuleEngine = serviceRuleEngine;
+        this.serviceAvailabilityMatrix = serviceAvailabilityMatrix;
+    }
+
+    @Override
+    public ModelTimetableOccupancy getOccupancy(final Integer timetableId) {
+        return getConflictIndex(timetableId).getOccupancy();
+    }
+
+    /**
+     * Builds a missing or expired index inside {@code compute}, so concurrent callers wait for one build and all
+     * get the instance that later occupy and release calls change, instead of one of them keeping a lost copy.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ModelTimetableConflictIndex getConflictIndex(final Integer timetableId) {
+        final ModelTimetableConflictIndex cached = indexes.get(timetableId);
+        if(isFresh(cached)) {
+            return cached;
+        }
+        return indexes.compute(timetableId, (id, current) -> isFresh(current) ? current : load(id));
+    }
+
+    private static boolean isFresh(final ModelTimetableConflictIndex index) {
+        return index != null && System.currentTimeMillis() - index.getLoadedAt() < INDEX_TTL_MILLIS;
+    }
+
+    @Override
+    public boolean isFree(final Integer timetableId, final Integer teacherId, final Integer classId, final Integer roomId, final Integer classBandId, final Integer dayOfWeek, final Integer period) {
+        final ModelTimetableConflictIndex index = getConflictIndex(timetableId);
+        synchronized(index) {
+            final ModelTimetableOccupancy occupancy = index.getOccupancy();
+            return occupancy.isFree(teacherId, classId, roomId, classBandId, occupancy.slotOf(dayOfWeek, period));
+        }
+    }
+
+    @Override
+    public void occupy(final EntityTimetableEntry entry) {
+        final ModelTimetableConflictIndex index = indexes.get(entry.getTimetableId());
+        if(index == null || Boolean.TRUE.equals(entry.getIsDeleted())) {
+            return;
+        }
+        pending().touched.add(entry.getTimetableId());
+        synchronized(index) {
+            if(!index.occupy(entry)) {
+                indexes.remove(entry.getTimetableId());
+            }
+        }
+    }
+
+    @Override
+    public void occupyAll(final List<EntityTimetableEntry> entries) {
+        for(final EntityTimetableEntry entry : entries) {
+            occupy(entry);
+        }
+    }
+
+    @Override
+    public void release(final EntityTimetableEntry entry) {
+        final ModelTimetableConflictIndex index = indexes.get(entry.getTimetableId());
+        if(index == null || Boolean.TRUE.equals(entry.getIsDeleted())) {
+            return;
+        }
+        pending().touched.add(entry.getTimetableId());
+        synchronized(index) {
+            index.release(entry);
+        }
+    }
+
+    @Override
+    public void evict(final Integer timetableId) {
+        indexes.remove(timetableId);
+        pending().evicted.add(timetableId);
+    }
+
+    /**
+     * Indexes copy unavailable and disliked slots out of the availability matrix when they are built, so
+     * the ones of a plan setting whose rows changed are dropped and rebuilt on next use.
+     */
+    @Override
+    @EventListener
+    public void onAvailabilityChanged(final ModelAvailabilityMatrixChanged changed) {
+        indexes.values().removeIf(index -> index.getPlanSettingId() != null && changed.getPlanSettingsIds().contains(index.getPlanSettingId()));
+    }
+
+    /**
+     * The index is changed as soon as a placement is claimed, so placements validated concurrently see it, and
+     * the changes are tied to the caller's transaction: indexes it touched are dropped when it does not commit,
+     * and indexes it evicted are dropped again once it ends, in case one was rebuilt from rows it had not
+     * committed yet. Outside a transaction the changes are final and nothing is tracked.
+     */
+    private Pending pending() {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending();
+        }
+        final Pending bound = (Pending) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if(bound != null) {
+            return bound;
+        }
+        final Pending pending = new Pending();
+        TransactionSynchronizationManager.bindResource(PENDING_KEY, pending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                if(status != STATUS_COMMITTED) {
+                    pending.touched.forEach(indexes::remove);
+                }
+                pending.evicted.forEach(indexes::remove);
+            }
+        });
+        return pending;
+    }
+
+    private ModelTimetableConflictIndex load(final Integer timetableId) {
+        final EntityTimetable timetable = repositoryTimetable.findById(timetableId)
+                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with ID: " + timetableId));
+        final Integer planSettingId = timetable.getPlansettingId();
+        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetableId);
+        final List<EntityPeriod> periods = planSettingId != null ? repositoryPeriod.findByPlanSettingsIdAndIsDeletedFalse(planSettingId) : List.of();
+
+        int days = DEFAULT_DAYS_PER_WEEK;
+        int periodsPerDay = 0;
+        final EntityPlanSetting planSetting = planSettingId != null ? repositoryPlanSetting.findById(planSettingId).orElse(null) : null;
+        if(planSetting != null) {
+            days = planSetting.getDaysPerWeek() != null && planSetting.getDaysPerWeek() > 0 ? planSetting.getDaysPerWeek() : days;
+            periodsPerDay = planSetting.getPeriodsPerDay() != null ? planSetting.getPeriodsPerDay() : 0;
+        }
+        final Map<Integer, Integer> periodNumberById = new HashMap<>();
+        for(final EntityPeriod period : periods) {
+            if(period.getPeriodNumber() != null) {
+                periodNumberById.put(period.getId(), period.getPeriodNumber());
+                periodsPerDay = Math.max(periodsPerDay, period.getPeriodNumber());
+            }
+        }
+        for(final EntityTimetableEntry entry : entries) {
+            days = Math.max(days, entry.getDayOfWeek() != null ? entry.getDayOfWeek() : 0);
+            periodsPerDay = Math.max(periodsPerDay, entry.getPeriod() != null ? entry.getPeriod() : 0);
+        }
+
+        final ModelTimetableConflictIndex index = new ModelTimetableConflictIndex(timetableId, new ModelTimetableOccupancy(days, periodsPerDay), periodNumberById, UtilTimetableSolverInput.schedulableSlots(days, periodsPerDay, periods));
+        index.setScope(timetable.getOrganizationId(), planSettingId);
+        entries.forEach(index::occupy);
+
+        final List<EntityBinding> bindings = planSettingId != null
+                ? repositoryBinding.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(timetable.getOrganizationId(), planSettingId)
+                : List.of();
+        bindings.forEach(index::putBinding);
+        index.setPlanRules(serviceRuleEngine.getPlanRules(planSettingId));
+        serviceRuleEngine.getBindingRules(bindings.stream().map(EntityBinding::getId).collect(Collectors.toSet())).forEach(index::putBindingRules);
+
+        final Set<Integer> teacherIds = new HashSet<>();
+        final Set<Integer> classIds = new HashSet<>();
+        final Set<Integer> classBandIds = new HashSet<>();
+        final Set<Integer> roomIds = new HashSet<>();
+        for(final EntityBinding binding : bindings) {
+            addPositive(teacherIds, binding.getTeacherId());
+            addPositive(classIds, binding.getClassId());
+            addPositive(classBandIds, binding.getClassBandId());
+            addPositive(roomIds, binding.getRoomId());
+        }
+        for(final EntityTimetableEntry entry : entries) {
+            addPositive(teacherIds, entry.getTeacherId());
+            addPositive(classIds, entry.getClassId());
+            addPositive(classBandIds, entry.getClassBandId());
+            addPositive(roomIds, entry.getRoomId());
+        }
+
+        final ModelAvailabilityMatrix matrix = planSettingId != null ? serviceAvailabilityMatrix.getMatrix(planSettingId) : null;
+
+        final List<EntityTeacherProfile> teachers = repositoryTeacherProfile.findAllById(teacherIds);
+        final Map<Integer, EntityUser> users = repositoryUser.findAllById(teachers.stream().map(EntityTeacherProfile::getUserId).filter(id -> id != null).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(EntityUser::getId, user -> user));
+        for(final EntityTeacherProfile teacher : teachers) {
+            final EntityUser user = users.get(teacher.getUserId());
+            index.putName(Resource.TEACHER, teacher.getId(), user != null ? (user.getFirstName() + " " + user.getLastName()).trim() : teacher.getInitials());
+            mark(index, matrix, Owner.TEACHER, Resource.TEACHER, teacher.getId());
+        }
+
+        for(final EntityClassBand classBand : repositoryClassBand.findAllById(classBandIds)) {
+            index.putName(Resource.CLASS_BAND, classBand.getId(), classBand.getName());
+            final Set<Integer> participants = classBand.getParticipatingClasses().stream().map(EntityClass::getId).collect(Collectors.toSet());
+            index.putBandClasses(classBand.getId(), participants);
+            classIds.addAll(participants);
+            mark(index, matrix, Owner.CLASS_BAND, Resource.CLASS_BAND, classBand.getId());
+        }
+
+        for(final EntityClass entityClass : repositoryClass.findAllById(classIds)) {
+            index.putName(Resource.CLASS, entityClass.getId(), entityClass.getName());
+            mark(index, matrix, Owner.CLASS, Resource.CLASS, entityClass.getId());
+        }
+
+        for(final EntityRoom room : repositoryRoom.findAllById(roomIds)) {
+            index.putName(Resource.ROOM, room.getId(), room.getName());
+            mark(index, matrix, Owner.ROOM, Resource.ROOM, room.getId());
+        }
+
+        log.debug("Built conflict index for timetable {} from {} entries and {} bindings", timetableId, entries.size(), bindings.size());
+        return index;
+    }
+
+    /**
+     * Copies one entity's availability row into the index. The index may be wider than the plan when
+     * entries sit outside it, so slots are translated through day and period rather than copied.
+     */
+    private static void mark(final ModelTimetableConflictIndex index, final ModelAvailabilityMatrix matrix, final Owner owner, final Resource resource, final Integer id) {
+        final ModelAvailabilityMatrix.Row row = matrix != null ? matrix.rowOf(owner, id) : null;
+        if(row == null) {
+            return;
+        }
+        final ModelTimetableOccupancy occupancy = index.getOccupancy();
+        for(int slot = 0; slot < matrix.getSlotCount(); slot++) {
+            final int target = occupancy.slotOf(slot / matrix.getPeriodsPerDay() + 1, slot % matrix.getPeriodsPerDay() + 1);
+            if(row.isForbidden(slot)) {
+                index.markUnavailable(resource, id, target);
+            }else if(row.weightAt(slot) > 0) {
+                index.markDisliked(resource, id, target);
+            }
+        }
+    }
+
+    private static void addPositive(final Set<Integer> ids, final Integer id) {
+        if(id != null && id > 0) {
+            ids.add(id);
+        }
+    }
+
+    private static final class Pending {
+        private final Set<Integer> touched = new HashSet<>();
+        private final Set<Integer> evicted = new HashSet<>();
+    }
+
+}
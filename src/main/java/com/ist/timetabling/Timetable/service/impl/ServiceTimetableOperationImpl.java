@@ -0,0 +1,427 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ist.timetabling.Auth.util.UtilAuthContext;
+import com.ist.timetabling.Core.exception.ExceptionCoreAlreadyExists;
+import com.ist.timetabling.Core.exception.ExceptionCoreNoChange;
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntryMove;
+import com.ist.timetabling.Timetable.dto.res.DtoResScheduleConflict;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableOperation;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableOperation;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableMove;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+import static com.ist.timetabling.Timetable.entity.EntityTimetableOperation.*;
+
+@Service
+public class ServiceTimetableOperationImpl implements ServiceTimetableOperation {
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final RepositoryTimetableOperation repositoryTimetableOperation;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final ServiceTimetableView serviceTimetableView;
+    private final HttpServletRequest httpServletRequest;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ServiceTimetableOperationImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            RepositoryTimetableOperation repositoryTimetableOperation,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ServiceTimetableOccupancy serviceTimetableOccupancy,
+            ServiceTimetableView serviceTimetableView,
+            HttpServletRequest httpServletRequest) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.repositoryTimetableOperation = repositoryTimetableOperation;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.serviceTimetableView = serviceTimetableView;
+        this.httpServletRequest = httpServletRequest;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /** Called after the swap: {@code moved} now sits where {@code displaced} was, and {@code displaced} where {@code moved} was. */
+    @Override
+    @Transactional
+    public void recordSwap(final EntityTimetableEntry moved, final EntityTimetableEntry displaced, final boolean removesDisplaced) {
+        append(EntityTimetableOperation.builder()
+                .timetableId(moved.getTimetableId())
+                .type(removesDisplaced ? TYPE_MOVE : TYPE_SWAP)
+                .entryUuid(moved.getUuid())
+                .otherEntryUuid(displaced.getUuid())
+                .fromDayOfWeek(displaced.getDayOfWeek())
+                .fromPeriod(displaced.getPeriod())
+                .toDayOfWeek(moved.getDayOfWeek())
+                .toPeriod(moved.getPeriod())
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void recordLock(final EntityTimetableEntry entry, final Boolean wasLocked) {
+        if(Boolean.TRUE.equals(wasLocked) == Boolean.TRUE.equals(entry.getIsLocked())) {
+            return;
+        }
+        append(EntityTimetableOperation.builder()
+                .timetableId(entry.getTimetableId())
+                .type(TYPE_LOCK)
+                .entryUuid(entry.getUuid())
+                .fromLocked(Boolean.TRUE.equals(wasLocked))
+                .toLocked(Boolean.TRUE.equals(entry.getIsLocked()))
+                .build());
+    }
+
+    /** Called before the entry is deleted; the row is kept in the operation so undo can insert it again. */
+    @Override
+    @Transactional
+    public void recordRemove(final EntityTimetableEntry entry) {
+        try {
+            append(EntityTimetableOperation.builder()
+                    .timetableId(entry.getTimetableId())
+                    .type(TYPE_REMOVE)
+                    .entryUuid(entry.getUuid())
+                    .snapshot(objectMapper.writeValueAsString(entry))
+                    .build());
+        }catch(final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordRestore(final EntityTimetableEntry entry) {
+        append(EntityTimetableOperation.builder()
+                .timetableId(entry.getTimetableId())
+                .type(TYPE_RESTORE)
+                .entryUuid(entry.getUuid())
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void recordMoves(final Integer timetableId, final List<ModelTimetableMove> moves) {
+        try {
+            append(EntityTimetableOperation.builder()
+                    .timetableId(timetableId)
+                    .type(TYPE_CHAIN)
+                    .entryUuid(moves.get(0).getEntryUuid())
+                    .snapshot(objectMapper.writeValueAsString(moves))
+                    .build());
+        }catch(final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<DtoResTimetableOperation> undo(final String timetableUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = findTimetable(timetableUuid, i18n);
+        final Long headId = repositoryTimetable.findOperationHeadId(timetable.getId());
+        if(headId == null) {
+            throw new ExceptionCoreNoChange(i18n.getTimetable(I18N_TIMETABLE_OPERATION_NOTHING_TO_UNDO));
+        }
+        final EntityTimetableOperation operation = repositoryTimetableOperation.findById(headId)
+                .orElseThrow(() -> new ExceptionCoreNoChange(i18n.getTimetable(I18N_TIMETABLE_OPERATION_NOTHING_TO_UNDO)));
+
+        moveHead(timetable.getId(), headId, operation.getPreviousId(), i18n);
+        final DtoResTimetableOperation dtoResTimetableOperation = apply(operation, false, i18n);
+        dtoResTimetableOperation.setCanUndo(operation.getPreviousId() != null);
+        dtoResTimetableOperation.setCanRedo(true);
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_OPERATION_UNDO_SUCCESS), dtoResTimetableOperation);
+    }
+
+    /** Redoes the newest operation recorded on top of the current head, so an edit made after an undo wins over the undone branch. */
+    @Override
+    @Transactional
+    public ApiResponse<DtoResTimetableOperation> redo(final String timetableUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = findTimetable(timetableUuid, i18n);
+        final Long headId = repositoryTimetable.findOperationHeadId(timetable.getId());
+        final EntityTimetableOperation operation = repositoryTimetableOperation.findFirstByTimetableIdAndPreviousIdOrderByIdDesc(timetable.getId(), headId)
+                .orElseThrow(() -> new ExceptionCoreNoChange(i18n.getTimetable(I18N_TIMETABLE_OPERATION_NOTHING_TO_REDO)));
+
+        moveHead(timetable.getId(), headId, operation.getId(), i18n);
+        final DtoResTimetableOperation dtoResTimetableOperation = apply(operation, true, i18n);
+        dtoResTimetableOperation.setCanUndo(true);
+        dtoResTimetableOperation.setCanRedo(repositoryTimetableOperation.existsByTimetableIdAndPreviousId(timetable.getId(), operation.getId()));
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_OPERATION_REDO_SUCCESS), dtoResTimetableOperation);
+    }
+
+    private void append(final EntityTimetableOperation operation) {
+        final Long headId = repositoryTimetable.findOperationHeadId(operation.getTimetableId());
+        operation.setPreviousId(headId);
+        operation.setCreatedBy(UtilAuthContext.getAuthenticatedUserId());
+        repositoryTimetableOperation.save(operation);
+        moveHead(operation.getTimetableId(), headId, operation.getId(), null);
+    }
+
+    /** Compare-and-set on the head, so two editors undoing at once cannot both replay the same operation. */
+    private void moveHead(final Integer timetableId, final Long expectedId, final Long operationId, final I18n i18n) {
+        if(repositoryTimetable.updateOperationHead(timetableId, expectedId, operationId) == 0) {
+            throw stale(i18n != null ? i18n : new I18n(httpServletRequest));
+        }
+    }
+
+    /**
+     * Replays the operation forwards for redo or backwards for undo, refusing when the entries are no longer where it left them
+     * or when a cell it fills has since been taken by another entry or blocked for one of its resources.
+     */
+    private DtoResTimetableOperation apply(final EntityTimetableOperation operation, final boolean forward, final I18n i18n) {
+        return switch(operation.getType()) {
+            case TYPE_SWAP, TYPE_MOVE -> applySwap(operation, forward, i18n);
+            case TYPE_LOCK -> applyLock(operation, forward, i18n);
+            case TYPE_RESTORE -> applyRestore(operation, forward, i18n);
+            case TYPE_REMOVE -> applyRemove(operation, forward, i18n);
+            case TYPE_CHAIN -> applyChain(operation, forward, i18n);
+            default -> throw new IllegalStateException("Unknown timetable operation type: " + operation.getType());
+        };
+    }
+
+    private DtoResTimetableOperation applySwap(final EntityTimetableOperation operation, final boolean forward, final I18n i18n) {
+        final boolean move = TYPE_MOVE.equals(operation.getType());
+        final EntityTimetableEntry moved = findEntry(operation.getEntryUuid(), i18n);
+        final EntityTimetableEntry displaced = findEntry(operation.getOtherEntryUuid(), i18n);
+        final boolean movedAtFrom = isAt(moved, operation.getFromDayOfWeek(), operation.getFromPeriod());
+        final boolean displacedAtTo = isAt(displaced, operation.getToDayOfWeek(), operation.getToPeriod());
+        final boolean displacedAtFrom = isAt(displaced, operation.getFromDayOfWeek(), operation.getFromPeriod());
+        final boolean movedAtTo = isAt(moved, operation.getToDayOfWeek(), operation.getToPeriod());
+        if(Boolean.TRUE.equals(moved.getIsDeleted()) || Boolean.TRUE.equals(displaced.getIsDeleted()) != (move && !forward)
+                || (forward ? !movedAtFrom || !displacedAtTo : !movedAtTo || !displacedAtFrom)) {
+            throw stale(i18n);
+        }
+
+        final DtoReqTimetableEntryMove movedTarget = target(moved, forward ? operation.getToDayOfWeek() : operation.getFromDayOfWeek(),
+                forward ? operation.getToPeriod() : operation.getFromPeriod());
+        final DtoReqTimetableEntryMove displacedTarget = target(displaced, forward ? operation.getFromDayOfWeek() : operation.getToDayOfWeek(),
+                forward ? operation.getFromPeriod() : operation.getToPeriod());
+        final List<EntityTimetableEntry> entries = List.of(moved, displaced);
+        final ModelTimetableConflictIndex index = serviceTimetableOccupancy.getConflictIndex(operation.getTimetableId());
+        synchronized(index) {
+            // A redone move deletes the displaced entry, so only the moved one lands anywhere.
+            if(move && forward) {
+                checkTargets(index, List.of(moved), List.of(movedTarget), idsOf(entries), i18n);
+            }else {
+                checkTargets(index, entries, List.of(movedTarget, displacedTarget), idsOf(entries), i18n);
+            }
+
+            serviceTimetableOccupancy.release(moved);
+            serviceTimetableOccupancy.release(displaced);
+            moved.setDayOfWeek(movedTarget.getDayOfWeek());
+            moved.setPeriod(movedTarget.getPeriod());
+            displaced.setDayOfWeek(displacedTarget.getDayOfWeek());
+            displaced.setPeriod(displacedTarget.getPeriod());
+            if(move) {
+                displaced.setIsDeleted(forward);
+            }
+            serviceTimetableOccupancy.occupyAll(entries);
+        }
+        repositoryTimetableEntry.saveAll(entries);
+        serviceTimetableView.refresh(entries);
+        return result(operation, entries, new ArrayList<>());
+    }
+
+    private DtoResTimetableOperation applyLock(final EntityTimetableOperation operation, final boolean forward, final I18n i18n) {
+        final EntityTimetableEntry entry = findEntry(operation.getEntryUuid(), i18n);
+        final Boolean expected = forward ? operation.getFromLocked() : operation.getToLocked();
+        if(Boolean.TRUE.equals(entry.getIsDeleted()) || !Objects.equals(Boolean.TRUE.equals(entry.getIsLocked()), expected)) {
+            throw stale(i18n);
+        }
+
+        entry.setIsLocked(forward ? operation.getToLocked() : operation.getFromLocked());
+        repositoryTimetableEntry.save(entry);
+        serviceTimetableView.refresh(List.of(entry));
+        return result(operation, List.of(entry), new ArrayList<>());
+    }
+
+    private DtoResTimetableOperation applyRestore(final EntityTimetableOperation operation, final boolean forward, final I18n i18n) {
+        final EntityTimetableEntry entry = findEntry(operation.getEntryUuid(), i18n);
+        if(Boolean.TRUE.equals(entry.getIsDeleted()) != forward) {
+            throw stale(i18n);
+        }
+
+        final ModelTimetableConflictIndex index = serviceTimetableOccupancy.getConflictIndex(operation.getTimetableId());
+        synchronized(index) {
+            if(forward) {
+                checkTargets(index, List.of(entry), List.of(target(entry, entry.getDayOfWeek(), entry.getPeriod())), idsOf(List.of(entry)), i18n);
+            }
+            serviceTimetableOccupancy.release(entry);
+            entry.setIsDeleted(!forward);
+            serviceTimetableOccupancy.occupy(entry);
+        }
+        repositoryTimetableEntry.save(entry);
+        serviceTimetableView.refresh(List.of(entry));
+        return result(operation, List.of(entry), new ArrayList<>());
+    }
+
+    private DtoResTimetableOperation applyRemove(final EntityTimetableOperation operation, final boolean forward, final I18n i18n) {
+        final EntityTimetableEntry existing = repositoryTimetableEntry.findByUuid(operation.getEntryUuid()).orElse(null);
+        if((existing != null) != forward) {
+            throw stale(i18n);
+        }
+
+        if(forward) {
+            serviceTimetableOccupancy.release(existing);
+            serviceTimetableView.remove(existing);
+            repositoryTimetableEntry.delete(existing);
+            final List<String> removedEntryUuids = new ArrayList<>();
+            removedEntryUuids.add(existing.getUuid());
+            return result(operation, List.of(), removedEntryUuids);
+        }
+
+        final EntityTimetableEntry entry;
+        try {
+            entry = objectMapper.readValue(operation.getSnapshot(), EntityTimetableEntry.class);
+        }catch(final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        entry.setId(null);
+        entry.setVersion(null);
+        final EntityTimetableEntry saved;
+        final ModelTimetableConflictIndex index = serviceTimetableOccupancy.getConflictIndex(operation.getTimetableId());
+        synchronized(index) {
+            checkTargets(index, List.of(entry), List.of(target(entry, entry.getDayOfWeek(), entry.getPeriod())), new HashSet<>(), i18n);
+            saved = repositoryTimetableEntry.saveAndFlush(entry);
+            // The uuid generator always fills in a fresh uuid on insert; putting the original back keeps older operations pointing at this entry.
+            saved.setUuid(operation.getEntryUuid());
+            serviceTimetableOccupancy.occupy(saved);
+        }
+        serviceTimetableView.refresh(List.of(saved));
+        return result(operation, List.of(saved), new ArrayList<>());
+    }
+
+    private DtoResTimetableOperation applyChain(final EntityTimetableOperation operation, final boolean forward, final I18n i18n) {
+        final List<ModelTimetableMove> moves;
+        try {
+            moves = objectMapper.readValue(operation.getSnapshot(), new TypeReference<List<ModelTimetableMove>>() {});
+        }catch(final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        final Map<String, EntityTimetableEntry> entriesByUuid = new HashMap<>();
+        for(final EntityTimetableEntry entry : repositoryTimetableEntry.findByUuidInAndIsDeletedFalse(moves.stream().map(ModelTimetableMove::getEntryUuid).toList())) {
+            entriesByUuid.put(entry.getUuid(), entry);
+        }
+        final List<EntityTimetableEntry> entries = new ArrayList<>(moves.size());
+        for(final ModelTimetableMove move : moves) {
+            final EntityTimetableEntry entry = entriesByUuid.get(move.getEntryUuid());
+            if(entry == null || !(forward ? isAt(entry, move.getFromDayOfWeek(), move.getFromPeriod()) : isAt(entry, move.getToDayOfWeek(), move.getToPeriod()))) {
+                throw stale(i18n);
+            }
+            entries.add(entry);
+        }
+
+        final List<DtoReqTimetableEntryMove> targets = new ArrayList<>(moves.size());
+        for(int m = 0; m < moves.size(); m++) {
+            final ModelTimetableMove move = moves.get(m);
+            targets.add(target(entries.get(m), forward ? move.getToDayOfWeek() : move.getFromDayOfWeek(), forward ? move.getToPeriod() : move.getFromPeriod()));
+        }
+        final ModelTimetableConflictIndex index = serviceTimetableOccupancy.getConflictIndex(operation.getTimetableId());
+        synchronized(index) {
+            checkTargets(index, entries, targets, idsOf(entries), i18n);
+            for(int m = 0; m < moves.size(); m++) {
+                final EntityTimetableEntry entry = entries.get(m);
+                serviceTimetableOccupancy.release(entry);
+                entry.setDayOfWeek(targets.get(m).getDayOfWeek());
+                entry.setPeriod(targets.get(m).getPeriod());
+            }
+            serviceTimetableOccupancy.occupyAll(entries);
+        }
+        repositoryTimetableEntry.saveAll(entries);
+        serviceTimetableView.refresh(entries);
+        return result(operation, entries, new ArrayList<>());
+    }
+
+    private DtoResTimetableOperation result(final EntityTimetableOperation operation, final List<EntityTimetableEntry> entries, final List<String> removedEntryUuids) {
+        final List<EntityTimetableEntry> live = new ArrayList<>();
+        for(final EntityTimetableEntry entry : entries) {
+            if(Boolean.TRUE.equals(entry.getIsDeleted())) {
+                removedEntryUuids.add(entry.getUuid());
+            }else {
+                live.add(entry);
+            }
+        }
+        return DtoResTimetableOperation.builder()
+                .type(operation.getType())
+                .entries(serviceTimetableEntryReadModel.toDtos(live))
+                .removedEntryUuids(removedEntryUuids)
+                .build();
+    }
+
+    /**
+     * Checks the cells the replay fills the way a move chain is checked, with {@code liftedIds} left out of the index,
+     * and refuses with a conflict when another entry or an unavailable resource is in the way.
+     */
+    private static void checkTargets(final ModelTimetableConflictIndex index, final List<EntityTimetableEntry> entries, final List<DtoReqTimetableEntryMove> targets,
+                                     final Set<Integer> liftedIds, final I18n i18n) {
+        final List<String> validationErrors = new ArrayList<>();
+        final List<DtoResScheduleConflict> conflicts = new ArrayList<>();
+        ServiceTimetableMoveChainImpl.collectConflicts(index, entries, targets, liftedIds, i18n, validationErrors, conflicts);
+        if(!validationErrors.isEmpty() || !conflicts.isEmpty()) {
+            throw new ExceptionCoreAlreadyExists(i18n.getTimetable(I18N_TIMETABLE_OPERATION_CONFLICT));
+        }
+    }
+
+    private static DtoReqTimetableEntryMove target(final EntityTimetableEntry entry, final Integer dayOfWeek, final Integer period) {
+        return DtoReqTimetableEntryMove.builder().uuid(entry.getUuid()).dayOfWeek(dayOfWeek).period(period).build();
+    }
+
+    private static Set<Integer> idsOf(final List<EntityTimetableEntry> entries) {
+        final Set<Integer> ids = new HashSet<>();
+        for(final EntityTimetableEntry entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    private EntityTimetable findTimetable(final String timetableUuid, final I18n i18n) {
+        return repositoryTimetable.findByUuidAndIsDeletedFalse(timetableUuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound(i18n.getTimetable(I18N_TIMETABLE_NOT_FOUND)));
+    }
+
+    private EntityTimetableEntry findEntry(final String uuid, final I18n i18n) {
+        return repositoryTimetableEntry.findByUuid(uuid).orElseThrow(() -> stale(i18n));
+    }
+
+    private static boolean isAt(final EntityTimetableEntry entry, final Integer dayOfWeek, final Integer period) {
+        return Objects.equals(entry.getDayOfWeek(), dayOfWeek) && Objects.equals(entry.getPeriod(), period);
+    }
+
+    private static ExceptionCoreValidation stale(final I18n i18n) {
+        return new ExceptionCoreValidation("Stale operation", i18n.getTimetable(I18N_TIMETABLE_OPERATION_STALE));
+    }
+
+}
@@ -0,0 +1,360 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Rule.service.ServiceRuleEngine;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableRepair;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableRepairResult;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import com.ist.timetabling.Timetable.service.ServiceTimetableRepair;
+import com.ist.timetabling.Timetable.util.UtilTimetableRepair;
+import com.ist.timetabling.Timetable.util.UtilTimetableSolverInput;
+import com.ist.timetabling.binding.entity.EntityBinding;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+
+@Slf4j
+@Service
+public class ServiceTimetableRepairImpl implements ServiceTimetableRepair {
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final RepositoryPlanSetting repositoryPlanSetting;
+    private final RepositoryPeriod repositoryPeriod;
+    private final RepositoryBinding repositoryBinding;
+    private final RepositoryClassBand repositoryClassBand;
+    private final ServiceAvailabilityMatrix serviceAvailabilityMatrix;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final ServiceTimetableView serviceTimetableView;
+    private final ConfigTimetableSolver configTimetableSolver;
+    private final HttpServletRequest httpServletRequest;
+    private final ServiceRuleEngine serviceRuleEngine;
+
+    @Autowired
+    public ServiceTimetableRepairImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            RepositoryPlanSetting repositoryPlanSetting,
+            RepositoryPeriod repositoryPeriod,
+            RepositoryBinding repositoryBinding,
+            RepositoryClassBand repositoryClassBand,
+            ServiceAvailabilityMatrix serviceAvailabilityMatrix,
+            ServiceTimetableOccupancy serviceTimetableOccupancy,
+            ServiceTimetableView serviceTimetableView,
+            ConfigTimetableSolver configTimetableSolver,
+            HttpServletRequest httpServletRequest,
+            ServiceRuleEngine serviceRuleEngine) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.repositoryPlanSetting = repositoryPlanSetting;
+        this.repositoryPeriod = repositoryPeriod;
+        this.repositoryBinding = repositoryBinding;
+        this.repositoryClassBand = repositoryClassBand;
+        this.serviceAvailabilityMatrix = serviceAvailabilityMatrix;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.serviceTimetableView = serviceTimetableView;
+        this.configTimetableSolver = configTimetableSolver;
+        this.httpServletRequest = httpServletRequest;
+        this.serviceRuleEngine = serviceRuleEngine;
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<DtoResTimetableRepair> repairBinding(final String timetableUuid, final String bindingUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = repositoryTimetable.findByUuidAndIsDeletedFalse(timetableUuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound(i18n.getTimetable(I18N_TIMETABLE_NOT_FOUND)));
+        final EntityBinding binding = repositoryBinding.findByUuidAndIsDeletedFalse(bindingUuid)
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getTimetable(I18N_BINDING_NOT_FOUND)));
+
+        final DtoResTimetableRepair dtoResTimetableRepair = repair(timetable, binding, binding);
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_REPAIR_SUCCESS), dtoResTimetableRepair);
+    }
+
+    /**
+     * Repairs only the latest timetable of each plan setting the binding belonged to or now belongs to. Older
+     * timetables of the same plan setting are earlier generations or alternatives the user did not edit, so they
+     * are left alone and can be brought in line on demand through {@link #repairBinding}.
+     */
+    @Override
+    @Transactional
+    public List<DtoResTimetableRepair> repairAfterBindingUpdate(final EntityBinding previous, final EntityBinding binding) {
+        final List<DtoResTimetableRepair> repairs = new ArrayList<>();
+        if(!affectsPlacement(previous, binding)) {
+            return repairs;
+        }
+        final Set<Integer> planSettingIds = new HashSet<>();
+        planSettingIds.add(previous.getPlanSettingsId());
+        planSettingIds.add(binding.getPlanSettingsId());
+        planSettingIds.remove(null);
+        for(final Integer planSettingId : planSettingIds) {
+            repositoryTimetable.findFirstByOrganizationIdAndPlansettingIdAndIsDeletedFalseOrderByCreatedDateDescIdDesc(binding.getOrganizationId(), planSettingId)
+                    .ifPresent(timetable -> repairs.add(repair(timetable, binding, previous)));
+        }
+        return repairs;
+    }
+
+    private DtoResTimetableRepair repair(final EntityTimetable timetable, final EntityBinding binding, final EntityBinding previous) {
+        final Integer planSettingId = timetable.getPlansettingId();
+        final EntityPlanSetting planSetting = repositoryPlanSetting.findById(planSettingId)
+                .orElseThrow(() -> new ExceptionCoreNotFound(new I18n(httpServletRequest).getTimetable(I18N_TIMETABLE_PLAN_SETTING_NOT_FOUND)));
+        final List<EntityPeriod> periods = repositoryPeriod.findByPlanSettingsIdAndIsDeletedFalse(planSettingId);
+        final List<EntityTimetableEntry> entries = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
+
+        final List<EntityBinding> bindings = new ArrayList<>(repositoryBinding.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(timetable.getOrganizationId(), planSettingId));
+        bindings.removeIf(existing -> Objects.equals(existing.getId(), binding.getId()));
+        final boolean active = !Boolean.TRUE.equals(binding.getIsDeleted()) && Objects.equals(binding.getPlanSettingsId(), planSettingId);
+        final int target = bindings.size();
+        final EntityBinding placed = active ? binding : copyWithoutLessons(binding);
+        bindings.add(placed);
+
+        final Map<Integer, Integer> indexById = new HashMap<>();
+        final Map<String, Integer> indexByKey = new HashMap<>();
+        for(int b = 0; b < bindings.size(); b++) {
+            indexById.put(bindings.get(b).getId(), b);
+            indexByKey.putIfAbsent(keyOf(bindings.get(b)), b);
+        }
+        indexByKey.put(keyOf(previous), target);
+
+        final int[] entryBinding = new int[entries.size()];
+        for(int e = 0; e < entries.size(); e++) {
+            final EntityTimetableEntry entry = entries.get(e);
+            Integer index = entry.getBindingId() != null ? indexById.get(entry.getBindingId()) : null;
+            if(index == null && entry.getBindingId() == null) {
+                index = indexByKey.get(keyOf(entry));
+            }
+            if(index == null) {
+                index = bindings.size();
+                bindings.add(orphanOf(entry));
+            }
+            entryBinding[e] = index;
+        }
+
+        final int[] lockedOrphan = new int[entries.size()];
+        for(int e = 0; e < entries.size(); e++) {
+            lockedOrphan[e] = ModelTimetableSolverInput.NONE;
+            if(active && entryBinding[e] == target && Boolean.TRUE.equals(entries.get(e).getIsLocked())) {
+                lockedOrphan[e] = bindings.size();
+                bindings.add(orphanOf(entries.get(e)));
+            }
+        }
+
+        final Map<Integer, List<ModelRuleCompiled>> rules = serviceRuleEngine.getRulesByBinding(planSettingId, idsOf(bindings, EntityBinding::getId));
+        final ModelTimetableSolverInput base = UtilTimetableSolverInput.build(planSetting, periods, bindings,
+                repositoryClassBand.findAllById(idsOf(bindings, EntityBinding::getClassBandId)),
+                serviceAvailabilityMatrix.getMatrix(planSettingId),
+                timetable.getId(), configTimetableSolver.getRepairTimeLimitMillis(),
+                candidate -> rules.getOrDefault(candidate.getId(), List.of()));
+
+        final int[] entrySlot = new int[entries.size()];
+        final boolean[] entryLocked = new boolean[entries.size()];
+        for(int e = 0; e < entries.size(); e++) {
+            final EntityTimetableEntry entry = entries.get(e);
+            entrySlot[e] = slotOf(base, entry);
+            entryLocked[e] = Boolean.TRUE.equals(entry.getIsLocked());
+        }
+        // A locked entry keeps its slot, so it only takes the binding's new resources when they are free there.
+        // Otherwise it stays as it was, with its old resources, and is reported back.
+        int lockedConflicts = 0;
+        for(int e = 0; e < entries.size(); e++) {
+            if(lockedOrphan[e] >= 0 && entrySlot[e] >= 0 && !UtilTimetableRepair.fits(base, entryBinding, entrySlot, target, e)) {
+                entryBinding[e] = lockedOrphan[e];
+                lockedConflicts++;
+            }
+        }
+
+        final ModelTimetableRepairResult result = UtilTimetableRepair.repair(base, entryBinding, entrySlot, entryLocked, target, configTimetableSolver.getRepairTimeLimitMillis());
+        final int removed = apply(timetable, placed, base, periods, entries, entryBinding, target, result);
+        serviceTimetableOccupancy.evict(timetable.getId());
+        serviceTimetableView.evict(timetable.getId());
+
+        log.info("Repaired timetable {} after binding {} changed: {} unplaced, {} other entries moved, {} removed, {} locked left unchanged in {} ms", timetable.getId(), binding.getId(),
+                result.getUnplacedCount(), result.getMovedCount(), removed, lockedConflicts, result.getElapsedMillis());
+
+        int placedCount = 0;
+        for(final int slot : result.getLessonSlot()) {
+            placedCount += slot >= 0 ? 1 : 0;
+        }
+        return DtoResTimetableRepair.builder()
+                .timetableId(timetable.getId())
+                .bindingId(binding.getId())
+                .placedCount(placedCount - result.getMovedCount())
+                .unplacedCount(result.getUnplacedCount())
+                .movedCount(result.getMovedCount())
+                .removedCount(removed)
+                .lockedConflictCount(lockedConflicts)
+                .widened(result.isWidened())
+                .elapsedMillis(result.getElapsedMillis())
+                .build();
+    }
+
+    private int apply(final EntityTimetable timetable, final EntityBinding binding, final ModelTimetableSolverInput base, final List<EntityPeriod> periods, final List<EntityTimetableEntry> entries,
+                      final int[] entryBinding, final int target, final ModelTimetableRepairResult result) {
+        final Map<Integer, EntityPeriod> periodsByNumber = new HashMap<>();
+        for(final EntityPeriod period : periods) {
+            periodsByNumber.putIfAbsent(period.getPeriodNumber(), period);
+        }
+
+        final List<EntityTimetableEntry> saved = new ArrayList<>();
+        final List<EntityTimetableEntry> deleted = new ArrayList<>();
+        for(int e = 0; e < entries.size(); e++) {
+            if(entryBinding[e] == target) {
+                copyBinding(binding, entries.get(e));
+                saved.add(entries.get(e));
+            }
+        }
+
+        for(int i = 0; i < result.getLessonEntry().length; i++) {
+            final int e = result.getLessonEntry()[i];
+            final int slot = result.getLessonSlot()[i];
+            if(slot < 0) {
+                if(e >= 0) {
+                    deleted.add(entries.get(e));
+                }
+                continue;
+            }
+            final EntityTimetableEntry entry;
+            if(e >= 0) {
+                entry = entries.get(e);
+                if(!saved.contains(entry)) {
+                    saved.add(entry);
+                }
+            }else {
+                entry = new EntityTimetableEntry();
+                entry.setTimetableId(timetable.getId());
+                entry.setStatus("Active");
+                entry.setIsLocked(false);
+                entry.setIsDeleted(false);
+                copyBinding(binding, entry);
+                saved.add(entry);
+            }
+            final int periodNumber = base.periodOf(slot);
+            final EntityPeriod period = periodsByNumber.get(periodNumber);
+            entry.setDayOfWeek(base.dayOf(slot));
+            entry.setPeriod(periodNumber);
+            entry.setPeriodNumber(periodNumber);
+            entry.setDurationMinutes(period != null ? period.getDurationMinutes() : entry.getDurationMinutes());
+            entry.setPeriodType(period != null ? period.getPeriodType() : entry.getPeriodType());
+        }
+        for(final int e : result.getRemovedEntries()) {
+            deleted.add(entries.get(e));
+        }
+
+        saved.removeAll(deleted);
+        repositoryTimetableEntry.saveAll(saved);
+        repositoryTimetableEntry.deleteAll(deleted);
+        return deleted.size();
+    }
+
+    private static boolean affectsPlacement(final EntityBinding previous, final EntityBinding binding) {
+        return !keyOf(previous).equals(keyOf(binding))
+                || positive(previous.getRoomId()) != positive(binding.getRoomId())
+                || !Objects.equals(previous.getPeriodsPerWeek(), binding.getPeriodsPerWeek())
+                || !Objects.equals(previous.getPlanSettingsId(), binding.getPlanSettingsId())
+                || !Objects.equals(previous.getIsDeleted(), binding.getIsDeleted());
+    }
+
+    private static void copyBinding(final EntityBinding binding, final EntityTimetableEntry entry) {
+        final boolean isClassBandEntry = binding.getClassBandId() != null && binding.getClassBandId() > 0;
+        entry.setBindingId(binding.getId());
+        entry.setTeacherId(binding.getTeacherId());
+        entry.setSubjectId(binding.getSubjectId());
+        entry.setRoomId(binding.getRoomId());
+        entry.setClassId(binding.getClassId());
+        entry.setIsClassBandEntry(isClassBandEntry);
+        entry.setClassBandId(isClassBandEntry ? binding.getClassBandId() : null);
+    }
+
+    private static int slotOf(final ModelTimetableSolverInput input, final EntityTimetableEntry entry) {
+        final Integer day = entry.getDayOfWeek();
+        final Integer period = entry.getPeriod();
+        if(day == null || period == null || day < 1 || day > input.getDays() || period < 1 || period > input.getPeriodsPerDay()) {
+            return ModelTimetableSolverInput.NONE;
+        }
+        return input.slotOf(day, period);
+    }
+
+    private static EntityBinding copyWithoutLessons(final EntityBinding binding) {
+        final EntityBinding copy = new EntityBinding();
+        copy.setId(binding.getId());
+        copy.setTeacherId(binding.getTeacherId());
+        copy.setSubjectId(binding.getSubjectId());
+        copy.setClassId(binding.getClassId());
+        copy.setClassBandId(binding.getClassBandId());
+        copy.setRoomId(binding.getRoomId());
+        copy.setPeriodsPerWeek(0);
+        return copy;
+    }
+
+    private static EntityBinding orphanOf(final EntityTimetableEntry entry) {
+        final EntityBinding orphan = new EntityBinding();
+        orphan.setId(null);
+        orphan.setTeacherId(entry.getTeacherId());
+        orphan.setSubjectId(entry.getSubjectId());
+        orphan.setClassId(entry.getClassId());
+        orphan.setClassBandId(entry.getClassBandId());
+        orphan.setRoomId(entry.getRoomId());
+        orphan.setPeriodsPerWeek(0);
+        return orphan;
+    }
+
+    private static String keyOf(final EntityBinding binding) {
+        return key(binding.getTeacherId(), binding.getSubjectId(), binding.getClassId(), binding.getClassBandId());
+    }
+
+    private static String keyOf(final EntityTimetableEntry entry) {
+        return key(entry.getTeacherId(), entry.getSubjectId(), entry.getClassId(), entry.getClassBandId());
+    }
+
+    private static String key(final Integer teacherId, final Integer subjectId, final Integer classId, final Integer classBandId) {
+        return positive(teacherId) + ":" + positive(subjectId) + ":" + positive(classId) + ":" + positive(classBandId);
+    }
+
+    private static int positive(final Integer id) {
+        return id != null && id > 0 ? id : 0;
+    }
+
+    private static Set<Integer> idsOf(final List<EntityBinding> bindings, final Function<EntityBinding, Integer> id) {
+        final Set<Integer> ids = new HashSet<>();
+        for(final EntityBinding binding : bindings) {
+            final Integer value = id.apply(binding);
+            if(value != null && value > 0) {
+                ids.add(value);
+            }
+        }
+        return ids;
+    }
+
+}
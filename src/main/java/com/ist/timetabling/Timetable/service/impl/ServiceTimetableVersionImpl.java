@@ -0,0 +1,442 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Auth.util.UtilAuthContext;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableVersion;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableVersion;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableChange;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableVersion;
+import com.ist.timetabling.Timetable.entity.EntityTimetableVersionSlot;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableChange;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableVersion;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableVersionSlot;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableVersion;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.ist.timetabling.Timetable.constant.ConstantTimeTableI18n.*;
+
+/**
+ * Saves timetable versions copy-on-write: a version stores only the slots that differ from its parent, and the
+ * entries changed since the head version are read from the content change log while it still covers the gap.
+ * Every {@code timetable.versions.max-chain-depth} deltas a full keyframe is written, which bounds how many
+ * deltas a read has to replay.
+ */
+@Service
+public class ServiceTimetableVersionImpl implements ServiceTimetableVersion {
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryTimetableEntry repositoryTimetableEntry;
+    private final RepositoryTimetableChange repositoryTimetableChange;
+    private final RepositoryTimetableVersion repositoryTimetableVersion;
+    private final RepositoryTimetableVersionSlot repositoryTimetableVersionSlot;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ServiceTimetableOccupancy serviceTimetableOccupancy;
+    private final ServiceTimetableView serviceTimetableView;
+    private final ConfigTimetableSolver configTimetableSolver;
+    private final HttpServletRequest httpServletRequest;
+
+    @Autowired
+    public ServiceTimetableVersionImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryTimetableEntry repositoryTimetableEntry,
+            RepositoryTimetableChange repositoryTimetableChange,
+            RepositoryTimetableVersion repositoryTimetableVersion,
+            RepositoryTimetableVersionSlot repositoryTimetableVersionSlot,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ServiceTimetableOccupancy serviceTimetableOccupancy,
+            ServiceTimetableView serviceTimetableView,
+            ConfigTimetableSolver configTimetableSolver,
+            HttpServletRequest httpServletRequest) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryTimetableEntry = repositoryTimetableEntry;
+        this.repositoryTimetableChange = repositoryTimetableChange;
+        this.repositoryTimetableVersion = repositoryTimetableVersion;
+        this.repositoryTimetableVersionSlot = repositoryTimetableVersionSlot;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.serviceTimetableOccupancy = serviceTimetableOccupancy;
+        this.serviceTimetableView = serviceTimetableView;
+        this.configTimetableSolver = configTimetableSolver;
+        this.httpServletRequest = httpServletRequest;
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<DtoResTimetableVersion> createVersion(final String timetableUuid, final DtoReqTimetableVersion dtoReqTimetableVersion) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = findTimetable(timetableUuid, i18n);
+        final Map<Integer, EntityTimetableVersion> versionsById = versionsById(timetable.getId());
+        final EntityTimetableVersion parent = timetable.getHeadVersionId() != null ? versionsById.get(timetable.getHeadVersionId()) : null;
+        final Long contentVersion = timetable.getContentVersion();
+
+        final List<EntityTimetableVersionSlot> slots = new ArrayList<>();
+        final boolean keyframe = parent == null || parent.getDepth() + 1 > configTimetableSolver.getVersionMaxChainDepth();
+        final int entryCount;
+        if(keyframe) {
+            for(final EntityTimetableEntry entry : repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId())) {
+                slots.add(toSlot(entry));
+            }
+            entryCount = slots.size();
+        }else {
+            final List<Integer> chain = chainOf(parent, versionsById);
+            final Set<String> changedUuids = new HashSet<>();
+            final List<EntityTimetableEntry> changed = changedSinceHead(timetable, changedUuids);
+            final Map<String, EntityTimetableVersionSlot> parentState;
+            final Collection<EntityTimetableEntry> current;
+            if(changed != null) {
+                parentState = changedUuids.isEmpty() ? Map.of() : resolve(chain, repositoryTimetableVersionSlot.findByVersionIdInAndEntryUuidIn(chain, changedUuids));
+                current = changed;
+            }else {
+                parentState = resolve(chain, repositoryTimetableVersionSlot.findByVersionIdIn(chain));
+                current = repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(timetable.getId());
+            }
+            entryCount = parent.getEntryCount() + delta(parentState, current, slots);
+        }
+
+        final String name = dtoReqTimetableVersion != null && dtoReqTimetableVersion.getName() != null && !dtoReqTimetableVersion.getName().isBlank()
+                ? dtoReqTimetableVersion.getName().trim() : "Version " + (versionsById.size() + 1);
+        final EntityTimetableVersion version = repositoryTimetableVersion.save(EntityTimetableVersion.builder()
+                .timetableId(timetable.getId())
+                .parentId(parent != null ? parent.getId() : null)
+                .name(name)
+                .description(dtoReqTimetableVersion != null ? dtoReqTimetableVersion.getDescription() : null)
+                .isKeyframe(keyframe)
+                .depth(keyframe ? 0 : parent.getDepth() + 1)
+                .slotCount(slots.size())
+                .entryCount(entryCount)
+                .createdBy(UtilAuthContext.getAuthenticatedUserId())
+                .build());
+        for(final EntityTimetableVersionSlot slot : slots) {
+            slot.setVersionId(version.getId());
+        }
+        repositoryTimetableVersionSlot.saveAll(slots);
+        repositoryTimetable.updateHeadVersion(timetable.getId(), version.getId(), contentVersion);
+        versionsById.put(version.getId(), version);
+
+        return ApiResponse.success(HttpStatus.CREATED, i18n.getTimetable(I18N_TIMETABLE_VERSION_CREATE_SUCCESS), toDto(version, versionsById, version.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<List<DtoResTimetableVersion>> getVersions(final String timetableUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = findTimetable(timetableUuid, i18n);
+        final Map<Integer, EntityTimetableVersion> versionsById = versionsById(timetable.getId());
+        final List<DtoResTimetableVersion> versions = new ArrayList<>(versionsById.size());
+        for(final EntityTimetableVersion version : versionsById.values()) {
+            versions.add(toDto(version, versionsById, timetable.getHeadVersionId()));
+        }
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_VERSION_LIST_SUCCESS), versions);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<List<DtoResTimetableEntry>> getVersionEntries(final String timetableUuid, final String versionUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = findTimetable(timetableUuid, i18n);
+        final Collection<EntityTimetableVersionSlot> slots = resolveVersion(timetable.getId(), versionUuid, i18n).values();
+
+        // Converted without ids: the live row may since have moved to another subject, teacher or room.
+        final List<DtoResTimetableEntry> dtos = serviceTimetableEntryReadModel.toDtos(toEntries(timetable.getId(), slots));
+        int i = 0;
+        for(final EntityTimetableVersionSlot slot : slots) {
+            dtos.get(i++).setId(slot.getEntryId());
+        }
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_VERSION_RETRIEVE_SUCCESS), dtos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EntityTimetableEntry> getVersionEntities(final Integer timetableId, final String versionUuid) {
+        return toEntries(timetableId, resolveVersion(timetableId, versionUuid, new I18n(httpServletRequest)).values());
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<DtoResTimetableVersion> restoreVersion(final String timetableUuid, final String versionUuid) {
+        final I18n i18n = new I18n(httpServletRequest);
+        final EntityTimetable timetable = findTimetable(timetableUuid, i18n);
+        final Map<Integer, EntityTimetableVersion> versionsById = versionsById(timetable.getId());
+        final EntityTimetableVersion version = findVersion(versionsById, versionUuid, i18n);
+        final List<Integer> chain = chainOf(version, versionsById);
+        final Map<String, EntityTimetableVersionSlot> state = resolve(chain, repositoryTimetableVersionSlot.findByVersionIdIn(chain));
+
+        final Map<String, EntityTimetableEntry> live = new HashMap<>();
+        for(final EntityTimetableEntry entry : repositoryTimetableEntry.findByTimetableId(timetable.getId())) {
+            live.put(entry.getUuid(), entry);
+        }
+        final List<EntityTimetableEntry> saved = new ArrayList<>();
+        boolean recreated = false;
+        for(final EntityTimetableVersionSlot slot : state.values()) {
+            EntityTimetableEntry entry = live.get(slot.getEntryUuid());
+            if(entry == null) {
+                entry = new EntityTimetableEntry();
+                entry.setTimetableId(timetable.getId());
+                recreated = true;
+            }else if(!Boolean.TRUE.equals(entry.getIsDeleted()) && samePlacement(toSlot(entry), slot)) {
+                continue;
+            }
+            applySlot(slot, entry);
+            saved.add(entry);
+        }
+        for(final EntityTimetableEntry entry : live.values()) {
+            if(!Boolean.TRUE.equals(entry.getIsDeleted()) && !state.containsKey(entry.getUuid())) {
+                entry.setIsDeleted(true);
+                saved.add(entry);
+            }
+        }
+
+        if(!saved.isEmpty()) {
+            repositoryTimetableEntry.saveAll(saved);
+            serviceTimetableOccupancy.evict(timetable.getId());
+            serviceTimetableView.evict(timetable.getId());
+        }
+        // Rows that no longer existed come back under new uuids, which only a full diff can pair with the version.
+        repositoryTimetable.updateHeadVersion(timetable.getId(), version.getId(), recreated ? null : timetable.getContentVersion());
+
+        return ApiResponse.success(HttpStatus.OK, i18n.getTimetable(I18N_TIMETABLE_VERSION_RESTORE_SUCCESS), toDto(version, versionsById, version.getId()));
+    }
+
+    private Map<String, EntityTimetableVersionSlot> resolveVersion(final Integer timetableId, final String versionUuid, final I18n i18n) {
+        final Map<Integer, EntityTimetableVersion> versionsById = versionsById(timetableId);
+        final List<Integer> chain = chainOf(findVersion(versionsById, versionUuid, i18n), versionsById);
+        return resolve(chain, repositoryTimetableVersionSlot.findByVersionIdIn(chain));
+    }
+
+    /** Detached entries carrying the versioned uuids and placements, without ids. */
+    private static List<EntityTimetableEntry> toEntries(final Integer timetableId, final Collection<EntityTimetableVersionSlot> slots) {
+        final List<EntityTimetableEntry> entries = new ArrayList<>(slots.size());
+        for(final EntityTimetableVersionSlot slot : slots) {
+            final EntityTimetableEntry entry = new EntityTimetableEntry();
+            entry.setTimetableId(timetableId);
+            entry.setUuid(slot.getEntryUuid());
+            applySlot(slot, entry);
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the entries of the timetable that changed after the head version was taken, collecting their uuids
+     * (including those of hard-deleted entries) into {@code uuids}, or {@code null} when the change log no longer
+     * covers that range and the caller has to diff the whole timetable.
+     */
+    private List<EntityTimetableEntry> changedSinceHead(final EntityTimetable timetable, final Set<String> uuids) {
+        final Long since = timetable.getHeadContentVersion();
+        final long version = timetable.getContentVersion() != null ? timetable.getContentVersion() : 0L;
+        if(since == null || since > version) {
+            return null;
+        }
+        if(since == version) {
+            return List.of();
+        }
+        final Long oldest = repositoryTimetableChange.findOldestVersion(timetable.getId());
+        if(oldest == null || oldest > since + 1) {
+            return null;
+        }
+
+        final Set<Integer> entryIds = new HashSet<>();
+        for(final EntityTimetableChange change : repositoryTimetableChange.findByTimetableIdAndVersionGreaterThanOrderByVersionAscIdAsc(timetable.getId(), since)) {
+            // RELOAD rows mean referenced subjects, rooms or teachers changed; the entries themselves did not.
+            if(change.getEntryId() == null) {
+                continue;
+            }
+            entryIds.add(change.getEntryId());
+            if(change.getEntryUuid() != null) {
+                uuids.add(change.getEntryUuid());
+            }
+        }
+        final List<EntityTimetableEntry> entries = new ArrayList<>();
+        for(final EntityTimetableEntry entry : repositoryTimetableEntry.findAllById(entryIds)) {
+            if(timetable.getId().equals(entry.getTimetableId())) {
+                entries.add(entry);
+                uuids.add(entry.getUuid());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Appends to {@code slots} every live entry that is new or placed differently than in {@code parentState}, and
+     * a tombstone for every parent slot with no live entry, returning how many entries were gained or lost.
+     */
+    private static int delta(final Map<String, EntityTimetableVersionSlot> parentState, final Collection<EntityTimetableEntry> current, final List<EntityTimetableVersionSlot> slots) {
+        int gained = 0;
+        final Set<String> present = new HashSet<>();
+        for(final EntityTimetableEntry entry : current) {
+            if(Boolean.TRUE.equals(entry.getIsDeleted())) {
+                continue;
+            }
+            present.add(entry.getUuid());
+            final EntityTimetableVersionSlot slot = toSlot(entry);
+            final EntityTimetableVersionSlot previous = parentState.get(entry.getUuid());
+            if(previous == null) {
+                gained++;
+                slots.add(slot);
+            }else if(!samePlacement(previous, slot)) {
+                slots.add(slot);
+            }
+        }
+        for(final EntityTimetableVersionSlot previous : parentState.values()) {
+            if(!present.contains(previous.getEntryUuid())) {
+                gained--;
+                slots.add(EntityTimetableVersionSlot.builder().entryUuid(previous.getEntryUuid()).entryId(previous.getEntryId()).isRemoved(true).build());
+            }
+        }
+        return gained;
+    }
+
+    private static Map<String, EntityTimetableVersionSlot> resolve(final List<Integer> chain, final List<EntityTimetableVersionSlot> slots) {
+        final Map<Integer, List<EntityTimetableVersionSlot>> slotsByVersion = new HashMap<>();
+        for(final EntityTimetableVersionSlot slot : slots) {
+            slotsByVersion.computeIfAbsent(slot.getVersionId(), id -> new ArrayList<>()).add(slot);
+        }
+        final Map<String, EntityTimetableVersionSlot> state = new LinkedHashMap<>();
+        for(final Integer versionId : chain) {
+            for(final EntityTimetableVersionSlot slot : slotsByVersion.getOrDefault(versionId, List.of())) {
+                if(Boolean.TRUE.equals(slot.getIsRemoved())) {
+                    state.remove(slot.getEntryUuid());
+                }else {
+                    state.put(slot.getEntryUuid(), slot);
+                }
+            }
+        }
+        return state;
+    }
+
+    /** Version ids from the nearest keyframe down to {@code version}, in the order their slots are replayed. */
+    private static List<Integer> chainOf(final EntityTimetableVersion version, final Map<Integer, EntityTimetableVersion> versionsById) {
+        final List<Integer> chain = new ArrayList<>();
+        EntityTimetableVersion current = version;
+        while(current != null) {
+            chain.add(current.getId());
+            if(Boolean.TRUE.equals(current.getIsKeyframe()) || current.getParentId() == null) {
+                break;
+            }
+            current = versionsById.get(current.getParentId());
+        }
+        Collections.reverse(chain);
+        return chain;
+    }
+
+    private static EntityTimetableVersionSlot toSlot(final EntityTimetableEntry entry) {
+        return EntityTimetableVersionSlot.builder()
+                .entryUuid(entry.getUuid())
+                .entryId(entry.getId())
+                .classId(entry.getClassId())
+                .classBandId(entry.getClassBandId())
+                .isClassBandEntry(entry.getIsClassBandEntry())
+                .subjectId(entry.getSubjectId())
+                .teacherId(entry.getTeacherId())
+                .roomId(entry.getRoomId())
+                .bindingId(entry.getBindingId())
+                .dayOfWeek(entry.getDayOfWeek())
+                .period(entry.getPeriod())
+                .periodNumber(entry.getPeriodNumber())
+                .periodType(entry.getPeriodType())
+                .durationMinutes(entry.getDurationMinutes())
+                .status(entry.getStatus())
+                .isLocked(entry.getIsLocked())
+                .build();
+    }
+
+    private static void applySlot(final EntityTimetableVersionSlot slot, final EntityTimetableEntry entry) {
+        entry.setClassId(slot.getClassId());
+        entry.setClassBandId(slot.getClassBandId());
+        entry.setIsClassBandEntry(slot.getIsClassBandEntry() != null ? slot.getIsClassBandEntry() : false);
+        entry.setSubjectId(slot.getSubjectId());
+        entry.setTeacherId(slot.getTeacherId());
+        entry.setRoomId(slot.getRoomId());
+        entry.setBindingId(slot.getBindingId());
+        entry.setDayOfWeek(slot.getDayOfWeek());
+        entry.setPeriod(slot.getPeriod());
+        entry.setPeriodNumber(slot.getPeriodNumber());
+        entry.setPeriodType(slot.getPeriodType());
+        entry.setDurationMinutes(slot.getDurationMinutes());
+        entry.setStatus(slot.getStatus());
+        entry.setIsLocked(slot.getIsLocked() != null ? slot.getIsLocked() : false);
+        entry.setIsDeleted(false);
+    }
+
+    private static boolean samePlacement(final EntityTimetableVersionSlot a, final EntityTimetableVersionSlot b) {
+        return Objects.equals(a.getClassId(), b.getClassId())
+                && Objects.equals(a.getClassBandId(), b.getClassBandId())
+                && Objects.equals(a.getIsClassBandEntry(), b.getIsClassBandEntry())
+                && Objects.equals(a.getSubjectId(), b.getSubjectId())
+                && Objects.equals(a.getTeacherId(), b.getTeacherId())
+                && Objects.equals(a.getRoomId(), b.getRoomId())
+                && Objects.equals(a.getBindingId(), b.getBindingId())
+                && Objects.equals(a.getDayOfWeek(), b.getDayOfWeek())
+                && Objects.equals(a.getPeriod(), b.getPeriod())
+                && Objects.equals(a.getPeriodNumber(), b.getPeriodNumber())
+                && Objects.equals(a.getPeriodType(), b.getPeriodType())
+                && Objects.equals(a.getDurationMinutes(), b.getDurationMinutes())
+                && Objects.equals(a.getStatus(), b.getStatus())
+                && Objects.equals(a.getIsLocked(), b.getIsLocked());
+    }
+
+    private EntityTimetable findTimetable(final String timetableUuid, final I18n i18n) {
+        return repositoryTimetable.findByUuidAndIsDeletedFalse(timetableUuid)
+                .orElseThrow(() -> new ExceptionTimetableNotFound(i18n.getTimetable(I18N_TIMETABLE_NOT_FOUND)));
+    }
+
+    private Map<Integer, EntityTimetableVersion> versionsById(final Integer timetableId) {
+        final Map<Integer, EntityTimetableVersion> versionsById = new LinkedHashMap<>();
+        for(final EntityTimetableVersion version : repositoryTimetableVersion.findByTimetableIdOrderByIdAsc(timetableId)) {
+            versionsById.put(version.getId(), version);
+        }
+        return versionsById;
+    }
+
+    private static EntityTimetableVersion findVersion(final Map<Integer, EntityTimetableVersion> versionsById, final String versionUuid, final I18n i18n) {
+        return versionsById.values().stream()
+                .filter(version -> version.getUuid().equals(versionUuid))
+                .findFirst()
+                .orElseThrow(() -> new ExceptionCoreNotFound(i18n.getTimetable(I18N_TIMETABLE_VERSION_NOT_FOUND)));
+    }
+
+    private static DtoResTimetableVersion toDto(final EntityTimetableVersion version, final Map<Integer, EntityTimetableVersion> versionsById, final Integer headVersionId) {
+        final EntityTimetableVersion parent = version.getParentId() != null ? versionsById.get(version.getParentId()) : null;
+        return DtoResTimetableVersion.builder()
+                .uuid(version.getUuid())
+                .timetableId(version.getTimetableId())
+                .parentUuid(parent != null ? parent.getUuid() : null)
+                .name(version.getName())
+                .description(version.getDescription())
+                .isKeyframe(version.getIsKeyframe())
+                .isHead(version.getId().equals(headVersionId))
+                .depth(version.getDepth())
+                .slotCount(version.getSlotCount())
+                .entryCount(version.getEntryCount())
+                .createdBy(version.getCreatedBy())
+                .createdDate(version.getCreatedDate())
+                .build();
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableView;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableNotFound;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids.View;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.service.ServiceTimetableCache;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ServiceTimetableViewImpl implements ServiceTimetableView {
+
+    public static final long GRIDS_TTL_MILLIS = 10 * 60 * 1000L;
+
+    private static final int DEFAULT_DAYS_PER_WEEK = 5;
+
+    private final RepositoryTimetable repositoryTimetable;
+    private final RepositoryPlanSetting repositoryPlanSetting;
+    private final ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+    private final ServiceTimetableCache serviceTimetableCache;
+    private final Map<Integer, ModelTimetableViewGrids> grids = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceTimetableViewImpl(
+            RepositoryTimetable repositoryTimetable,
+            RepositoryPlanSetting repositoryPlanSetting,
+            ServiceTimetableEntryReadModel serviceTimetableEntryReadModel,
+            ServiceTimetableCache serviceTimetableCache) {
+        this.repositoryTimetable = repositoryTimetable;
+        this.repositoryPlanSetting = repositoryPlanSetting;
+        this.serviceTimetableEntryReadModel = serviceTimetableEntryReadModel;
+        this.serviceTimetableCache = serviceTimetableCache;
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> getEntries(final Integer timetableId) {
+        final ModelTimetableViewGrids viewGrids = getGrids(timetableId);
+        synchronized(viewGrids) {
+            return viewGrids.all();
+        }
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> getEntries(final Integer timetableId, final View view, final Integer resourceId) {
+        final ModelTimetableViewGrids viewGrids = getGrids(timetableId);
+        synchronized(viewGrids) {
+            return viewGrids.entries(view, resourceId);
+        }
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> getEntriesByDay(final Integer timetableId, final Integer dayOfWeek) {
+        return getEntries(timetableId).stream()
+                .filter(entry -> entry.getDayOfWeek().equals(dayOfWeek))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<DtoResTimetableEntry> filter(final Integer timetableId, final List<Integer> teacherIds, final List<Integer> roomIds, final List<Integer> subjectIds, final List<Integer> classIds) {
+        final Map<View, List<Integer>> filters = new EnumMap<>(View.class);
+        filters.put(View.TEACHER, teacherIds);
+        filters.put(View.ROOM, roomIds);
+        filters.put(View.SUBJECT, subjectIds);
+        filters.put(View.CLASS, classIds);
+        final ModelTimetableViewGrids viewGrids = getGrids(timetableId);
+        synchronized(viewGrids) {
+            return viewGrids.filter(filters);
+        }
+    }
+
+    @Override
+    public DtoResTimetableView getView(final Integer timetableId, final View view, final Integer resourceId) {
+        final ModelTimetableViewGrids viewGrids = getGrids(timetableId);
+        synchronized(viewGrids) {
+            return DtoResTimetableView.builder()
+                    .timetableId(timetableId)
+                    .view(view.name())
+                    .resourceId(resourceId)
+                    .days(viewGrids.getDays())
+                    .periodsPerDay(viewGrids.getPeriodsPerDay())
+                    .cells(viewGrids.cells(view, resourceId))
+                    .build();
+        }
+    }
+
+    /**
+     * The grids are read by other requests, so writes reach them only once the caller's transaction commits;
+     * the entries are turned into rows right away, while the transaction can still read them.
+     */
+    @Override
+    public void refresh(final List<EntityTimetableEntry> entries) {
+        final List<EntityTimetableEntry> removed = new ArrayList<>();
+        final List<EntityTimetableEntry> placed = new ArrayList<>();
+        for(final EntityTimetableEntry entry : entries) {
+            if(!grids.containsKey(entry.getTimetableId())) {
+                continue;
+            }
+            if(Boolean.TRUE.equals(entry.getIsDeleted())) {
+                removed.add(entry);
+            }else {
+                placed.add(entry);
+            }
+        }
+        if(removed.isEmpty() && placed.isEmpty()) {
+            return;
+        }
+        final List<DtoResTimetableEntry> dtos = placed.isEmpty() ? List.of() : serviceTimetableEntryReadModel.toDtos(placed);
+        afterCommit(() -> {
+            removed.forEach(this::removeNow);
+            for(final DtoResTimetableEntry dto : dtos) {
+                final ModelTimetableViewGrids viewGrids = grids.get(dto.getTimetableId());
+                if(viewGrids == null) {
+                    continue;
+                }
+                synchronized(viewGrids) {
+                    if(!viewGrids.put(dto)) {
+                        grids.remove(dto.getTimetableId());
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void remove(final EntityTimetableEntry entry) {
+        afterCommit(() -> removeNow(entry));
+    }
+
+    /** Drops the grids now and, inside a transaction, again once it ends, in case they were rebuilt before its commit. */
+    @Override
+    public void evict(final Integer timetableId) {
+        grids.remove(timetableId);
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    grids.remove(timetableId);
+                }
+            });
+        }
+    }
+
+    private void removeNow(final EntityTimetableEntry entry) {
+        final ModelTimetableViewGrids viewGrids = grids.get(entry.getTimetableId());
+        if(viewGrids == null) {
+            return;
+        }
+        synchronized(viewGrids) {
+            viewGrids.remove(entry.getId());
+        }
+    }
+
+    private static void afterCommit(final Runnable change) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private ModelTimetableViewGrids getGrids(final Integer timetableId) {
+        final ModelTimetableViewGrids cached = grids.get(timetableId);
+        if(cached != null && System.currentTimeMillis() - cached.getLoadedAt() < GRIDS_TTL_MILLIS) {
+            return cached;
+        }
+        final ModelTimetableViewGrids loaded = load(timetableId);
+        grids.put(timetableId, loaded);
+        return loaded;
+    }
+
+    private ModelTimetableViewGrids load(final Integer timetableId) {
+        final EntityTimetable timetable = repositoryTimetable.findById(timetableId)
+                .orElseThrow(() -> new ExceptionTimetableNotFound("Timetable not found with ID: " + timetableId));
+        int days = DEFAULT_DAYS_PER_WEEK;
+        int periodsPerDay = 0;
+        final EntityPlanSetting planSetting = timetable.getPlansettingId() != null ? repositoryPlanSetting.findById(timetable.getPlansettingId()).orElse(null) : null;
+        if(planSetting != null) {
+            days = planSetting.getDaysPerWeek() != null && planSetting.getDaysPerWeek() > 0 ? planSetting.getDaysPerWeek() : days;
+            periodsPerDay = planSetting.getPeriodsPerDay() != null ? planSetting.getPeriodsPerDay() : 0;
+        }
+        final List<DtoResTimetableEntry> entries = serviceTimetableCache.getEntries(timetable);
+        final ModelTimetableViewGrids loaded = ModelTimetableViewGrids.of(timetableId, days, periodsPerDay, entries);
+        log.debug("Built view grids for timetable {}: {} of {} entries placed", timetableId, loaded.getEntryCount(), entries.size());
+        return loaded;
+    }
+
+}
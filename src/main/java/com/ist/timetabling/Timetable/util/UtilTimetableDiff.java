@@ -0,0 +1,247 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableDiff;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class UtilTimetableDiff {
+
+    public static final int MAX_ENTRIES = 1 << 20;
+
+    private static final int INDEX_BITS = 20;
+    private static final int PERIOD_BITS = 8;
+    private static final int DAY_BITS = 4;
+    private static final int OWNER_SHIFT = INDEX_BITS + PERIOD_BITS + DAY_BITS;
+    private static final long OWNER_OFFSET = 1L << 30;
+
+    private UtilTimetableDiff() {
+    }
+
+    /**
+     * Compares two timetables cell by cell. Each side is packed into a sorted {@code long[]} of
+     * (class, day, period, index) and walked once in step: a lesson found in the same class cell on both
+     * sides is unchanged, or reassigned when only its teacher or room differs. Lessons left over on both
+     * sides are paired into moves by class and subject, the rest are removed or added. A second walk over
+     * (teacher, day, period) cells counts the changed cells of every teacher.
+     */
+    public static ModelTimetableDiff diff(final List<EntityTimetableEntry> base, final List<EntityTimetableEntry> target) {
+        final Columns b = new Columns(base);
+        final Columns t = new Columns(target);
+        final long[] baseCells = cells(b.classKey, b);
+        final long[] targetCells = cells(t.classKey, t);
+
+        final boolean[] baseMatched = new boolean[b.size];
+        final boolean[] targetMatched = new boolean[t.size];
+        final int[] reassignedBase = new int[Math.min(b.size, t.size)];
+        final int[] reassignedTarget = new int[reassignedBase.length];
+        final int[] counts = new int[2];
+        final Map<Integer, Integer> classChangeCounts = new HashMap<>();
+        align(baseCells, targetCells, (i, iEnd, j, jEnd) -> {
+            for(int x = i; x < iEnd; x++) {
+                final int bi = index(baseCells[x]);
+                for(int y = j; y < jEnd; y++) {
+                    final int ti = index(targetCells[y]);
+                    if(!targetMatched[ti] && b.subject[bi] == t.subject[ti] && b.teacher[bi] == t.teacher[ti] && b.room[bi] == t.room[ti]) {
+                        baseMatched[bi] = true;
+                        targetMatched[ti] = true;
+                        counts[0]++;
+                        break;
+                    }
+                }
+            }
+            boolean changed = false;
+            for(int x = i; x < iEnd; x++) {
+                final int bi = index(baseCells[x]);
+                if(baseMatched[bi]) {
+                    continue;
+                }
+                changed = true;
+                for(int y = j; y < jEnd; y++) {
+                    final int ti = index(targetCells[y]);
+                    if(!targetMatched[ti] && b.subject[bi] == t.subject[ti]) {
+                        baseMatched[bi] = true;
+                        targetMatched[ti] = true;
+                        reassignedBase[counts[1]] = bi;
+                        reassignedTarget[counts[1]++] = ti;
+                        break;
+                    }
+                }
+            }
+            for(int y = j; y < jEnd && !changed; y++) {
+                changed = !targetMatched[index(targetCells[y])];
+            }
+            countChange(classChangeCounts, iEnd > i ? baseCells[i] : targetCells[j], changed);
+        });
+
+        final Map<Long, ArrayDeque<Integer>> addedByLesson = new HashMap<>();
+        for(final long cell : targetCells) {
+            final int ti = index(cell);
+            if(!targetMatched[ti]) {
+                addedByLesson.computeIfAbsent(lesson(t, ti), key -> new ArrayDeque<>()).add(ti);
+            }
+        }
+        final int[] movedBase = new int[Math.min(b.size, t.size)];
+        final int[] movedTarget = new int[movedBase.length];
+        final int[] removed = new int[b.size];
+        int moved = 0;
+        int removedCount = 0;
+        for(final long cell : baseCells) {
+            final int bi = index(cell);
+            if(baseMatched[bi]) {
+                continue;
+            }
+            final ArrayDeque<Integer> candidates = addedByLesson.get(lesson(b, bi));
+            if(candidates != null && !candidates.isEmpty()) {
+                final int ti = candidates.poll();
+                targetMatched[ti] = true;
+                movedBase[moved] = bi;
+                movedTarget[moved++] = ti;
+            }else {
+                removed[removedCount++] = bi;
+            }
+        }
+        final int[] added = new int[t.size];
+        int addedCount = 0;
+        for(final long cell : targetCells) {
+            final int ti = index(cell);
+            if(!targetMatched[ti]) {
+                added[addedCount++] = ti;
+            }
+        }
+
+        return ModelTimetableDiff.builder()
+                .movedBase(Arrays.copyOf(movedBase, moved))
+                .movedTarget(Arrays.copyOf(movedTarget, moved))
+                .reassignedBase(Arrays.copyOf(reassignedBase, counts[1]))
+                .reassignedTarget(Arrays.copyOf(reassignedTarget, counts[1]))
+                .removed(Arrays.copyOf(removed, removedCount))
+                .added(Arrays.copyOf(added, addedCount))
+                .unchangedCount(counts[0])
+                .teacherChangeCounts(teacherChangeCounts(b, t))
+                .classChangeCounts(classChangeCounts)
+                .build();
+    }
+
+    private static Map<Integer, Integer> teacherChangeCounts(final Columns b, final Columns t) {
+        final long[] baseCells = cells(b.teacher, b);
+        final long[] targetCells = cells(t.teacher, t);
+        final boolean[] targetMatched = new boolean[t.size];
+        final Map<Integer, Integer> teacherChangeCounts = new HashMap<>();
+        align(baseCells, targetCells, (i, iEnd, j, jEnd) -> {
+            boolean changed = false;
+            for(int x = i; x < iEnd; x++) {
+                final int bi = index(baseCells[x]);
+                boolean found = false;
+                for(int y = j; y < jEnd && !found; y++) {
+                    final int ti = index(targetCells[y]);
+                    found = !targetMatched[ti] && b.classKey[bi] == t.classKey[ti] && b.subject[bi] == t.subject[ti] && b.room[bi] == t.room[ti];
+                    targetMatched[ti] |= found;
+                }
+                changed |= !found;
+            }
+            for(int y = j; y < jEnd && !changed; y++) {
+                changed = !targetMatched[index(targetCells[y])];
+            }
+            countChange(teacherChangeCounts, iEnd > i ? baseCells[i] : targetCells[j], changed);
+        });
+        return teacherChangeCounts;
+    }
+
+    /** Walks both sorted cell arrays once, handing each run of equal (owner, day, period) on either side to the visitor. */
+    private static void align(final long[] baseCells, final long[] targetCells, final CellVisitor visitor) {
+        int i = 0;
+        int j = 0;
+        while(i < baseCells.length || j < targetCells.length) {
+            final long cell = Math.min(i < baseCells.length ? baseCells[i] >>> INDEX_BITS : Long.MAX_VALUE,
+                    j < targetCells.length ? targetCells[j] >>> INDEX_BITS : Long.MAX_VALUE);
+            int iEnd = i;
+            while(iEnd < baseCells.length && baseCells[iEnd] >>> INDEX_BITS == cell) {
+                iEnd++;
+            }
+            int jEnd = j;
+            while(jEnd < targetCells.length && targetCells[jEnd] >>> INDEX_BITS == cell) {
+                jEnd++;
+            }
+            visitor.visit(i, iEnd, j, jEnd);
+            i = iEnd;
+            j = jEnd;
+        }
+    }
+
+    private static long[] cells(final int[] owner, final Columns columns) {
+        final long[] cells = new long[columns.size];
+        for(int k = 0; k < columns.size; k++) {
+            cells[k] = (owner[k] + OWNER_OFFSET) << OWNER_SHIFT | (long) columns.day[k] << (INDEX_BITS + PERIOD_BITS) | (long) columns.period[k] << INDEX_BITS | k;
+        }
+        Arrays.sort(cells);
+        return cells;
+    }
+
+    private static void countChange(final Map<Integer, Integer> counts, final long cell, final boolean changed) {
+        final int owner = (int) ((cell >>> OWNER_SHIFT) - OWNER_OFFSET);
+        if(changed && owner != 0) {
+            counts.merge(owner, 1, Integer::sum);
+        }
+    }
+
+    private static int index(final long cell) {
+        return (int) (cell & (MAX_ENTRIES - 1));
+    }
+
+    private static long lesson(final Columns columns, final int k) {
+        return (long) columns.classKey[k] << 32 | (columns.subject[k] & 0xFFFFFFFFL);
+    }
+
+    @FunctionalInterface
+    private interface CellVisitor {
+        void visit(int i, int iEnd, int j, int jEnd);
+    }
+
+    /** The fields the diff compares, one primitive column each; missing ids are 0, class bands are negative class keys. */
+    private static final class Columns {
+
+        private final int size;
+        private final int[] classKey;
+        private final int[] teacher;
+        private final int[] subject;
+        private final int[] room;
+        private final int[] day;
+        private final int[] period;
+
+        private Columns(final List<EntityTimetableEntry> entries) {
+            if(entries.size() > MAX_ENTRIES) {
+                throw new IllegalArgumentException("Cannot diff more than " + MAX_ENTRIES + " entries");
+            }
+            size = entries.size();
+            classKey = new int[size];
+            teacher = new int[size];
+            subject = new int[size];
+            room = new int[size];
+            day = new int[size];
+            period = new int[size];
+            for(int k = 0; k < size; k++) {
+                final EntityTimetableEntry entry = entries.get(k);
+                classKey[k] = Boolean.TRUE.equals(entry.getIsClassBandEntry()) && id(entry.getClassBandId()) > 0 ? -entry.getClassBandId() : id(entry.getClassId());
+                teacher[k] = id(entry.getTeacherId());
+                subject[k] = id(entry.getSubjectId());
+                room[k] = id(entry.getRoomId());
+                day[k] = id(entry.getDayOfWeek());
+                period[k] = id(entry.getPeriod());
+                if(day[k] >= 1 << DAY_BITS || period[k] >= 1 << PERIOD_BITS || Math.abs((long) classKey[k]) >= OWNER_OFFSET || teacher[k] >= OWNER_OFFSET) {
+                    throw new IllegalArgumentException("Entry " + entry.getUuid() + " is outside the diffable range");
+                }
+            }
+        }
+
+        private static int id(final Integer value) {
+            return value != null && value > 0 ? value : 0;
+        }
+
+    }
+
+}
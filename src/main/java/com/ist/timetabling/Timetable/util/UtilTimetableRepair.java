@@ -0,0 +1,185 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Timetable.model.ModelTimetableRepairResult;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class UtilTimetableRepair {
+
+    public static final long DEFAULT_MAX_ITERATIONS = 20_000L;
+
+    private static final int BINDING = 0;
+    private static final int FIXED = 1;
+    private static final int HINT = 2;
+    private static final int ENTRY = 3;
+
+    private UtilTimetableRepair() {
+    }
+
+    /**
+     * Re-places the lessons of binding {@code target} around an existing timetable. Every other
+     * entry stays where it is; only when that leaves target lessons unplaced is a second pass made
+     * in which unlocked entries may move, each paying {@link UtilTimetableSolver#MOVE_PENALTY}.
+     * The returned arrays describe the target lessons and, after a widened pass, the moved entries.
+     *
+     * @param entryBinding binding index of each existing entry, or {@code NONE} to ignore it
+     * @param entrySlot    current slot of each entry, or {@code NONE} when outside the grid
+     * @param entryLocked  whether the entry is locked in place
+     */
+    public static ModelTimetableRepairResult repair(final ModelTimetableSolverInput base, final int[] entryBinding, final int[] entrySlot, final boolean[] entryLocked, final int target, final long timeLimitMillis) {
+        final long startedAt = System.currentTimeMillis();
+        int required = 0;
+        for(final int binding : base.getLessonBinding()) {
+            if(binding == target) {
+                required++;
+            }
+        }
+
+        ModelTimetableRepairResult result = solve(base, entryBinding, entrySlot, entryLocked, target, required, false, timeLimitMillis);
+        if(result.getUnplacedCount() > 0) {
+            final long remaining = timeLimitMillis - (System.currentTimeMillis() - startedAt);
+            if(remaining > 0) {
+                final ModelTimetableRepairResult widened = solve(base, entryBinding, entrySlot, entryLocked, target, required, true, remaining);
+                if(widened != null && widened.getUnplacedCount() < result.getUnplacedCount()) {
+                    result = widened;
+                }
+            }
+        }
+
+        return ModelTimetableRepairResult.builder()
+                .lessonEntry(result.getLessonEntry())
+                .lessonBinding(result.getLessonBinding())
+                .lessonSlot(result.getLessonSlot())
+                .removedEntries(result.getRemovedEntries())
+                .unplacedCount(result.getUnplacedCount())
+                .movedCount(result.getMovedCount())
+                .widened(result.isWidened())
+                .elapsedMillis(System.currentTimeMillis() - startedAt)
+                .build();
+    }
+
+    /**
+     * Whether binding {@code binding} could take entry {@code entry}'s slot without being forbidden
+     * there or sharing a teacher, room or class with another entry in the same slot. Used before a
+     * locked entry is handed a binding's new resources, since a locked entry is never moved.
+     */
+    public static boolean fits(final ModelTimetableSolverInput base, final int[] entryBinding, final int[] entrySlot, final int binding, final int entry) {
+        final int slot = entrySlot[entry];
+        if(slot < 0 || base.isForbidden(binding, slot)) {
+            return false;
+        }
+        for(int e = 0; e < entryBinding.length; e++) {
+            final int other = entryBinding[e];
+            if(e == entry || other < 0 || entrySlot[e] != slot) {
+                continue;
+            }
+            if(shares(base.getBindingTeacher()[binding], base.getBindingTeacher()[other])
+                    || shares(base.getBindingRoom()[binding], base.getBindingRoom()[other])) {
+                return false;
+            }
+            for(final int group : base.getBindingGroups()[binding]) {
+                for(final int otherGroup : base.getBindingGroups()[other]) {
+                    if(group == otherGroup) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean shares(final int resource, final int other) {
+        return resource >= 0 && resource == other;
+    }
+
+    private static ModelTimetableRepairResult solve(final ModelTimetableSolverInput base, final int[] entryBinding, final int[] entrySlot, final boolean[] entryLocked, final int target, final int required, final boolean widen, final long timeLimitMillis) {
+        final List<int[]> lessons = new ArrayList<>();
+        final List<Integer> reusable = new ArrayList<>();
+        int kept = 0;
+        for(int e = 0; e < entryBinding.length; e++) {
+            final int binding = entryBinding[e];
+            final int slot = entrySlot[e];
+            if(binding == target) {
+                if(entryLocked[e] && slot >= 0 && kept < required) {
+                    lessons.add(new int[]{binding, slot, ModelTimetableSolverInput.NONE, e});
+                    kept++;
+                }else {
+                    reusable.add(e);
+                }
+                continue;
+            }
+            if(binding < 0 || slot < 0) {
+                continue;
+            }
+            final boolean movable = widen && !entryLocked[e];
+            lessons.add(new int[]{binding, movable ? ModelTimetableSolverInput.NONE : slot, movable ? slot : ModelTimetableSolverInput.NONE, e});
+        }
+        for(int i = 0; i < required - kept; i++) {
+            final int entry = i < reusable.size() ? reusable.get(i) : ModelTimetableSolverInput.NONE;
+            lessons.add(new int[]{target, ModelTimetableSolverInput.NONE, entry >= 0 ? entrySlot[entry] : ModelTimetableSolverInput.NONE, entry});
+        }
+
+        final int count = lessons.size();
+        final int[] lessonBinding = new int[count];
+        final int[] lessonFixedSlot = new int[count];
+        final int[] lessonHintSlot = new int[count];
+        for(int l = 0; l < count; l++) {
+            lessonBinding[l] = lessons.get(l)[BINDING];
+            lessonFixedSlot[l] = lessons.get(l)[FIXED];
+            lessonHintSlot[l] = lessons.get(l)[HINT];
+        }
+        final ModelTimetableSolverInput input = UtilTimetableSolverInput.withLessons(base, lessonBinding, lessonFixedSlot, lessonHintSlot, DEFAULT_MAX_ITERATIONS, timeLimitMillis);
+        final ModelTimetableSolverResult solved = UtilTimetableSolver.solve(input);
+
+        final List<Integer> changed = new ArrayList<>();
+        int unplaced = 0;
+        int moved = 0;
+        for(int l = 0; l < count; l++) {
+            if(lessonFixedSlot[l] >= 0) {
+                continue;
+            }
+            final int slot = solved.getLessonSlot()[l];
+            if(lessonBinding[l] != target) {
+                if(slot < 0) {
+                    return null;
+                }
+                if(slot == lessonHintSlot[l]) {
+                    continue;
+                }
+                moved++;
+            }else if(slot < 0) {
+                unplaced++;
+            }
+            changed.add(l);
+        }
+
+        final int[] lessonEntry = new int[changed.size()];
+        final int[] changedBinding = new int[changed.size()];
+        final int[] changedSlot = new int[changed.size()];
+        for(int i = 0; i < changed.size(); i++) {
+            final int l = changed.get(i);
+            lessonEntry[i] = lessons.get(l)[ENTRY];
+            changedBinding[i] = lessonBinding[l];
+            changedSlot[i] = solved.getLessonSlot()[l];
+        }
+        final int surplus = Math.max(0, reusable.size() - (required - kept));
+        final int[] removedEntries = new int[surplus];
+        for(int i = 0; i < surplus; i++) {
+            removedEntries[i] = reusable.get(required - kept + i);
+        }
+
+        return ModelTimetableRepairResult.builder()
+                .lessonEntry(lessonEntry)
+                .lessonBinding(changedBinding)
+                .lessonSlot(changedSlot)
+                .removedEntries(removedEntries)
+                .unplacedCount(unplaced)
+                .movedCount(moved)
+                .widened(widen)
+                .build();
+    }
+
+}
@@ -0,0 +1,660 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput.Strategy;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverProgress;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverResult;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+public final class UtilTimetableSolver {
+
+    public static final long UNPLACED_PENALTY = 100_000L;
+    public static final int SAME_DAY_PENALTY = 4;
+    public static final int MOVE_PENALTY = 200;
+    public static final int HARD_RULE_PENALTY = 5_000;
+
+    private static final int CONFLICT_WEIGHT = 1_000;
+    private static final int TABU_TENURE = 10;
+    private static final int IMPROVE_PASSES = 3;
+    private static final int KICK_SIZE = 8;
+    private static final long PROGRESS_INTERVAL_MILLIS = 250L;
+
+    private UtilTimetableSolver() {
+    }
+
+    public static ModelTimetableSolverResult solve(final ModelTimetableSolverInput input) {
+        return solve(input, Strategy.MOST_CONSTRAINED_FIRST, input.getSeed(), () -> false, null);
+    }
+
+    /**
+     * Runs one search. {@code cancelled} is polled between moves; once it answers true the search
+     * stops and returns its best assignment so far. When {@code listener} is set it receives the
+     * current state at most every {@value #PROGRESS_INTERVAL_MILLIS} ms, plus once at the end.
+     */
+    public static ModelTimetableSolverResult solve(final ModelTimetableSolverInput input, final Strategy strategy, final long seed, final BooleanSupplier cancelled, final Consumer<ModelTimetableSolverProgress> listener) {
+        final long startedAt = System.currentTimeMillis();
+        final Search search = new Search(input, strategy, seed, cancelled, listener, startedAt);
+        search.construct();
+        search.repair();
+        search.improve();
+        if(strategy == Strategy.LOCAL_SEARCH) {
+            search.perturb();
+        }
+        search.report(true);
+        return search.toResult();
+    }
+
+    private static final class Search {
+
+        private final ModelTimetableSolverInput input;
+        private final Strategy strategy;
+        private final long seed;
+        private final BooleanSupplier cancelled;
+        private final Consumer<ModelTimetableSolverProgress> listener;
+        private final long startedAt;
+        private final int slots;
+        private final int periodsPerDay;
+        private final int days;
+        private final long deadline;
+        private final SplittableRandom random;
+
+        private final int[] lessonSlot;
+        private final ModelTimetableOccupancy occupancy;
+        private final long[] freeMask;
+        private final int[] teacherAt;
+        private final int[] roomAt;
+        private final int[] groupAt;
+        private final int[] bindingDay;
+        private final long[] tabu;
+        private final int[] occupants;
+        private final boolean[] impossible;
+        private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+
+        private int impossibleCount;
+        private long iterations;
+        private int[] best;
+        private int bestUnplaced = Integer.MAX_VALUE;
+        private long reportedAt;
+
+        private Search(final ModelTimetableSolverInput input, final Strategy strategy, final long seed, final BooleanSupplier cancelled, final Consumer<ModelTimetableSolverProgress> listener, final long startedAt) {
+            this.input = input;
+            this.strategy = strategy;
+            this.seed = seed;
+            this.cancelled = cancelled;
+            this.listener = listener;
+            this.startedAt = startedAt;
+            this.slots = input.getSlotCount();
+            this.periodsPerDay = input.getPeriodsPerDay();
+            this.days = input.getDays();
+            this.deadline = input.getTimeLimitMillis() > 0 ? startedAt + input.getTimeLimitMillis() : Long.MAX_VALUE;
+            this.random = new SplittableRandom(seed);
+
+            final int lessons = input.getLessonCount();
+            this.lessonSlot = new int[lessons];
+            Arrays.fill(lessonSlot, ModelTimetableSolverInput.NONE);
+            this.occupancy = new ModelTimetableOccupancy(days, periodsPerDay);
+            this.freeMask = new long[ModelTimetableSolverInput.wordsFor(slots)];
+            this.teacherAt = emptyGrid(input.getTeacherCount());
+            this.roomAt = emptyGrid(input.getRoomCount());
+            this.groupAt = emptyGrid(input.getGroupCount());
+            this.bindingDay = new int[input.getBindingCount() * days];
+            this.tabu = new long[lessons * slots];
+            this.impossible = new boolean[lessons];
+
+            int widest = 0;
+            for(final int[] groups : input.getBindingGroups()) {
+                widest = Math.max(widest, groups.length);
+            }
+            this.occupants = new int[widest + 2];
+        }
+
+        private int[] emptyGrid(final int resources) {
+            final int[] grid = new int[resources * slots];
+            Arrays.fill(grid, ModelTimetableSolverInput.NONE);
+            return grid;
+        }
+
+        private void construct() {
+            final int lessons = input.getLessonCount();
+            final int[] freedom = new int[input.getBindingCount()];
+            for(int b = 0; b < freedom.length; b++) {
+                for(int s = 0; s < slots; s++) {
+                    if(!input.isForbidden(b, s)) {
+                        freedom[b]++;
+                    }
+                }
+            }
+            final int[] teacherLoad = new int[input.getTeacherCount()];
+            final long[] tieBreak = new long[lessons];
+            final Integer[] order = new Integer[lessons];
+            int free = 0;
+
+            for(int l = 0; l < lessons; l++) {
+                final int teacher = input.getBindingTeacher()[input.getLessonBinding()[l]];
+                if(teacher >= 0) {
+                    teacherLoad[teacher]++;
+                }
+                tieBreak[l] = random.nextLong();
+
+                final int fixed = input.getLessonFixedSlot()[l];
+                if(fixed < 0) {
+                    order[free++] = l;
+                }else if(fixed < slots && isFree(l, fixed)) {
+                    place(l, fixed);
+                }else {
+                    markImpossible(l);
+                }
+            }
+
+            final Comparator<Integer> byFreedom = Comparator.comparingInt(l -> freedom[input.getLessonBinding()[l]]);
+            final Comparator<Integer> byTeacherLoad = Comparator.comparingInt(l -> {
+                final int teacher = input.getBindingTeacher()[input.getLessonBinding()[l]];
+                return teacher >= 0 ? -teacherLoad[teacher] : 0;
+            });
+            final Comparator<Integer> byGroups = Comparator.comparingInt(l -> -input.getBindingGroups()[input.getLessonBinding()[l]].length);
+            final Comparator<Integer> byTieBreak = Comparator.comparingLong(l -> tieBreak[l]);
+
+            final Integer[] freeLessons = Arrays.copyOf(order, free);
+            switch(strategy) {
+                case BUSIEST_TEACHER_FIRST -> Arrays.sort(freeLessons, byTeacherLoad.thenComparing(byFreedom).thenComparing(byGroups).thenComparing(byTieBreak));
+                case RANDOM_ORDER -> Arrays.sort(freeLessons, byTieBreak);
+                default -> Arrays.sort(freeLessons, byFreedom.thenComparing(byTeacherLoad).thenComparing(byGroups).thenComparing(byTieBreak));
+            }
+
+            for(final Integer lesson : freeLessons) {
+                final int hint = input.hintOf(lesson);
+                if(hint >= 0 && hint < slots && !input.isForbidden(input.getLessonBinding()[lesson], hint) && isFree(lesson, hint)) {
+                    place(lesson, hint);
+                }
+            }
+            for(final Integer lesson : freeLessons) {
+                if(lessonSlot[lesson] >= 0) {
+                    continue;
+                }
+                final int slot = bestFreeSlot(lesson);
+                if(slot < 0) {
+                    pending.add(lesson);
+                }else {
+                    place(lesson, slot);
+                }
+            }
+            snapshot();
+            report(false);
+        }
+
+        private void repair() {
+            while(!pending.isEmpty() && iterations < input.getMaxIterations()) {
+                if((iterations & 0xFF) == 0) {
+                    if(isStopRequested()) {
+                        break;
+                    }
+                    report(false);
+                }
+                iterations++;
+
+                final int lesson = pending.poll();
+                final int binding = input.getLessonBinding()[lesson];
+                int chosen = ModelTimetableSolverInput.NONE;
+                long chosenValue = Long.MAX_VALUE;
+                int chosenTies = 0;
+                int fallback = ModelTimetableSolverInput.NONE;
+                long fallbackValue = Long.MAX_VALUE;
+
+                for(int s = 0; s < slots; s++) {
+                    if(input.isForbidden(binding, s)) {
+                        continue;
+                    }
+                    final int conflicts = collectOccupants(lesson, s);
+                    if(conflicts < 0) {
+                        continue;
+                    }
+                    final long value = (long) conflicts * CONFLICT_WEIGHT + cost(lesson, s);
+                    if(value < fallbackValue) {
+                        fallbackValue = value;
+                        fallback = s;
+                    }
+                    if(conflicts > 0 && tabu[lesson * slots + s] > iterations) {
+                        continue;
+                    }
+                    if(value < chosenValue) {
+                        chosenValue = value;
+                        chosen = s;
+                        chosenTies = 1;
+                    }else if(value == chosenValue && random.nextInt(++chosenTies) == 0) {
+                        chosen = s;
+                    }
+                }
+
+                if(chosen < 0) {
+                    chosen = fallback;
+                }
+                if(chosen < 0) {
+                    markImpossible(lesson);
+                    continue;
+                }
+
+                final int evicted = collectOccupants(lesson, chosen);
+                for(int i = 0; i < evicted; i++) {
+                    final int other = occupants[i];
+                    final int from = lessonSlot[other];
+                    remove(other);
+                    tabu[other * slots + from] = iterations + TABU_TENURE + random.nextInt(TABU_TENURE);
+                    pending.add(other);
+                }
+                place(lesson, chosen);
+
+                if(unplaced() < bestUnplaced) {
+                    snapshot();
+                }
+            }
+
+            if(unplaced() > bestUnplaced) {
+                restore(best);
+            }
+        }
+
+        private void improve() {
+            final int lessons = input.getLessonCount();
+            for(int pass = 0; pass < IMPROVE_PASSES; pass++) {
+                boolean changed = false;
+                for(int l = 0; l < lessons; l++) {
+                    final int current = lessonSlot[l];
+                    if(current < 0 || input.getLessonFixedSlot()[l] >= 0) {
+                        continue;
+                    }
+                    if(isStopRequested()) {
+                        return;
+                    }
+                    remove(l);
+                    int target = current;
+                    long targetCost = cost(l, current);
+                    computeFreeMask(l);
+                    for(int w = 0; w < freeMask.length; w++) {
+                        for(long bits = freeMask[w]; bits != 0; bits &= bits - 1) {
+                            final int s = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            final long candidate = cost(l, s);
+                            if(candidate < targetCost) {
+                                targetCost = candidate;
+                                target = s;
+                            }
+                        }
+                    }
+                    place(l, target);
+                    changed |= target != current;
+                }
+                if(!changed) {
+                    return;
+                }
+            }
+        }
+
+        private void perturb() {
+            final int lessons = input.getLessonCount();
+            final int[] kicked = new int[KICK_SIZE];
+            int[] bestAssignment = lessonSlot.clone();
+            long bestScore = score();
+            while(!isStopRequested() && iterations < input.getMaxIterations()) {
+                iterations++;
+                int count = 0;
+                for(int attempt = 0; attempt < KICK_SIZE * 4 && count < KICK_SIZE; attempt++) {
+                    final int l = random.nextInt(lessons);
+                    if(lessonSlot[l] >= 0 && input.getLessonFixedSlot()[l] < 0) {
+                        remove(l);
+                        kicked[count++] = l;
+                    }
+                }
+                if(count == 0) {
+                    return;
+                }
+
+                boolean placedAll = true;
+                for(int i = 0; i < count && placedAll; i++) {
+                    final int slot = bestFreeSlot(kicked[i]);
+                    if(slot < 0) {
+                        placedAll = false;
+                    }else {
+                        place(kicked[i], slot);
+                    }
+                }
+                if(placedAll) {
+                    improve();
+                }
+
+                final long candidate = placedAll ? score() : Long.MAX_VALUE;
+                if(candidate <= bestScore) {
+                    bestScore = candidate;
+                    bestAssignment = lessonSlot.clone();
+                }else {
+                    restore(bestAssignment);
+                }
+                report(false);
+            }
+        }
+
+        private boolean isStopRequested() {
+            return cancelled.getAsBoolean() || System.currentTimeMillis() > deadline;
+        }
+
+        private void report(final boolean force) {
+            if(listener == null) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            if(!force && now - reportedAt < PROGRESS_INTERVAL_MILLIS) {
+                return;
+            }
+            reportedAt = now;
+            int placed = 0;
+            for(final int slot : lessonSlot) {
+                if(slot >= 0) {
+                    placed++;
+                }
+            }
+            listener.accept(ModelTimetableSolverProgress.builder()
+                    .lessonCount(lessonSlot.length)
+                    .placedCount(placed)
+                    .score(score())
+                    .iterations(iterations)
+                    .elapsedMillis(now - startedAt)
+                    .strategy(strategy)
+                    .build());
+        }
+
+        private int bestFreeSlot(final int lesson) {
+            int chosen = ModelTimetableSolverInput.NONE;
+            long chosenCost = Long.MAX_VALUE;
+            int ties = 0;
+            computeFreeMask(lesson);
+            for(int w = 0; w < freeMask.length; w++) {
+                for(long bits = freeMask[w]; bits != 0; bits &= bits - 1) {
+                    final int s = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    final long candidate = cost(lesson, s);
+                    if(candidate < chosenCost) {
+                        chosenCost = candidate;
+                        chosen = s;
+                        ties = 1;
+                    }else if(candidate == chosenCost && random.nextInt(++ties) == 0) {
+                        chosen = s;
+                    }
+                }
+            }
+            return chosen;
+        }
+
+        private void computeFreeMask(final int lesson) {
+            final int binding = input.getLessonBinding()[lesson];
+            final long[] forbidden = input.getBindingForbidden()[binding];
+            final long[] teacher = occupancy.busyWords(Resource.TEACHER, resourceId(input.getBindingTeacher()[binding]));
+            final long[] room = occupancy.busyWords(Resource.ROOM, resourceId(input.getBindingRoom()[binding]));
+            final int[] groups = input.getBindingGroups()[binding];
+            for(int w = 0; w < freeMask.length; w++) {
+                long taken = forbidden[w] | word(teacher, w) | word(room, w);
+                for(final int group : groups) {
+                    taken |= word(occupancy.busyWords(Resource.CLASS, group), w);
+                }
+                freeMask[w] = ~taken;
+            }
+            final int tail = slots & 63;
+            if(tail != 0) {
+                freeMask[freeMask.length - 1] &= (1L << tail) - 1;
+            }
+        }
+
+        private long cost(final int lesson, final int slot) {
+            final int binding = input.getLessonBinding()[lesson];
+            final int hint = input.hintOf(lesson);
+            return input.getBindingPenalty()[binding][slot] + (long) SAME_DAY_PENALTY * bindingDay[binding * days + slot / periodsPerDay]
+                    + (hint >= 0 && hint != slot ? MOVE_PENALTY : 0) + ruleCost(binding, slot) - requiredGain(binding, slot);
+        }
+
+        /**
+         * What placing the binding here saves on required slots: each teacher or group that must be busy in
+         * the slot and is not yet stops counting against {@link #requiredScore()}.
+         */
+        private long requiredGain(final int binding, final int slot) {
+            final int teacher = input.getBindingTeacher()[binding];
+            long gain = input.isTeacherRequired(teacher, slot) && occupancy.isFree(Resource.TEACHER, teacher, slot) ? HARD_RULE_PENALTY : 0;
+            for(final int group : input.getBindingGroups()[binding]) {
+                if(input.isGroupRequired(group, slot) && occupancy.isFree(Resource.CLASS, group, slot)) {
+                    gain += HARD_RULE_PENALTY;
+                }
+            }
+            return gain;
+        }
+
+        private long requiredScore() {
+            return requiredScore(input.getTeacherRequired(), Resource.TEACHER) + requiredScore(input.getGroupRequired(), Resource.CLASS);
+        }
+
+        private long requiredScore(final long[][] required, final Resource resource) {
+            if(required == null) {
+                return 0;
+            }
+            long missed = 0;
+            for(int i = 0; i < required.length; i++) {
+                final long[] busy = occupancy.busyWords(resource, i);
+                for(int w = 0; w < required[i].length; w++) {
+                    missed += Long.bitCount(required[i][w] & ~word(busy, w));
+                }
+            }
+            return missed * HARD_RULE_PENALTY;
+        }
+
+        private long ruleCost(final int binding, final int slot) {
+            final int teacher = input.getBindingTeacher()[binding];
+            long cost = ruleCost(input.teacherRulesOf(teacher), Resource.TEACHER, teacher, slot);
+            for(final int group : input.getBindingGroups()[binding]) {
+                cost += ruleCost(input.groupRulesOf(group), Resource.CLASS, group, slot);
+            }
+            return cost;
+        }
+
+        private long ruleCost(final ModelRuleCompiled[] rules, final Resource resource, final int index, final int slot) {
+            if(rules.length == 0) {
+                return 0;
+            }
+            final long[] busy = occupancy.busyWords(resource, index);
+            long cost = 0;
+            for(final ModelRuleCompiled rule : rules) {
+                cost += weightOf(rule) * rule.addedExcess(busy, slot, periodsPerDay);
+            }
+            return cost;
+        }
+
+        private long ruleScore() {
+            long score = 0;
+            for(int t = 0; t < input.getTeacherCount(); t++) {
+                for(final ModelRuleCompiled rule : input.teacherRulesOf(t)) {
+                    score += weightOf(rule) * rule.excess(occupancy.busyWords(Resource.TEACHER, t), days, periodsPerDay);
+                }
+            }
+            for(int g = 0; g < input.getGroupCount(); g++) {
+                for(final ModelRuleCompiled rule : input.groupRulesOf(g)) {
+                    score += weightOf(rule) * rule.excess(occupancy.busyWords(Resource.CLASS, g), days, periodsPerDay);
+                }
+            }
+            return score;
+        }
+
+        private static long weightOf(final ModelRuleCompiled rule) {
+            return rule.isHard() ? HARD_RULE_PENALTY : rule.getWeight();
+        }
+
+        private boolean isFree(final int lesson, final int slot) {
+            final int binding = input.getLessonBinding()[lesson];
+            if(!occupancy.isFree(Resource.TEACHER, resourceId(input.getBindingTeacher()[binding]), slot)
+                    || !occupancy.isFree(Resource.ROOM, resourceId(input.getBindingRoom()[binding]), slot)) {
+                return false;
+            }
+            for(final int group : input.getBindingGroups()[binding]) {
+                if(!occupancy.isFree(Resource.CLASS, group, slot)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int collectOccupants(final int lesson, final int slot) {
+            final int binding = input.getLessonBinding()[lesson];
+            int count = 0;
+            final int teacher = input.getBindingTeacher()[binding];
+            if(teacher >= 0) {
+                count = addOccupant(teacherAt[teacher * slots + slot], count);
+                if(count < 0) {
+                    return count;
+                }
+            }
+            final int room = input.getBindingRoom()[binding];
+            if(room >= 0) {
+                count = addOccupant(roomAt[room * slots + slot], count);
+                if(count < 0) {
+                    return count;
+                }
+            }
+            for(final int group : input.getBindingGroups()[binding]) {
+                count = addOccupant(groupAt[group * slots + slot], count);
+                if(count < 0) {
+                    return count;
+                }
+            }
+            return count;
+        }
+
+        private int addOccupant(final int occupant, final int count) {
+            if(occupant < 0) {
+                return count;
+            }
+            if(input.getLessonFixedSlot()[occupant] >= 0) {
+                return -1;
+            }
+            for(int i = 0; i < count; i++) {
+                if(occupants[i] == occupant) {
+                    return count;
+                }
+            }
+            occupants[count] = occupant;
+            return count + 1;
+        }
+
+        private void place(final int lesson, final int slot) {
+            setOccupant(lesson, slot, lesson);
+            lessonSlot[lesson] = slot;
+            bindingDay[input.getLessonBinding()[lesson] * days + slot / periodsPerDay]++;
+        }
+
+        private void remove(final int lesson) {
+            final int slot = lessonSlot[lesson];
+            setOccupant(lesson, slot, ModelTimetableSolverInput.NONE);
+            lessonSlot[lesson] = ModelTimetableSolverInput.NONE;
+            bindingDay[input.getLessonBinding()[lesson] * days + slot / periodsPerDay]--;
+        }
+
+        private void setOccupant(final int lesson, final int slot, final int value) {
+            final int binding = input.getLessonBinding()[lesson];
+            final boolean occupied = value >= 0;
+            final int teacher = input.getBindingTeacher()[binding];
+            if(teacher >= 0) {
+                teacherAt[teacher * slots + slot] = value;
+                mark(Resource.TEACHER, teacher, slot, occupied);
+            }
+            final int room = input.getBindingRoom()[binding];
+            if(room >= 0) {
+                roomAt[room * slots + slot] = value;
+                mark(Resource.ROOM, room, slot, occupied);
+            }
+            for(final int group : input.getBindingGroups()[binding]) {
+                groupAt[group * slots + slot] = value;
+                mark(Resource.CLASS, group, slot, occupied);
+            }
+        }
+
+        private void mark(final Resource resource, final int index, final int slot, final boolean occupied) {
+            if(occupied) {
+                occupancy.occupy(resource, index, slot);
+            }else {
+                occupancy.release(resource, index, slot);
+            }
+        }
+
+        private Integer resourceId(final int index) {
+            return index >= 0 ? index : null;
+        }
+
+        private long word(final long[] mask, final int index) {
+            return index < mask.length ? mask[index] : 0L;
+        }
+
+        private void markImpossible(final int lesson) {
+            impossible[lesson] = true;
+            impossibleCount++;
+        }
+
+        private int unplaced() {
+            return pending.size() + impossibleCount;
+        }
+
+        private void snapshot() {
+            best = lessonSlot.clone();
+            bestUnplaced = unplaced();
+        }
+
+        private void restore(final int[] assignment) {
+            for(int l = 0; l < lessonSlot.length; l++) {
+                if(lessonSlot[l] >= 0) {
+                    remove(l);
+                }
+            }
+            for(int l = 0; l < assignment.length; l++) {
+                if(assignment[l] >= 0) {
+                    place(l, assignment[l]);
+                }
+            }
+        }
+
+        private long score() {
+            long score = 0;
+            for(int l = 0; l < lessonSlot.length; l++) {
+                if(lessonSlot[l] < 0) {
+                    score += UNPLACED_PENALTY;
+                }else {
+                    final int hint = input.hintOf(l);
+                    score += input.getBindingPenalty()[input.getLessonBinding()[l]][lessonSlot[l]] + (hint >= 0 && hint != lessonSlot[l] ? MOVE_PENALTY : 0);
+                }
+            }
+            for(final int count : bindingDay) {
+                score += (long) SAME_DAY_PENALTY * count * (count - 1) / 2;
+            }
+            return score + ruleScore() + requiredScore();
+        }
+
+        private ModelTimetableSolverResult toResult() {
+            int unplacedCount = 0;
+            for(final int slot : lessonSlot) {
+                if(slot < 0) {
+                    unplacedCount++;
+                }
+            }
+
+            return ModelTimetableSolverResult.builder()
+                    .lessonSlot(lessonSlot.clone())
+                    .unplacedCount(unplacedCount)
+                    .score(score())
+                    .iterations(iterations)
+                    .elapsedMillis(System.currentTimeMillis() - startedAt)
+                    .strategy(strategy)
+                    .seed(seed)
+                    .build();
+        }
+
+    }
+
+}
@@ -0,0 +1,324 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.ClassBand.entity.EntityClassBand;
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.binding.entity.EntityBinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class UtilTimetableSolverInput {
+
+    public static final long DEFAULT_MAX_ITERATIONS = 200_000L;
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 10_000L;
+
+    private static final int DEFAULT_DAYS_PER_WEEK = 5;
+    private static final List<String> NON_TEACHING_PERIOD_TYPES = Arrays.asList("Break", "Lunch");
+
+    private UtilTimetableSolverInput() {
+    }
+
+    public static ModelTimetableSolverInput build(final EntityPlanSetting planSetting, final List<EntityPeriod> periods, final List<EntityBinding> bindings, final List<EntityClassBand> classBands, final ModelAvailabilityMatrix matrix, final long seed, final long timeLimitMillis) {
+        return build(planSetting, periods, bindings, classBands, matrix, seed, timeLimitMillis, binding -> Collections.emptyList());
+    }
+
+    /**
+     * Same as above, with the compiled rules that apply to each binding. Availability comes from the plan
+     * setting's matrix, which may be null when nothing is known: forbidden slots and soft weights are folded
+     * into each binding's grids and required slots are kept per teacher and group for the solver to score.
+     * Slot rules are folded into the binding's forbidden and penalty grids here; limit rules are attached to
+     * the teacher or class they count for and left to the solver, since they depend on what else that
+     * resource is doing.
+     */
+    public static ModelTimetableSolverInput build(final EntityPlanSetting planSetting, final List<EntityPeriod> periods, final List<EntityBinding> bindings, final List<EntityClassBand> classBands, final ModelAvailabilityMatrix matrix, final long seed, final long timeLimitMillis, final Function<EntityBinding, List<ModelRuleCompiled>> rulesOf) {
+        final int days = positive(planSetting.getDaysPerWeek()) ? planSetting.getDaysPerWeek() : DEFAULT_DAYS_PER_WEEK;
+        int periodsPerDay = positive(planSetting.getPeriodsPerDay()) ? planSetting.getPeriodsPerDay() : 0;
+        for(final EntityPeriod period : periods) {
+            if(period.getPeriodNumber() != null) {
+                periodsPerDay = Math.max(periodsPerDay, period.getPeriodNumber());
+            }
+        }
+
+        final Grid grid = new Grid(days, periodsPerDay);
+        final long[] closed = closedSlots(grid, periods);
+
+        final Map<Integer, EntityClassBand> classBandsById = new HashMap<>();
+        for(final EntityClassBand classBand : classBands) {
+            classBandsById.put(classBand.getId(), classBand);
+        }
+
+        final Map<Integer, Integer> teacherIndex = new HashMap<>();
+        final Map<Integer, Integer> roomIndex = new HashMap<>();
+        final Map<Integer, Integer> groupIndex = new HashMap<>();
+
+        final int bindingCount = bindings.size();
+        final int[] bindingTeacher = new int[bindingCount];
+        final int[] bindingRoom = new int[bindingCount];
+        final int[][] bindingGroups = new int[bindingCount][];
+        final long[][] bindingForbidden = new long[bindingCount][];
+        final int[][] bindingPenalty = new int[bindingCount][];
+        final Map<Integer, Set<ModelRuleCompiled>> teacherRules = new HashMap<>();
+        final Map<Integer, Set<ModelRuleCompiled>> groupRules = new HashMap<>();
+        final Map<Integer, long[]> teacherRequired = new HashMap<>();
+        final Map<Integer, long[]> groupRequired = new HashMap<>();
+        final List<Integer> lessons = new ArrayList<>();
+
+        for(int b = 0; b < bindingCount; b++) {
+            final EntityBinding binding = bindings.get(b);
+            final long[] forbidden = closed.clone();
+            final int[] penalty = new int[grid.slotCount()];
+
+            bindingTeacher[b] = indexOf(teacherIndex, binding.getTeacherId());
+            applyAvailability(grid, matrix, Owner.TEACHER, binding.getTeacherId(), forbidden, penalty, requiredOf(teacherRequired, bindingTeacher[b], closed.length));
+
+            bindingRoom[b] = indexOf(roomIndex, binding.getRoomId());
+            applyAvailability(grid, matrix, Owner.ROOM, binding.getRoomId(), forbidden, penalty, null);
+
+            final List<Integer> groups = new ArrayList<>();
+            if(positive(binding.getClassId())) {
+                final int group = indexOf(groupIndex, binding.getClassId());
+                groups.add(group);
+                applyAvailability(grid, matrix, Owner.CLASS, binding.getClassId(), forbidden, penalty, requiredOf(groupRequired, group, closed.length));
+            }
+            if(positive(binding.getClassBandId())) {
+                final int bandGroup = indexOf(groupIndex, -binding.getClassBandId());
+                groups.add(bandGroup);
+                applyAvailability(grid, matrix, Owner.CLASS_BAND, binding.getClassBandId(), forbidden, penalty, requiredOf(groupRequired, bandGroup, closed.length));
+                final EntityClassBand classBand = classBandsById.get(binding.getClassBandId());
+                if(classBand != null) {
+                    classBand.getParticipatingClasses().stream()
+                            .filter(entityClass -> entityClass.getId() != null && !entityClass.getId().equals(binding.getClassId()))
+                            .sorted((left, right) -> left.getId().compareTo(right.getId()))
+                            .forEach(entityClass -> {
+                                final int group = indexOf(groupIndex, entityClass.getId());
+                                groups.add(group);
+                                applyAvailability(grid, matrix, Owner.CLASS, entityClass.getId(), forbidden, penalty, requiredOf(groupRequired, group, closed.length));
+                            });
+                }
+            }
+
+            bindingGroups[b] = groups.stream().mapToInt(Integer::intValue).toArray();
+            applyRules(grid, binding, rulesOf.apply(binding), bindingTeacher[b], groupIndex, forbidden, penalty, teacherRules, groupRules);
+            bindingForbidden[b] = forbidden;
+            bindingPenalty[b] = penalty;
+
+            final int periodsPerWeek = binding.getPeriodsPerWeek() != null ? binding.getPeriodsPerWeek() : 0;
+            for(int i = 0; i < periodsPerWeek; i++) {
+                lessons.add(b);
+            }
+        }
+
+        final int[] lessonFixedSlot = new int[lessons.size()];
+        Arrays.fill(lessonFixedSlot, ModelTimetableSolverInput.NONE);
+
+        return ModelTimetableSolverInput.builder()
+                .days(days)
+                .periodsPerDay(periodsPerDay)
+                .teacherCount(teacherIndex.size())
+                .roomCount(roomIndex.size())
+                .groupCount(groupIndex.size())
+                .bindingTeacher(bindingTeacher)
+                .bindingRoom(bindingRoom)
+                .bindingGroups(bindingGroups)
+                .bindingForbidden(bindingForbidden)
+                .bindingPenalty(bindingPenalty)
+                .teacherRules(toArray(teacherRules, teacherIndex.size()))
+                .groupRules(toArray(groupRules, groupIndex.size()))
+                .teacherRequired(toMasks(teacherRequired, teacherIndex.size(), closed))
+                .groupRequired(toMasks(groupRequired, groupIndex.size(), closed))
+                .lessonBinding(lessons.stream().mapToInt(Integer::intValue).toArray())
+                .lessonFixedSlot(lessonFixedSlot)
+                .seed(seed)
+                .maxIterations(DEFAULT_MAX_ITERATIONS)
+                .timeLimitMillis(timeLimitMillis > 0 ? timeLimitMillis : DEFAULT_TIME_LIMIT_MILLIS)
+                .build();
+    }
+
+    public static ModelTimetableSolverInput withLessons(final ModelTimetableSolverInput base, final int[] lessonBinding, final int[] lessonFixedSlot, final int[] lessonHintSlot, final long maxIterations, final long timeLimitMillis) {
+        return ModelTimetableSolverInput.builder()
+                .days(base.getDays())
+                .periodsPerDay(base.getPeriodsPerDay())
+                .teacherCount(base.getTeacherCount())
+                .roomCount(base.getRoomCount())
+                .groupCount(base.getGroupCount())
+                .bindingTeacher(base.getBindingTeacher())
+                .bindingRoom(base.getBindingRoom())
+                .bindingGroups(base.getBindingGroups())
+                .bindingForbidden(base.getBindingForbidden())
+                .bindingPenalty(base.getBindingPenalty())
+                .teacherRules(base.getTeacherRules())
+                .groupRules(base.getGroupRules())
+                .teacherRequired(base.getTeacherRequired())
+                .groupRequired(base.getGroupRequired())
+                .lessonBinding(lessonBinding)
+                .lessonFixedSlot(lessonFixedSlot)
+                .lessonHintSlot(lessonHintSlot)
+                .seed(base.getSeed())
+                .maxIterations(maxIterations)
+                .timeLimitMillis(timeLimitMillis)
+                .build();
+    }
+
+    public static long[] schedulableSlots(final int days, final int periodsPerDay, final List<EntityPeriod> periods) {
+        final Grid grid = new Grid(days, periodsPerDay);
+        final long[] open = new long[ModelTimetableSolverInput.wordsFor(grid.slotCount())];
+        if(periods.isEmpty()) {
+            Arrays.fill(open, -1L);
+            return open;
+        }
+        for(final EntityPeriod period : periods) {
+            if(Boolean.TRUE.equals(period.getIsDeleted()) || Boolean.FALSE.equals(period.getAllowScheduling())
+                    || period.getPeriodNumber() == null || NON_TEACHING_PERIOD_TYPES.contains(period.getPeriodType())) {
+                continue;
+            }
+            for(int day = 1; day <= grid.days; day++) {
+                if(period.getDays() == null || period.getDays().isEmpty() || period.getDays().contains(day)) {
+                    final int slot = grid.slotOf(day, period.getPeriodNumber());
+                    if(slot >= 0) {
+                        open[slot >>> 6] |= 1L << slot;
+                    }
+                }
+            }
+        }
+        return open;
+    }
+
+    private static long[] closedSlots(final Grid grid, final List<EntityPeriod> periods) {
+        final long[] closed = schedulableSlots(grid.days, grid.periodsPerDay, periods);
+        for(int w = 0; w < closed.length; w++) {
+            closed[w] = ~closed[w];
+        }
+        return closed;
+    }
+
+    /**
+     * Folds one entity's availability row into a binding. The solver grid may be wider than the matrix when
+     * the plan setting has no periods yet, so slots are translated through day and period rather than copied.
+     */
+    private static void applyAvailability(final Grid grid, final ModelAvailabilityMatrix matrix, final Owner owner, final Integer id, final long[] forbidden, final int[] penalty, final long[] required) {
+        final ModelAvailabilityMatrix.Row row = matrix != null && positive(id) ? matrix.rowOf(owner, id) : null;
+        if(row == null) {
+            return;
+        }
+        for(int slot = 0; slot < matrix.getSlotCount(); slot++) {
+            final int target = grid.slotOf(slot / matrix.getPeriodsPerDay() + 1, slot % matrix.getPeriodsPerDay() + 1);
+            if(target < 0) {
+                continue;
+            }
+            if(row.isForbidden(slot)) {
+                forbidden[target >>> 6] |= 1L << target;
+            }else {
+                penalty[target] += row.weightAt(slot);
+                if(required != null && row.isRequired(slot)) {
+                    required[target >>> 6] |= 1L << target;
+                }
+            }
+        }
+    }
+
+    private static long[] requiredOf(final Map<Integer, long[]> required, final int index, final int words) {
+        return index >= 0 ? required.computeIfAbsent(index, key -> new long[words]) : null;
+    }
+
+    private static void applyRules(final Grid grid, final EntityBinding binding, final List<ModelRuleCompiled> rules, final int teacher, final Map<Integer, Integer> groupIndex,
+                                   final long[] forbidden, final int[] penalty, final Map<Integer, Set<ModelRuleCompiled>> teacherRules, final Map<Integer, Set<ModelRuleCompiled>> groupRules) {
+        for(final ModelRuleCompiled rule : rules) {
+            if(rule.isLimit()) {
+                if(rule.getScope() == ModelRuleCompiled.Scope.TEACHER) {
+                    if(teacher >= 0 && rule.limits(binding.getTeacherId())) {
+                        teacherRules.computeIfAbsent(teacher, key -> new LinkedHashSet<>()).add(rule);
+                    }
+                }else if(positive(binding.getClassId()) && rule.limits(binding.getClassId())) {
+                    groupRules.computeIfAbsent(groupIndex.get(binding.getClassId()), key -> new LinkedHashSet<>()).add(rule);
+                }
+                continue;
+            }
+            if(!rule.appliesTo(binding.getSubjectId(), binding.getTeacherId(), binding.getClassId(), binding.getRoomId())) {
+                continue;
+            }
+            for(int day = 1; day <= grid.days; day++) {
+                for(int period = 1; period <= grid.periodsPerDay; period++) {
+                    if(!rule.violatesSlot(day, period)) {
+                        continue;
+                    }
+                    final int slot = grid.slotOf(day, period);
+                    if(rule.isHard()) {
+                        forbidden[slot >>> 6] |= 1L << slot;
+                    }else {
+                        penalty[slot] += rule.getWeight();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Required slots that are closed can never be met, so they are dropped rather than scored forever.
+     */
+    private static long[][] toMasks(final Map<Integer, long[]> masks, final int size, final long[] closed) {
+        final long[][] array = new long[size][];
+        for(int i = 0; i < size; i++) {
+            final long[] mask = masks.containsKey(i) ? masks.get(i) : new long[closed.length];
+            for(int w = 0; w < mask.length; w++) {
+                mask[w] &= ~closed[w];
+            }
+            array[i] = mask;
+        }
+        return array;
+    }
+
+    private static ModelRuleCompiled[][] toArray(final Map<Integer, Set<ModelRuleCompiled>> rules, final int size) {
+        final ModelRuleCompiled[][] array = new ModelRuleCompiled[size][];
+        for(int i = 0; i < size; i++) {
+            array[i] = rules.getOrDefault(i, Collections.emptySet()).toArray(new ModelRuleCompiled[0]);
+        }
+        return array;
+    }
+
+    private static int indexOf(final Map<Integer, Integer> index, final Integer id) {
+        if(id == null || id == 0) {
+            return ModelTimetableSolverInput.NONE;
+        }
+        return index.computeIfAbsent(id, key -> index.size());
+    }
+
+    private static boolean positive(final Integer value) {
+        return value != null && value > 0;
+    }
+
+    private static final class Grid {
+
+        private final int days;
+        private final int periodsPerDay;
+
+        private Grid(final int days, final int periodsPerDay) {
+            this.days = days;
+            this.periodsPerDay = periodsPerDay;
+        }
+
+        private int slotCount() {
+            return days * periodsPerDay;
+        }
+
+        private int slotOf(final int dayOfWeek, final int periodNumber) {
+            if(dayOfWeek < 1 || dayOfWeek > days || periodNumber < 1 || periodNumber > periodsPerDay) {
+                return ModelTimetableSolverInput.NONE;
+            }
+            return (dayOfWeek - 1) * periodsPerDay + (periodNumber - 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput.Strategy;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverProgress;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+public final class UtilTimetableSolverPortfolio {
+
+    private UtilTimetableSolverPortfolio() {
+    }
+
+    /**
+     * Runs {@code jobs} solver searches in parallel, cycling through the strategies with a
+     * distinct seed per job. A job is accepted once it finds a complete timetable whose score is
+     * at most {@code acceptScore} (any complete timetable when null); jobs after it are then told
+     * to stop, while jobs before it run to their own end. The result is the first accepted job in
+     * job order, or the best job when none is accepted, so it depends only on the seed and not on
+     * thread timing, as long as no job runs into the time limit.
+     */
+    public static ModelTimetableSolverResult solve(final ForkJoinPool pool, final ModelTimetableSolverInput input, final int jobs, final Long acceptScore) {
+        return solve(pool, input, jobs, acceptScore, () -> false, null);
+    }
+
+    /**
+     * As above, but also stops every job once {@code cancelled} answers true. {@code listener}
+     * receives progress from all jobs and may be called from several pool threads at once.
+     */
+    public static ModelTimetableSolverResult solve(final ForkJoinPool pool, final ModelTimetableSolverInput input, final int jobs, final Long acceptScore,
+                                                   final BooleanSupplier cancelled, final Consumer<ModelTimetableSolverProgress> listener) {
+        if(pool == null || jobs <= 1) {
+            return UtilTimetableSolver.solve(input, Strategy.MOST_CONSTRAINED_FIRST, input.getSeed(), cancelled, listener);
+        }
+
+        final AtomicInteger firstAccepted = new AtomicInteger(Integer.MAX_VALUE);
+        final Strategy[] strategies = Strategy.values();
+        final List<ForkJoinTask<ModelTimetableSolverResult>> tasks = new ArrayList<>(jobs);
+        for(int job = 0; job < jobs; job++) {
+            final int index = job;
+            final Strategy strategy = strategies[job % strategies.length];
+            final long seed = input.getSeed() + job;
+            final BooleanSupplier stop = () -> firstAccepted.get() < index || cancelled.getAsBoolean();
+            tasks.add(pool.submit(() -> {
+                final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input, strategy, seed, stop, listener);
+                if(isAccepted(result, acceptScore)) {
+                    firstAccepted.accumulateAndGet(index, Math::min);
+                }
+                return result;
+            }));
+        }
+
+        final List<ModelTimetableSolverResult> results = new ArrayList<>(jobs);
+        for(final ForkJoinTask<ModelTimetableSolverResult> task : tasks) {
+            results.add(task.join());
+        }
+        ModelTimetableSolverResult best = null;
+        for(final ModelTimetableSolverResult result : results) {
+            if(isAccepted(result, acceptScore)) {
+                // Every job before this one ran to its end without being accepted, and this one was never told to stop.
+                return result;
+            }
+            if(best == null || isBetter(result, best)) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isAccepted(final ModelTimetableSolverResult result, final Long acceptScore) {
+        return result.isComplete() && (acceptScore == null || result.getScore() <= acceptScore);
+    }
+
+    public static boolean isBetter(final ModelTimetableSolverResult candidate, final ModelTimetableSolverResult current) {
+        if(candidate.getUnplacedCount() != current.getUnplacedCount()) {
+            return candidate.getUnplacedCount() < current.getUnplacedCount();
+        }
+        return candidate.getScore() < current.getScore();
+    }
+
+}
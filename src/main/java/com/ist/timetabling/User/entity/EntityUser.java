@@ -1,5 +1,6 @@
 package com.ist.timetabling.User.entity;
 
+import com.ist.timetabling.Core.config.ConfigCoreTableIds;
 import com.ist.timetabling.Auth.entity.EntityRole;
 import com.ist.timetabling.Organization.entity.EntityOrganization;
 import jakarta.persistence.*;
@@ -22,7 +23,9 @@ public class EntityUser {
     public static final String TABLE = "users";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = TABLE)
+    @TableGenerator(name = TABLE, table = ConfigCoreTableIds.ID_TABLE, pkColumnName = ConfigCoreTableIds.ID_TABLE_KEY,
+            valueColumnName = ConfigCoreTableIds.ID_TABLE_VALUE, pkColumnValue = TABLE, allocationSize = ConfigCoreTableIds.ID_ALLOCATION_SIZE)
     @Column(name = ID)
     private Integer id;
     public static final String ID = "user_id";
@@ -1,14 +1,19 @@
 package com.ist.timetabling.User.repository;
 
 import com.ist.timetabling.User.entity.EntityUser;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +44,10 @@ public interface RepositoryUser extends JpaRepository<EntityUser, Integer> {
 
     Page<EntityUser> findAllByIsDeletedFalseAndEntityRole_Name(final String role, final Pageable pageable);
 
+    Window<EntityUser> findByIsDeletedFalseAndOrganizationIdAndEntityRole_Name(final Integer organizationId, final String role, final ScrollPosition position, final Sort sort, final Limit limit);
+
+    Window<EntityUser> findByIsDeletedFalseAndEntityRole_Name(final String role, final ScrollPosition position, final Sort sort, final Limit limit);
+
     boolean existsByEmailAndIsDeletedFalse(String email);
 
     @Query("SELECT u FROM EntityUser u WHERE u.isDeleted = false AND u.entityRole.name = :roleName " +
@@ -84,4 +93,7 @@ public interface RepositoryUser extends JpaRepository<EntityUser, Integer> {
     Optional<EntityUser> findByUuid(String teacherUuid);
 
     EntityUser findByIdAndIsDeletedFalse(Integer userId);
+
+    @Query("SELECT u.email FROM EntityUser u WHERE u.isDeleted = false AND u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
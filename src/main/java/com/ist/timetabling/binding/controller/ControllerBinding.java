@@ -40,7 +40,13 @@ public class ControllerBinding {
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String orgId,
             @RequestParam(required = false) String teacherUuid,
-            @RequestParam(required = false) Integer planSettingsId) {
+            @RequestParam(required = false) Integer planSettingsId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean cursor) {
+        if((cursor || after != null) && (keyword == null || keyword.isBlank())) {
+            ApiResponse<List<DtoResBinding>> response = serviceBinding.getBindingsAfter(after, size, sortBy, sortDirection, orgId, teacherUuid, planSettingsId);
+            return ResponseEntity.status(response.getStatus()).body(response);
+        }
         ApiResponse<List<DtoResBinding>> response = serviceBinding.getAllBindings(
                 page, size, sortBy, sortDirection, keyword, orgId, teacherUuid, planSettingsId);
         return ResponseEntity.status(response.getStatus()).body(response);
@@ -1,8 +1,12 @@
 package com.ist.timetabling.binding.repository;
 
 import com.ist.timetabling.binding.entity.EntityBinding;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -74,6 +78,18 @@ public interface RepositoryBinding extends JpaRepository<EntityBinding, Integer>
 
     Page<EntityBinding> findByTeacherIdAndOrganizationIdAndIsDeletedFalse(Integer teacherId, Integer organizationId, Pageable pageable);
 
+    Window<EntityBinding> findByIsDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<EntityBinding> findByOrganizationIdAndIsDeletedFalse(Integer organizationId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<EntityBinding> findByTeacherIdAndOrganizationIdAndIsDeletedFalse(Integer teacherId, Integer organizationId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<EntityBinding> findByPlanSettingsIdAndIsDeletedFalse(Integer planSettingsId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<EntityBinding> findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(Integer organizationId, Integer planSettingsId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<EntityBinding> findByTeacherIdAndOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(Integer teacherId, Integer organizationId, Integer planSettingsId, ScrollPosition position, Sort sort, Limit limit);
+
     @Query("SELECT b FROM EntityBinding b WHERE " +
             "EXISTS (SELECT tp FROM EntityTeacherProfile tp JOIN EntityUser u ON tp.userId = u.id " +
             "WHERE tp.id = b.teacherId AND " +
@@ -18,6 +18,8 @@ public interface ServiceBinding {
 
     ApiResponse<List<DtoResBinding>> getAllBindings(final Integer page, final Integer size, final String sortBy, final String sortDirection, final String keyword, final String orgId, final String teacherUuid, final Integer planSettingsId);
 
+    ApiResponse<List<DtoResBinding>> getBindingsAfter(final String after, final Integer size, final String sortBy, final String sortDirection, final String orgId, final String teacherUuid, final Integer planSettingsId);
+
     ApiResponse<List<DtoResBinding>> searchBindingsByName(final String keyword);
 
     ApiResponse<List<DtoResBinding>> getBindingsByStatus(final Integer statusId, final Integer page, final Integer size);
@@ -16,6 +16,7 @@ import com.ist.timetabling.Rule.entity.EntityRule;
 import com.ist.timetabling.Rule.repository.RepositoryRule;
 import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
 import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
+import com.ist.timetabling.Timetable.service.ServiceTimetableRepair;
 import com.ist.timetabling.Class.entity.EntityClass;
 import com.ist.timetabling.Class.repository.RepositoryClass;
 import com.ist.timetabling.Subject.entity.EntitySubject;
@@ -37,9 +38,14 @@ import com.ist.timetabling.binding.repository.RepositoryBinding;
 import com.ist.timetabling.binding.service.ServiceBinding;
 import com.ist.timetabling.binding.util.BindingValidationUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.BeanUtils;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -57,6 +63,7 @@ import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
 public class ServiceBindingImpl implements ServiceBinding {
     private static final int DEFAULT_PAGE_SIZE = 10;
     private static final int DEFAULT_PAGE_NUMBER = 0;
+    private static final List<String> KEYSET_SORT_FIELDS = List.of("teacherId", "subjectId", "roomId");
 
     private final RepositoryBinding repositoryBinding;
     private final RepositoryRule repositoryRule;
@@ -72,6 +79,7 @@ public class ServiceBindingImpl implements ServiceBinding {
     private final RepositoryOrganization repositoryOrganization;
     private final BindingValidationUtil bindingValidationUtil;
     private final RepositoryPlanSetting repositoryPlanSetting;
+    private final ServiceTimetableRepair serviceTimetableRepair;
 
     public ServiceBindingImpl(
             RepositoryBinding repositoryBinding,
@@ -87,7 +95,8 @@ public class ServiceBindingImpl implements ServiceBinding {
             I18n i18n,
             RepositoryOrganization repositoryOrganization,
             BindingValidationUtil bindingValidationUtil,
-            RepositoryPlanSetting repositoryPlanSetting) {
+            RepositoryPlanSetting repositoryPlanSetting,
+            ServiceTimetableRepair serviceTimetableRepair) {
         this.repositoryBinding = repositoryBinding;
         this.repositoryRule = repositoryRule;
         this.repositoryTeacherProfile = repositoryTeacherProfile;
@@ -102,6 +111,7 @@ public class ServiceBindingImpl implements ServiceBinding {
         this.repositoryOrganization = repositoryOrganization;
         this.bindingValidationUtil = bindingValidationUtil;
         this.repositoryPlanSetting = repositoryPlanSetting;
+        this.serviceTimetableRepair = serviceTimetableRepair;
     }
 
     @Override
@@ -129,51 +139,9 @@ public class ServiceBindingImpl implements ServiceBinding {
     @Transactional(readOnly = true)
     public ApiResponse<List<DtoResBinding>> getAllBindings(final Integer page, final Integer size, final String sortBy, final String sortDirection, final String keyword, String orgId, final String teacherUuid, final Integer planSettingsId) {
         I18n i18n = new I18n(httpServletRequest);
-        // Map frontend sortBy to valid EntityBinding property
-        String mappedSortBy = sortBy;
-        if (sortBy != null) {
-            switch (sortBy) {
-                case "teacher_name":
-                    mappedSortBy = "teacherId";
-                    break;
-                case "subject_name":
-                    mappedSortBy = "subjectId";
-                    break;
-                case "class_name":
-                    mappedSortBy = "classId";
-                    break;
-                case "room_name":
-                    mappedSortBy = "roomId";
-                    break;
-                default:
-                    mappedSortBy = sortBy;
-            }
-        } else {
-            mappedSortBy = "teacherId";
-        }
-        Pageable pageable = PaginationUtil.createPageable(page, size, mappedSortBy, sortDirection, DEFAULT_PAGE_NUMBER, DEFAULT_PAGE_SIZE);
-
-        Integer organizationId = null;
-        if(utilAuthContext.isAdmin()) {
-            if(orgId != null && !orgId.trim().isEmpty()) {
-                Optional<EntityOrganization> entityOrganization = repositoryOrganization.findById(Integer.valueOf(orgId));
-                if(entityOrganization.isPresent()) {
-                    organizationId = entityOrganization.get().getId();
-                }else {
-                    throw new ExceptionCoreNotFound(i18n.getBinding(I18N_BINDING_ORGANIZATION_NOT_FOUND));
-                }
-            }
-        }else {
-            organizationId = utilAuthContext.getCurrentUser().getOrganization().getId();
-        }
-
-        Integer teacherId = null;
-        if(teacherUuid != null && !teacherUuid.trim().isEmpty()) {
-            try {
-                teacherId = getTeacherProfileIdFromUserUuid(teacherUuid);
-            }catch(Exception e) {
-            }
-        }
+        Pageable pageable = PaginationUtil.createPageable(page, size, mapSortBy(sortBy), sortDirection, DEFAULT_PAGE_NUMBER, DEFAULT_PAGE_SIZE);
+        Integer organizationId = resolveOrganizationId(orgId, i18n);
+        Integer teacherId = resolveTeacherId(teacherUuid);
 
         Page<EntityBinding> pageData;
 
@@ -224,6 +192,80 @@ public class ServiceBindingImpl implements ServiceBinding {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<List<DtoResBinding>> getBindingsAfter(final String after, final Integer size, final String sortBy, final String sortDirection, final String orgId, final String teacherUuid, final Integer planSettingsId) {
+        I18n i18n = new I18n(httpServletRequest);
+        final Sort sort = PaginationUtil.createKeysetSort(mapSortBy(sortBy), sortDirection, KEYSET_SORT_FIELDS);
+        final Limit limit = PaginationUtil.createLimit(size, DEFAULT_PAGE_SIZE);
+        final KeysetScrollPosition position = PaginationUtil.decodeCursor(after);
+        final Integer organizationId = resolveOrganizationId(orgId, i18n);
+        final Integer teacherId = resolveTeacherId(teacherUuid);
+
+        final Window<EntityBinding> window;
+        if(planSettingsId != null) {
+            if(teacherId != null && organizationId != null) {
+                window = repositoryBinding.findByTeacherIdAndOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(teacherId, organizationId, planSettingsId, position, sort, limit);
+            }else if(organizationId != null) {
+                window = repositoryBinding.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(organizationId, planSettingsId, position, sort, limit);
+            }else {
+                window = repositoryBinding.findByPlanSettingsIdAndIsDeletedFalse(planSettingsId, position, sort, limit);
+            }
+        }else if(teacherId != null && organizationId != null) {
+            window = repositoryBinding.findByTeacherIdAndOrganizationIdAndIsDeletedFalse(teacherId, organizationId, position, sort, limit);
+        }else if(organizationId != null) {
+            window = repositoryBinding.findByOrganizationIdAndIsDeletedFalse(organizationId, position, sort, limit);
+        }else {
+            window = repositoryBinding.findByIsDeletedFalse(position, sort, limit);
+        }
+
+        return ApiResponse.success(window.map(this::mapEntityToDto), i18n.getBinding(I18N_BINDING_RETRIEVED_ALL));
+    }
+
+    private String mapSortBy(final String sortBy) {
+        // Map frontend sortBy to valid EntityBinding property
+        if(sortBy == null) {
+            return "teacherId";
+        }
+        switch (sortBy) {
+            case "teacher_name":
+                return "teacherId";
+            case "subject_name":
+                return "subjectId";
+            case "class_name":
+                return "classId";
+            case "room_name":
+                return "roomId";
+            default:
+                return sortBy;
+        }
+    }
+
+    private Integer resolveOrganizationId(final String orgId, final I18n i18n) {
+        if(!utilAuthContext.isAdmin()) {
+            return utilAuthContext.getCurrentUser().getOrganization().getId();
+        }
+        if(orgId == null || orgId.trim().isEmpty()) {
+            return null;
+        }
+        Optional<EntityOrganization> entityOrganization = repositoryOrganization.findById(Integer.valueOf(orgId));
+        if(entityOrganization.isEmpty()) {
+            throw new ExceptionCoreNotFound(i18n.getBinding(I18N_BINDING_ORGANIZATION_NOT_FOUND));
+        }
+        return entityOrganization.get().getId();
+    }
+
+    private Integer resolveTeacherId(final String teacherUuid) {
+        if(teacherUuid == null || teacherUuid.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return getTeacherProfileIdFromUserUuid(teacherUuid);
+        }catch(Exception e) {
+            return null;
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ApiResponse<List<DtoResBinding>> searchBindingsByName(final String keyword) {
@@ -420,6 +462,9 @@ public class ServiceBindingImpl implements ServiceBinding {
             throw new ExceptionBindingForbidden(i18n.getBinding(I18N_AUTH_UNAUTHORIZED));
         }
 
+        final EntityBinding previous = new EntityBinding();
+        BeanUtils.copyProperties(binding, previous);
+
         DtoReqBinding fullRequest = buildFullRequestFromUpdate(binding, dtoReqBindingUpdate);
 
 //        if(!bindingValidationUtil.validateTotalPeriodsAgainstScheduleCount(
@@ -569,6 +614,7 @@ public class ServiceBindingImpl implements ServiceBinding {
         binding.setModifiedDate(LocalDateTime.now());
 
         EntityBinding updatedBinding = repositoryBinding.save(binding);
+        serviceTimetableRepair.repairAfterBindingUpdate(previous, updatedBinding);
         return ApiResponse.success(HttpStatus.OK, i18n.getBinding(I18N_BINDING_UPDATED), mapEntityToDto(updatedBinding));
     }
 
@@ -0,0 +1,58 @@
+package com.ist.timetabling.Core.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigCoreTableIdsTest {
+
+    private static final String TABLE = "users";
+    private static final String ID = "id";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE " + ConfigCoreTableIds.ID_TABLE + " (" + ConfigCoreTableIds.ID_TABLE_KEY + " VARCHAR(255) PRIMARY KEY, "
+                + ConfigCoreTableIds.ID_TABLE_VALUE + " BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (" + ID + " INT PRIMARY KEY)");
+    }
+
+    @Test
+    void liftCounter_ExistingIdentityRows_CreatesCounterAFullBlockAboveTheMaxId() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO " + TABLE + " (" + ID + ") VALUES (7), (1234)");
+
+        // Act
+        ConfigCoreTableIds.liftCounter(jdbcTemplate, ConfigCoreTableIds.ID_TABLE, TABLE, ID, ConfigCoreTableIds.ID_ALLOCATION_SIZE);
+
+        // Assert
+        assertEquals(1234L + ConfigCoreTableIds.ID_ALLOCATION_SIZE, counter());
+    }
+
+    @Test
+    void liftCounter_CounterAlreadyAhead_LeavesItAlone() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO " + TABLE + " (" + ID + ") VALUES (10)");
+        jdbcTemplate.update("INSERT INTO " + ConfigCoreTableIds.ID_TABLE + " VALUES (?, ?)", TABLE, 5000L);
+
+        // Act
+        ConfigCoreTableIds.liftCounter(jdbcTemplate, ConfigCoreTableIds.ID_TABLE, TABLE, ID, ConfigCoreTableIds.ID_ALLOCATION_SIZE);
+        ConfigCoreTableIds.liftCounter(jdbcTemplate, ConfigCoreTableIds.ID_TABLE, TABLE, ID, ConfigCoreTableIds.ID_ALLOCATION_SIZE);
+
+        // Assert
+        assertEquals(5000L, counter());
+    }
+
+    private long counter() {
+        return jdbcTemplate.queryForObject("SELECT " + ConfigCoreTableIds.ID_TABLE_VALUE + " FROM " + ConfigCoreTableIds.ID_TABLE
+                + " WHERE " + ConfigCoreTableIds.ID_TABLE_KEY + " = ?", Long.class, TABLE);
+    }
+
+}
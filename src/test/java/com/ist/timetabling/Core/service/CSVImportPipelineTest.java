@@ -0,0 +1,154 @@
+package com.ist.timetabling.Core.service;
+
+import com.ist.timetabling.Core.config.ConfigCoreCsvImport;
+import com.ist.timetabling.Core.model.CSVImportResult;
+import com.ist.timetabling.Core.model.CSVImportRow;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CSVImportPipelineTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    private ForkJoinPool csvImportPool;
+    private CSVImportPipeline csvImportPipeline;
+
+    @BeforeEach
+    void setUp() {
+        final ConfigCoreCsvImport configCoreCsvImport = new ConfigCoreCsvImport();
+        ReflectionTestUtils.setField(configCoreCsvImport, "batchSize", 2);
+        csvImportPool = new ForkJoinPool(2);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        csvImportPipeline = new CSVImportPipeline(configCoreCsvImport, csvImportPool, transactionManager);
+        ReflectionTestUtils.setField(csvImportPipeline, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        csvImportPool.shutdown();
+    }
+
+    @Test
+    void run_InvalidExistingAndValidRows_PersistsValidRowsInChunks() throws IOException {
+        // Arrange
+        final NameImport handler = new NameImport(null);
+
+        // Act
+        final CSVImportResult<String> result = csvImportPipeline.run(records("ann", ",", "taken", "bob", "cid"), 2, handler);
+
+        // Assert
+        assertEquals(5, result.getTotalProcessed());
+        assertEquals(List.of("ANN", "BOB", "CID"), result.getCreatedItems());
+        assertEquals(List.of(3, 4), result.getErrors().stream().map(CSVImportResult.CSVImportError::getRowNumber).collect(Collectors.toList()));
+        assertEquals(List.of(List.of("ann"), List.of("bob"), List.of("cid")), handler.batches);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void run_BatchFailsToPersist_RetriesRowByRowAndRejectsOnlyTheBadRow() throws IOException {
+        // Arrange
+        final NameImport handler = new NameImport("bad");
+
+        // Act
+        final CSVImportResult<String> result = csvImportPipeline.run(records("ann", "bad"), 1, handler);
+
+        // Assert
+        assertEquals(List.of("ANN"), result.getCreatedItems());
+        assertEquals(1, result.getErrorCount());
+        assertEquals(2, result.getErrors().get(0).getRowNumber());
+        assertEquals("duplicate key", result.getErrors().get(0).getErrorMessage());
+        assertEquals(List.of(List.of("ann", "bad"), List.of("ann"), List.of("bad")), handler.batches);
+        verify(session).setJdbcBatchSize(2);
+        verify(session, times(2)).setJdbcBatchSize(1);
+    }
+
+    @Test
+    void run_ResumedWithCheckpoint_SkipsCommittedRowsAndRecordsEachChunk() throws IOException {
+        // Arrange
+        final NameImport handler = new NameImport(null);
+        final List<String> checkpoints = new ArrayList<>();
+
+        // Act
+        final CSVImportResult<String> result = csvImportPipeline.run(records("ann", "bob", "cid", "taken", "dan"), 2, 2, handler,
+                (processedRows, successCount, errors) -> checkpoints.add(processedRows + ":" + successCount + ":" + errors.size()));
+
+        // Assert
+        assertEquals(3, result.getTotalProcessed());
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(1, result.getErrorCount());
+        assertTrue(result.getCreatedItems().isEmpty());
+        assertEquals(List.of(List.of("cid"), List.of("dan")), handler.batches);
+        assertEquals(List.of("4:1:1", "5:1:0"), checkpoints);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    private CSVParser records(final String... names) throws IOException {
+        return CSVFormat.DEFAULT.parse(new StringReader(String.join("\n", names) + "\n"));
+    }
+
+    private static final class NameImport implements CSVImportHandler<String, String> {
+
+        private final String failing;
+        private final List<List<String>> batches = new ArrayList<>();
+
+        private NameImport(final String failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public String validate(final CSVRecord record, final int rowNumber) throws Exception {
+            if(record.get(0).isEmpty()) {
+                throw new Exception("name is required");
+            }
+            return record.get(0);
+        }
+
+        @Override
+        public void checkExisting(final List<CSVImportRow<String, String>> rows) {
+            rows.stream().filter(row -> "taken".equals(row.getValue())).forEach(row -> row.reject("name exists"));
+        }
+
+        @Override
+        public List<String> persist(final List<String> rows) {
+            batches.add(List.copyOf(rows));
+            if(rows.contains(failing)) {
+                throw new IllegalStateException("insert failed", new RuntimeException("duplicate key"));
+            }
+            return rows.stream().map(String::toUpperCase).collect(Collectors.toList());
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.ist.timetabling.Core.util;
+
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginationUtilTest {
+
+    @Test
+    void encodeCursor_LastRowOfWindow_DecodesToSameKeys() {
+        // Arrange
+        final Window<String> window = Window.from(List.of("Ada", "Bob"), index -> ScrollPosition.forward(keys(index == 0 ? "Ada" : "Bob", index + 10)), true);
+
+        // Act
+        final String cursor = PaginationUtil.encodeCursor(window);
+        final KeysetScrollPosition position = PaginationUtil.decodeCursor(cursor);
+
+        // Assert
+        assertEquals(keys("Bob", 11), position.getKeys());
+        assertFalse(cursor.contains("="));
+    }
+
+    @Test
+    void encodeCursor_LastWindow_ReturnsNull() {
+        // Arrange
+        final Window<String> window = Window.from(List.of("Ada"), index -> ScrollPosition.forward(keys("Ada", 1)), false);
+
+        // Act & Assert
+        assertNull(PaginationUtil.encodeCursor(window));
+        assertTrue(PaginationUtil.decodeCursor(null).isInitial());
+        assertThrows(ExceptionCoreValidation.class, () -> PaginationUtil.decodeCursor("not a cursor"));
+    }
+
+    @Test
+    void encodeCursor_NullSortKey_Throws() {
+        // Arrange
+        final Map<String, Object> nullKey = new LinkedHashMap<>();
+        nullKey.put("name", null);
+        nullKey.put("id", 1);
+        final Window<String> window = Window.from(List.of("Ada"), index -> ScrollPosition.forward(nullKey), true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> PaginationUtil.encodeCursor(window));
+    }
+
+    @Test
+    void createKeysetSort_UnknownField_FallsBackToIdOnly() {
+        // Act
+        final Sort byName = PaginationUtil.createKeysetSort("name", "desc", List.of("name"));
+        final Sort byUnknown = PaginationUtil.createKeysetSort("password", "asc", List.of("name"));
+
+        // Assert
+        assertEquals(Sort.by(Sort.Direction.DESC, "name", "id"), byName);
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), byUnknown);
+    }
+
+    private Map<String, Object> keys(final String name, final int id) {
+        final Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("name", name);
+        keys.put("id", id);
+        return keys;
+    }
+
+}
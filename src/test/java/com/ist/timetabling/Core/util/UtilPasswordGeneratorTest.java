@@ -0,0 +1,47 @@
+package com.ist.timetabling.Core.util;
+
+import com.ist.timetabling.Core.model.ModelGeneratedPassword;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilPasswordGeneratorTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private ForkJoinPool passwordHashingPool;
+    private UtilPasswordGenerator utilPasswordGenerator;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingPool = new ForkJoinPool(2);
+        utilPasswordGenerator = new UtilPasswordGenerator(passwordEncoder, passwordHashingPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingPool.shutdown();
+    }
+
+    @Test
+    void generateEncodedPasswords_BulkMode_HashesEveryPasswordWithTheSameEncoder() {
+        // Act
+        final List<ModelGeneratedPassword> passwords = utilPasswordGenerator.generateEncodedPasswords(6, 12);
+
+        // Assert
+        assertEquals(6, passwords.size());
+        assertEquals(6, passwords.stream().map(ModelGeneratedPassword::getPassword).distinct().count());
+        for(final ModelGeneratedPassword password : passwords) {
+            assertEquals(12, password.getPassword().length());
+            assertTrue(utilPasswordGenerator.isPasswordValid(password.getPassword()));
+            assertTrue(password.getPasswordHash().startsWith("$2a$04$"));
+            assertTrue(passwordEncoder.matches(password.getPassword(), password.getPasswordHash()));
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.ist.timetabling.Period.service.impl;
+
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrixChanged;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceChanged;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceLink;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.repository.RepositorySchedulePreference;
+import com.ist.timetabling.Period.util.UtilAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceAvailabilityMatrixImplTest {
+
+    private static final int PLAN = 3;
+    private static final int PERIODS = 6;
+
+    @Mock
+    private RepositorySchedulePreference repositorySchedulePreference;
+
+    @Mock
+    private RepositoryPeriod repositoryPeriod;
+
+    @Mock
+    private RepositoryPlanSetting repositoryPlanSetting;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ServiceAvailabilityMatrixImpl serviceAvailabilityMatrix;
+
+    @BeforeEach
+    void setUp() {
+        final EntityPlanSetting planSetting = new EntityPlanSetting();
+        planSetting.setId(PLAN);
+        planSetting.setDaysPerWeek(5);
+        planSetting.setPeriodsPerDay(PERIODS);
+        final List<EntityPeriod> periods = new ArrayList<>();
+        for(int number = 1; number <= PERIODS; number++) {
+            final EntityPeriod period = new EntityPeriod();
+            period.setId(100 + number);
+            period.setPeriodNumber(number);
+            periods.add(period);
+        }
+        when(repositoryPlanSetting.findById(PLAN)).thenReturn(Optional.of(planSetting));
+        when(repositoryPeriod.findByPlanSettingsIdAndIsDeletedFalse(PLAN)).thenReturn(periods);
+        serviceAvailabilityMatrix = new ServiceAvailabilityMatrixImpl(repositorySchedulePreference, repositoryPeriod, repositoryPlanSetting, applicationEventPublisher);
+    }
+
+    @Test
+    void getMatrix_TeacherAndRoomPreferences_PacksForbiddenRequiredAndWeights() {
+        // Arrange
+        final EntitySchedulePreference cannot = preference(1, 2, 103);
+        cannot.setCannotTeach(true);
+        final EntitySchedulePreference must = preference(2, 2, 104);
+        must.setMustTeach(true);
+        final EntitySchedulePreference disliked = preference(3, 3, 101);
+        disliked.setDontPreferToTeach(true);
+        final EntitySchedulePreference closed = preference(4, 1, 106);
+        closed.setIsAvailable(false);
+        final EntitySchedulePreference otherPlan = preference(5, 1, 101);
+        otherPlan.setCannotTeach(true);
+        otherPlan.setPlanSettingsId(PLAN + 1);
+        when(repositorySchedulePreference.findLinksByPlanSettingsId(PLAN)).thenReturn(List.of(
+                link("TEACHER", 10, 1), link("TEACHER", 10, 2), link("TEACHER", 10, 3), link("ROOM", 20, 4), link("TEACHER", 10, 5)));
+        when(repositorySchedulePreference.findActiveByIdIn(anyCollection())).thenReturn(List.of(cannot, must, disliked, closed, otherPlan));
+
+        // Act
+        final ModelAvailabilityMatrix matrix = serviceAvailabilityMatrix.getMatrix(PLAN);
+
+        // Assert
+        assertTrue(matrix.isForbidden(Owner.TEACHER, 10, slot(2, 3)));
+        assertTrue(matrix.isRequired(Owner.TEACHER, 10, slot(2, 4)));
+        assertEquals(UtilAvailabilityMatrix.DISLIKED_WEIGHT, matrix.weightAt(Owner.TEACHER, 10, slot(3, 1)));
+        assertFalse(matrix.isForbidden(Owner.TEACHER, 10, slot(1, 1)));
+        assertTrue(matrix.isForbidden(Owner.ROOM, 20, slot(1, 6)));
+        assertFalse(matrix.isForbidden(Owner.ROOM, 10, slot(2, 3)));
+        assertSame(matrix, serviceAvailabilityMatrix.getMatrix(PLAN));
+    }
+
+    @Test
+    void onPreferencesChanged_PreferenceMovedAndDeleted_RebuildsOnlyAffectedRows() {
+        // Arrange
+        final EntitySchedulePreference first = preference(1, 1, 101);
+        first.setCannotTeach(true);
+        final EntitySchedulePreference second = preference(2, 4, 102);
+        second.setMustNotScheduleClass(true);
+        when(repositorySchedulePreference.findLinksByPlanSettingsId(PLAN)).thenReturn(List.of(link("TEACHER", 10, 1), link("CLASS", 30, 2)));
+        when(repositorySchedulePreference.findActiveByIdIn(anyCollection())).thenReturn(List.of(first, second));
+        final ModelAvailabilityMatrix matrix = serviceAvailabilityMatrix.getMatrix(PLAN);
+
+        final EntitySchedulePreference moved = preference(1, 5, 105);
+        moved.setCannotTeach(true);
+        when(repositorySchedulePreference.findLinksByPreferenceIdIn(Set.of(1, 2))).thenReturn(List.of(link("TEACHER", 11, 1)));
+        when(repositorySchedulePreference.findActiveByIdIn(Set.of(1))).thenReturn(List.of(moved));
+        final ModelSchedulePreferenceChanged changed = new ModelSchedulePreferenceChanged();
+        changed.getPreferenceIds().addAll(Set.of(1, 2));
+
+        // Act
+        serviceAvailabilityMatrix.onPreferencesChanged(changed);
+
+        // Assert
+        assertNull(matrix.rowOf(Owner.TEACHER, 10));
+        assertNull(matrix.rowOf(Owner.CLASS, 30));
+        assertTrue(matrix.isForbidden(Owner.TEACHER, 11, slot(5, 5)));
+        assertEquals(Set.of(new ModelAvailabilityMatrix.Key(Owner.TEACHER, 11)), matrix.ownersOf(1));
+        verify(repositorySchedulePreference, times(1)).findLinksByPlanSettingsId(PLAN);
+        final ArgumentCaptor<ModelAvailabilityMatrixChanged> published = ArgumentCaptor.forClass(ModelAvailabilityMatrixChanged.class);
+        verify(applicationEventPublisher).publishEvent(published.capture());
+        assertEquals(Set.of(PLAN), published.getValue().getPlanSettingsIds());
+    }
+
+    @Test
+    void evict_CachedMatrix_IsRebuiltAndAnnounced() {
+        // Arrange
+        when(repositorySchedulePreference.findLinksByPlanSettingsId(PLAN)).thenReturn(List.of());
+        final ModelAvailabilityMatrix before = serviceAvailabilityMatrix.getMatrix(PLAN);
+
+        // Act
+        serviceAvailabilityMatrix.evict(PLAN);
+        final ModelAvailabilityMatrix after = serviceAvailabilityMatrix.getMatrix(PLAN);
+
+        // Assert
+        assertNotSame(before, after);
+        final ArgumentCaptor<ModelAvailabilityMatrixChanged> published = ArgumentCaptor.forClass(ModelAvailabilityMatrixChanged.class);
+        verify(applicationEventPublisher).publishEvent(published.capture());
+        assertEquals(Set.of(PLAN), published.getValue().getPlanSettingsIds());
+        verify(repositorySchedulePreference, times(2)).findLinksByPlanSettingsId(PLAN);
+    }
+
+    private int slot(final int dayOfWeek, final int period) {
+        return (dayOfWeek - 1) * PERIODS + (period - 1);
+    }
+
+    private EntitySchedulePreference preference(final int id, final int dayOfWeek, final int periodId) {
+        final EntitySchedulePreference preference = new EntitySchedulePreference();
+        preference.setId(id);
+        preference.setDayOfWeek(dayOfWeek);
+        preference.setPeriodId(periodId);
+        preference.setPlanSettingsId(PLAN);
+        return preference;
+    }
+
+    private ModelSchedulePreferenceLink link(final String ownerType, final int ownerId, final int preferenceId) {
+        return new ModelSchedulePreferenceLink(ownerType, ownerId, preferenceId);
+    }
+
+}
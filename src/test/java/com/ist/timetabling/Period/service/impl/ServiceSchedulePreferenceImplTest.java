@@ -0,0 +1,174 @@
+package com.ist.timetabling.Period.service.impl;
+
+import com.ist.timetabling.Auth.util.UtilAuthContext;
+import com.ist.timetabling.Class.repository.RepositoryClass;
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreferenceGrid;
+import com.ist.timetabling.Period.dto.res.DtoResSchedulePreferenceGrid;
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceChanged;
+import com.ist.timetabling.Period.model.ModelSchedulePreferenceLink;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.repository.RepositorySchedule;
+import com.ist.timetabling.Period.repository.RepositorySchedulePreference;
+import com.ist.timetabling.Room.repository.RepositoryRoom;
+import com.ist.timetabling.Teacher.entity.EntityTeacherProfile;
+import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceSchedulePreferenceImplTest {
+
+    private static final int PLAN = 3;
+    private static final int TEACHER = 10;
+
+    @Mock
+    private RepositorySchedulePreference repositorySchedulePreference;
+
+    @Mock
+    private RepositorySchedule repositorySchedule;
+
+    @Mock
+    private RepositoryPeriod repositoryPeriod;
+
+    @Mock
+    private RepositoryTeacherProfile repositoryTeacherProfile;
+
+    @Mock
+    private RepositoryClass repositoryClass;
+
+    @Mock
+    private RepositoryClassBand repositoryClassBand;
+
+    @Mock
+    private RepositoryRoom repositoryRoom;
+
+    @Mock
+    private UtilAuthContext utilAuthContext;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ServiceSchedulePreferenceImpl serviceSchedulePreference;
+
+    @BeforeEach
+    void setUp() {
+        serviceSchedulePreference = new ServiceSchedulePreferenceImpl(repositorySchedulePreference, repositorySchedule, repositoryPeriod,
+                repositoryTeacherProfile, repositoryClass, repositoryClassBand, repositoryRoom, utilAuthContext, applicationEventPublisher);
+    }
+
+    @Test
+    void applySchedulePreferenceGrid_MixedGrid_InsertsUpdatesAndDeletesInBulk() {
+        // Arrange
+        final EntityTeacherProfile teacher = new EntityTeacherProfile();
+        teacher.setId(TEACHER);
+        teacher.setOrganizationId(1);
+        when(repositoryTeacherProfile.findAllById(List.of(TEACHER))).thenReturn(List.of(teacher));
+        when(repositoryPeriod.findAllById(anyCollection())).thenReturn(List.of(period(101), period(102)));
+
+        final EntitySchedulePreference same = preference(1, 1, 101);
+        same.setCannotTeach(true);
+        final EntitySchedulePreference changed = preference(2, 2, 101);
+        changed.setPrefersToTeach(true);
+        final EntitySchedulePreference cleared = preference(3, 3, 101);
+        cleared.setMustTeach(true);
+        when(repositorySchedulePreference.findLinksByOwner("TEACHER", List.of(TEACHER), PLAN)).thenReturn(List.of(
+                new ModelSchedulePreferenceLink("TEACHER", TEACHER, 1), new ModelSchedulePreferenceLink("TEACHER", TEACHER, 2),
+                new ModelSchedulePreferenceLink("TEACHER", TEACHER, 3)));
+        when(repositorySchedulePreference.findActiveByIdIn(anyCollection())).thenReturn(List.of(same, changed, cleared));
+        when(repositorySchedulePreference.saveAll(anyList())).thenAnswer(invocation -> {
+            final List<EntitySchedulePreference> saved = invocation.getArgument(0);
+            saved.stream().filter(preference -> preference.getId() == null).forEach(preference -> preference.setId(50));
+            return saved;
+        });
+
+        final DtoReqSchedulePreference keep = cell(1, 101);
+        keep.setCannotTeach(true);
+        final DtoReqSchedulePreference must = cell(2, 101);
+        must.setMustTeach(true);
+        final DtoReqSchedulePreference added = cell(4, 102);
+        added.setDontPreferToTeach(true);
+        final DtoReqSchedulePreferenceGrid grid = DtoReqSchedulePreferenceGrid.builder()
+                .ownerType("teacher").ownerIds(List.of(TEACHER)).planSettingsId(PLAN).cells(List.of(keep, must, added, cell(5, 102))).build();
+
+        // Act
+        final DtoResSchedulePreferenceGrid result = serviceSchedulePreference.applySchedulePreferenceGrid(grid);
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getDeleted());
+        assertEquals(1, result.getUnchanged());
+        assertTrue(changed.getMustTeach());
+        assertFalse(changed.getPrefersToTeach());
+        verify(repositorySchedulePreference, times(1)).saveAll(anyList());
+        verify(repositorySchedulePreference).linkToTeacher(TEACHER, List.of(50));
+        verify(repositorySchedulePreference).softDeleteByIdIn(eq(Set.of(3)), anyInt());
+        final ArgumentCaptor<ModelSchedulePreferenceChanged> event = ArgumentCaptor.forClass(ModelSchedulePreferenceChanged.class);
+        verify(applicationEventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(3), event.getValue().getPreferenceIds());
+    }
+
+    @Test
+    void applySchedulePreferenceGrid_PeriodOfOtherPlan_RejectsWithoutWriting() {
+        // Arrange
+        final EntityTeacherProfile teacher = new EntityTeacherProfile();
+        teacher.setId(TEACHER);
+        teacher.setOrganizationId(1);
+        final EntityPeriod foreign = period(101);
+        foreign.setPlanSettingsId(PLAN + 1);
+        when(repositoryTeacherProfile.findAllById(List.of(TEACHER))).thenReturn(List.of(teacher));
+        when(repositoryPeriod.findAllById(anyCollection())).thenReturn(List.of(foreign));
+        final DtoReqSchedulePreference cannot = cell(1, 101);
+        cannot.setCannotTeach(true);
+        final DtoReqSchedulePreferenceGrid grid = DtoReqSchedulePreferenceGrid.builder()
+                .ownerType("TEACHER").ownerIds(List.of(TEACHER)).planSettingsId(PLAN).cells(List.of(cannot)).build();
+
+        // Act & Assert
+        assertThrows(ExceptionCoreValidation.class, () -> serviceSchedulePreference.applySchedulePreferenceGrid(grid));
+        verify(repositorySchedulePreference, never()).saveAll(anyList());
+        verify(repositorySchedulePreference, never()).softDeleteByIdIn(any(Collection.class), anyInt());
+    }
+
+    private EntityPeriod period(final int id) {
+        final EntityPeriod period = new EntityPeriod();
+        period.setId(id);
+        period.setPlanSettingsId(PLAN);
+        return period;
+    }
+
+    private EntitySchedulePreference preference(final int id, final int day, final int periodId) {
+        final EntitySchedulePreference preference = new EntitySchedulePreference();
+        preference.setId(id);
+        preference.setDayOfWeek(day);
+        preference.setPeriodId(periodId);
+        preference.setPlanSettingsId(PLAN);
+        preference.setIsDeleted(false);
+        return preference;
+    }
+
+    private DtoReqSchedulePreference cell(final int day, final int periodId) {
+        final DtoReqSchedulePreference cell = new DtoReqSchedulePreference();
+        cell.setDayOfWeek(day);
+        cell.setPeriodId(periodId);
+        return cell;
+    }
+
+}
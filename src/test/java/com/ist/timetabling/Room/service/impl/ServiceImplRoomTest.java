@@ -0,0 +1,133 @@
+package com.ist.timetabling.Room.service.impl;
+
+import com.ist.timetabling.Auth.util.UtilAuthContext;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Core.util.CSVReaderUtil;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreference;
+import com.ist.timetabling.Period.dto.req.DtoReqSchedulePreferenceGrid;
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.repository.RepositorySchedule;
+import com.ist.timetabling.Period.repository.RepositorySchedulePreference;
+import com.ist.timetabling.Period.service.ServiceSchedulePreference;
+import com.ist.timetabling.Room.dto.req.DtoReqRoomPreference;
+import com.ist.timetabling.Room.dto.req.DtoReqRoomPreferences;
+import com.ist.timetabling.Room.entity.EntityRoom;
+import com.ist.timetabling.Room.repository.RepositoryRoom;
+import com.ist.timetabling.Room.util.RoomCsvMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceImplRoomTest {
+
+    private static final int ROOM = 7;
+    private static final int ORGANIZATION = 2;
+    private static final int PLAN = 3;
+
+    @Mock
+    private RepositoryRoom repositoryRoom;
+
+    @Mock
+    private RepositoryPeriod repositoryPeriod;
+
+    @Mock
+    private RepositorySchedule repositorySchedule;
+
+    @Mock
+    private RepositorySchedulePreference repositorySchedulePreference;
+
+    @Mock
+    private UtilAuthContext utilAuthContext;
+
+    @Mock
+    private CSVReaderUtil csvReaderUtil;
+
+    @Mock
+    private RoomCsvMapper roomCsvMapper;
+
+    @Mock
+    private ServiceSchedulePreference serviceSchedulePreference;
+
+    private ServiceImplRoom serviceImplRoom;
+
+    @BeforeEach
+    void setUp() {
+        serviceImplRoom = new ServiceImplRoom(repositoryRoom, null, repositoryPeriod, repositorySchedule, repositorySchedulePreference,
+                utilAuthContext, new I18n(), csvReaderUtil, roomCsvMapper, serviceSchedulePreference, null);
+        final EntityRoom room = new EntityRoom();
+        room.setId(ROOM);
+        room.setOrganizationId(ORGANIZATION);
+        room.setPlanSettingsId(PLAN);
+        when(repositoryRoom.findById(ROOM)).thenReturn(Optional.of(room));
+        when(repositoryPeriod.findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(ORGANIZATION, PLAN))
+                .thenReturn(List.of(period(101, List.of(1, 2)), period(102, List.of(1))));
+    }
+
+    @Test
+    void setRoomAvailability_Unavailable_AppliesOnlyThePlanGrid() {
+        // Act
+        final ApiResponse<Void> response = serviceImplRoom.setRoomAvailability(ROOM, false);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        final ArgumentCaptor<DtoReqSchedulePreferenceGrid> grid = ArgumentCaptor.forClass(DtoReqSchedulePreferenceGrid.class);
+        verify(serviceSchedulePreference).applySchedulePreferenceGrid(grid.capture());
+        assertEquals("ROOM", grid.getValue().getOwnerType());
+        assertEquals(List.of(ROOM), grid.getValue().getOwnerIds());
+        assertEquals(PLAN, grid.getValue().getPlanSettingsId());
+        assertEquals(3, grid.getValue().getCells().size());
+        assertTrue(grid.getValue().getCells().stream().allMatch(cell -> Boolean.FALSE.equals(cell.getIsAvailable())));
+        verify(repositoryPeriod, never()).findAllByIsDeletedFalse();
+    }
+
+    @Test
+    void updateRoomSchedulePreferences_AvailableAndForeignCells_KeepsOnlyUnavailableCellsOfThePlan() {
+        // Arrange
+        final DtoReqRoomPreferences request = new DtoReqRoomPreferences();
+        request.setPreferences(List.of(preference(1, 101, false), preference(2, 101, true), preference(1, 999, false)));
+        when(repositorySchedulePreference.findLinksByOwner("ROOM", List.of(ROOM), PLAN)).thenReturn(List.of());
+
+        // Act
+        serviceImplRoom.updateRoomSchedulePreferences(ROOM, request);
+
+        // Assert
+        final ArgumentCaptor<DtoReqSchedulePreferenceGrid> grid = ArgumentCaptor.forClass(DtoReqSchedulePreferenceGrid.class);
+        verify(serviceSchedulePreference).applySchedulePreferenceGrid(grid.capture());
+        final List<DtoReqSchedulePreference> cells = grid.getValue().getCells();
+        assertEquals(1, cells.size());
+        assertEquals(1, cells.get(0).getDayOfWeek());
+        assertEquals(101, cells.get(0).getPeriodId());
+        verify(repositorySchedulePreference, never()).findActiveByIdIn(anyCollection());
+    }
+
+    private EntityPeriod period(final int id, final List<Integer> days) {
+        final EntityPeriod period = new EntityPeriod();
+        period.setId(id);
+        period.setDays(days);
+        period.setPlanSettingsId(PLAN);
+        return period;
+    }
+
+    private DtoReqRoomPreference preference(final int day, final int periodId, final boolean available) {
+        final DtoReqRoomPreference preference = new DtoReqRoomPreference();
+        preference.setDay(day);
+        preference.setPeriodId(periodId);
+        preference.setIsAvailable(available);
+        return preference;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.ist.timetabling.Rule.util;
+
+import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilRuleCompilerTest {
+
+    private static final int PERIODS = 8;
+
+    @Test
+    void compile_MaxConsecutive_CountsOnlyTheRunThePlacementExtends() {
+        // Arrange
+        final EntityRule rule = rule("{\"type\":\"max_consecutive\",\"scope\":\"TEACHER\",\"max\":2}", 0);
+        final long[] busy = new long[1];
+        busy[0] |= 1L << 1;
+        busy[0] |= 1L << 2;
+
+        // Act
+        final ModelRuleCompiled compiled = UtilRuleCompiler.compile(rule).orElseThrow();
+
+        // Assert
+        assertTrue(compiled.isLimit());
+        assertEquals(UtilRuleCompiler.DEFAULT_WEIGHT, compiled.getWeight());
+        assertEquals(1, compiled.addedExcess(busy, 3, PERIODS));
+        assertEquals(1, compiled.addedExcess(busy, 0, PERIODS));
+        assertEquals(0, compiled.addedExcess(busy, 5, PERIODS));
+        assertEquals(0, compiled.addedExcess(busy, PERIODS + 3, PERIODS));
+    }
+
+    @Test
+    void compile_SubjectNotAfterLunch_MatchesOnlyThatSubjectLate() {
+        // Arrange
+        final EntityRule rule = rule("{\"type\":\"NOT_AFTER_PERIOD\",\"period\":4,\"subjectIds\":[7],\"hard\":true}", 30);
+
+        // Act
+        final ModelRuleCompiled compiled = UtilRuleCompiler.compile(rule).orElseThrow();
+
+        // Assert
+        assertTrue(compiled.isHard());
+        assertEquals(30, compiled.getWeight());
+        assertTrue(compiled.appliesTo(7, 1, 2, 3));
+        assertFalse(compiled.appliesTo(8, 1, 2, 3));
+        assertTrue(compiled.violatesSlot(2, 5));
+        assertFalse(compiled.violatesSlot(2, 4));
+    }
+
+    @Test
+    void compile_FreeTextOrDisabled_CompilesToNothing() {
+        // Arrange
+        final EntityRule prompt = rule("Math should be taught in the morning", 0);
+        final EntityRule unknown = rule("{\"type\":\"PREFER_MORNINGS\"}", 0);
+        final EntityRule disabled = rule("{\"type\":\"MAX_PER_DAY\",\"max\":4}", 0);
+        disabled.setEnabled(false);
+
+        // Act & Assert
+        assertTrue(UtilRuleCompiler.compile(prompt).isEmpty());
+        assertTrue(UtilRuleCompiler.compile(unknown).isEmpty());
+        assertTrue(UtilRuleCompiler.compile(disabled).isEmpty());
+    }
+
+    private EntityRule rule(final String data, final int priority) {
+        final EntityRule rule = new EntityRule();
+        rule.setId(1L);
+        rule.setName("rule");
+        rule.setData(data);
+        rule.setPriority(priority);
+        rule.setEnabled(true);
+        rule.setModifiedDate(LocalDateTime.of(2025, 1, 1, 8, 0));
+        return rule;
+    }
+
+}
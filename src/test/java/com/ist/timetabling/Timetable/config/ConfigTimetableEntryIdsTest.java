@@ -0,0 +1,51 @@
+package com.ist.timetabling.Timetable.config;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigTimetableEntryIdsTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE " + EntityTimetableEntry.ID_TABLE + " (" + EntityTimetableEntry.ID_TABLE_KEY + " VARCHAR(255) PRIMARY KEY, "
+                + EntityTimetableEntry.ID_TABLE_VALUE + " BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE " + EntityTimetableEntry.TABLE + " (" + EntityTimetableEntry.ID + " INT PRIMARY KEY)");
+    }
+
+    @Test
+    void afterSingletonsInstantiated_IdentityEntries_LiftsCounterAFullBlockAboveTheMaxEntryId() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO " + EntityTimetableEntry.TABLE + " (" + EntityTimetableEntry.ID + ") VALUES (3), (98765)");
+
+        // Act
+        new ConfigTimetableEntryIds(jdbcTemplate).afterSingletonsInstantiated();
+
+        // Assert
+        assertEquals(98765L + EntityTimetableEntry.ID_ALLOCATION_SIZE, counter());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_EmptyTable_StartsCounterAtOneBlock() {
+        // Act
+        new ConfigTimetableEntryIds(jdbcTemplate).afterSingletonsInstantiated();
+
+        // Assert
+        assertEquals((long) EntityTimetableEntry.ID_ALLOCATION_SIZE, counter());
+    }
+
+    private long counter() {
+        return jdbcTemplate.queryForObject("SELECT " + EntityTimetableEntry.ID_TABLE_VALUE + " FROM " + EntityTimetableEntry.ID_TABLE
+                + " WHERE " + EntityTimetableEntry.ID_TABLE_KEY + " = ?", Long.class, EntityTimetableEntry.TABLE);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelTimetableOccupancyTest {
+
+    @Test
+    void of_Entries_MarksTeacherClassAndRoomBusy() {
+        // Arrange
+        final EntityTimetableEntry entry = entry(10, 20, 30, 2, 3);
+
+        // Act
+        final ModelTimetableOccupancy occupancy = ModelTimetableOccupancy.of(5, 8, Arrays.asList(entry));
+        final int slot = occupancy.slotOf(2, 3);
+
+        // Assert
+        assertFalse(occupancy.isFree(Resource.TEACHER, 10, slot));
+        assertFalse(occupancy.isFree(Resource.CLASS, 20, slot));
+        assertFalse(occupancy.isFree(Resource.ROOM, 30, slot));
+        assertTrue(occupancy.isFree(Resource.TEACHER, 11, slot));
+        assertTrue(occupancy.isFree(10, 21, 31, null, occupancy.slotOf(2, 4)));
+        assertFalse(occupancy.isFree(10, 21, 31, null, slot));
+    }
+
+    @Test
+    void release_DoubleBookedSlot_StaysBusyUntilLastOccupantLeaves() {
+        // Arrange
+        final EntityTimetableEntry first = entry(10, 20, 30, 1, 1);
+        final EntityTimetableEntry second = entry(10, 21, 31, 1, 1);
+        final ModelTimetableOccupancy occupancy = ModelTimetableOccupancy.of(5, 8, Arrays.asList(first, second));
+        final int slot = occupancy.slotOf(1, 1);
+
+        // Act
+        occupancy.release(first);
+
+        // Assert
+        assertFalse(occupancy.isFree(Resource.TEACHER, 10, slot));
+        assertTrue(occupancy.isFree(Resource.CLASS, 20, slot));
+
+        occupancy.release(second);
+        assertTrue(occupancy.isFree(Resource.TEACHER, 10, slot));
+    }
+
+    @Test
+    void release_SameIdOverbookedAsAnotherResource_FreesTheSlot() {
+        // Arrange
+        final ModelTimetableOccupancy occupancy = new ModelTimetableOccupancy(5, 8);
+        final int slot = occupancy.slotOf(3, 2);
+        occupancy.occupy(Resource.TEACHER, 10, slot);
+        occupancy.occupy(Resource.TEACHER, 10, slot);
+        occupancy.occupy(Resource.ROOM, 10, slot);
+
+        // Act
+        occupancy.release(Resource.ROOM, 10, slot);
+
+        // Assert
+        assertTrue(occupancy.isFree(Resource.ROOM, 10, slot));
+        assertTrue(occupancy.isOverbooked(Resource.TEACHER, 10, slot));
+        assertFalse(occupancy.isOverbooked(Resource.ROOM, 10, slot));
+    }
+
+    @Test
+    void freeSlots_CombinesBusyMasksOfAllResources() {
+        // Arrange
+        final ModelTimetableOccupancy occupancy = new ModelTimetableOccupancy(5, 8);
+        occupancy.occupy(entry(10, 20, 30, 1, 1));
+        occupancy.occupy(entry(11, 21, 30, 1, 2));
+        occupancy.occupy(entry(12, 20, 32, 5, 8));
+
+        // Act
+        final long[] free = occupancy.freeSlots(10, 20, 30, null);
+
+        // Assert
+        assertEquals(40 - 3, Long.bitCount(free[0]));
+        assertEquals(0L, free[0] & 1L);
+        assertEquals(0L, free[0] & (1L << 1));
+        assertEquals(0L, free[0] & (1L << 39));
+    }
+
+    private EntityTimetableEntry entry(final Integer teacherId, final Integer classId, final Integer roomId, final int dayOfWeek, final int period) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setTeacherId(teacherId);
+        entry.setClassId(classId);
+        entry.setRoomId(roomId);
+        entry.setDayOfWeek(dayOfWeek);
+        entry.setPeriod(period);
+        return entry;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.ist.timetabling.Timetable.model;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableViewGrids.View;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelTimetableViewGridsTest {
+
+    @Test
+    void put_MovedEntry_LeavesOldCellAndAppearsInNewOne() {
+        // Arrange
+        final ModelTimetableViewGrids grids = ModelTimetableViewGrids.of(1, 5, 8, Arrays.asList(entry(1, 10, 20, 30, 2, 3), entry(2, 10, 21, 31, 1, 1)));
+
+        // Act
+        grids.put(entry(1, 10, 20, 30, 4, 5));
+
+        // Assert
+        assertEquals(0, grids.entryIdsAt(View.TEACHER, 10, 2, 3).length);
+        assertArrayEquals(new int[]{1}, grids.entryIdsAt(View.ROOM, 30, 4, 5));
+        assertEquals(List.of(2, 1), ids(grids.entries(View.TEACHER, 10)));
+        assertEquals(1, grids.cells(View.CLASS, 20).get(3).get(4).size());
+        assertTrue(grids.cells(View.CLASS, 20).get(1).get(2).isEmpty());
+    }
+
+    @Test
+    void filter_TeacherAndRoomIds_ReturnsEntriesMatchingEveryFilterInSlotOrder() {
+        // Arrange
+        final ModelTimetableViewGrids grids = ModelTimetableViewGrids.of(1, 5, 8, Arrays.asList(
+                entry(1, 10, 20, 30, 3, 1),
+                entry(2, 11, 21, 30, 1, 2),
+                entry(3, 11, 22, 32, 1, 1),
+                entry(4, 12, 23, 30, 2, 2)));
+        final Map<View, List<Integer>> filters = new EnumMap<>(View.class);
+        filters.put(View.TEACHER, List.of(10, 11));
+        filters.put(View.ROOM, List.of(30));
+        filters.put(View.CLASS, null);
+
+        // Act
+        final List<DtoResTimetableEntry> filtered = grids.filter(filters);
+
+        // Assert
+        assertEquals(List.of(2, 1), ids(filtered));
+        assertEquals(List.of(3, 2, 4, 1), ids(grids.filter(new EnumMap<>(View.class))));
+    }
+
+    @Test
+    void put_DeletedOrOutOfGridEntry_IsDroppedOrAsksForRebuild() {
+        // Arrange
+        final ModelTimetableViewGrids grids = ModelTimetableViewGrids.of(1, 5, 8, Arrays.asList(entry(1, 10, 20, 30, 1, 1)));
+        final DtoResTimetableEntry deleted = entry(1, 10, 20, 30, 1, 1);
+        deleted.setIsDeleted(true);
+
+        // Act
+        final boolean removed = grids.put(deleted);
+        final boolean outside = grids.put(entry(2, 10, 20, 30, 1, 9));
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(outside);
+        assertEquals(0, grids.getEntryCount());
+    }
+
+    private List<Integer> ids(final List<DtoResTimetableEntry> entries) {
+        return entries.stream().map(DtoResTimetableEntry::getId).collect(Collectors.toList());
+    }
+
+    private DtoResTimetableEntry entry(final int id, final int teacherId, final int classId, final int roomId, final int day, final int period) {
+        final DtoResTimetableEntry entry = new DtoResTimetableEntry();
+        entry.setId(id);
+        entry.setTimetableId(1);
+        entry.setTeacherId(teacherId);
+        entry.setClassId(classId);
+        entry.setRoomId(roomId);
+        entry.setSubjectId(40);
+        entry.setDayOfWeek(day);
+        entry.setPeriod(period);
+        return entry;
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.util.UtilRuleCompiler;
+import com.ist.timetabling.Timetable.dto.req.DtoReqManualScheduleEntry;
+import com.ist.timetabling.Timetable.dto.res.DtoResScheduleValidation;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.binding.entity.EntityBinding;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceManualSchedulingImplTest {
+
+    private static final int TIMETABLE_ID = 1;
+    private static final int ORGANIZATION_ID = 2;
+    private static final int PLAN_SETTING_ID = 3;
+    private static final int DAYS = 5;
+    private static final int PERIODS = 8;
+
+    @Mock
+    private ServiceTimetableOccupancy serviceTimetableOccupancy;
+
+    @Mock
+    private RepositoryBinding repositoryBinding;
+
+    private ModelTimetableConflictIndex index;
+    private ServiceManualSchedulingImpl serviceManualScheduling;
+
+    @BeforeEach
+    void setUp() {
+        final Map<Integer, Integer> periodNumberById = new HashMap<>();
+        for(int period = 1; period <= PERIODS; period++) {
+            periodNumberById.put(100 + period, period);
+        }
+        final long[] schedulable = new long[ModelTimetableSolverInput.wordsFor(DAYS * PERIODS)];
+        for(int slot = 0; slot < DAYS * PERIODS; slot++) {
+            schedulable[slot >>> 6] |= 1L << slot;
+        }
+        index = new ModelTimetableConflictIndex(TIMETABLE_ID, new ModelTimetableOccupancy(DAYS, PERIODS), periodNumberById, schedulable);
+        index.putBinding(binding(1, 10, 20, 30, 0));
+        index.putBinding(binding(2, 11, 0, 31, 40));
+        index.putBandClasses(40, new HashSet<>(Arrays.asList(20, 21)));
+        index.setScope(ORGANIZATION_ID, PLAN_SETTING_ID);
+        when(serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID)).thenReturn(index);
+        serviceManualScheduling = new ServiceManualSchedulingImpl(new ObjectMapper(), serviceTimetableOccupancy, repositoryBinding, new MockHttpServletRequest());
+    }
+
+    @Test
+    void validateScheduleEntry_FreeSlot_IsValid() {
+        // Act
+        final DtoResScheduleValidation validation = serviceManualScheduling.validateScheduleEntry(request(1, 2, 103));
+
+        // Assert
+        assertTrue(validation.getIsValid());
+        assertTrue(validation.getConflicts().isEmpty());
+    }
+
+    @Test
+    void validateScheduleEntry_TeacherAndBandClassBusy_ReportsHardConflicts() {
+        // Arrange
+        index.occupy(entry(7, 10, 22, 32, 2, 3));
+        index.occupy(entry(8, 12, 21, 33, 2, 3));
+
+        // Act
+        final DtoResScheduleValidation teacherBusy = serviceManualScheduling.validateScheduleEntry(request(1, 2, 103));
+        final DtoResScheduleValidation bandBusy = serviceManualScheduling.validateScheduleEntry(request(2, 2, 103));
+
+        // Assert
+        assertFalse(teacherBusy.getIsValid());
+        assertEquals("TEACHER", teacherBusy.getConflicts().get(0).getConflictType());
+        assertEquals(7, teacherBusy.getConflicts().get(0).getTimetableEntryId());
+        assertFalse(bandBusy.getIsValid());
+        assertEquals("CLASS", bandBusy.getConflicts().get(0).getConflictType());
+        assertEquals(21, bandBusy.getConflicts().get(0).getResourceId());
+    }
+
+    @Test
+    void validateScheduleEntry_DislikedSlot_StaysValidWithSoftConflict() {
+        // Arrange
+        index.markDisliked(Resource.TEACHER, 10, index.slotOf(4, 101));
+        index.markUnavailable(Resource.ROOM, 30, index.slotOf(5, 101));
+
+        // Act
+        final DtoResScheduleValidation disliked = serviceManualScheduling.validateScheduleEntry(request(1, 4, 101));
+        final DtoResScheduleValidation unavailable = serviceManualScheduling.validateScheduleEntry(request(1, 5, 101));
+
+        // Assert
+        assertTrue(disliked.getIsValid());
+        assertEquals(ServiceManualSchedulingImpl.SEVERITY_SOFT, disliked.getConflicts().get(0).getSeverity());
+        assertFalse(unavailable.getIsValid());
+        assertEquals("ROOM_UNAVAILABLE", unavailable.getConflicts().get(0).getConflictType());
+    }
+
+    @Test
+    void validateScheduleEntry_TeacherDayFull_ReportsRuleConflictBySeverity() {
+        // Arrange
+        final EntityRule rule = new EntityRule();
+        rule.setId(5L);
+        rule.setName("Teacher max 2 per day");
+        rule.setData("{\"type\":\"MAX_PER_DAY\",\"scope\":\"TEACHER\",\"max\":2}");
+        rule.setEnabled(true);
+        index.setPlanRules(List.of(UtilRuleCompiler.compile(rule).orElseThrow()));
+        index.occupy(entry(7, 10, 22, 32, 3, 1));
+        index.occupy(entry(8, 10, 23, 33, 3, 2));
+
+        // Act
+        final DtoResScheduleValidation sameDay = serviceManualScheduling.validateScheduleEntry(request(1, 3, 105));
+        final DtoResScheduleValidation otherDay = serviceManualScheduling.validateScheduleEntry(request(1, 4, 105));
+
+        // Assert
+        assertTrue(sameDay.getIsValid());
+        assertEquals(ServiceManualSchedulingImpl.CONFLICT_RULE, sameDay.getConflicts().get(0).getConflictType());
+        assertEquals(ServiceManualSchedulingImpl.SEVERITY_SOFT, sameDay.getConflicts().get(0).getSeverity());
+        assertTrue(otherDay.getConflicts().isEmpty());
+    }
+
+    @Test
+    void validateScheduleEntry_BindingOutsideTheIndex_AcceptedOnlyFromTheSameOrganizationAndPlanSetting() {
+        // Arrange
+        final EntityBinding sameScope = binding(3, 13, 24, 34, 0);
+        sameScope.setOrganizationId(ORGANIZATION_ID);
+        sameScope.setPlanSettingsId(PLAN_SETTING_ID);
+        final EntityBinding otherTenant = binding(4, 14, 25, 35, 0);
+        otherTenant.setOrganizationId(ORGANIZATION_ID + 1);
+        otherTenant.setPlanSettingsId(PLAN_SETTING_ID);
+        when(repositoryBinding.findById(3)).thenReturn(Optional.of(sameScope));
+        when(repositoryBinding.findById(4)).thenReturn(Optional.of(otherTenant));
+
+        // Act
+        final DtoResScheduleValidation accepted = serviceManualScheduling.validateScheduleEntry(request(3, 1, 101));
+        final DtoResScheduleValidation rejected = serviceManualScheduling.validateScheduleEntry(request(4, 1, 101));
+
+        // Assert
+        assertTrue(accepted.getIsValid());
+        assertFalse(rejected.getIsValid());
+        assertEquals(1, rejected.getValidationErrors().size());
+        assertNull(index.getBinding(4));
+    }
+
+    @Test
+    void validateScheduleEntry_UnknownPeriod_ReturnsValidationError() {
+        // Act
+        final DtoResScheduleValidation validation = serviceManualScheduling.validateScheduleEntry(request(1, 1, 999));
+
+        // Assert
+        assertFalse(validation.getIsValid());
+        assertEquals(1, validation.getValidationErrors().size());
+    }
+
+    private DtoReqManualScheduleEntry request(final int bindingId, final int dayOfWeek, final int periodId) {
+        return DtoReqManualScheduleEntry.builder().timetableId(TIMETABLE_ID).bindingId(bindingId).dayOfWeek(dayOfWeek).periodId(periodId).build();
+    }
+
+    private EntityBinding binding(final int id, final int teacherId, final int classId, final int roomId, final int classBandId) {
+        final EntityBinding binding = new EntityBinding();
+        binding.setId(id);
+        binding.setTeacherId(teacherId);
+        binding.setClassId(classId);
+        binding.setRoomId(roomId);
+        binding.setClassBandId(classBandId);
+        return binding;
+    }
+
+    private EntityTimetableEntry entry(final int id, final int teacherId, final int classId, final int roomId, final int dayOfWeek, final int period) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setId(id);
+        entry.setTimetableId(TIMETABLE_ID);
+        entry.setTeacherId(teacherId);
+        entry.setClassId(classId);
+        entry.setRoomId(roomId);
+        entry.setDayOfWeek(dayOfWeek);
+        entry.setPeriod(period);
+        return entry;
+    }
+
+}
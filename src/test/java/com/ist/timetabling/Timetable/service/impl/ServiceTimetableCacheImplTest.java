@@ -0,0 +1,116 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableCache;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableCache;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableCacheImplTest {
+
+    @Mock
+    private RepositoryTimetableCache repositoryTimetableCache;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    private ServiceTimetableCacheImpl serviceTimetableCache;
+
+    @BeforeEach
+    void setUp() {
+        final ConfigTimetableSolver configTimetableSolver = new ConfigTimetableSolver();
+        ReflectionTestUtils.setField(configTimetableSolver, "cacheMaxEntries", 16L);
+        ReflectionTestUtils.setField(configTimetableSolver, "cacheTtlMinutes", 60L);
+        serviceTimetableCache = new ServiceTimetableCacheImpl(repositoryTimetableCache, serviceTimetableEntryReadModel, configTimetableSolver);
+    }
+
+    @Test
+    void getEntries_SameVersionTwice_LoadsOnceAndStoresRow() {
+        // Arrange
+        final EntityTimetable timetable = timetable(7, 3L);
+        when(repositoryTimetableCache.findValidByCacheKeyIn(anyCollection(), any())).thenReturn(List.of());
+        when(serviceTimetableEntryReadModel.getEntriesByTimetable(List.of(7))).thenReturn(Map.of(7, List.of(entry(70))));
+
+        // Act
+        final List<DtoResTimetableEntry> first = serviceTimetableCache.getEntries(timetable);
+        final List<DtoResTimetableEntry> second = serviceTimetableCache.getEntries(timetable);
+
+        // Assert
+        assertEquals(70, first.get(0).getId());
+        assertEquals(70, second.get(0).getId());
+        verify(serviceTimetableEntryReadModel, times(1)).getEntriesByTimetable(any());
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<EntityTimetableCache>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repositoryTimetableCache).saveAll(rows.capture());
+        assertEquals("entries:7:v3", rows.getValue().get(0).getCacheKey());
+        assertTrue(rows.getValue().get(0).getCacheData().contains("\"id\":70"));
+    }
+
+    @Test
+    void getEntries_StoredRowForCurrentVersion_ServedWithoutReadModel() {
+        // Arrange
+        final EntityTimetableCache row = EntityTimetableCache.builder()
+                .cacheKey("entries:7:v4")
+                .timetableId(7)
+                .cacheData("[{\"id\":71,\"dayOfWeek\":1,\"period\":2}]")
+                .build();
+        when(repositoryTimetableCache.findValidByCacheKeyIn(anyCollection(), any())).thenReturn(List.of(row));
+
+        // Act
+        final List<DtoResTimetableEntry> entries = serviceTimetableCache.getEntries(timetable(7, 4L));
+
+        // Assert
+        assertEquals(1, entries.size());
+        assertEquals(71, entries.get(0).getId());
+        verifyNoInteractions(serviceTimetableEntryReadModel);
+    }
+
+    @Test
+    void onContentChanged_TimetableAndOrganization_DropsStoredRows() {
+        // Arrange
+        final ModelTimetableContentChanged changed = new ModelTimetableContentChanged();
+        changed.getTimetableIds().add(7);
+        changed.getOrganizationIds().add(2);
+
+        // Act
+        serviceTimetableCache.onContentChanged(changed);
+
+        // Assert
+        verify(repositoryTimetableCache).deleteByTimetableIdIn(Set.of(7));
+        verify(repositoryTimetableCache).deleteByOrganizationIdIn(Set.of(2));
+    }
+
+    private EntityTimetable timetable(final int id, final long contentVersion) {
+        final EntityTimetable timetable = new EntityTimetable();
+        timetable.setId(id);
+        timetable.setContentVersion(contentVersion);
+        return timetable;
+    }
+
+    private DtoResTimetableEntry entry(final int id) {
+        final DtoResTimetableEntry entry = new DtoResTimetableEntry();
+        entry.setId(id);
+        entry.setTimetableId(7);
+        return entry;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableChanges;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableChange;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentChanged;
+import com.ist.timetabling.Timetable.model.ModelTimetableContentCommitting;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableChange;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableChangeImplTest {
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @Mock
+    private RepositoryTimetableChange repositoryTimetableChange;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ServiceTimetableChangeImpl serviceTimetableChange;
+
+    @BeforeEach
+    void setUp() {
+        serviceTimetableChange = new ServiceTimetableChangeImpl(repositoryTimetable, repositoryTimetableEntry, repositoryTimetableChange, serviceTimetableEntryReadModel, new ConfigTimetableSolver());
+        ReflectionTestUtils.setField(serviceTimetableChange, "entityManager", entityManager);
+    }
+
+    @Test
+    void getChanges_EntryMovedThenDeleted_ReturnsOnlyLatestStatePerEntry() {
+        // Arrange
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable(7, 5L)));
+        when(repositoryTimetableChange.findOldestVersion(7)).thenReturn(1L);
+        when(repositoryTimetableChange.findByTimetableIdAndVersionGreaterThanOrderByVersionAscIdAsc(7, 2L)).thenReturn(List.of(
+                change(3L, 10, EntityTimetableChange.OPERATION_UPSERT),
+                change(3L, 11, EntityTimetableChange.OPERATION_UPSERT),
+                change(4L, 10, EntityTimetableChange.OPERATION_DELETE),
+                change(5L, 11, EntityTimetableChange.OPERATION_UPSERT)));
+        final EntityTimetableEntry moved = new EntityTimetableEntry();
+        moved.setId(11);
+        when(repositoryTimetableEntry.findAllById(List.of(11))).thenReturn(List.of(moved));
+        final DtoResTimetableEntry movedDto = new DtoResTimetableEntry();
+        movedDto.setId(11);
+        movedDto.setIsDeleted(false);
+        when(serviceTimetableEntryReadModel.toDtos(List.of(moved))).thenReturn(List.of(movedDto));
+
+        // Act
+        final DtoResTimetableChanges changes = serviceTimetableChange.getChanges("tt", 2L);
+
+        // Assert
+        assertFalse(changes.getFullReload());
+        assertEquals(5L, changes.getVersion());
+        assertEquals(List.of(11), changes.getUpserted().stream().map(DtoResTimetableEntry::getId).toList());
+        assertEquals(List.of(10), changes.getDeletedIds());
+        assertEquals(List.of("uuid-10"), changes.getDeletedUuids());
+    }
+
+    @Test
+    void getChanges_SincePurgedOrReferenceDataChanged_AsksForFullReload() {
+        // Arrange
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable(7, 9L)));
+        when(repositoryTimetableChange.findOldestVersion(7)).thenReturn(6L);
+        when(repositoryTimetableChange.findByTimetableIdAndVersionGreaterThanOrderByVersionAscIdAsc(7, 5L)).thenReturn(List.of(
+                change(6L, 10, EntityTimetableChange.OPERATION_UPSERT),
+                change(7L, null, EntityTimetableChange.OPERATION_RELOAD)));
+
+        // Act
+        final DtoResTimetableChanges purged = serviceTimetableChange.getChanges("tt", 2L);
+        final DtoResTimetableChanges reload = serviceTimetableChange.getChanges("tt", 5L);
+        final DtoResTimetableChanges current = serviceTimetableChange.getChanges("tt", 9L);
+
+        // Assert
+        assertTrue(purged.getFullReload());
+        assertTrue(reload.getFullReload());
+        assertFalse(current.getFullReload());
+        assertTrue(current.getUpserted().isEmpty());
+    }
+
+    @Test
+    void onContentChanged_EntryWrites_LogsThemUnderTheBumpedVersion() {
+        // Arrange
+        final ModelTimetableContentChanged changed = new ModelTimetableContentChanged();
+        changed.recordEntry(7, 10, "uuid-10", false);
+        changed.recordEntry(7, 10, "uuid-10", true);
+        changed.recordEntry(7, 11, "uuid-11", false);
+        when(repositoryTimetable.findContentVersions(Set.of(7))).thenReturn(List.<Object[]>of(new Object[]{7, 4L}));
+
+        // Act
+        serviceTimetableChange.onContentChanged(changed);
+
+        // Assert
+        verify(repositoryTimetable).incrementContentVersion(Set.of(7));
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<EntityTimetableChange>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repositoryTimetableChange).saveAll(rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals(EntityTimetableChange.OPERATION_DELETE, rows.getValue().get(0).getOperation());
+        assertEquals(EntityTimetableChange.OPERATION_UPSERT, rows.getValue().get(1).getOperation());
+        assertTrue(rows.getValue().stream().allMatch(row -> row.getVersion() == 4L));
+    }
+
+    @Test
+    void onContentCommitting_WritesFlushedAtCommit_AreLoggedInTheWritingTransactionOnlyOnce() {
+        // Arrange
+        final ModelTimetableContentChanged changed = new ModelTimetableContentChanged();
+        doAnswer(invocation -> {
+            changed.recordEntry(7, 12, "uuid-12", false);
+            return null;
+        }).when(entityManager).flush();
+        when(repositoryTimetable.findContentVersions(Set.of(7))).thenReturn(List.<Object[]>of(new Object[]{7, 6L}));
+
+        // Act
+        serviceTimetableChange.onContentCommitting(new ModelTimetableContentCommitting(changed));
+        serviceTimetableChange.onContentChanged(changed);
+
+        // Assert
+        final InOrder order = inOrder(entityManager, repositoryTimetable);
+        order.verify(entityManager).flush();
+        order.verify(repositoryTimetable).incrementContentVersion(Set.of(7));
+        verify(repositoryTimetable, times(1)).incrementContentVersion(any());
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<EntityTimetableChange>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repositoryTimetableChange, times(1)).saveAll(rows.capture());
+        assertEquals(12, rows.getValue().get(0).getEntryId());
+        assertEquals(6L, rows.getValue().get(0).getVersion());
+        assertTrue(changed.isLogged());
+    }
+
+    private EntityTimetable timetable(final int id, final long contentVersion) {
+        final EntityTimetable timetable = new EntityTimetable();
+        timetable.setId(id);
+        timetable.setUuid("tt");
+        timetable.setContentVersion(contentVersion);
+        return timetable;
+    }
+
+    private EntityTimetableChange change(final long version, final Integer entryId, final String operation) {
+        return EntityTimetableChange.builder()
+                .timetableId(7)
+                .version(version)
+                .entryId(entryId)
+                .entryUuid(entryId != null ? "uuid-" + entryId : null)
+                .operation(operation)
+                .build();
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Room.repository.RepositoryRoom;
+import com.ist.timetabling.Subject.repository.RepositorySubject;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableEntryImplTest {
+
+    private static final int TIMETABLE_ID = 1;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @Mock
+    private RepositorySubject repositorySubject;
+
+    @Mock
+    private RepositoryRoom repositoryRoom;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryBinding repositoryBinding;
+
+    @Mock
+    private RepositoryPeriod repositoryPeriod;
+
+    @Mock
+    private RepositoryClassBand repositoryClassBand;
+
+    @Mock
+    private ServiceTimetableOccupancy serviceTimetableOccupancy;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    @Mock
+    private ServiceTimetableView serviceTimetableView;
+
+    @Mock
+    private ServiceTimetableOperation serviceTimetableOperation;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    private ServiceTimetableEntryImpl serviceTimetableEntry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        serviceTimetableEntry = new ServiceTimetableEntryImpl(repositoryTimetableEntry, repositorySubject, repositoryRoom, repositoryTimetable,
+                repositoryBinding, repositoryPeriod, repositoryClassBand, serviceTimetableOccupancy, serviceTimetableEntryReadModel,
+                serviceTimetableView, serviceTimetableOperation, new MockHttpServletRequest());
+        ReflectionTestUtils.setField(serviceTimetableEntry, "entityManager", entityManager);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAll_ManyEntries_IssuesASingleBatchedSaveAll() {
+        // Arrange
+        final List<DtoReqTimetableEntry> requests = new ArrayList<>();
+        for(int slot = 0; slot < 40; slot++) {
+            requests.add(request(slot / 8 + 1, slot % 8 + 1));
+        }
+        when(serviceTimetableEntryReadModel.toDtos(any())).thenReturn(List.of());
+
+        // Act
+        serviceTimetableEntry.createAll(requests);
+
+        // Assert
+        final ArgumentCaptor<List<EntityTimetableEntry>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repositoryTimetableEntry, times(1)).saveAll(saved.capture());
+        verify(repositoryTimetableEntry, never()).save(any());
+        assertEquals(40, saved.getValue().size());
+        verify(session).setJdbcBatchSize(EntityTimetableEntry.ID_ALLOCATION_SIZE);
+        verify(serviceTimetableOccupancy).occupyAll(saved.getValue());
+    }
+
+    @Test
+    void getTimetableEntriesAfter_NullableSortField_ScrollsByIdOnly() {
+        // Arrange
+        when(repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(eq(TIMETABLE_ID), any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset(), false));
+
+        // Act
+        serviceTimetableEntry.getTimetableEntriesAfter(TIMETABLE_ID, null, 20, "teacherId", "asc");
+        serviceTimetableEntry.getTimetableEntriesAfter(TIMETABLE_ID, null, 20, "period", "asc");
+
+        // Assert
+        final ArgumentCaptor<Sort> sorts = ArgumentCaptor.forClass(Sort.class);
+        verify(repositoryTimetableEntry, times(2)).findByTimetableIdAndIsDeletedFalse(eq(TIMETABLE_ID), any(ScrollPosition.class), sorts.capture(), any(Limit.class));
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), sorts.getAllValues().get(0));
+        assertEquals(Sort.by(Sort.Direction.ASC, "period", "id"), sorts.getAllValues().get(1));
+    }
+
+    private static DtoReqTimetableEntry request(final int dayOfWeek, final int period) {
+        final DtoReqTimetableEntry request = new DtoReqTimetableEntry();
+        request.setTimetableId(TIMETABLE_ID);
+        request.setDayOfWeek(dayOfWeek);
+        request.setPeriod(period);
+        request.setTeacherId(10);
+        request.setClassId(20);
+        request.setSubjectId(30);
+        request.setRoomId(40);
+        return request;
+    }
+
+}
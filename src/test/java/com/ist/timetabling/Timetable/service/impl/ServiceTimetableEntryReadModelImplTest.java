@@ -0,0 +1,115 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableEntryRow;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableEntryReadModelImplTest {
+
+    private static final int ENTRIES = 2_000;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    private ServiceTimetableEntryReadModelImpl serviceTimetableEntryReadModel;
+
+    @BeforeEach
+    void setUp() {
+        serviceTimetableEntryReadModel = new ServiceTimetableEntryReadModelImpl(repositoryTimetableEntry);
+    }
+
+    @Test
+    void toDtos_ManyEntries_LoadsLabelsInOneQuery() {
+        // Arrange
+        final List<EntityTimetableEntry> entries = new ArrayList<>();
+        final List<ModelTimetableEntryRow> rows = new ArrayList<>();
+        for(int id = 1; id <= ENTRIES; id++) {
+            final EntityTimetableEntry entry = entry(id, 1);
+            entries.add(entry);
+            rows.add(row(entry));
+        }
+        when(repositoryTimetableEntry.findRowsByIdIn(anyCollection())).thenReturn(rows);
+
+        // Act
+        final List<DtoResTimetableEntry> dtos = serviceTimetableEntryReadModel.toDtos(entries);
+
+        // Assert
+        verify(repositoryTimetableEntry, times(1)).findRowsByIdIn(anyCollection());
+        verifyNoMoreInteractions(repositoryTimetableEntry);
+        assertEquals(ENTRIES, dtos.size());
+        final DtoResTimetableEntry dto = dtos.get(ENTRIES - 1);
+        assertEquals(ENTRIES, dto.getId());
+        assertEquals("Maths", dto.getSubjectName());
+        assertEquals(ServiceTimetableEntryReadModelImpl.DEFAULT_SUBJECT_COLOR, dto.getSubjectColor());
+        assertEquals("Ada Lovelace", dto.getTeacherName());
+        assertEquals("R1", dto.getRoomInitials());
+        assertEquals("1A", dto.getClassInitials());
+        assertFalse(dto.getIsLocked());
+    }
+
+    @Test
+    void getEntriesByTimetable_SeveralTimetables_GroupsRowsFromOneQuery() {
+        // Arrange
+        when(repositoryTimetableEntry.findRowsByTimetableIdIn(anyCollection())).thenReturn(List.of(row(entry(1, 10)), row(entry(2, 20)), row(entry(3, 10))));
+
+        // Act
+        final Map<Integer, List<DtoResTimetableEntry>> entries = serviceTimetableEntryReadModel.getEntriesByTimetable(List.of(10, 20));
+
+        // Assert
+        verify(repositoryTimetableEntry, times(1)).findRowsByTimetableIdIn(anyCollection());
+        assertEquals(2, entries.get(10).size());
+        assertEquals(1, entries.get(20).size());
+        assertEquals(3, entries.get(10).get(1).getId());
+    }
+
+    @Test
+    void forEachEntryOfOrganization_StreamedRows_HandsEachDtoOnAndClosesCursor() {
+        // Arrange
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<ModelTimetableEntryRow> rows = Stream.of(row(entry(1, 10)), row(entry(2, 20))).onClose(() -> closed.set(true));
+        when(repositoryTimetableEntry.streamRowsByOrganizationId(5)).thenReturn(rows);
+        final List<Integer> seen = new ArrayList<>();
+
+        // Act
+        final long count = serviceTimetableEntryReadModel.forEachEntryOfOrganization(5, dto -> seen.add(dto.getId()));
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(1, 2), seen);
+        assertTrue(closed.get());
+    }
+
+    private EntityTimetableEntry entry(final int id, final int timetableId) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setId(id);
+        entry.setTimetableId(timetableId);
+        entry.setSubjectId(7);
+        entry.setTeacherId(8);
+        entry.setRoomId(9);
+        entry.setClassId(10);
+        return entry;
+    }
+
+    private ModelTimetableEntryRow row(final EntityTimetableEntry entry) {
+        return new ModelTimetableEntryRow(entry, "subject-uuid", "Maths", null, "MA", "teacher-uuid", "AL", "Ada", "Lovelace",
+                "room-uuid", "Room 1", "R1", "class-uuid", "Class 1A", "1A", null, null);
+    }
+
+}
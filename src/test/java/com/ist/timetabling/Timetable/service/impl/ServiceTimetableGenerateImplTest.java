@@ -0,0 +1,93 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Core.exception.ExceptionCoreNotFound;
+import com.ist.timetabling.Core.model.I18n;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Rule.service.ServiceRuleEngine;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.service.ServiceTimetable;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntry;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableGenerateImplTest {
+
+    @Mock
+    private ServiceTimetable serviceTimetable;
+
+    @Mock
+    private ServiceTimetableEntry serviceTimetableEntry;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryPlanSetting repositoryPlanSetting;
+
+    @Mock
+    private RepositoryPeriod repositoryPeriod;
+
+    @Mock
+    private RepositoryBinding repositoryBinding;
+
+    @Mock
+    private RepositoryClassBand repositoryClassBand;
+
+    @Mock
+    private ServiceAvailabilityMatrix serviceAvailabilityMatrix;
+
+    @Mock
+    private ServiceRuleEngine serviceRuleEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ServiceTimetableGenerateImpl serviceTimetableGenerate;
+
+    @BeforeEach
+    void setUp() {
+        serviceTimetableGenerate = new ServiceTimetableGenerateImpl(serviceTimetable, serviceTimetableEntry, repositoryTimetable, repositoryPlanSetting,
+                repositoryPeriod, repositoryBinding, repositoryClassBand, serviceAvailabilityMatrix, new ConfigTimetableSolver(),
+                ForkJoinPool.commonPool(), new MockHttpServletRequest(), serviceRuleEngine, transactionManager);
+    }
+
+    @Test
+    void generate_PlanSettingOfAnotherOrganization_IsNotFoundAndNothingIsWritten() {
+        // Arrange
+        final DtoReqTimetableGenerate request = new DtoReqTimetableGenerate();
+        request.setOrganizationId(1);
+        request.setPlanSettingId(9);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(repositoryPlanSetting.findByOrganizationIdAndIdAndIsDeletedFalse("1", 9)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ExceptionCoreNotFound.class, () -> serviceTimetableGenerate.generate(request, new I18n(new MockHttpServletRequest()), () -> false, null));
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(repositoryBinding, never()).findByOrganizationIdAndPlanSettingsIdAndIsDeletedFalse(anyInt(), anyInt());
+        verify(serviceAvailabilityMatrix, never()).getMatrix(anyInt());
+        verify(serviceTimetable, never()).createTimetable(any());
+    }
+
+}
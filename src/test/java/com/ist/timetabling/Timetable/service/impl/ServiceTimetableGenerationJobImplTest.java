@@ -0,0 +1,145 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableGenerate;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetable;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableGenerationJob;
+import com.ist.timetabling.Timetable.exception.ExceptionTimetableGenerationCancelled;
+import com.ist.timetabling.Timetable.model.ModelTimetableGenerationJob;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverProgress;
+import com.ist.timetabling.Timetable.service.ServiceTimetableGenerate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableGenerationJobImplTest {
+
+    @Mock
+    private ServiceTimetableGenerate serviceTimetableGenerate;
+
+    private ExecutorService executor;
+    private ServiceTimetableGenerationJobImpl serviceTimetableGenerationJob;
+
+    @BeforeEach
+    void setUp() {
+        final ConfigTimetableSolver configTimetableSolver = new ConfigTimetableSolver();
+        ReflectionTestUtils.setField(configTimetableSolver, "maxConcurrentJobs", 2);
+        ReflectionTestUtils.setField(configTimetableSolver, "maxJobsPerOrganization", 1);
+        ReflectionTestUtils.setField(configTimetableSolver, "maxQueuedPerOrganization", 2);
+        ReflectionTestUtils.setField(configTimetableSolver, "eventTimeoutMillis", 1_000L);
+        executor = Executors.newFixedThreadPool(2);
+        serviceTimetableGenerationJob = new ServiceTimetableGenerationJobImpl(serviceTimetableGenerate, configTimetableSolver, executor, new MockHttpServletRequest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void submit_SameOrganization_RunsOneJobAtATimeAndRecordsProgress() throws Exception {
+        // Arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        when(serviceTimetableGenerate.generate(any(), any(), any(), any())).thenAnswer(invocation -> {
+            final Consumer<ModelTimetableSolverProgress> listener = invocation.getArgument(3);
+            listener.accept(progress(40, 38, 1_200L));
+            release.await(5, TimeUnit.SECONDS);
+            listener.accept(progress(40, 40, 900L));
+            return ApiResponse.success(HttpStatus.CREATED, "ok", timetable());
+        });
+
+        // Act
+        final String first = serviceTimetableGenerationJob.submit(request(1)).getData().getJobId();
+        final String second = serviceTimetableGenerationJob.submit(request(1)).getData().getJobId();
+        final ApiResponse<DtoResTimetableGenerationJob> rejected = serviceTimetableGenerationJob.submit(request(1));
+        final String waiting = awaitStatus(first, ModelTimetableGenerationJob.STATUS_RUNNING).getStatus();
+        final String queued = serviceTimetableGenerationJob.getJob(second).getData().getStatus();
+        release.countDown();
+
+        // Assert
+        assertEquals(ModelTimetableGenerationJob.STATUS_RUNNING, waiting);
+        assertEquals(ModelTimetableGenerationJob.STATUS_QUEUED, queued);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        final DtoResTimetableGenerationJob done = awaitStatus(first, ModelTimetableGenerationJob.STATUS_COMPLETED);
+        assertEquals(40, done.getPlacedCount());
+        assertEquals(900L, done.getBestScore());
+        assertEquals("timetable-uuid", done.getTimetableUuid());
+        assertEquals(ModelTimetableGenerationJob.STATUS_COMPLETED, awaitStatus(second, ModelTimetableGenerationJob.STATUS_COMPLETED).getStatus());
+    }
+
+    @Test
+    void cancel_RunningJob_StopsSolverAndEndsCancelled() throws Exception {
+        // Arrange
+        when(serviceTimetableGenerate.generate(any(), any(), any(), any())).thenAnswer(invocation -> {
+            final BooleanSupplier cancelled = invocation.getArgument(2);
+            final long deadline = System.currentTimeMillis() + 5_000L;
+            while(!cancelled.getAsBoolean() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            throw new ExceptionTimetableGenerationCancelled("cancelled");
+        });
+        final String jobId = serviceTimetableGenerationJob.submit(request(2)).getData().getJobId();
+        awaitStatus(jobId, ModelTimetableGenerationJob.STATUS_RUNNING);
+
+        // Act
+        final ApiResponse<DtoResTimetableGenerationJob> response = serviceTimetableGenerationJob.cancel(jobId);
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        final DtoResTimetableGenerationJob cancelled = awaitStatus(jobId, ModelTimetableGenerationJob.STATUS_CANCELLED);
+        assertTrue(cancelled.getElapsedMillis() < 5_000L);
+        assertEquals(HttpStatus.CONFLICT.value(), serviceTimetableGenerationJob.cancel(jobId).getStatus());
+    }
+
+    private DtoResTimetableGenerationJob awaitStatus(final String jobId, final String status) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        DtoResTimetableGenerationJob job = serviceTimetableGenerationJob.getJob(jobId).getData();
+        while(!status.equals(job.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+            job = serviceTimetableGenerationJob.getJob(jobId).getData();
+        }
+        return job;
+    }
+
+    private DtoReqTimetableGenerate request(final int organizationId) {
+        final DtoReqTimetableGenerate request = new DtoReqTimetableGenerate();
+        request.setOrganizationId(organizationId);
+        request.setPlanSettingId(1);
+        return request;
+    }
+
+    private DtoResTimetable timetable() {
+        final DtoResTimetable timetable = new DtoResTimetable();
+        timetable.setId(5);
+        timetable.setUuid("timetable-uuid");
+        return timetable;
+    }
+
+    private ModelTimetableSolverProgress progress(final int lessons, final int placed, final long score) {
+        return ModelTimetableSolverProgress.builder()
+                .lessonCount(lessons)
+                .placedCount(placed)
+                .score(score)
+                .build();
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableEntryMove;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableMoveChain;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableMove;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableMoveChainImplTest {
+
+    private static final int TIMETABLE_ID = 1;
+    private static final int DAYS = 5;
+    private static final int PERIODS = 8;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @Mock
+    private ServiceTimetableOccupancy serviceTimetableOccupancy;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    @Mock
+    private ServiceTimetableView serviceTimetableView;
+
+    @Mock
+    private ServiceTimetableOperation serviceTimetableOperation;
+
+    private ModelTimetableConflictIndex index;
+    private ServiceTimetableMoveChainImpl serviceTimetableMoveChain;
+
+    @BeforeEach
+    void setUp() {
+        final long[] schedulable = new long[ModelTimetableSolverInput.wordsFor(DAYS * PERIODS)];
+        for(int slot = 0; slot < DAYS * PERIODS; slot++) {
+            schedulable[slot >>> 6] |= 1L << slot;
+        }
+        index = new ModelTimetableConflictIndex(TIMETABLE_ID, new ModelTimetableOccupancy(DAYS, PERIODS), new HashMap<>(), schedulable);
+        final EntityTimetable timetable = new EntityTimetable();
+        timetable.setId(TIMETABLE_ID);
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("t")).thenReturn(Optional.of(timetable));
+        serviceTimetableMoveChain = new ServiceTimetableMoveChainImpl(repositoryTimetable, repositoryTimetableEntry, serviceTimetableOccupancy,
+                serviceTimetableEntryReadModel, serviceTimetableView, serviceTimetableOperation, new MockHttpServletRequest());
+    }
+
+    @Test
+    void moveEntries_SameTeacherTradingPlaces_MovesBothAndRecordsTheChain() {
+        // Arrange
+        final EntityTimetableEntry first = entry(1, "a", 10, 20, 1, 1);
+        final EntityTimetableEntry second = entry(2, "b", 10, 21, 1, 2);
+        index.occupy(first);
+        index.occupy(second);
+        when(serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID)).thenReturn(index);
+        when(repositoryTimetableEntry.findByUuidInAndIsDeletedFalse(anyList())).thenReturn(List.of(first, second));
+
+        // Act
+        final ApiResponse<DtoResTimetableMoveChain> response = serviceTimetableMoveChain.moveEntries("t", List.of(move("a", 0L, 1, 2), move("b", 0L, 1, 1)));
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertTrue(response.getData().getValid());
+        assertEquals(2, first.getPeriod());
+        assertEquals(1, second.getPeriod());
+        verify(repositoryTimetableEntry).saveAllAndFlush(List.of(first, second));
+        final ArgumentCaptor<List<ModelTimetableMove>> moves = ArgumentCaptor.forClass(List.class);
+        verify(serviceTimetableOperation).recordMoves(eq(TIMETABLE_ID), moves.capture());
+        assertEquals(1, moves.getValue().get(0).getFromPeriod());
+        assertEquals(2, moves.getValue().get(0).getToPeriod());
+    }
+
+    @Test
+    void moveEntries_ClashWithEntryOutsideTheChain_RejectsWithoutSaving() {
+        // Arrange
+        final EntityTimetableEntry moving = entry(1, "a", 10, 20, 1, 1);
+        final EntityTimetableEntry staying = entry(3, "c", 10, 22, 2, 1);
+        index.occupy(moving);
+        index.occupy(staying);
+        when(serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID)).thenReturn(index);
+        when(repositoryTimetableEntry.findByUuidInAndIsDeletedFalse(anyList())).thenReturn(List.of(moving));
+
+        // Act
+        final ApiResponse<DtoResTimetableMoveChain> response = serviceTimetableMoveChain.moveEntries("t", List.of(move("a", null, 2, 1)));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT.value(), response.getStatus());
+        assertFalse(response.getData().getValid());
+        assertEquals("TEACHER", response.getData().getConflicts().get(0).getConflictType());
+        assertEquals(3, response.getData().getConflicts().get(0).getTimetableEntryId());
+        assertEquals(1, moving.getDayOfWeek());
+        verify(repositoryTimetableEntry, never()).saveAllAndFlush(any());
+        verifyNoInteractions(serviceTimetableOperation);
+    }
+
+    @Test
+    void moveEntries_StaleVersion_ThrowsBeforeTouchingTheIndex() {
+        // Arrange
+        final EntityTimetableEntry entry = entry(1, "a", 10, 20, 1, 1);
+        entry.setVersion(3L);
+        when(repositoryTimetableEntry.findByUuidInAndIsDeletedFalse(anyList())).thenReturn(List.of(entry));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> serviceTimetableMoveChain.moveEntries("t", List.of(move("a", 2L, 2, 1))));
+        verifyNoInteractions(serviceTimetableOccupancy);
+        verify(repositoryTimetableEntry, never()).saveAllAndFlush(any());
+    }
+
+    private EntityTimetableEntry entry(final int id, final String uuid, final int teacherId, final int classId, final int dayOfWeek, final int period) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setId(id);
+        entry.setUuid(uuid);
+        entry.setTimetableId(TIMETABLE_ID);
+        entry.setTeacherId(teacherId);
+        entry.setClassId(classId);
+        entry.setDayOfWeek(dayOfWeek);
+        entry.setPeriod(period);
+        entry.setVersion(0L);
+        return entry;
+    }
+
+    private DtoReqTimetableEntryMove move(final String uuid, final Long version, final int dayOfWeek, final int period) {
+        final DtoReqTimetableEntryMove move = new DtoReqTimetableEntryMove();
+        move.setUuid(uuid);
+        move.setVersion(version);
+        move.setDayOfWeek(dayOfWeek);
+        move.setPeriod(period);
+        return move;
+    }
+
+}
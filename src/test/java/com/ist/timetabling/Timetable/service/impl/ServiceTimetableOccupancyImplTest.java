@@ -0,0 +1,190 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Class.repository.RepositoryClass;
+import com.ist.timetabling.ClassBand.repository.RepositoryClassBand;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrixChanged;
+import com.ist.timetabling.Period.repository.RepositoryPeriod;
+import com.ist.timetabling.Period.service.ServiceAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Room.repository.RepositoryRoom;
+import com.ist.timetabling.Rule.service.ServiceRuleEngine;
+import com.ist.timetabling.Teacher.repository.RepositoryTeacherProfile;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.User.repository.RepositoryUser;
+import com.ist.timetabling.binding.repository.RepositoryBinding;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableOccupancyImplTest {
+
+    private static final int TIMETABLE_ID = 1;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @Mock
+    private RepositoryPlanSetting repositoryPlanSetting;
+
+    @Mock
+    private RepositoryPeriod repositoryPeriod;
+
+    @Mock
+    private RepositoryBinding repositoryBinding;
+
+    @Mock
+    private RepositoryTeacherProfile repositoryTeacherProfile;
+
+    @Mock
+    private RepositoryClass repositoryClass;
+
+    @Mock
+    private RepositoryClassBand repositoryClassBand;
+
+    @Mock
+    private RepositoryRoom repositoryRoom;
+
+    @Mock
+    private RepositoryUser repositoryUser;
+
+    @Mock
+    private ServiceRuleEngine serviceRuleEngine;
+
+    @Mock
+    private ServiceAvailabilityMatrix serviceAvailabilityMatrix;
+
+    private ServiceTimetableOccupancyImpl serviceTimetableOccupancy;
+
+    @BeforeEach
+    void setUp() {
+        final EntityTimetable timetable = new EntityTimetable();
+        timetable.setId(TIMETABLE_ID);
+        timetable.setPlansettingId(null);
+        when(repositoryTimetable.findById(TIMETABLE_ID)).thenReturn(Optional.of(timetable));
+        when(repositoryTimetableEntry.findByTimetableIdAndIsDeletedFalse(TIMETABLE_ID)).thenReturn(List.of(entry(1, 10, 1, 2)));
+        serviceTimetableOccupancy = new ServiceTimetableOccupancyImpl(repositoryTimetable, repositoryTimetableEntry, repositoryPlanSetting, repositoryPeriod,
+                repositoryBinding, repositoryTeacherProfile, repositoryClass, repositoryClassBand, repositoryRoom, repositoryUser,
+                serviceRuleEngine, serviceAvailabilityMatrix);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void occupy_TransactionRolledBack_DropsTheIndex() {
+        // Arrange
+        final ModelTimetableConflictIndex before = serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID);
+
+        // Act
+        serviceTimetableOccupancy.occupy(entry(2, 11, 1, 1));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertNotSame(before, serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID));
+        verify(repositoryTimetable, times(2)).findById(TIMETABLE_ID);
+    }
+
+    @Test
+    void occupy_TransactionCommitted_KeepsTheIndex() {
+        // Arrange
+        final ModelTimetableConflictIndex before = serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID);
+
+        // Act
+        serviceTimetableOccupancy.occupy(entry(2, 11, 1, 1));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        final ModelTimetableConflictIndex after = serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID);
+        assertSame(before, after);
+        assertEquals(1, after.entriesAt(after.getOccupancy().slotOf(1, 1)).size());
+    }
+
+    @Test
+    void onAvailabilityChanged_IndexOfThatPlanSetting_IsRebuilt() {
+        // Arrange
+        final ModelTimetableConflictIndex before = serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID);
+        before.setScope(null, 5);
+
+        // Act
+        serviceTimetableOccupancy.onAvailabilityChanged(new ModelAvailabilityMatrixChanged(Set.of(6)));
+        final ModelTimetableConflictIndex unrelated = serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID);
+        serviceTimetableOccupancy.onAvailabilityChanged(new ModelAvailabilityMatrixChanged(Set.of(5)));
+
+        // Assert
+        assertSame(before, unrelated);
+        assertNotSame(before, serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID));
+        verify(repositoryTimetable, times(2)).findById(TIMETABLE_ID);
+    }
+
+    @Test
+    void getConflictIndex_ConcurrentFirstReads_BuildOneSharedIndex() throws Exception {
+        // Arrange
+        TransactionSynchronizationManager.clearSynchronization();
+        final EntityTimetable timetable = new EntityTimetable();
+        timetable.setId(TIMETABLE_ID);
+        final CountDownLatch loading = new CountDownLatch(1);
+        when(repositoryTimetable.findById(TIMETABLE_ID)).thenAnswer(invocation -> {
+            loading.countDown();
+            Thread.sleep(200);
+            return Optional.of(timetable);
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        final Future<ModelTimetableConflictIndex> first = executor.submit(() -> serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID));
+        loading.await();
+        final Future<ModelTimetableConflictIndex> second = executor.submit(() -> serviceTimetableOccupancy.getConflictIndex(TIMETABLE_ID));
+
+        // Assert
+        assertSame(first.get(), second.get());
+        verify(repositoryTimetable, times(1)).findById(TIMETABLE_ID);
+        executor.shutdown();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void complete(final int status) {
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static EntityTimetableEntry entry(final int id, final int teacherId, final int dayOfWeek, final int period) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setId(id);
+        entry.setTimetableId(TIMETABLE_ID);
+        entry.setTeacherId(teacherId);
+        entry.setClassId(20 + id);
+        entry.setDayOfWeek(dayOfWeek);
+        entry.setPeriod(period);
+        return entry;
+    }
+
+}
@@ -0,0 +1,336 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ist.timetabling.Core.exception.ExceptionCoreAlreadyExists;
+import com.ist.timetabling.Core.exception.ExceptionCoreNoChange;
+import com.ist.timetabling.Core.exception.ExceptionCoreValidation;
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableOperation;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableOperation;
+import com.ist.timetabling.Timetable.model.ModelTimetableConflictIndex;
+import com.ist.timetabling.Timetable.model.ModelTimetableMove;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy;
+import com.ist.timetabling.Timetable.model.ModelTimetableOccupancy.Resource;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableOperation;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableOperationImplTest {
+
+    private static final int TIMETABLE = 7;
+    private static final int DAYS = 5;
+    private static final int PERIODS = 8;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @Mock
+    private RepositoryTimetableOperation repositoryTimetableOperation;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    @Mock
+    private ServiceTimetableOccupancy serviceTimetableOccupancy;
+
+    @Mock
+    private ServiceTimetableView serviceTimetableView;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    private ServiceTimetableOperationImpl serviceTimetableOperation;
+
+    @BeforeEach
+    void setUp() {
+        serviceTimetableOperation = new ServiceTimetableOperationImpl(repositoryTimetable, repositoryTimetableEntry, repositoryTimetableOperation,
+                serviceTimetableEntryReadModel, serviceTimetableOccupancy, serviceTimetableView, httpServletRequest);
+    }
+
+    @Test
+    void recordSwap_AfterSwap_AppendsOnTopOfTheHead() {
+        // Arrange
+        final EntityTimetableEntry moved = entry("a", 2, 3);
+        final EntityTimetableEntry displaced = entry("b", 1, 1);
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(4L);
+        when(repositoryTimetableOperation.save(any())).thenAnswer(invocation -> {
+            final EntityTimetableOperation saved = invocation.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 4L, 5L)).thenReturn(1);
+
+        // Act
+        serviceTimetableOperation.recordSwap(moved, displaced, false);
+
+        // Assert
+        final ArgumentCaptor<EntityTimetableOperation> operation = ArgumentCaptor.forClass(EntityTimetableOperation.class);
+        verify(repositoryTimetableOperation).save(operation.capture());
+        assertEquals(EntityTimetableOperation.TYPE_SWAP, operation.getValue().getType());
+        assertEquals(4L, operation.getValue().getPreviousId());
+        assertEquals(1, operation.getValue().getFromDayOfWeek());
+        assertEquals(2, operation.getValue().getToDayOfWeek());
+        assertEquals(3, operation.getValue().getToPeriod());
+    }
+
+    @Test
+    void undo_Move_PutsBothEntriesBackAndRevivesTheDisplacedOne() {
+        // Arrange
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(5L).previousId(4L).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_MOVE).entryUuid("a").otherEntryUuid("b")
+                .fromDayOfWeek(1).fromPeriod(1).toDayOfWeek(2).toPeriod(3).build();
+        final EntityTimetableEntry moved = entry("a", 2, 3);
+        final EntityTimetableEntry displaced = entry("b", 1, 1);
+        displaced.setIsDeleted(true);
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(5L);
+        when(repositoryTimetableOperation.findById(5L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 5L, 4L)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuid("a")).thenReturn(Optional.of(moved));
+        when(repositoryTimetableEntry.findByUuid("b")).thenReturn(Optional.of(displaced));
+        index();
+
+        // Act
+        final ApiResponse<DtoResTimetableOperation> response = serviceTimetableOperation.undo("tt");
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(1, moved.getDayOfWeek());
+        assertEquals(1, moved.getPeriod());
+        assertEquals(2, displaced.getDayOfWeek());
+        assertEquals(3, displaced.getPeriod());
+        assertFalse(displaced.getIsDeleted());
+        verify(repositoryTimetableEntry).saveAll(List.of(moved, displaced));
+        assertTrue(response.getData().getCanUndo());
+        assertTrue(response.getData().getCanRedo());
+    }
+
+    @Test
+    void redo_Remove_DeletesTheEntryAgain() throws Exception {
+        // Arrange
+        final EntityTimetableEntry removed = entry("a", 1, 1);
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(6L).previousId(5L).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_REMOVE).entryUuid("a").snapshot(new ObjectMapper().writeValueAsString(removed)).build();
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(5L);
+        when(repositoryTimetableOperation.findFirstByTimetableIdAndPreviousIdOrderByIdDesc(TIMETABLE, 5L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 5L, 6L)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuid("a")).thenReturn(Optional.of(removed));
+
+        // Act
+        final ApiResponse<DtoResTimetableOperation> response = serviceTimetableOperation.redo("tt");
+
+        // Assert
+        verify(repositoryTimetableEntry).delete(removed);
+        verify(serviceTimetableView).remove(removed);
+        assertEquals(List.of("a"), response.getData().getRemovedEntryUuids());
+        assertFalse(response.getData().getCanRedo());
+    }
+
+    @Test
+    void undo_Remove_InsertsTheSnapshotUnderItsOriginalUuid() throws Exception {
+        // Arrange
+        final EntityTimetableEntry removed = entry("a", 2, 4);
+        removed.setId(11);
+        removed.setIsLocked(true);
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(6L).previousId(null).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_REMOVE).entryUuid("a").snapshot(new ObjectMapper().writeValueAsString(removed)).build();
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(6L);
+        when(repositoryTimetableOperation.findById(6L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 6L, null)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuid("a")).thenReturn(Optional.empty());
+        when(repositoryTimetableEntry.saveAndFlush(any())).thenAnswer(invocation -> {
+            final EntityTimetableEntry saved = invocation.getArgument(0);
+            assertNull(saved.getId());
+            saved.setId(12);
+            saved.setUuid("generated");
+            return saved;
+        });
+        index();
+
+        // Act
+        final ApiResponse<DtoResTimetableOperation> response = serviceTimetableOperation.undo("tt");
+
+        // Assert
+        final ArgumentCaptor<EntityTimetableEntry> inserted = ArgumentCaptor.forClass(EntityTimetableEntry.class);
+        verify(repositoryTimetableEntry).saveAndFlush(inserted.capture());
+        assertEquals("a", inserted.getValue().getUuid());
+        assertEquals(2, inserted.getValue().getDayOfWeek());
+        assertEquals(4, inserted.getValue().getPeriod());
+        assertTrue(inserted.getValue().getIsLocked());
+        verify(serviceTimetableOccupancy).occupy(inserted.getValue());
+        assertFalse(response.getData().getCanUndo());
+    }
+
+    @Test
+    void undo_Move_TeacherBookedInTheOldCell_RefusesWithConflict() {
+        // Arrange
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(5L).previousId(4L).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_MOVE).entryUuid("a").otherEntryUuid("b")
+                .fromDayOfWeek(1).fromPeriod(1).toDayOfWeek(2).toPeriod(3).build();
+        final EntityTimetableEntry moved = entry("a", 2, 3);
+        moved.setId(1);
+        moved.setTeacherId(10);
+        final EntityTimetableEntry displaced = entry("b", 1, 1);
+        displaced.setId(2);
+        displaced.setIsDeleted(true);
+        final EntityTimetableEntry newcomer = entry("c", 1, 1);
+        newcomer.setId(3);
+        newcomer.setTeacherId(10);
+        newcomer.setClassId(31);
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(5L);
+        when(repositoryTimetableOperation.findById(5L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 5L, 4L)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuid("a")).thenReturn(Optional.of(moved));
+        when(repositoryTimetableEntry.findByUuid("b")).thenReturn(Optional.of(displaced));
+        final ModelTimetableConflictIndex index = index();
+        index.occupy(moved);
+        index.occupy(newcomer);
+
+        // Act & Assert
+        final ExceptionCoreAlreadyExists conflict = assertThrows(ExceptionCoreAlreadyExists.class, () -> serviceTimetableOperation.undo("tt"));
+        assertEquals("This edit can no longer be replayed because its cells are now taken or unavailable", conflict.getMessage());
+        assertEquals(2, moved.getDayOfWeek());
+        assertTrue(displaced.getIsDeleted());
+        verify(repositoryTimetableEntry, never()).saveAll(any());
+        verify(serviceTimetableOccupancy, never()).release(any());
+    }
+
+    @Test
+    void redo_Chain_OnlyItsOwnEntriesInTheWay_Replays() throws Exception {
+        // Arrange
+        final EntityTimetableEntry first = entry("a", 1, 1);
+        first.setId(1);
+        first.setTeacherId(10);
+        final EntityTimetableEntry second = entry("b", 1, 2);
+        second.setId(2);
+        second.setTeacherId(10);
+        final List<ModelTimetableMove> moves = List.of(
+                ModelTimetableMove.builder().entryUuid("a").fromDayOfWeek(1).fromPeriod(1).toDayOfWeek(1).toPeriod(2).build(),
+                ModelTimetableMove.builder().entryUuid("b").fromDayOfWeek(1).fromPeriod(2).toDayOfWeek(1).toPeriod(1).build());
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(6L).previousId(5L).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_CHAIN).entryUuid("a").snapshot(new ObjectMapper().writeValueAsString(moves)).build();
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(5L);
+        when(repositoryTimetableOperation.findFirstByTimetableIdAndPreviousIdOrderByIdDesc(TIMETABLE, 5L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 5L, 6L)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuidInAndIsDeletedFalse(List.of("a", "b"))).thenReturn(List.of(first, second));
+        final ModelTimetableConflictIndex index = index();
+        index.occupy(first);
+        index.occupy(second);
+
+        // Act
+        final ApiResponse<DtoResTimetableOperation> response = serviceTimetableOperation.redo("tt");
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(2, first.getPeriod());
+        assertEquals(1, second.getPeriod());
+        verify(repositoryTimetableEntry).saveAll(List.of(first, second));
+    }
+
+    @Test
+    void undo_Remove_RoomUnavailableInTheCell_RefusesWithConflict() throws Exception {
+        // Arrange
+        final EntityTimetableEntry removed = entry("a", 2, 4);
+        removed.setId(11);
+        removed.setRoomId(50);
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(6L).previousId(null).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_REMOVE).entryUuid("a").snapshot(new ObjectMapper().writeValueAsString(removed)).build();
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(6L);
+        when(repositoryTimetableOperation.findById(6L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 6L, null)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuid("a")).thenReturn(Optional.empty());
+        final ModelTimetableConflictIndex index = index();
+        index.markUnavailable(Resource.ROOM, 50, index.getOccupancy().slotOf(2, 4));
+
+        // Act & Assert
+        assertThrows(ExceptionCoreAlreadyExists.class, () -> serviceTimetableOperation.undo("tt"));
+        verify(repositoryTimetableEntry, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void undo_LockChangedSince_RefusesToReplay() {
+        // Arrange
+        final EntityTimetableOperation operation = EntityTimetableOperation.builder().id(5L).timetableId(TIMETABLE)
+                .type(EntityTimetableOperation.TYPE_LOCK).entryUuid("a").fromLocked(false).toLocked(true).build();
+        final EntityTimetableEntry entry = entry("a", 1, 1);
+        entry.setIsLocked(false);
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(5L);
+        when(repositoryTimetableOperation.findById(5L)).thenReturn(Optional.of(operation));
+        when(repositoryTimetable.updateOperationHead(TIMETABLE, 5L, null)).thenReturn(1);
+        when(repositoryTimetableEntry.findByUuid("a")).thenReturn(Optional.of(entry));
+
+        // Act & Assert
+        assertThrows(ExceptionCoreValidation.class, () -> serviceTimetableOperation.undo("tt"));
+        verify(repositoryTimetableEntry, never()).save(any());
+    }
+
+    @Test
+    void undo_EmptyLog_ReportsNothingToUndo() {
+        // Arrange
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable()));
+        when(repositoryTimetable.findOperationHeadId(TIMETABLE)).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(ExceptionCoreNoChange.class, () -> serviceTimetableOperation.undo("tt"));
+        verify(repositoryTimetable, never()).updateOperationHead(anyInt(), any(), any());
+    }
+
+    /** An empty index of the timetable where every cell is schedulable, handed out by the occupancy mock. */
+    private ModelTimetableConflictIndex index() {
+        final long[] schedulable = new long[ModelTimetableSolverInput.wordsFor(DAYS * PERIODS)];
+        for(int slot = 0; slot < DAYS * PERIODS; slot++) {
+            schedulable[slot >>> 6] |= 1L << slot;
+        }
+        final ModelTimetableConflictIndex index = new ModelTimetableConflictIndex(TIMETABLE, new ModelTimetableOccupancy(DAYS, PERIODS), new HashMap<>(), schedulable);
+        when(serviceTimetableOccupancy.getConflictIndex(TIMETABLE)).thenReturn(index);
+        return index;
+    }
+
+    private EntityTimetable timetable() {
+        return EntityTimetable.builder().id(TIMETABLE).build();
+    }
+
+    private EntityTimetableEntry entry(final String uuid, final int day, final int period) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setUuid(uuid);
+        entry.setTimetableId(TIMETABLE);
+        entry.setDayOfWeek(day);
+        entry.setPeriod(period);
+        entry.setClassId(30);
+        entry.setSubjectId(40);
+        return entry;
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.Core.model.ApiResponse;
+import com.ist.timetabling.Timetable.config.ConfigTimetableSolver;
+import com.ist.timetabling.Timetable.dto.req.DtoReqTimetableVersion;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableVersion;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableChange;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetableVersion;
+import com.ist.timetabling.Timetable.entity.EntityTimetableVersionSlot;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableChange;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableEntry;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableVersion;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetableVersionSlot;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import com.ist.timetabling.Timetable.service.ServiceTimetableOccupancy;
+import com.ist.timetabling.Timetable.service.ServiceTimetableView;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableVersionImplTest {
+
+    private static final int TIMETABLE = 7;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryTimetableEntry repositoryTimetableEntry;
+
+    @Mock
+    private RepositoryTimetableChange repositoryTimetableChange;
+
+    @Mock
+    private RepositoryTimetableVersion repositoryTimetableVersion;
+
+    @Mock
+    private RepositoryTimetableVersionSlot repositoryTimetableVersionSlot;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    @Mock
+    private ServiceTimetableOccupancy serviceTimetableOccupancy;
+
+    @Mock
+    private ServiceTimetableView serviceTimetableView;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    private ServiceTimetableVersionImpl serviceTimetableVersion;
+
+    @BeforeEach
+    void setUp() {
+        final ConfigTimetableSolver configTimetableSolver = new ConfigTimetableSolver();
+        ReflectionTestUtils.setField(configTimetableSolver, "versionMaxChainDepth", 16);
+        serviceTimetableVersion = new ServiceTimetableVersionImpl(repositoryTimetable, repositoryTimetableEntry, repositoryTimetableChange,
+                repositoryTimetableVersion, repositoryTimetableVersionSlot, serviceTimetableEntryReadModel, serviceTimetableOccupancy,
+                serviceTimetableView, configTimetableSolver, httpServletRequest);
+    }
+
+    @Test
+    void createVersion_EntriesChangedSinceHead_StoresOnlyTheChangedSlots() {
+        // Arrange
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable(1, 3L, 5L)));
+        when(repositoryTimetableVersion.findByTimetableIdOrderByIdAsc(TIMETABLE)).thenReturn(List.of(version(1, null, true, 0, 3)));
+        when(repositoryTimetableChange.findOldestVersion(TIMETABLE)).thenReturn(2L);
+        when(repositoryTimetableChange.findByTimetableIdAndVersionGreaterThanOrderByVersionAscIdAsc(TIMETABLE, 3L)).thenReturn(List.of(
+                change(2, "b", EntityTimetableChange.OPERATION_UPSERT), change(3, "c", EntityTimetableChange.OPERATION_DELETE),
+                change(2, "b", EntityTimetableChange.OPERATION_UPSERT)));
+        when(repositoryTimetableEntry.findAllById(Set.of(2, 3))).thenReturn(List.of(entry(2, "b", 2)));
+        when(repositoryTimetableVersionSlot.findByVersionIdInAndEntryUuidIn(List.of(1), Set.of("b", "c")))
+                .thenReturn(List.of(slot(1, "b", 1), slot(1, "c", 3)));
+        when(repositoryTimetableVersion.save(any())).thenAnswer(invocation -> {
+            final EntityTimetableVersion saved = invocation.getArgument(0);
+            saved.setId(2);
+            saved.setUuid("v2");
+            return saved;
+        });
+
+        // Act
+        final ApiResponse<DtoResTimetableVersion> response = serviceTimetableVersion.createVersion("tt", DtoReqTimetableVersion.builder().name("Try B").build());
+
+        // Assert
+        assertEquals(HttpStatus.CREATED.value(), response.getStatus());
+        assertEquals(1, response.getData().getDepth());
+        assertEquals(2, response.getData().getEntryCount());
+        assertFalse(response.getData().getIsKeyframe());
+        final ArgumentCaptor<List<EntityTimetableVersionSlot>> slots = ArgumentCaptor.forClass(List.class);
+        verify(repositoryTimetableVersionSlot).saveAll(slots.capture());
+        assertEquals(2, slots.getValue().size());
+        assertEquals("b", slots.getValue().get(0).getEntryUuid());
+        assertEquals(2, slots.getValue().get(0).getDayOfWeek());
+        assertEquals("c", slots.getValue().get(1).getEntryUuid());
+        assertTrue(slots.getValue().get(1).getIsRemoved());
+        assertTrue(slots.getValue().stream().allMatch(slot -> slot.getVersionId() == 2));
+        verify(repositoryTimetableVersionSlot, never()).findByVersionIdIn(anyCollection());
+        verify(repositoryTimetableEntry, never()).findByTimetableIdAndIsDeletedFalse(anyInt());
+        verify(repositoryTimetable).updateHeadVersion(TIMETABLE, 2, 5L);
+    }
+
+    @Test
+    void restoreVersion_DeltaOverKeyframe_RevivesMovesAndSoftDeletesOnlyTheDifferences() {
+        // Arrange
+        when(repositoryTimetable.findByUuidAndIsDeletedFalse("tt")).thenReturn(Optional.of(timetable(2, 5L, 9L)));
+        when(repositoryTimetableVersion.findByTimetableIdOrderByIdAsc(TIMETABLE)).thenReturn(List.of(
+                version(1, null, true, 0, 2), version(2, 1, false, 1, 3)));
+        when(repositoryTimetableVersionSlot.findByVersionIdIn(List.of(1))).thenReturn(List.of(slot(1, "a", 1), slot(1, "b", 2)));
+        final EntityTimetableEntry kept = entry(1, "a", 1);
+        final EntityTimetableEntry moved = entry(2, "b", 4);
+        final EntityTimetableEntry removed = entry(3, "c", 3);
+        removed.setIsDeleted(true);
+        final EntityTimetableEntry added = entry(4, "d", 5);
+        when(repositoryTimetableEntry.findByTimetableId(TIMETABLE)).thenReturn(List.of(kept, moved, removed, added));
+
+        // Act
+        final ApiResponse<DtoResTimetableVersion> response = serviceTimetableVersion.restoreVersion("tt", "v1");
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        final ArgumentCaptor<List<EntityTimetableEntry>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repositoryTimetableEntry).saveAll(saved.capture());
+        assertEquals(List.of(moved, added), saved.getValue());
+        assertEquals(2, moved.getDayOfWeek());
+        assertTrue(added.getIsDeleted());
+        assertTrue(removed.getIsDeleted());
+        verify(serviceTimetableOccupancy).evict(TIMETABLE);
+        verify(repositoryTimetable).updateHeadVersion(TIMETABLE, 1, 9L);
+    }
+
+    private EntityTimetable timetable(final int headVersionId, final Long headContentVersion, final Long contentVersion) {
+        final EntityTimetable timetable = EntityTimetable.builder().id(TIMETABLE).contentVersion(contentVersion).build();
+        timetable.setHeadVersionId(headVersionId);
+        timetable.setHeadContentVersion(headContentVersion);
+        return timetable;
+    }
+
+    private EntityTimetableVersion version(final int id, final Integer parentId, final boolean keyframe, final int depth, final int entryCount) {
+        return EntityTimetableVersion.builder().id(id).uuid("v" + id).timetableId(TIMETABLE).parentId(parentId)
+                .isKeyframe(keyframe).depth(depth).entryCount(entryCount).build();
+    }
+
+    private EntityTimetableChange change(final int entryId, final String uuid, final String operation) {
+        return EntityTimetableChange.builder().timetableId(TIMETABLE).entryId(entryId).entryUuid(uuid).operation(operation).build();
+    }
+
+    private EntityTimetableEntry entry(final int id, final String uuid, final int day) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setId(id);
+        entry.setUuid(uuid);
+        entry.setTimetableId(TIMETABLE);
+        entry.setDayOfWeek(day);
+        entry.setClassId(30);
+        entry.setSubjectId(40);
+        return entry;
+    }
+
+    private EntityTimetableVersionSlot slot(final int versionId, final String uuid, final int day) {
+        return EntityTimetableVersionSlot.builder().versionId(versionId).entryUuid(uuid).classId(30).subjectId(40).dayOfWeek(day)
+                .period(1).periodNumber(1).periodType("Regular").durationMinutes(45).status("Active").isLocked(false).isClassBandEntry(false).build();
+    }
+
+}
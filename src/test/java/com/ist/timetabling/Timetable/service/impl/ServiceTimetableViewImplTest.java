@@ -0,0 +1,126 @@
+package com.ist.timetabling.Timetable.service.impl;
+
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.PlanSetting.repository.RepositoryPlanSetting;
+import com.ist.timetabling.Timetable.dto.res.DtoResTimetableEntry;
+import com.ist.timetabling.Timetable.entity.EntityTimetable;
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.repository.RepositoryTimetable;
+import com.ist.timetabling.Timetable.service.ServiceTimetableCache;
+import com.ist.timetabling.Timetable.service.ServiceTimetableEntryReadModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimetableViewImplTest {
+
+    private static final int TIMETABLE_ID = 1;
+
+    @Mock
+    private RepositoryTimetable repositoryTimetable;
+
+    @Mock
+    private RepositoryPlanSetting repositoryPlanSetting;
+
+    @Mock
+    private ServiceTimetableEntryReadModel serviceTimetableEntryReadModel;
+
+    @Mock
+    private ServiceTimetableCache serviceTimetableCache;
+
+    private ServiceTimetableViewImpl serviceTimetableView;
+
+    @BeforeEach
+    void setUp() {
+        final EntityTimetable timetable = new EntityTimetable();
+        timetable.setId(TIMETABLE_ID);
+        timetable.setPlansettingId(3);
+        final EntityPlanSetting planSetting = new EntityPlanSetting();
+        planSetting.setDaysPerWeek(5);
+        planSetting.setPeriodsPerDay(8);
+        when(repositoryTimetable.findById(TIMETABLE_ID)).thenReturn(Optional.of(timetable));
+        when(repositoryPlanSetting.findById(3)).thenReturn(Optional.of(planSetting));
+        when(serviceTimetableCache.getEntries(timetable)).thenReturn(List.of());
+        serviceTimetableView = new ServiceTimetableViewImpl(repositoryTimetable, repositoryPlanSetting, serviceTimetableEntryReadModel, serviceTimetableCache);
+        serviceTimetableView.getEntries(TIMETABLE_ID);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void refresh_InsideTransaction_ShowsEntryOnlyAfterCommit() {
+        // Arrange
+        final EntityTimetableEntry entry = entry();
+        when(serviceTimetableEntryReadModel.toDtos(List.of(entry))).thenReturn(List.of(dto()));
+
+        // Act
+        serviceTimetableView.refresh(List.of(entry));
+        final List<DtoResTimetableEntry> beforeCommit = serviceTimetableView.getEntries(TIMETABLE_ID);
+        complete(true);
+
+        // Assert
+        assertTrue(beforeCommit.isEmpty());
+        assertEquals(1, serviceTimetableView.getEntries(TIMETABLE_ID).size());
+    }
+
+    @Test
+    void refresh_TransactionRolledBack_LeavesGridsUntouched() {
+        // Arrange
+        final EntityTimetableEntry entry = entry();
+        when(serviceTimetableEntryReadModel.toDtos(List.of(entry))).thenReturn(List.of(dto()));
+
+        // Act
+        serviceTimetableView.refresh(List.of(entry));
+        complete(false);
+
+        // Assert
+        assertTrue(serviceTimetableView.getEntries(TIMETABLE_ID).isEmpty());
+    }
+
+    private static void complete(final boolean committed) {
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if(committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    private static EntityTimetableEntry entry() {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setId(7);
+        entry.setTimetableId(TIMETABLE_ID);
+        entry.setDayOfWeek(2);
+        entry.setPeriod(3);
+        return entry;
+    }
+
+    private static DtoResTimetableEntry dto() {
+        final DtoResTimetableEntry dto = new DtoResTimetableEntry();
+        dto.setId(7);
+        dto.setTimetableId(TIMETABLE_ID);
+        dto.setTeacherId(10);
+        dto.setDayOfWeek(2);
+        dto.setPeriod(3);
+        return dto;
+    }
+
+}
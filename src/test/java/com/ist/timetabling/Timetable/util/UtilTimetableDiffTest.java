@@ -0,0 +1,96 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Timetable.entity.EntityTimetableEntry;
+import com.ist.timetabling.Timetable.model.ModelTimetableDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilTimetableDiffTest {
+
+    @Test
+    void diff_MixedChanges_ClassifiesEveryLesson() {
+        // Arrange
+        final List<EntityTimetableEntry> base = List.of(
+                entry("a", 1, 10, 100, 1, 1),
+                entry("b", 1, 11, 101, 1, 2),
+                entry("c", 1, 12, 102, 2, 1),
+                entry("d", 2, 10, 100, 3, 1));
+        final List<EntityTimetableEntry> target = List.of(
+                entry("a", 1, 10, 100, 1, 1),
+                entry("b", 1, 11, 103, 1, 2),
+                entry("c", 1, 12, 102, 4, 5),
+                entry("e", 2, 13, 104, 3, 2));
+
+        // Act
+        final ModelTimetableDiff diff = UtilTimetableDiff.diff(base, target);
+
+        // Assert
+        assertEquals(1, diff.getUnchangedCount());
+        assertArrayEquals(new int[]{1}, diff.getReassignedBase());
+        assertArrayEquals(new int[]{1}, diff.getReassignedTarget());
+        assertArrayEquals(new int[]{2}, diff.getMovedBase());
+        assertArrayEquals(new int[]{2}, diff.getMovedTarget());
+        assertArrayEquals(new int[]{3}, diff.getRemoved());
+        assertArrayEquals(new int[]{3}, diff.getAdded());
+        assertEquals(Map.of(1, 3, 2, 2), diff.getClassChangeCounts());
+        assertEquals(Map.of(101, 1, 103, 1, 102, 2, 100, 1, 104, 1), diff.getTeacherChangeCounts());
+    }
+
+    @Test
+    void diff_ClassBandEntry_CountsUnderNegativeBandKey() {
+        // Arrange
+        final EntityTimetableEntry banded = entry("a", 0, 10, 100, 1, 1);
+        banded.setClassBandId(5);
+        banded.setIsClassBandEntry(true);
+
+        // Act
+        final ModelTimetableDiff diff = UtilTimetableDiff.diff(List.of(banded), Collections.emptyList());
+
+        // Assert
+        assertArrayEquals(new int[]{0}, diff.getRemoved());
+        assertEquals(Map.of(-5, 1), diff.getClassChangeCounts());
+    }
+
+    @Test
+    void diff_LargeIdenticalTimetablesInAnyOrder_ReportsNothingChanged() {
+        // Arrange
+        final List<EntityTimetableEntry> base = new ArrayList<>();
+        for(int k = 0; k < 5_000; k++) {
+            base.add(entry("e" + k, 1 + k / 35, 1 + k % 20, 1 + (k * 7) % 300, 1 + k % 5, 1 + (k / 5) % 7));
+        }
+        final List<EntityTimetableEntry> target = new ArrayList<>(base);
+        Collections.reverse(target);
+
+        // Act
+        final ModelTimetableDiff diff = UtilTimetableDiff.diff(base, target);
+
+        // Assert
+        assertEquals(5_000, diff.getUnchangedCount());
+        assertEquals(0, diff.getMovedBase().length);
+        assertEquals(0, diff.getReassignedBase().length);
+        assertEquals(0, diff.getRemoved().length);
+        assertEquals(0, diff.getAdded().length);
+        assertTrue(diff.getClassChangeCounts().isEmpty());
+        assertTrue(diff.getTeacherChangeCounts().isEmpty());
+    }
+
+    private EntityTimetableEntry entry(final String uuid, final int classId, final int subjectId, final int teacherId, final int day, final int period) {
+        final EntityTimetableEntry entry = new EntityTimetableEntry();
+        entry.setUuid(uuid);
+        entry.setClassId(classId);
+        entry.setSubjectId(subjectId);
+        entry.setTeacherId(teacherId);
+        entry.setRoomId(1);
+        entry.setDayOfWeek(day);
+        entry.setPeriod(period);
+        entry.setIsClassBandEntry(false);
+        return entry;
+    }
+
+}
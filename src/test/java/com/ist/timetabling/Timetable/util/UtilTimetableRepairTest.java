@@ -0,0 +1,200 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.Timetable.model.ModelTimetableRepairResult;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverResult;
+import com.ist.timetabling.binding.entity.EntityBinding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilTimetableRepairTest {
+
+    private static final int CLASSES = 12;
+    private static final int SUBJECTS = 5;
+    private static final int LESSONS_PER_SUBJECT = 5;
+    private static final int DAYS = 5;
+    private static final int PERIODS = 7;
+
+    private EntityPlanSetting planSetting;
+    private List<EntityPeriod> periods;
+    private List<EntityBinding> bindings;
+
+    private int[] entryBinding;
+    private int[] entrySlot;
+    private boolean[] entryLocked;
+
+    @BeforeEach
+    void setUp() {
+        planSetting = new EntityPlanSetting();
+        planSetting.setId(1);
+        planSetting.setDaysPerWeek(DAYS);
+        planSetting.setPeriodsPerDay(PERIODS);
+
+        periods = new ArrayList<>();
+        for(int number = 1; number <= PERIODS; number++) {
+            final EntityPeriod period = new EntityPeriod();
+            period.setId(100 + number);
+            period.setPeriodNumber(number);
+            period.setPeriodType("Regular");
+            period.setDays(Arrays.asList(1, 2, 3, 4, 5));
+            periods.add(period);
+        }
+
+        bindings = new ArrayList<>();
+        int bindingId = 1;
+        for(int subject = 1; subject <= SUBJECTS; subject++) {
+            for(int c = 1; c <= CLASSES; c++) {
+                final EntityBinding binding = new EntityBinding();
+                binding.setId(bindingId++);
+                binding.setTeacherId(subject * 100 + (c - 1) / 2);
+                binding.setSubjectId(subject);
+                binding.setClassId(c);
+                binding.setRoomId(c);
+                binding.setClassBandId(0);
+                binding.setPeriodsPerWeek(LESSONS_PER_SUBJECT);
+                bindings.add(binding);
+            }
+        }
+
+        final ModelTimetableSolverInput input = build();
+        final ModelTimetableSolverResult solved = UtilTimetableSolver.solve(input);
+        assertTrue(solved.isComplete());
+        entryBinding = input.getLessonBinding().clone();
+        entrySlot = solved.getLessonSlot().clone();
+        entryLocked = new boolean[entrySlot.length];
+    }
+
+    @Test
+    void repair_TeacherChanged_ReplacesOnlyTargetLessonsWithoutClashes() {
+        // Arrange
+        bindings.get(0).setTeacherId(bindings.get(CLASSES * 2).getTeacherId());
+        final ModelTimetableSolverInput base = build();
+
+        // Act
+        final ModelTimetableRepairResult result = UtilTimetableRepair.repair(base, entryBinding, entrySlot, entryLocked, 0, 2_000L);
+
+        // Assert
+        assertEquals(0, result.getUnplacedCount());
+        assertTrue(result.getElapsedMillis() < 1_000L);
+        assertNoClashes(base, apply(result));
+    }
+
+    @Test
+    void repair_MorePeriodsPerWeek_AddsLessonsAndKeepsLockedEntries() {
+        // Arrange
+        bindings.get(3).setPeriodsPerWeek(LESSONS_PER_SUBJECT + 2);
+        final ModelTimetableSolverInput base = build();
+        int locked = -1;
+        for(int e = 0; e < entryBinding.length; e++) {
+            if(entryBinding[e] == 3) {
+                entryLocked[e] = true;
+                locked = e;
+                break;
+            }
+        }
+
+        // Act
+        final ModelTimetableRepairResult result = UtilTimetableRepair.repair(base, entryBinding, entrySlot, entryLocked, 3, 2_000L);
+
+        // Assert
+        int added = 0;
+        for(int i = 0; i < result.getLessonEntry().length; i++) {
+            assertNotEquals(locked, result.getLessonEntry()[i]);
+            if(result.getLessonEntry()[i] < 0 && result.getLessonSlot()[i] >= 0) {
+                added++;
+            }
+        }
+        assertEquals(2, added);
+        assertEquals(0, result.getRemovedEntries().length);
+        assertNoClashes(base, apply(result));
+    }
+
+    @Test
+    void repair_FewerPeriodsPerWeek_RemovesSurplusEntriesOnly() {
+        // Arrange
+        bindings.get(5).setPeriodsPerWeek(LESSONS_PER_SUBJECT - 2);
+        final ModelTimetableSolverInput base = build();
+
+        // Act
+        final ModelTimetableRepairResult result = UtilTimetableRepair.repair(base, entryBinding, entrySlot, entryLocked, 5, 2_000L);
+
+        // Assert
+        assertEquals(2, result.getRemovedEntries().length);
+        assertEquals(0, result.getMovedCount());
+        for(final int e : result.getRemovedEntries()) {
+            assertEquals(5, entryBinding[e]);
+        }
+    }
+
+    @Test
+    void fits_NewTeacherBusyInTheLockedSlot_IsFalse() {
+        // Arrange
+        int locked = -1;
+        for(int e = 0; e < entryBinding.length && locked < 0; e++) {
+            locked = entryBinding[e] == 0 ? e : -1;
+        }
+        int busy = -1;
+        for(int e = 0; e < entryBinding.length && busy < 0; e++) {
+            busy = e != locked && entrySlot[e] == entrySlot[locked] ? entryBinding[e] : -1;
+        }
+
+        // Act
+        bindings.get(0).setTeacherId(9_999);
+        final boolean freeTeacherFits = UtilTimetableRepair.fits(build(), entryBinding, entrySlot, 0, locked);
+        bindings.get(0).setTeacherId(bindings.get(busy).getTeacherId());
+        final boolean busyTeacherFits = UtilTimetableRepair.fits(build(), entryBinding, entrySlot, 0, locked);
+
+        // Assert
+        assertTrue(freeTeacherFits);
+        assertFalse(busyTeacherFits);
+    }
+
+    private ModelTimetableSolverInput build() {
+        return UtilTimetableSolverInput.build(planSetting, periods, bindings, Collections.emptyList(), null, 9L, 0L);
+    }
+
+    private List<int[]> apply(final ModelTimetableRepairResult result) {
+        final int[] slots = entrySlot.clone();
+        final List<int[]> placed = new ArrayList<>();
+        for(int i = 0; i < result.getLessonEntry().length; i++) {
+            if(result.getLessonEntry()[i] >= 0) {
+                slots[result.getLessonEntry()[i]] = result.getLessonSlot()[i];
+            }else if(result.getLessonSlot()[i] >= 0) {
+                placed.add(new int[]{result.getLessonBinding()[i], result.getLessonSlot()[i]});
+            }
+        }
+        final Set<Integer> removed = new HashSet<>();
+        for(final int e : result.getRemovedEntries()) {
+            removed.add(e);
+        }
+        for(int e = 0; e < slots.length; e++) {
+            if(!removed.contains(e) && slots[e] >= 0) {
+                placed.add(new int[]{entryBinding[e], slots[e]});
+            }
+        }
+        return placed;
+    }
+
+    private void assertNoClashes(final ModelTimetableSolverInput input, final List<int[]> placed) {
+        final Set<String> taken = new HashSet<>();
+        for(final int[] lesson : placed) {
+            final EntityBinding binding = bindings.get(lesson[0]);
+            assertFalse(input.isForbidden(lesson[0], lesson[1]));
+            assertTrue(taken.add("teacher:" + binding.getTeacherId() + ":" + lesson[1]));
+            assertTrue(taken.add("class:" + binding.getClassId() + ":" + lesson[1]));
+            assertTrue(taken.add("room:" + binding.getRoomId() + ":" + lesson[1]));
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+package com.ist.timetabling.Timetable.util;
+
+import com.ist.timetabling.Period.entity.EntityPeriod;
+import com.ist.timetabling.Period.entity.EntitySchedulePreference;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix;
+import com.ist.timetabling.Period.model.ModelAvailabilityMatrix.Owner;
+import com.ist.timetabling.Period.util.UtilAvailabilityMatrix;
+import com.ist.timetabling.PlanSetting.entity.EntityPlanSetting;
+import com.ist.timetabling.Rule.entity.EntityRule;
+import com.ist.timetabling.Rule.model.ModelRuleCompiled;
+import com.ist.timetabling.Rule.util.UtilRuleCompiler;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverInput.Strategy;
+import com.ist.timetabling.Timetable.model.ModelTimetableSolverResult;
+import com.ist.timetabling.binding.entity.EntityBinding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilTimetableSolverTest {
+
+    private static final int CLASSES = 60;
+    private static final int SUBJECTS = 7;
+    private static final int LESSONS_PER_SUBJECT = 5;
+    private static final int CLASSES_PER_TEACHER = 4;
+    private static final int DAYS = 5;
+    private static final int PERIODS = 8;
+    private static final int BREAK_PERIOD = 4;
+
+    private EntityPlanSetting planSetting;
+    private List<EntityPeriod> periods;
+    private List<EntityBinding> bindings;
+    private ModelAvailabilityMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        planSetting = new EntityPlanSetting();
+        planSetting.setId(1);
+        planSetting.setDaysPerWeek(DAYS);
+        planSetting.setPeriodsPerDay(PERIODS);
+
+        periods = new ArrayList<>();
+        for(int number = 1; number <= PERIODS; number++) {
+            final EntityPeriod period = new EntityPeriod();
+            period.setId(100 + number);
+            period.setPeriodNumber(number);
+            period.setDurationMinutes(45);
+            period.setPeriodType(number == BREAK_PERIOD ? "Break" : "Regular");
+            period.setDays(Arrays.asList(1, 2, 3, 4, 5));
+            periods.add(period);
+        }
+
+        final Map<Integer, Integer> periodNumberById = new HashMap<>();
+        periods.forEach(period -> periodNumberById.put(period.getId(), period.getPeriodNumber()));
+        matrix = new ModelAvailabilityMatrix(1, DAYS, PERIODS, periodNumberById);
+
+        bindings = new ArrayList<>();
+        int bindingId = 1;
+        for(int subject = 1; subject <= SUBJECTS; subject++) {
+            for(int c = 1; c <= CLASSES; c++) {
+                final int teacherId = subject * 1000 + (c - 1) / CLASSES_PER_TEACHER;
+                final EntityBinding binding = new EntityBinding();
+                binding.setId(bindingId++);
+                binding.setTeacherId(teacherId);
+                binding.setSubjectId(subject);
+                binding.setClassId(c);
+                binding.setRoomId(c);
+                binding.setClassBandId(0);
+                binding.setPeriodsPerWeek(LESSONS_PER_SUBJECT);
+                bindings.add(binding);
+            }
+        }
+    }
+
+    @Test
+    void solve_SixtyClassSchool_PlacesEveryLessonWithoutClashes() {
+        // Act
+        final ModelTimetableSolverInput input = build(7L);
+        final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input);
+
+        // Assert
+        assertEquals(CLASSES * SUBJECTS * LESSONS_PER_SUBJECT, input.getLessonCount());
+        assertTrue(result.isComplete());
+        assertNoClashes(input, result);
+        assertTrue(result.getElapsedMillis() < 30_000L);
+    }
+
+    @Test
+    void solve_SameSeed_ReturnsSameAssignment() {
+        // Act
+        final ModelTimetableSolverResult first = UtilTimetableSolver.solve(build(42L));
+        final ModelTimetableSolverResult second = UtilTimetableSolver.solve(build(42L));
+
+        // Assert
+        assertArrayEquals(first.getLessonSlot(), second.getLessonSlot());
+        assertEquals(first.getScore(), second.getScore());
+    }
+
+    @Test
+    void solve_BreakPeriodAndCannotTeach_AreNeverUsed() {
+        // Arrange
+        final Integer teacherId = bindings.get(0).getTeacherId();
+        final EntitySchedulePreference cannotTeach = EntitySchedulePreference.builder()
+                .id(1)
+                .periodId(101)
+                .dayOfWeek(1)
+                .cannotTeach(true)
+                .build();
+        matrix.put(Owner.TEACHER, teacherId, UtilAvailabilityMatrix.compile(matrix, List.of(cannotTeach)));
+
+        // Act
+        final ModelTimetableSolverInput input = build(3L);
+        final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input);
+
+        // Assert
+        final int teacherBinding = 0;
+        for(int lesson = 0; lesson < input.getLessonCount(); lesson++) {
+            final int slot = result.getLessonSlot()[lesson];
+            assertTrue(slot >= 0);
+            assertNotEquals(BREAK_PERIOD, input.periodOf(slot));
+            if(bindings.get(input.getLessonBinding()[lesson]).getTeacherId().equals(teacherId)) {
+                assertNotEquals(input.slotOf(1, 1), slot);
+            }
+        }
+        assertTrue(input.isForbidden(teacherBinding, input.slotOf(1, 1)));
+    }
+
+    @Test
+    void solve_MustTeachSlot_IsTaughtByThatTeacher() {
+        // Arrange
+        final Integer teacherId = bindings.get(0).getTeacherId();
+        final EntitySchedulePreference mustTeach = EntitySchedulePreference.builder()
+                .id(1)
+                .periodId(107)
+                .dayOfWeek(3)
+                .mustTeach(true)
+                .build();
+        matrix.put(Owner.TEACHER, teacherId, UtilAvailabilityMatrix.compile(matrix, List.of(mustTeach)));
+
+        // Act
+        final ModelTimetableSolverInput input = build(3L);
+        final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input);
+
+        // Assert
+        final int required = input.slotOf(3, 7);
+        assertTrue(input.isTeacherRequired(input.getBindingTeacher()[0], required));
+        assertFalse(input.isForbidden(0, required));
+        boolean taught = false;
+        for(int lesson = 0; lesson < input.getLessonCount(); lesson++) {
+            taught |= result.getLessonSlot()[lesson] == required && bindings.get(input.getLessonBinding()[lesson]).getTeacherId().equals(teacherId);
+        }
+        assertTrue(taught);
+        assertNoClashes(input, result);
+    }
+
+    @Test
+    void solve_OverSubscribedClass_ReportsUnplacedLessons() {
+        // Arrange
+        bindings.get(0).setPeriodsPerWeek(DAYS * (PERIODS - 1));
+
+        // Act
+        final ModelTimetableSolverInput input = build(1L);
+        final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input);
+
+        // Assert
+        assertFalse(result.isComplete());
+        assertTrue(result.getUnplacedCount() > 0);
+        assertNoClashes(input, result);
+    }
+
+    @Test
+    void solvePortfolio_FourJobs_IsNoWorseThanSequentialSolve() {
+        // Arrange
+        final ModelTimetableSolverInput input = build(11L);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        // Act
+        final ModelTimetableSolverResult sequential = UtilTimetableSolver.solve(input);
+        final ModelTimetableSolverResult portfolio = UtilTimetableSolverPortfolio.solve(pool, input, 4, Long.MIN_VALUE);
+        pool.shutdown();
+
+        // Assert
+        assertTrue(portfolio.isComplete());
+        assertTrue(portfolio.getScore() <= sequential.getScore());
+        assertNoClashes(input, portfolio);
+    }
+
+    @Test
+    void solvePortfolio_JobZeroAccepted_ReturnsTheSequentialSolve() {
+        // Arrange
+        final ModelTimetableSolverInput input = build(11L);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        // Act
+        final ModelTimetableSolverResult sequential = UtilTimetableSolver.solve(input);
+        final ModelTimetableSolverResult first = UtilTimetableSolverPortfolio.solve(pool, input, 4, null);
+        final ModelTimetableSolverResult second = UtilTimetableSolverPortfolio.solve(pool, input, 4, null);
+        pool.shutdown();
+
+        // Assert
+        assertTrue(sequential.isComplete());
+        assertArrayEquals(sequential.getLessonSlot(), first.getLessonSlot());
+        assertArrayEquals(sequential.getLessonSlot(), second.getLessonSlot());
+        assertEquals(input.getSeed(), first.getSeed());
+    }
+
+    @Test
+    void solve_LocalSearchCancelled_StopsWithValidAssignment() {
+        // Arrange
+        final ModelTimetableSolverInput input = build(5L);
+        final AtomicBoolean cancelled = new AtomicBoolean(true);
+
+        // Act
+        final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input, Strategy.LOCAL_SEARCH, 5L, cancelled::get, null);
+
+        // Assert
+        assertEquals(Strategy.LOCAL_SEARCH, result.getStrategy());
+        assertTrue(result.getElapsedMillis() < input.getTimeLimitMillis());
+        assertNoClashes(input, result);
+    }
+
+    @Test
+    void solve_HardSubjectNotAfterRule_KeepsThatSubjectEarly() {
+        // Arrange
+        final EntityRule rule = new EntityRule();
+        rule.setId(1L);
+        rule.setData("{\"type\":\"NOT_AFTER_PERIOD\",\"period\":6,\"subjectIds\":[1],\"hard\":true}");
+        rule.setEnabled(true);
+        final List<ModelRuleCompiled> rules = List.of(UtilRuleCompiler.compile(rule).orElseThrow());
+
+        // Act
+        final ModelTimetableSolverInput input = UtilTimetableSolverInput.build(planSetting, periods, bindings, Collections.emptyList(), matrix, 3L, 0L, binding -> rules);
+        final ModelTimetableSolverResult result = UtilTimetableSolver.solve(input);
+
+        // Assert
+        assertTrue(result.isComplete());
+        assertNoClashes(input, result);
+        for(int lesson = 0; lesson < input.getLessonCount(); lesson++) {
+            if(bindings.get(input.getLessonBinding()[lesson]).getSubjectId() == 1) {
+                assertTrue(input.periodOf(result.getLessonSlot()[lesson]) <= 6);
+            }
+        }
+    }
+
+    private ModelTimetableSolverInput build(final long seed) {
+        return UtilTimetableSolverInput.build(planSetting, periods, bindings, Collections.emptyList(), matrix, seed, 0L);
+    }
+
+    private void assertNoClashes(final ModelTimetableSolverInput input, final ModelTimetableSolverResult result) {
+        final Set<String> taken = new HashSet<>();
+        for(int lesson = 0; lesson < input.getLessonCount(); lesson++) {
+            final int slot = result.getLessonSlot()[lesson];
+            if(slot < 0) {
+                continue;
+            }
+            final EntityBinding binding = bindings.get(input.getLessonBinding()[lesson]);
+            assertFalse(input.isForbidden(input.getLessonBinding()[lesson], slot));
+            assertTrue(taken.add("teacher:" + binding.getTeacherId() + ":" + slot));
+            assertTrue(taken.add("class:" + binding.getClassId() + ":" + slot));
+            assertTrue(taken.add("room:" + binding.getRoomId() + ":" + slot));
+        }
+    }
+
+}